@@ -41,4 +41,9 @@ public interface BinEdComponentExtension {
      * Notifies undo handler was changed.
      */
     void onUndoHandlerChange();
+
+    /**
+     * Notifies binary data component was closed.
+     */
+    void onClose();
 }
@@ -37,7 +37,6 @@ import org.exbin.bined.capability.SelectionCapable;
 import org.exbin.bined.highlight.swing.NonprintablesCodeAreaAssessor;
 import org.exbin.bined.operation.command.BinaryDataUndoRedo;
 import org.exbin.bined.operation.swing.CodeAreaOperationCommandHandler;
-import org.exbin.bined.operation.swing.CodeAreaUndoRedo;
 import org.exbin.bined.section.capability.PositionCodeTypeCapable;
 import org.exbin.bined.swing.CodeAreaCore;
 import org.exbin.bined.swing.CodeAreaSwingUtils;
@@ -352,7 +351,7 @@ public class BinEdDataComponent implements ContextComponent, BinaryDataComponent
 
     public void setUndoRedo(@Nullable BinaryDataUndoRedo undoRedo) {
         this.undoRedo = undoRedo;
-        CodeAreaOperationCommandHandler commandHandler = new CodeAreaOperationCommandHandler(codeArea, undoRedo == null ? new CodeAreaUndoRedo(codeArea) : undoRedo);
+        CodeAreaOperationCommandHandler commandHandler = new CodeAreaOperationCommandHandler(codeArea, undoRedo == null ? new BinaryCompoundUndoRedo(codeArea) : undoRedo);
         codeArea.setCommandHandler(commandHandler);
 
         for (BinEdComponentExtension extension : componentExtensions) {
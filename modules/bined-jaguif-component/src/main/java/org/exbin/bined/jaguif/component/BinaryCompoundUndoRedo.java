@@ -0,0 +1,483 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import org.exbin.bined.SelectionRange;
+import org.exbin.bined.capability.CaretCapable;
+import org.exbin.bined.capability.SelectionCapable;
+import org.exbin.bined.operation.BinaryDataUndoRedoChangeListener;
+import org.exbin.bined.operation.command.BinaryDataCommand;
+import org.exbin.bined.operation.command.BinaryDataCommandType;
+import org.exbin.bined.operation.command.BinaryDataUndoRedo;
+import org.exbin.bined.operation.command.BinaryDataUndoableCommand;
+import org.exbin.bined.operation.swing.command.CodeAreaCommandType;
+import org.exbin.bined.operation.swing.command.CodeAreaCompoundCommand;
+import org.exbin.bined.operation.swing.command.EditDataCommand;
+import org.exbin.bined.swing.CodeAreaCore;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Undo redo for code area with merging of consecutive edits.
+ * <p>
+ * Insert or overwrite typing command executed shortly after previous typing
+ * command of the same type, which continues at or right after position of
+ * previous edit, is merged with it into compound command. Any other command
+ * ends merging. All commands executed between
+ * {@link #beginCompoundCommand()} and {@link #endCompoundCommand()} are merged
+ * regardless of type. Number of kept commands is limited and oldest commands
+ * are dropped. While suspended, no command can be executed, undone or redone.
+ */
+@NullMarked
+public class BinaryCompoundUndoRedo implements BinaryDataUndoRedo {
+
+    public static final int DEFAULT_MERGE_TIMEOUT = 1000;
+    public static final int DEFAULT_MAXIMUM_COMMANDS_COUNT = 1024;
+
+    private final CodeAreaCore codeArea;
+    private final List<BinaryDataCommand> commands = new ArrayList<>();
+    private final List<BinaryDataUndoRedoChangeListener> listeners = new ArrayList<>();
+    private final List<CommandListener> commandListeners = new ArrayList<>();
+    private int commandPosition = 0;
+    private int syncPosition = 0;
+    private int mergeTimeout = DEFAULT_MERGE_TIMEOUT;
+    private int maximumCommandsCount = DEFAULT_MAXIMUM_COMMANDS_COUNT;
+
+    @Nullable
+    private BinaryDataCommandType lastEditType;
+    private long lastEditTime;
+    private long lastCaretPosition;
+    private long lastDataSize;
+    private int compoundDepth = 0;
+    private boolean compoundStarted = false;
+    private boolean suspended = false;
+    @Nullable
+    private CodeAreaCompoundCommand mergedCommand;
+
+    public BinaryCompoundUndoRedo(CodeAreaCore codeArea) {
+        this.codeArea = codeArea;
+    }
+
+    public int getMergeTimeout() {
+        return mergeTimeout;
+    }
+
+    /**
+     * Sets maximum delay between edits which are merged.
+     *
+     * @param mergeTimeout timeout in milliseconds, 0 disables merging
+     */
+    public void setMergeTimeout(int mergeTimeout) {
+        this.mergeTimeout = mergeTimeout;
+        lastEditType = null;
+    }
+
+    public int getMaximumCommandsCount() {
+        return maximumCommandsCount;
+    }
+
+    /**
+     * Sets maximum number of kept commands.
+     *
+     * @param maximumCommandsCount maximum count of commands
+     */
+    public void setMaximumCommandsCount(int maximumCommandsCount) {
+        if (maximumCommandsCount < 1) {
+            throw new IllegalArgumentException("Maximum commands count must be positive");
+        }
+
+        this.maximumCommandsCount = maximumCommandsCount;
+        if (trimCommands()) {
+            notifyUndoChanged();
+        }
+    }
+
+    /**
+     * Starts compound command.
+     * <p>
+     * Commands executed until matching call of {@link #endCompoundCommand()}
+     * are merged into single compound command. Calls can be nested.
+     */
+    public void beginCompoundCommand() {
+        if (compoundDepth == 0) {
+            compoundStarted = false;
+        }
+        compoundDepth++;
+    }
+
+    /**
+     * Ends compound command.
+     */
+    public void endCompoundCommand() {
+        if (compoundDepth == 0) {
+            throw new IllegalStateException("No compound command started");
+        }
+
+        compoundDepth--;
+        if (compoundDepth == 0) {
+            compoundStarted = false;
+            lastEditType = null;
+        }
+    }
+
+    public boolean isSuspended() {
+        return suspended;
+    }
+
+    /**
+     * Suspends execution, undo and redo of commands.
+     * <p>
+     * Used while data are accessed by background task.
+     *
+     * @param suspended true to suspend commands
+     */
+    public void setSuspended(boolean suspended) {
+        this.suspended = suspended;
+        editsInterrupted();
+        notifyUndoChanged();
+    }
+
+    @Override
+    public void execute(BinaryDataCommand command) {
+        checkNotSuspended();
+        long caretPosition = ((CaretCapable) codeArea).getActiveCaretPosition().getDataPosition();
+        long dataSize = codeArea.getDataSize();
+        boolean merge = command instanceof BinaryDataUndoableCommand && isMergeable(command, caretPosition, dataSize);
+        notifyCommandStarted(command, CommandAction.EXECUTE);
+        command.execute();
+
+        if (merge) {
+            mergeCommand((BinaryDataUndoableCommand) command);
+        } else {
+            addCommand(command);
+        }
+
+        boolean undoable = command instanceof BinaryDataUndoableCommand;
+        if (compoundDepth > 0) {
+            compoundStarted = undoable;
+        } else {
+            BinaryDataCommandType editType = command.getType();
+            lastEditType = isTypingCommand(command) && (editType == CodeAreaCommandType.DATA_INSERTED || editType == CodeAreaCommandType.DATA_MODIFIED) ? editType : null;
+            lastEditTime = System.currentTimeMillis();
+            lastCaretPosition = caretPosition;
+            lastDataSize = dataSize;
+        }
+        trimCommands();
+        notifyCommandFinished(command, CommandAction.EXECUTE);
+        notifyUndoChanged();
+    }
+
+    private boolean isMergeable(BinaryDataCommand command, long caretPosition, long dataSize) {
+        if (commandPosition == 0 || commandPosition != commands.size() || commandPosition == syncPosition) {
+            return false;
+        }
+
+        if (compoundDepth > 0) {
+            return compoundStarted;
+        }
+
+        if (lastEditType == null || !isTypingCommand(command) || command.getType() != lastEditType || System.currentTimeMillis() - lastEditTime > mergeTimeout) {
+            return false;
+        }
+
+        SelectionRange selection = ((SelectionCapable) codeArea).getSelection();
+        if (!selection.isEmpty()) {
+            return false;
+        }
+
+        // Edit continues at or right after previous edit
+        long sizeChange = dataSize - lastDataSize;
+        long caretAdvance = caretPosition - lastCaretPosition;
+        return sizeChange >= 0 && caretAdvance >= 0 && caretAdvance <= Math.max(sizeChange, 1);
+    }
+
+    /**
+     * Returns true if command is edit of single code or character by typing.
+     * <p>
+     * Other commands like paste, replace or conversion of data are never
+     * merged even if they have the same type.
+     *
+     * @param command command
+     * @return true for typing edit command
+     */
+    private static boolean isTypingCommand(BinaryDataCommand command) {
+        return command instanceof EditDataCommand && command instanceof BinaryDataUndoableCommand;
+    }
+
+    private void addCommand(BinaryDataCommand command) {
+        while (commands.size() > commandPosition) {
+            commands.remove(commands.size() - 1).dispose();
+        }
+        if (syncPosition > commandPosition) {
+            syncPosition = -1;
+        }
+        commands.add(command);
+        commandPosition++;
+    }
+
+    private void mergeCommand(BinaryDataUndoableCommand command) {
+        BinaryDataCommand topCommand = commands.get(commandPosition - 1);
+        if (topCommand == mergedCommand) {
+            mergedCommand.addCommand(command);
+            return;
+        }
+
+        CodeAreaCompoundCommand compoundCommand = new CodeAreaCompoundCommand(codeArea);
+        compoundCommand.addCommand((BinaryDataUndoableCommand) topCommand);
+        compoundCommand.addCommand(command);
+        commands.set(commandPosition - 1, compoundCommand);
+        mergedCommand = compoundCommand;
+    }
+
+    /**
+     * Drops oldest commands over maximum count.
+     *
+     * @return true if any command was dropped
+     */
+    private boolean trimCommands() {
+        int dropCount = Math.min(commands.size() - maximumCommandsCount, commandPosition);
+        if (dropCount <= 0) {
+            return false;
+        }
+
+        List<BinaryDataCommand> droppedCommands = commands.subList(0, dropCount);
+        for (BinaryDataCommand command : droppedCommands) {
+            if (command == mergedCommand) {
+                mergedCommand = null;
+            }
+            command.dispose();
+        }
+        droppedCommands.clear();
+        commandPosition -= dropCount;
+        syncPosition = syncPosition >= dropCount ? syncPosition - dropCount : -1;
+        return true;
+    }
+
+    @Override
+    public boolean canUndo() {
+        return !suspended && commandPosition > 0;
+    }
+
+    @Override
+    public boolean canRedo() {
+        return !suspended && commandPosition < commands.size();
+    }
+
+    @Override
+    public void performUndo() {
+        performUndo(1);
+    }
+
+    @Override
+    public void performUndo(int count) {
+        checkNotSuspended();
+        if (count <= 0 || commandPosition < count) {
+            throw new IllegalArgumentException("Unable to undo " + count + " commands");
+        }
+
+        for (int i = 0; i < count; i++) {
+            commandPosition--;
+            BinaryDataCommand command = commands.get(commandPosition);
+            notifyCommandStarted(command, CommandAction.UNDO);
+            if (command instanceof BinaryDataUndoableCommand) {
+                ((BinaryDataUndoableCommand) command).undo();
+            }
+            notifyCommandFinished(command, CommandAction.UNDO);
+        }
+        editsInterrupted();
+        codeArea.notifyDataChanged();
+        notifyUndoChanged();
+    }
+
+    @Override
+    public void performRedo() {
+        performRedo(1);
+    }
+
+    @Override
+    public void performRedo(int count) {
+        checkNotSuspended();
+        if (count <= 0 || commands.size() - commandPosition < count) {
+            throw new IllegalArgumentException("Unable to redo " + count + " commands");
+        }
+
+        for (int i = 0; i < count; i++) {
+            BinaryDataCommand command = commands.get(commandPosition);
+            notifyCommandStarted(command, CommandAction.REDO);
+            if (command instanceof BinaryDataUndoableCommand) {
+                ((BinaryDataUndoableCommand) command).redo();
+            } else {
+                command.execute();
+            }
+            commandPosition++;
+            notifyCommandFinished(command, CommandAction.REDO);
+        }
+        editsInterrupted();
+        codeArea.notifyDataChanged();
+        notifyUndoChanged();
+    }
+
+    @Override
+    public void clear() {
+        for (BinaryDataCommand command : commands) {
+            command.dispose();
+        }
+        commands.clear();
+        commandPosition = 0;
+        syncPosition = 0;
+        mergedCommand = null;
+        editsInterrupted();
+        notifyUndoChanged();
+    }
+
+    @Override
+    public void performSync() {
+        if (syncPosition < 0) {
+            throw new IllegalStateException("Synchronization position is no longer available");
+        }
+
+        if (commandPosition > syncPosition) {
+            performUndo(commandPosition - syncPosition);
+        } else if (commandPosition < syncPosition) {
+            performRedo(syncPosition - commandPosition);
+        }
+    }
+
+    @Override
+    public void setSyncPosition(int syncPosition) {
+        this.syncPosition = syncPosition;
+        editsInterrupted();
+        notifyUndoChanged();
+    }
+
+    @Override
+    public void setSyncPosition() {
+        setSyncPosition(commandPosition);
+    }
+
+    @Override
+    public List<BinaryDataCommand> getCommandList() {
+        return Collections.unmodifiableList(commands);
+    }
+
+    @Override
+    public Optional<BinaryDataCommand> getTopUndoCommand() {
+        return commandPosition > 0 ? Optional.of(commands.get(commandPosition - 1)) : Optional.empty();
+    }
+
+    @Override
+    public int getCommandsCount() {
+        return commands.size();
+    }
+
+    @Override
+    public int getCommandPosition() {
+        return commandPosition;
+    }
+
+    @Override
+    public int getSyncPosition() {
+        return syncPosition;
+    }
+
+    @Override
+    public boolean isModified() {
+        return commandPosition != syncPosition;
+    }
+
+    @Override
+    public void addChangeListener(BinaryDataUndoRedoChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeChangeListener(BinaryDataUndoRedoChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    public void addCommandListener(CommandListener listener) {
+        commandListeners.add(listener);
+    }
+
+    public void removeCommandListener(CommandListener listener) {
+        commandListeners.remove(listener);
+    }
+
+    private void checkNotSuspended() {
+        if (suspended) {
+            throw new IllegalStateException("Commands are suspended");
+        }
+    }
+
+    private void editsInterrupted() {
+        lastEditType = null;
+        compoundStarted = false;
+    }
+
+    private void notifyUndoChanged() {
+        for (BinaryDataUndoRedoChangeListener listener : listeners) {
+            listener.undoChanged();
+        }
+    }
+
+    private void notifyCommandStarted(BinaryDataCommand command, CommandAction action) {
+        for (CommandListener listener : commandListeners) {
+            listener.commandStarted(command, action);
+        }
+    }
+
+    private void notifyCommandFinished(BinaryDataCommand command, CommandAction action) {
+        for (CommandListener listener : commandListeners) {
+            listener.commandFinished(command, action);
+        }
+    }
+
+    /**
+     * Listener for commands performed by undo redo.
+     * <p>
+     * Data change caused by command can be notified while command is
+     * performed or after it is finished.
+     */
+    @NullMarked
+    public interface CommandListener {
+
+        /**
+         * Notifies command is about to be performed.
+         *
+         * @param command command
+         * @param action performed action
+         */
+        void commandStarted(BinaryDataCommand command, CommandAction action);
+
+        /**
+         * Notifies command was performed.
+         *
+         * @param command command
+         * @param action performed action
+         */
+        void commandFinished(BinaryDataCommand command, CommandAction action);
+    }
+
+    public enum CommandAction {
+        EXECUTE,
+        UNDO,
+        REDO
+    }
+}
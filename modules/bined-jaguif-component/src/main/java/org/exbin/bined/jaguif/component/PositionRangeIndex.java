@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Index of highlighted position ranges.
+ * <p>
+ * Possibly overlapping ranges are flattened into sorted disjoint segments,
+ * where later range takes precedence over earlier ranges. Segments covering
+ * given position or area are found by binary search, so ranges for visible
+ * row are found in O(log n + k) time.
+ *
+ * @param <T> type of range value
+ */
+@NullMarked
+public class PositionRangeIndex<T> {
+
+    private long[] segmentStarts = new long[0];
+    private long[] segmentEnds = new long[0];
+    private List<T> segmentValues = Collections.emptyList();
+
+    public PositionRangeIndex() {
+    }
+
+    /**
+     * Rebuilds index from given items.
+     * <p>
+     * Items with zero or negative length are ignored.
+     *
+     * @param <I> type of item
+     * @param items items in order of increasing precedence
+     * @param rangeAccessor accessor of item range and value
+     */
+    public <I> void rebuild(List<I> items, RangeAccessor<I, T> rangeAccessor) {
+        int itemsCount = items.size();
+        long[] starts = new long[itemsCount];
+        long[] ends = new long[itemsCount];
+        List<Integer> orderedItems = new ArrayList<>(itemsCount);
+        long[] boundaries = new long[itemsCount * 2];
+        int boundariesCount = 0;
+        for (int i = 0; i < itemsCount; i++) {
+            I item = items.get(i);
+            long length = rangeAccessor.getLength(item);
+            if (length <= 0) {
+                continue;
+            }
+
+            starts[i] = rangeAccessor.getStartPosition(item);
+            ends[i] = starts[i] + length;
+            orderedItems.add(i);
+            boundaries[boundariesCount++] = starts[i];
+            boundaries[boundariesCount++] = ends[i];
+        }
+        orderedItems.sort((first, second) -> Long.compare(starts[first], starts[second]));
+        Arrays.sort(boundaries, 0, boundariesCount);
+
+        long[] resultStarts = new long[orderedItems.size() * 2];
+        long[] resultEnds = new long[resultStarts.length];
+        List<T> resultValues = new ArrayList<>();
+        int resultCount = 0;
+        // Active ranges with highest precedence first, ended ranges are removed lazily
+        PriorityQueue<Integer> activeItems = new PriorityQueue<>(Collections.reverseOrder());
+        int nextItem = 0;
+        for (int i = 0; i < boundariesCount - 1; i++) {
+            long boundary = boundaries[i];
+            long nextBoundary = boundaries[i + 1];
+            if (boundary == nextBoundary) {
+                continue;
+            }
+
+            while (nextItem < orderedItems.size() && starts[orderedItems.get(nextItem)] <= boundary) {
+                activeItems.add(orderedItems.get(nextItem));
+                nextItem++;
+            }
+            while (!activeItems.isEmpty() && ends[activeItems.peek()] <= boundary) {
+                activeItems.poll();
+            }
+            if (activeItems.isEmpty()) {
+                continue;
+            }
+
+            T value = rangeAccessor.getValue(items.get(activeItems.peek()));
+            if (resultCount > 0 && resultEnds[resultCount - 1] == boundary - 1 && Objects.equals(resultValues.get(resultCount - 1), value)) {
+                resultEnds[resultCount - 1] = nextBoundary - 1;
+                continue;
+            }
+
+            if (resultCount == resultStarts.length) {
+                resultStarts = Arrays.copyOf(resultStarts, resultCount * 2);
+                resultEnds = Arrays.copyOf(resultEnds, resultCount * 2);
+            }
+            resultStarts[resultCount] = boundary;
+            resultEnds[resultCount] = nextBoundary - 1;
+            resultValues.add(value);
+            resultCount++;
+        }
+
+        segmentStarts = Arrays.copyOf(resultStarts, resultCount);
+        segmentEnds = Arrays.copyOf(resultEnds, resultCount);
+        segmentValues = resultValues;
+    }
+
+    public void clear() {
+        segmentStarts = new long[0];
+        segmentEnds = new long[0];
+        segmentValues = Collections.emptyList();
+    }
+
+    public int getSegmentsCount() {
+        return segmentStarts.length;
+    }
+
+    public long getSegmentStart(int segmentIndex) {
+        return segmentStarts[segmentIndex];
+    }
+
+    /**
+     * Returns last position of segment.
+     *
+     * @param segmentIndex segment index
+     * @return inclusive end position
+     */
+    public long getSegmentEnd(int segmentIndex) {
+        return segmentEnds[segmentIndex];
+    }
+
+    public T getSegmentValue(int segmentIndex) {
+        return segmentValues.get(segmentIndex);
+    }
+
+    /**
+     * Returns index of first segment which ends at or after given position.
+     * <p>
+     * Segments overlapping area starting at given position follow from
+     * returned index until segment starting after end of area.
+     *
+     * @param position position
+     * @return segment index or segments count if there is no such segment
+     */
+    public int findFirstSegment(long position) {
+        int low = 0;
+        int high = segmentEnds.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (segmentEnds[middle] < position) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns value of range covering given position.
+     *
+     * @param position position
+     * @return value or null if position is not covered
+     */
+    @Nullable
+    public T getValue(long position) {
+        int segmentIndex = findFirstSegment(position);
+        if (segmentIndex < segmentStarts.length && segmentStarts[segmentIndex] <= position) {
+            return segmentValues.get(segmentIndex);
+        }
+        return null;
+    }
+
+    /**
+     * Accessor of range and value of indexed item.
+     *
+     * @param <I> type of item
+     * @param <T> type of range value
+     */
+    @NullMarked
+    public interface RangeAccessor<I, T> {
+
+        long getStartPosition(I item);
+
+        long getLength(I item);
+
+        T getValue(I item);
+    }
+}
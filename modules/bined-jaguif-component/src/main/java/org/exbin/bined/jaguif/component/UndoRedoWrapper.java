@@ -15,11 +15,13 @@
  */
 package org.exbin.bined.jaguif.component;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.RandomAccess;
 import org.jspecify.annotations.Nullable;
 import org.jspecify.annotations.NullMarked;
 import org.exbin.bined.operation.command.BinaryDataCommand;
@@ -90,14 +92,11 @@ public class UndoRedoWrapper implements UndoRedo {
 
     @Override
     public List<Command> getCommandList() {
-        List<Command> result = new ArrayList<>();
-        if (undoRedo != null) {
-            undoRedo.getCommandList().forEach((command) -> {
-                result.add(new CommandWrapper(command));
-            });
+        if (undoRedo == null) {
+            return Collections.emptyList();
         }
 
-        return result;
+        return new CommandListView(undoRedo.getCommandList());
     }
 
     @Override
@@ -202,6 +201,31 @@ public class UndoRedoWrapper implements UndoRedo {
         }
     }
 
+    /**
+     * Read-only view of commands list.
+     * <p>
+     * Command wrappers are created on access only.
+     */
+    @NullMarked
+    private static class CommandListView extends AbstractList<Command> implements RandomAccess {
+
+        private final List<BinaryDataCommand> commands;
+
+        public CommandListView(List<BinaryDataCommand> commands) {
+            this.commands = commands;
+        }
+
+        @Override
+        public Command get(int index) {
+            return new CommandWrapper(commands.get(index));
+        }
+
+        @Override
+        public int size() {
+            return commands.size();
+        }
+    }
+
     @NullMarked
     private static class UndoableCommandWrapper implements UndoableCommand {
 
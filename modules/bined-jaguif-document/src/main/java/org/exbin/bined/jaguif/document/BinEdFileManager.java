@@ -25,9 +25,10 @@ import org.exbin.bined.capability.SelectionCapable;
 import org.exbin.bined.jaguif.component.BinEdCodeAreaAssessor;
 import org.exbin.bined.jaguif.component.BinEdComponentExtension;
 import org.exbin.bined.jaguif.component.BinEdDataComponent;
+import org.exbin.bined.jaguif.component.BinaryCompoundUndoRedo;
 import org.exbin.bined.jaguif.component.gui.BinEdComponentPanel;
+import org.exbin.bined.jaguif.document.data.UndoDataStore;
 import org.exbin.bined.operation.swing.CodeAreaOperationCommandHandler;
-import org.exbin.bined.operation.swing.CodeAreaUndoRedo;
 import org.exbin.bined.swing.CodeAreaColorAssessor;
 import org.exbin.bined.swing.CodeAreaCore;
 import org.exbin.bined.swing.CodeAreaSwingUtils;
@@ -49,6 +50,7 @@ import org.exbin.jaguif.operation.undo.api.UndoRedoState;
 public class BinEdFileManager {
 
     protected final SegmentsRepository segmentsRepository = new SegmentsRepository(() -> new ByteArrayEditableData());
+    protected final UndoDataStore undoDataStore = new UndoDataStore();
     protected final List<BinEdFileExtension> binEdComponentExtensions = new ArrayList<>();
     protected final List<CodeAreaColorAssessor> painterPositionColorModifiers = new ArrayList<>();
     protected final List<CodeAreaColorAssessor> painterPriorityPositionColorModifiers = new ArrayList<>();
@@ -78,7 +80,7 @@ public class BinEdFileManager {
                 contextManager.updateActiveState(ContextComponent.class, component, DeletionController.UpdateType.CONTENT_STATE);
             }
         });
-        CodeAreaUndoRedo codeAreaUndoRedo = new CodeAreaUndoRedo(codeArea);
+        BinaryCompoundUndoRedo codeAreaUndoRedo = new BinaryCompoundUndoRedo(codeArea);
         codeAreaUndoRedo.addChangeListener(() -> {
             ContextUndoRedo undoRedo = contextManager.getActiveState(ContextUndoRedo.class);
             if (undoRedo == binaryDataComponent) {
@@ -112,6 +114,10 @@ public class BinEdFileManager {
         return segmentsRepository;
     }
 
+    public UndoDataStore getUndoDataStore() {
+        return undoDataStore;
+    }
+
     public void addPainterColorModifier(CodeAreaColorAssessor modifier) {
         painterPositionColorModifiers.add(modifier);
     }
@@ -18,18 +18,22 @@ package org.exbin.bined.jaguif.document;
 import java.awt.Component;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.text.MessageFormat;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.ResourceBundle;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.swing.JOptionPane;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 import org.exbin.auxiliary.binary_data.BinaryData;
 import org.exbin.auxiliary.binary_data.EditableBinaryData;
 import org.exbin.auxiliary.binary_data.EmptyBinaryData;
+import org.exbin.auxiliary.binary_data.array.ByteArrayData;
 import org.exbin.auxiliary.binary_data.array.paged.ByteArrayPagedData;
 import org.exbin.auxiliary.binary_data.delta.DataSource;
 import org.exbin.auxiliary.binary_data.delta.DeltaDocument;
@@ -38,9 +42,19 @@ import org.exbin.auxiliary.binary_data.delta.file.FileDataSource;
 import org.exbin.auxiliary.binary_data.delta.file.FileDataSource.EditMode;
 import org.exbin.auxiliary.binary_data.paged.PagedData;
 import org.exbin.bined.jaguif.component.BinEdComponentExtension;
+import org.exbin.bined.jaguif.component.BinaryCompoundUndoRedo;
 import org.exbin.bined.jaguif.component.BinEdDataComponent;
 import org.exbin.bined.jaguif.component.gui.BinEdComponentPanel;
+import org.exbin.bined.jaguif.document.data.MappedFileData;
+import org.exbin.bined.jaguif.document.task.DeltaDocumentSaveTask;
+import org.exbin.bined.jaguif.document.task.DocumentLoadTask;
+import org.exbin.bined.jaguif.document.task.DocumentSaveTask;
+import org.exbin.bined.jaguif.document.task.DocumentTask;
+import org.exbin.bined.jaguif.document.task.DocumentTaskListener;
 import org.exbin.bined.jaguif.viewer.BinedViewerModule;
+import org.exbin.bined.EditMode;
+import org.exbin.bined.capability.CaretCapable;
+import org.exbin.bined.capability.EditModeCapable;
 import org.exbin.bined.operation.command.BinaryDataUndoRedo;
 import org.exbin.bined.swing.CodeAreaCore;
 import org.exbin.jaguif.App;
@@ -73,11 +87,23 @@ import org.exbin.jaguif.search.api.ContextSearch;
 @NullMarked
 public class BinaryFileDocument implements BinaryDocument, ComponentDocument, FileDocument, EditableDocument, ContextActivable {
 
+    /**
+     * Minimum size of data processed in background task.
+     */
+    public static final long BACKGROUND_TASK_THRESHOLD = 16 * 1024 * 1024;
+
     protected final BinEdDataComponent dataComponent;
     protected DocumentSource documentSource = null;
     protected long documentOriginalSize;
     protected FileProcessingMode initialProcessingMode = FileProcessingMode.MEMORY;
     protected ActiveContextManagement activeContextManagement;
+    @Nullable
+    protected DocumentTask runningTask;
+    @Nullable
+    protected EditMode taskSuspendedEditMode;
+    @Nullable
+    protected BinaryData taskDetachedData;
+    protected long taskDetachedCaretPosition;
 
     public BinaryFileDocument() {
         BinedViewerModule viewerModule = App.getModule(BinedViewerModule.class);
@@ -183,6 +209,8 @@ public class BinaryFileDocument implements BinaryDocument, ComponentDocument, Fi
     }
 
     public void loadContent(FileProcessingMode fileProcessingMode) {
+        cancelTask();
+        resumeEditing();
         if (documentSource instanceof EmptyDocumentSource) {
             BinEdComponentPanel componentPanel = getComponent();
             BinaryData oldData = componentPanel.getContentData();
@@ -196,6 +224,7 @@ public class BinaryFileDocument implements BinaryDocument, ComponentDocument, Fi
                 componentPanel.setContentData(data);
             }
             oldData.dispose();
+            notifyDataChange();
             return;
         }
 
@@ -222,6 +251,7 @@ public class BinaryFileDocument implements BinaryDocument, ComponentDocument, Fi
                     // ignore
                 }
             }
+            notifyDataChange();
             return;
         }
 
@@ -248,6 +278,15 @@ public class BinaryFileDocument implements BinaryDocument, ComponentDocument, Fi
                 DeltaDocument document = segmentsRepository.createDocument(openFileSource);
                 componentPanel.setContentData(document);
                 oldData.dispose();
+            } else if (fileProcessingMode == FileProcessingMode.MAPPED) {
+                MappedFileData data = new MappedFileData(file);
+                componentPanel.setContentData(data);
+                oldData.dispose();
+            } else if (file.length() >= BACKGROUND_TASK_THRESHOLD) {
+                startLoadTask(file);
+                FileModuleApi fileModule = App.getModule(FileModuleApi.class);
+                fileModule.notifyFileUsed(file.toURI(), null);
+                return;
             } else {
                 try (FileInputStream fileStream = new FileInputStream(file)) {
                     BinaryData data = oldData;
@@ -267,6 +306,182 @@ public class BinaryFileDocument implements BinaryDocument, ComponentDocument, Fi
         }
 
         fileSync();
+        notifyDataChange();
+    }
+
+    /**
+     * Notifies component extensions that content data was loaded.
+     */
+    protected void notifyDataChange() {
+        for (BinEdComponentExtension extension : dataComponent.getComponentExtensions()) {
+            extension.onDataChange();
+        }
+    }
+
+    /**
+     * Starts loading of file content to memory in background.
+     * <p>
+     * Beginning of the file is shown as soon as it is loaded and document is
+     * read only until loading finishes.
+     *
+     * @param file file
+     */
+    protected void startLoadTask(File file) {
+        BinEdComponentPanel componentPanel = getComponent();
+        BinaryData oldData = componentPanel.getContentData();
+        componentPanel.setContentData(new ByteArrayPagedData());
+        oldData.dispose();
+
+        DocumentLoadTask task = new DocumentLoadTask(file, new ByteArrayPagedData());
+        task.setListener(new DocumentTaskListener() {
+            @Override
+            public void progressChanged(DocumentTask task) {
+                notifyTaskProgress();
+            }
+
+            @Override
+            public void previewLoaded(DocumentTask task, BinaryData preview) {
+                if (task != runningTask) {
+                    preview.dispose();
+                    return;
+                }
+
+                BinaryData previousData = componentPanel.getContentData();
+                componentPanel.setContentData(preview);
+                previousData.dispose();
+            }
+
+            @Override
+            public void taskFinished(DocumentTask task) {
+                DocumentLoadTask loadTask = (DocumentLoadTask) task;
+                if (task != runningTask) {
+                    loadTask.getTargetData().dispose();
+                    return;
+                }
+
+                finishTask();
+                if (task.getTaskState() == DocumentTask.State.FINISHED) {
+                    BinaryData previewData = componentPanel.getContentData();
+                    componentPanel.setContentData(loadTask.getTargetData());
+                    previewData.dispose();
+                    resumeEditing();
+                    fileSync();
+                    notifyDataChange();
+                } else {
+                    // Partially loaded document is kept read only until reloaded
+                    loadTask.getTargetData().dispose();
+                }
+                notifyTaskProgress();
+            }
+        });
+        suspendEditing();
+        runningTask = task;
+        task.start();
+        notifyTaskProgress();
+    }
+
+    /**
+     * Returns currently running background load or save task.
+     *
+     * @return task
+     */
+    public Optional<DocumentTask> getRunningTask() {
+        return Optional.ofNullable(runningTask);
+    }
+
+    /**
+     * Cancels currently running background task.
+     */
+    public void cancelTask() {
+        DocumentTask task = runningTask;
+        if (task != null) {
+            task.cancel();
+            if (task instanceof DocumentSaveTask) {
+                // Save might be already finished, so its actual result is processed
+                finishSaveTask();
+                return;
+            }
+
+            finishTask();
+            notifyTaskProgress();
+        }
+    }
+
+    /**
+     * Waits for currently running background save to finish and processes its
+     * result.
+     */
+    public void finishSaveTask() {
+        DocumentTask task = runningTask;
+        if (task instanceof DocumentSaveTask) {
+            ((DocumentSaveTask) task).awaitFinished();
+            DocumentTaskListener listener = task.getListener();
+            if (listener != null) {
+                listener.taskFinished(task);
+            }
+        }
+    }
+
+    private void finishTask() {
+        runningTask = null;
+    }
+
+    private void suspendEditing() {
+        CodeAreaCore codeArea = getCodeArea();
+        if (codeArea instanceof EditModeCapable && taskSuspendedEditMode == null) {
+            taskSuspendedEditMode = ((EditModeCapable) codeArea).getEditMode();
+            ((EditModeCapable) codeArea).setEditMode(EditMode.READ_ONLY);
+        }
+        // Undo, redo and operations would modify data accessed by task
+        BinaryDataUndoRedo undoRedo = getUndoHandler().orElse(null);
+        if (undoRedo instanceof BinaryCompoundUndoRedo) {
+            ((BinaryCompoundUndoRedo) undoRedo).setSuspended(true);
+        }
+    }
+
+    private void resumeEditing() {
+        CodeAreaCore codeArea = getCodeArea();
+        if (codeArea instanceof EditModeCapable && taskSuspendedEditMode != null) {
+            ((EditModeCapable) codeArea).setEditMode(taskSuspendedEditMode);
+        }
+        taskSuspendedEditMode = null;
+        BinaryDataUndoRedo undoRedo = getUndoHandler().orElse(null);
+        if (undoRedo instanceof BinaryCompoundUndoRedo && ((BinaryCompoundUndoRedo) undoRedo).isSuspended()) {
+            ((BinaryCompoundUndoRedo) undoRedo).setSuspended(false);
+        }
+    }
+
+    /**
+     * Replaces content data in code area with copy of its beginning.
+     */
+    private void detachContentData() {
+        BinEdComponentPanel componentPanel = getComponent();
+        BinaryData data = componentPanel.getContentData();
+        byte[] preview = new byte[(int) Math.min(data.getDataSize(), DocumentLoadTask.DEFAULT_PREVIEW_SIZE)];
+        data.copyToArray(0, preview, 0, preview.length);
+        taskDetachedCaretPosition = ((CaretCapable) getCodeArea()).getActiveCaretPosition().getDataPosition();
+        taskDetachedData = data;
+        componentPanel.setContentData(new ByteArrayData(preview));
+    }
+
+    private void attachContentData() {
+        BinaryData data = taskDetachedData;
+        if (data == null) {
+            return;
+        }
+
+        taskDetachedData = null;
+        BinEdComponentPanel componentPanel = getComponent();
+        BinaryData preview = componentPanel.getContentData();
+        componentPanel.setContentData(data);
+        preview.dispose();
+        ((CaretCapable) getCodeArea()).setActiveCaretPosition(Math.min(taskDetachedCaretPosition, data.getDataSize()));
+    }
+
+    private void notifyTaskProgress() {
+        if (activeContextManagement != null) {
+            activeContextManagement.updateActiveState(ContextDocument.class, this, UpdateType.TASK_PROGRESS);
+        }
     }
 
     @Override
@@ -289,6 +504,12 @@ public class BinaryFileDocument implements BinaryDocument, ComponentDocument, Fi
     }
 
     public void closeData() {
+        // Running save is finished as document was reported as saved already
+        finishSaveTask();
+        cancelTask();
+        for (BinEdComponentExtension extension : dataComponent.getComponentExtensions()) {
+            extension.onClose();
+        }
         CodeAreaCore codeArea = getCodeArea();
         BinaryDataUndoRedo undoRedo = getUndoHandler().orElse(null);
         if (undoRedo != null) {
@@ -328,6 +549,12 @@ public class BinaryFileDocument implements BinaryDocument, ComponentDocument, Fi
             throw new UnsupportedOperationException();
         }
 
+        finishSaveTask();
+        if (runningTask != null) {
+            JOptionPane.showMessageDialog(getComponent(), getResourceBundle().getString("saveBusy.message"), getResourceBundle().getString("saveFailed.title"), JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
         File file = ((FileDocumentSource) documentSource).getFile();
         try {
             BinEdComponentPanel componentPanel = getComponent();
@@ -336,10 +563,10 @@ public class BinaryFileDocument implements BinaryDocument, ComponentDocument, Fi
                 clearFile();
                 contentData = componentPanel.getContentData();
             }
+            DocumentSaveTask task;
             if (contentData instanceof DeltaDocument) {
                 BinedDocumentModule binedModule = App.getModule(BinedDocumentModule.class);
                 SegmentsRepository segmentsRepository = binedModule.getFileManager().getSegmentsRepository();
-                // TODO freezes window / replace with progress bar
                 DeltaDocument document = (DeltaDocument) contentData;
                 FileDataSource fileSource = (FileDataSource) document.getDataSource();
                 if (fileSource == null || !file.equals(fileSource.getFile())) {
@@ -347,26 +574,118 @@ public class BinaryFileDocument implements BinaryDocument, ComponentDocument, Fi
                     segmentsRepository.addDataSource(fileSource);
                     document.setDataSource(fileSource);
                 }
-                segmentsRepository.saveDocument(document);
-                this.documentSource = documentSource;
+                task = new DeltaDocumentSaveTask(segmentsRepository, document, file);
             } else {
-                try (FileOutputStream outputStream = new FileOutputStream(file)) {
-                    Objects.requireNonNull(contentData).saveToStream(outputStream);
-                    this.documentSource = documentSource;
+                if (contentData instanceof MappedFileData && !MappedFileData.isMappedFileReplaceable() && ((MappedFileData) contentData).isMappedFile(file)) {
+                    showSaveError("saveMappedFile.message", file, null);
+                    return;
                 }
+
+                task = new DocumentSaveTask(Objects.requireNonNull(contentData), file);
             }
 
+            if (contentData.getDataSize() >= BACKGROUND_TASK_THRESHOLD) {
+                startSaveTask(task, documentSource);
+                return;
+            }
+
+            task.perform();
+            saveFinished(task, documentSource);
+
             FileModuleApi fileModule = App.getModule(FileModuleApi.class);
             fileModule.notifyFileUsed(file.toURI(), null);
             // TODO
             // Update title
-        } catch (IOException ex) {
+        } catch (IOException | RuntimeException ex) {
             Logger.getLogger(BinaryFileDocument.class.getName()).log(Level.SEVERE, null, ex);
+            showSaveError("saveFailed.message", file, ex);
+            return;
         }
 
         fileSync();
     }
 
+    /**
+     * Starts saving of document in background.
+     * <p>
+     * Document is read only and its commands are suspended until saving
+     * finishes. Delta document is detached from code area while saving, as
+     * its segments repository cannot be accessed concurrently by painting.
+     *
+     * @param task save task
+     * @param documentSource target document source
+     */
+    protected void startSaveTask(DocumentSaveTask task, DocumentSource documentSource) {
+        task.setListener(new DocumentTaskListener() {
+            @Override
+            public void progressChanged(DocumentTask task) {
+                notifyTaskProgress();
+            }
+
+            @Override
+            public void taskFinished(DocumentTask task) {
+                if (task != runningTask) {
+                    return;
+                }
+
+                finishTask();
+                attachContentData();
+                resumeEditing();
+                File file = ((DocumentSaveTask) task).getFile();
+                switch (task.getTaskState()) {
+                    case FINISHED: {
+                        try {
+                            saveFinished((DocumentSaveTask) task, documentSource);
+                            FileModuleApi fileModule = App.getModule(FileModuleApi.class);
+                            fileModule.notifyFileUsed(file.toURI(), null);
+                        } catch (IOException ex) {
+                            Logger.getLogger(BinaryFileDocument.class.getName()).log(Level.SEVERE, null, ex);
+                        }
+                        fileSync();
+                        break;
+                    }
+                    case CANCELLED: {
+                        showSaveError("saveCancelled.message", file, null);
+                        break;
+                    }
+                    default: {
+                        showSaveError("saveFailed.message", file, task.getError());
+                        break;
+                    }
+                }
+                notifyTaskProgress();
+            }
+        });
+        suspendEditing();
+        if (task instanceof DeltaDocumentSaveTask) {
+            detachContentData();
+        }
+        runningTask = task;
+        task.start();
+        notifyTaskProgress();
+    }
+
+    private void showSaveError(String messageKey, File file, @Nullable Exception error) {
+        ResourceBundle resourceBundle = getResourceBundle();
+        String errorMessage = error == null ? "" : (error.getLocalizedMessage() != null ? error.getLocalizedMessage() : error.getClass().getSimpleName());
+        String message = MessageFormat.format(resourceBundle.getString(messageKey), file.getPath(), errorMessage);
+        JOptionPane.showMessageDialog(getComponent(), message, resourceBundle.getString("saveFailed.title"), JOptionPane.ERROR_MESSAGE);
+    }
+
+    private static ResourceBundle getResourceBundle() {
+        return App.getModule(BinedDocumentModule.class).getResourceBundle();
+    }
+
+    private void saveFinished(DocumentSaveTask task, DocumentSource documentSource) throws IOException {
+        this.documentSource = documentSource;
+        BinaryData savedData = task.getData();
+        if (savedData instanceof MappedFileData) {
+            // Saved file is mapped again to release in-memory changes
+            getComponent().setContentData(new MappedFileData(task.getFile()));
+            savedData.dispose();
+        }
+    }
+
     public void fileSync() {
         documentOriginalSize = getCodeArea().getDataSize();
         Optional<BinaryDataUndoRedo> optUndoRedo = dataComponent.getUndoRedo();
@@ -420,16 +739,20 @@ public class BinaryFileDocument implements BinaryDocument, ComponentDocument, Fi
     }
 
     public FileProcessingMode getFileProcessingMode() {
-        BinaryData contentData = getContentData();
+        BinaryData contentData = taskDetachedData != null ? taskDetachedData : getContentData();
         if (contentData instanceof DeltaDocument) {
             return FileProcessingMode.DELTA;
         }
+        if (contentData instanceof MappedFileData) {
+            return FileProcessingMode.MAPPED;
+        }
 
         return FileProcessingMode.MEMORY;
     }
 
     public enum UpdateType implements StateUpdateType {
         ORIGINAL_SIZE,
-        PROCESSING_MODE
+        PROCESSING_MODE,
+        TASK_PROGRESS
     }
 }
@@ -29,6 +29,7 @@ import org.exbin.bined.jaguif.component.gui.BinEdComponentPanel;
 import org.exbin.bined.jaguif.document.action.ProcessingModeActions;
 import org.exbin.bined.jaguif.document.action.PropertiesAction;
 import org.exbin.bined.jaguif.document.action.ReloadFileAction;
+import org.exbin.bined.jaguif.document.contribution.CancelDocumentTaskContribution;
 import org.exbin.bined.jaguif.document.contribution.PropertiesContribution;
 import org.exbin.bined.jaguif.document.contribution.ReloadFileContribution;
 import org.exbin.bined.jaguif.document.settings.BinaryFileProcessingOptions;
@@ -359,5 +360,10 @@ public class BinedDocumentModule implements Module {
         mgmt.registerMenuContribution(contribution);
         contribution = actions.createDeltaProcessingModeContribution();
         mgmt.registerMenuContribution(contribution);
+        contribution = actions.createMappedProcessingModeContribution();
+        mgmt.registerMenuContribution(contribution);
+        contribution = new CancelDocumentTaskContribution();
+        mgmt.registerMenuContribution(contribution);
+        mgmt.registerMenuRule(contribution, new PositionSequenceContributionRule(PositionSequenceContributionRule.PositionMode.BOTTOM));
     }
 }
@@ -26,5 +26,9 @@ public enum FileProcessingMode implements BinEdFileProcessingMode {
     /**
      * File is handled using delta changes.
      */
-    DELTA;
+    DELTA,
+    /**
+     * File is mapped to memory, changes are kept as copy-on-write segments.
+     */
+    MAPPED;
 }
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.document.action;
+
+import java.awt.event.ActionEvent;
+import java.util.ResourceBundle;
+import org.jspecify.annotations.NullMarked;
+import javax.swing.AbstractAction;
+import org.exbin.jaguif.App;
+import org.exbin.jaguif.action.api.ActionContextChange;
+import org.exbin.jaguif.action.api.ActionConsts;
+import org.exbin.jaguif.action.api.ActionModuleApi;
+import org.exbin.bined.jaguif.document.BinaryFileDocument;
+import org.exbin.jaguif.context.api.ContextChangeRegistration;
+import org.exbin.jaguif.document.api.ContextDocument;
+
+/**
+ * Cancel background loading or saving of the currently active file.
+ */
+@NullMarked
+public class CancelDocumentTaskAction extends AbstractAction {
+
+    public static final String ACTION_ID = "cancelDocumentTask";
+
+    protected BinaryFileDocument binaryFileDocument;
+
+    public CancelDocumentTaskAction() {
+    }
+
+    public void init(ResourceBundle resourceBundle) {
+        ActionModuleApi actionModule = App.getModule(ActionModuleApi.class);
+        actionModule.initAction(this, resourceBundle, ACTION_ID);
+        setEnabled(false);
+        putValue(ActionConsts.ACTION_CONTEXT_CHANGE, new ActionContextChange() {
+            @Override
+            public void register(ContextChangeRegistration registrar) {
+                registrar.registerChangeListener(ContextDocument.class, (instance) -> {
+                    binaryFileDocument = instance instanceof BinaryFileDocument ? (BinaryFileDocument) instance : null;
+                    update();
+                });
+                registrar.registerStateUpdateListener(ContextDocument.class, (instance, updateType) -> {
+                    if (BinaryFileDocument.UpdateType.TASK_PROGRESS.equals(updateType)) {
+                        update();
+                    }
+                });
+            }
+
+            void update() {
+                setEnabled(binaryFileDocument != null && binaryFileDocument.getRunningTask().isPresent());
+            }
+        });
+    }
+
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        binaryFileDocument.cancelTask();
+    }
+}
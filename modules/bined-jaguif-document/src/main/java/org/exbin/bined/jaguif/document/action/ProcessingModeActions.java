@@ -62,6 +62,12 @@ public class ProcessingModeActions {
         return overwriteEditModeOperationAction;
     }
 
+    public MappedProcessingModeAction createMappedProcessingModeAction() {
+        MappedProcessingModeAction mappedProcessingModeAction = new MappedProcessingModeAction();
+        mappedProcessingModeAction.init(resourceBundle);
+        return mappedProcessingModeAction;
+    }
+
     public MemoryProcessingModeContribution createMemoryProcessingModeContribution() {
         MemoryProcessingModeContribution insertEditModeOperationContribution = new MemoryProcessingModeContribution(MemoryProcessingModeAction.ACTION_ID);
         return insertEditModeOperationContribution;
@@ -72,6 +78,11 @@ public class ProcessingModeActions {
         return overwriteEditModeOperationContribution;
     }
 
+    public MappedProcessingModeContribution createMappedProcessingModeContribution() {
+        MappedProcessingModeContribution mappedProcessingModeContribution = new MappedProcessingModeContribution(MappedProcessingModeAction.ACTION_ID);
+        return mappedProcessingModeContribution;
+    }
+
     @NullMarked
     public class MemoryProcessingModeAction extends AbstractAction {
 
@@ -168,6 +179,54 @@ public class ProcessingModeActions {
         }
     }
 
+    @NullMarked
+    public class MappedProcessingModeAction extends AbstractAction {
+
+        public static final String ACTION_ID = "mappedProcessingMode";
+
+        private BinaryFileDocument binaryFileDocument;
+        private DocumentDocking documentDocking;
+
+        public MappedProcessingModeAction() {
+        }
+
+        public void init(ResourceBundle resourceBundle) {
+            ActionModuleApi actionModule = App.getModule(ActionModuleApi.class);
+            actionModule.initAction(this, resourceBundle, ACTION_ID);
+            putValue(ActionConsts.ACTION_TYPE, ActionType.RADIO);
+            putValue(ActionConsts.ACTION_RADIO_GROUP, PROCESSING_MODE_RADIO_GROUP_ID);
+            putValue(ActionConsts.ACTION_CONTEXT_CHANGE, new ActionContextChange() {
+                @Override
+                public void register(ContextChangeRegistration registrar) {
+                    registrar.registerChangeListener(ContextDocument.class, (instance) -> {
+                        binaryFileDocument = instance instanceof BinaryFileDocument ? (BinaryFileDocument) instance : null;
+                        update();
+                    });
+                    registrar.registerChangeListener(ContextDocking.class, (instance) -> {
+                        documentDocking = instance instanceof DocumentDocking ? (DocumentDocking) instance : null;
+                        update();
+                    });
+                    registrar.registerStateUpdateListener(ContextDocument.class, (instance, updateType) -> {
+                        if (BinaryFileDocument.UpdateType.PROCESSING_MODE.equals(updateType)) {
+                            update();
+                        }
+                    });
+                }
+
+                void update() {
+                    setEnabled(binaryFileDocument != null && documentDocking != null);
+                    putValue(Action.SELECTED_KEY, binaryFileDocument != null && binaryFileDocument.getFileProcessingMode() == FileProcessingMode.MAPPED);
+                }
+            });
+            setEnabled(false);
+        }
+
+        @Override
+        public void actionPerformed(ActionEvent e) {
+            changeFileProcessingMode(documentDocking, binaryFileDocument, FileProcessingMode.MAPPED);
+        }
+    }
+
     @NullMarked
     public class MemoryProcessingModeContribution implements ActionSequenceContribution {
 
@@ -212,6 +271,28 @@ public class ProcessingModeActions {
         }
     }
 
+    @NullMarked
+    public class MappedProcessingModeContribution implements ActionSequenceContribution {
+
+        private final String contributionId;
+
+        public MappedProcessingModeContribution(String contributionId) {
+            this.contributionId = contributionId;
+        }
+
+        @Override
+        public Action createAction() {
+            MappedProcessingModeAction action = new MappedProcessingModeAction();
+            action.init(resourceBundle);
+            return action;
+        }
+
+        @Override
+        public String getContributionId() {
+            return contributionId;
+        }
+    }
+
     public void changeFileProcessingMode(DocumentDocking docking, BinaryFileDocument binaryFileDocument, FileProcessingMode fileProcessingMode) {
         if (binaryFileDocument.getFileProcessingMode() == fileProcessingMode) {
             return;
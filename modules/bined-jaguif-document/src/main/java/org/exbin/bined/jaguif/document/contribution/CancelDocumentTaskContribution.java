@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.document.contribution;
+
+import javax.swing.Action;
+import org.exbin.bined.jaguif.document.BinedDocumentModule;
+import org.exbin.bined.jaguif.document.action.CancelDocumentTaskAction;
+import org.exbin.jaguif.App;
+import org.exbin.jaguif.contribution.api.ActionSequenceContribution;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Cancel background loading or saving of the currently active file contribution.
+ */
+@NullMarked
+public class CancelDocumentTaskContribution implements ActionSequenceContribution {
+
+    public static final String CONTRIBUTION_ID = "cancelDocumentTask";
+
+    @Override
+    public Action createAction() {
+        CancelDocumentTaskAction action = new CancelDocumentTaskAction();
+        BinedDocumentModule binedDocumentModule = App.getModule(BinedDocumentModule.class);
+        action.init(binedDocumentModule.getResourceBundle());
+        return action;
+    }
+
+    @Override
+    public String getContributionId() {
+        return CONTRIBUTION_ID;
+    }
+}
@@ -0,0 +1,743 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.document.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.auxiliary.binary_data.EditableBinaryData;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Editable binary data backed by file mapped to memory.
+ * <p>
+ * File is mapped in read-only windows and never modified. Data is kept as
+ * sequence of segments referring either to range of mapped file or to
+ * in-memory copy of changed data, so only modified parts consume heap.
+ * Adjacent small in-memory segments are merged to limit fragmentation.
+ * <p>
+ * Mapping is released only when buffers are garbage collected. Mapped file
+ * can be replaced by saved file, but it must not be overwritten in place as
+ * truncation of mapped file fails access to its tail. On Windows mapped file
+ * cannot be replaced nor deleted at all, so data have to be saved to another
+ * file there.
+ */
+@NullMarked
+public class MappedFileData implements EditableBinaryData {
+
+    public static final int WINDOW_SIZE = 1 << 30;
+    /**
+     * Size of page copied to memory when byte of mapped file is changed.
+     */
+    public static final int PAGE_SIZE = 4096;
+    /**
+     * Maximum size of single in-memory segment.
+     */
+    private static final int MAX_MEMORY_SEGMENT_SIZE = 1 << 20;
+    /**
+     * Maximum size of in-memory segment created by merging of adjacent
+     * segments.
+     */
+    private static final int MAX_MERGED_SEGMENT_SIZE = 16 * PAGE_SIZE;
+    private static final int BUFFER_SIZE = 65536;
+
+    @Nullable
+    private final File file;
+    private final MappedByteBuffer[] windows;
+    private final List<Segment> segments = new ArrayList<>();
+    private long[] segmentStarts = new long[0];
+    /**
+     * Count of leading segments with valid cached start position.
+     */
+    private volatile int validStartsCount = 0;
+    private long dataSize = 0;
+
+    /**
+     * Creates data mapped from given file.
+     *
+     * @param file source file
+     * @throws IOException if file cannot be mapped
+     */
+    public MappedFileData(File file) throws IOException {
+        this.file = file;
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r"); FileChannel channel = randomAccessFile.getChannel()) {
+            long fileSize = channel.size();
+            int windowsCount = (int) ((fileSize + WINDOW_SIZE - 1) / WINDOW_SIZE);
+            windows = new MappedByteBuffer[windowsCount];
+            for (int i = 0; i < windowsCount; i++) {
+                long windowStart = (long) i * WINDOW_SIZE;
+                // Mapping stays valid after channel is closed
+                windows[i] = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, Math.min(WINDOW_SIZE, fileSize - windowStart));
+            }
+            if (fileSize > 0) {
+                segments.add(new Segment(fileSize, 0));
+                dataSize = fileSize;
+            }
+        }
+    }
+
+    private MappedFileData(@Nullable File file, MappedByteBuffer[] windows) {
+        this.file = file;
+        this.windows = windows;
+    }
+
+    /**
+     * Returns mapped file.
+     *
+     * @return file or null for copy of data
+     */
+    @Nullable
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Returns true if given file is mapped by this data.
+     *
+     * @param targetFile file
+     * @return true if same file
+     */
+    public boolean isMappedFile(File targetFile) {
+        if (file == null || !targetFile.exists()) {
+            return false;
+        }
+
+        try {
+            return Files.isSameFile(file.toPath(), targetFile.toPath());
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns true if file mapped to memory can be replaced by another file.
+     *
+     * @return false on Windows
+     */
+    public static boolean isMappedFileReplaceable() {
+        return !System.getProperty("os.name", "").toLowerCase(Locale.ROOT).startsWith("windows");
+    }
+
+    /**
+     * Returns true if data differs from content of mapped file.
+     *
+     * @return true if data was modified
+     */
+    public boolean isModified() {
+        if (file == null) {
+            return true;
+        }
+        if (segments.isEmpty()) {
+            return windows.length > 0;
+        }
+        Segment segment = segments.get(0);
+        return segments.size() > 1 || segment.data != null || segment.fileOffset != 0 || dataSize != getMappedSize();
+    }
+
+    /**
+     * Returns length of data held in memory instead of mapped file.
+     *
+     * @return length of in-memory data
+     */
+    public long getMemoryDataSize() {
+        long memoryDataSize = 0;
+        for (Segment segment : segments) {
+            if (segment.data != null) {
+                memoryDataSize += segment.length;
+            }
+        }
+        return memoryDataSize;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return dataSize == 0;
+    }
+
+    @Override
+    public long getDataSize() {
+        return dataSize;
+    }
+
+    @Override
+    public byte getByte(long position) {
+        checkRange(position, 1);
+        int index = findSegment(position);
+        Segment segment = segments.get(index);
+        long offset = position - segmentStarts[index];
+        if (segment.data != null) {
+            return segment.data[segment.dataOffset + (int) offset];
+        }
+
+        long filePosition = segment.fileOffset + offset;
+        return windows[(int) (filePosition / WINDOW_SIZE)].get((int) (filePosition % WINDOW_SIZE));
+    }
+
+    @Override
+    public void copyToArray(long startFrom, byte[] target, int offset, int length) {
+        checkRange(startFrom, length);
+        if (length == 0) {
+            return;
+        }
+
+        int index = findSegment(startFrom);
+        long segmentOffset = startFrom - segmentStarts[index];
+        int remaining = length;
+        int targetOffset = offset;
+        while (remaining > 0) {
+            Segment segment = segments.get(index);
+            int copyLength = (int) Math.min(remaining, segment.length - segmentOffset);
+            if (segment.data != null) {
+                System.arraycopy(segment.data, segment.dataOffset + (int) segmentOffset, target, targetOffset, copyLength);
+            } else {
+                copyFromFile(segment.fileOffset + segmentOffset, target, targetOffset, copyLength);
+            }
+            remaining -= copyLength;
+            targetOffset += copyLength;
+            segmentOffset = 0;
+            index++;
+        }
+    }
+
+    @Override
+    public MappedFileData copy() {
+        return copy(0, dataSize);
+    }
+
+    @Override
+    public MappedFileData copy(long startFrom, long length) {
+        checkRange(startFrom, length);
+        MappedFileData copy = new MappedFileData(null, windows);
+        copy.insertSegments(0, collectSegments(startFrom, length, true));
+        return copy;
+    }
+
+    @Override
+    public void saveToStream(OutputStream outputStream) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long position = 0;
+        while (position < dataSize) {
+            int length = (int) Math.min(BUFFER_SIZE, dataSize - position);
+            copyToArray(position, buffer, 0, length);
+            outputStream.write(buffer, 0, length);
+            position += length;
+        }
+    }
+
+    @Override
+    public InputStream getDataInputStream() {
+        return new MappedDataInputStream();
+    }
+
+    @Override
+    public void setDataSize(long size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Negative data size");
+        }
+
+        if (size < dataSize) {
+            remove(size, dataSize - size);
+        } else if (size > dataSize) {
+            insert(dataSize, size - dataSize);
+        }
+    }
+
+    @Override
+    public void setByte(long position, byte value) {
+        checkRange(position, 1);
+        int index = findSegment(position);
+        Segment segment = segments.get(index);
+        long segmentStart = segmentStarts[index];
+        if (segment.data == null) {
+            // Copy page of mapped file to memory
+            long pageStart = Math.max(segmentStart, position - position % PAGE_SIZE);
+            long pageEnd = Math.min(segmentStart + segment.length, pageStart + PAGE_SIZE);
+            byte[] page = new byte[(int) (pageEnd - pageStart)];
+            copyFromFile(segment.fileOffset + (pageStart - segmentStart), page, 0, page.length);
+            int pageIndex = splitAt(pageStart);
+            splitAt(pageEnd);
+            segments.set(pageIndex, new Segment(page, 0, page.length));
+            mergeSegments(pageIndex, pageIndex + 1);
+            index = findSegment(position);
+            segment = segments.get(index);
+            segmentStart = segmentStarts[index];
+        }
+
+        segment.data[segment.dataOffset + (int) (position - segmentStart)] = value;
+    }
+
+    @Override
+    public void insertUninitialized(long startFrom, long length) {
+        insert(startFrom, length);
+    }
+
+    @Override
+    public void insert(long startFrom, long length) {
+        checkInsertPosition(startFrom);
+        if (length < 0) {
+            throw new IllegalArgumentException("Negative length");
+        }
+
+        List<Segment> inserted = new ArrayList<>();
+        long remaining = length;
+        while (remaining > 0) {
+            int segmentLength = (int) Math.min(MAX_MEMORY_SEGMENT_SIZE, remaining);
+            inserted.add(new Segment(new byte[segmentLength], 0, segmentLength));
+            remaining -= segmentLength;
+        }
+        insertSegments(startFrom, inserted);
+    }
+
+    @Override
+    public void insert(long startFrom, byte[] insertedData) {
+        insert(startFrom, insertedData, 0, insertedData.length);
+    }
+
+    @Override
+    public void insert(long startFrom, byte[] insertedData, int insertedDataOffset, int insertedDataLength) {
+        checkInsertPosition(startFrom);
+        if (insertedDataLength == 0) {
+            return;
+        }
+
+        byte[] data = Arrays.copyOfRange(insertedData, insertedDataOffset, insertedDataOffset + insertedDataLength);
+        List<Segment> inserted = new ArrayList<>();
+        inserted.add(new Segment(data, 0, insertedDataLength));
+        insertSegments(startFrom, inserted);
+    }
+
+    @Override
+    public void insert(long startFrom, BinaryData insertedData) {
+        insert(startFrom, insertedData, 0, insertedData.getDataSize());
+    }
+
+    @Override
+    public void insert(long startFrom, BinaryData insertedData, long insertedDataOffset, long insertedDataLength) {
+        checkInsertPosition(startFrom);
+        if (insertedData instanceof UndoDataStore.BudgetedData) {
+            insertedData = ((UndoDataStore.BudgetedData) insertedData).getData();
+        }
+        if (insertedData instanceof MappedFileData && ((MappedFileData) insertedData).windows == windows) {
+            // Data of the same mapping can share file segments
+            insertSegments(startFrom, ((MappedFileData) insertedData).collectSegments(insertedDataOffset, insertedDataLength, true));
+            return;
+        }
+
+        List<Segment> inserted = new ArrayList<>();
+        long position = insertedDataOffset;
+        long remaining = insertedDataLength;
+        while (remaining > 0) {
+            int segmentLength = (int) Math.min(MAX_MEMORY_SEGMENT_SIZE, remaining);
+            byte[] data = new byte[segmentLength];
+            insertedData.copyToArray(position, data, 0, segmentLength);
+            inserted.add(new Segment(data, 0, segmentLength));
+            position += segmentLength;
+            remaining -= segmentLength;
+        }
+        insertSegments(startFrom, inserted);
+    }
+
+    @Override
+    public long insert(long startFrom, InputStream inputStream, long dataSize) throws IOException {
+        checkInsertPosition(startFrom);
+        List<Segment> inserted = new ArrayList<>();
+        long insertedLength = 0;
+        byte[] buffer = new byte[BUFFER_SIZE];
+        while (dataSize < 0 || insertedLength < dataSize) {
+            int toRead = dataSize < 0 ? BUFFER_SIZE : (int) Math.min(BUFFER_SIZE, dataSize - insertedLength);
+            int read = inputStream.read(buffer, 0, toRead);
+            if (read < 0) {
+                break;
+            }
+            if (read > 0) {
+                inserted.add(new Segment(Arrays.copyOf(buffer, read), 0, read));
+                insertedLength += read;
+            }
+        }
+        insertSegments(startFrom, inserted);
+        return insertedLength;
+    }
+
+    @Override
+    public void replace(long targetPosition, BinaryData replacingData) {
+        replace(targetPosition, replacingData, 0, replacingData.getDataSize());
+    }
+
+    @Override
+    public void replace(long targetPosition, BinaryData replacingData, long startFrom, long length) {
+        checkInsertPosition(targetPosition);
+        // Replacing data can be view of this data
+        BinaryData replacement = replacingData == this ? copy(startFrom, length) : replacingData;
+        long replacementOffset = replacingData == this ? 0 : startFrom;
+        removeRange(targetPosition, Math.min(length, dataSize - targetPosition));
+        insert(targetPosition, replacement, replacementOffset, length);
+    }
+
+    @Override
+    public void replace(long targetPosition, byte[] replacingData) {
+        replace(targetPosition, replacingData, 0, replacingData.length);
+    }
+
+    @Override
+    public void replace(long targetPosition, byte[] replacingData, int replacingDataOffset, int length) {
+        checkInsertPosition(targetPosition);
+        removeRange(targetPosition, Math.min(length, dataSize - targetPosition));
+        insert(targetPosition, replacingData, replacingDataOffset, length);
+    }
+
+    @Override
+    public void fillData(long startFrom, long length) {
+        fillData(startFrom, length, (byte) 0);
+    }
+
+    @Override
+    public void fillData(long startFrom, long length, byte fill) {
+        checkRange(startFrom, length);
+        removeRange(startFrom, length);
+        insert(startFrom, length);
+        if (fill != 0) {
+            // Inserted segments can be merged with adjacent segments
+            int index = findSegment(startFrom);
+            long segmentOffset = startFrom - segmentStarts[index];
+            long remaining = length;
+            while (remaining > 0) {
+                Segment segment = segments.get(index);
+                int fillStart = segment.dataOffset + (int) segmentOffset;
+                int fillLength = (int) Math.min(remaining, segment.length - segmentOffset);
+                Arrays.fill(segment.data, fillStart, fillStart + fillLength, fill);
+                remaining -= fillLength;
+                segmentOffset = 0;
+                index++;
+            }
+        }
+    }
+
+    @Override
+    public void remove(long startFrom, long length) {
+        checkRange(startFrom, length);
+        removeRange(startFrom, length);
+    }
+
+    @Override
+    public void clear() {
+        segments.clear();
+        dataSize = 0;
+        validStartsCount = 0;
+    }
+
+    @Override
+    public void loadFromStream(InputStream inputStream) throws IOException {
+        clear();
+        insert(0, inputStream, -1);
+    }
+
+    @Override
+    public OutputStream getDataOutputStream() {
+        return new MappedDataOutputStream();
+    }
+
+    @Override
+    public void dispose() {
+        clear();
+    }
+
+    private long getMappedSize() {
+        return windows.length == 0 ? 0 : (long) (windows.length - 1) * WINDOW_SIZE + windows[windows.length - 1].capacity();
+    }
+
+    private void copyFromFile(long filePosition, byte[] target, int offset, int length) {
+        long position = filePosition;
+        int targetOffset = offset;
+        int remaining = length;
+        while (remaining > 0) {
+            int windowOffset = (int) (position % WINDOW_SIZE);
+            ByteBuffer window = windows[(int) (position / WINDOW_SIZE)].duplicate();
+            int copyLength = Math.min(remaining, window.capacity() - windowOffset);
+            window.position(windowOffset);
+            window.get(target, targetOffset, copyLength);
+            position += copyLength;
+            targetOffset += copyLength;
+            remaining -= copyLength;
+        }
+    }
+
+    private void removeRange(long startFrom, long length) {
+        if (length <= 0) {
+            return;
+        }
+
+        int startIndex = splitAt(startFrom);
+        int endIndex = splitAt(startFrom + length);
+        segments.subList(startIndex, endIndex).clear();
+        dataSize -= length;
+        invalidateStarts(startIndex);
+        mergeSegments(startIndex, startIndex);
+    }
+
+    private void insertSegments(long startFrom, List<Segment> inserted) {
+        if (inserted.isEmpty()) {
+            return;
+        }
+
+        int index = splitAt(startFrom);
+        segments.addAll(index, inserted);
+        for (Segment segment : inserted) {
+            dataSize += segment.length;
+        }
+        invalidateStarts(index);
+        mergeSegments(index, index + inserted.size());
+    }
+
+    /**
+     * Merges small in-memory segments around given range of segments.
+     * <p>
+     * Merging prevents fragmentation to many tiny segments when data are
+     * typed byte by byte.
+     *
+     * @param startIndex index of first segment of range
+     * @param endIndex index after last segment of range
+     */
+    private void mergeSegments(int startIndex, int endIndex) {
+        int index = Math.max(1, startIndex);
+        int lastIndex = Math.min(endIndex, segments.size() - 1);
+        while (index <= lastIndex) {
+            Segment previous = segments.get(index - 1);
+            Segment segment = segments.get(index);
+            long mergedLength = previous.length + segment.length;
+            if (previous.data == null || segment.data == null || mergedLength > MAX_MERGED_SEGMENT_SIZE) {
+                index++;
+                continue;
+            }
+
+            byte[] data = new byte[(int) mergedLength];
+            System.arraycopy(previous.data, previous.dataOffset, data, 0, (int) previous.length);
+            System.arraycopy(segment.data, segment.dataOffset, data, (int) previous.length, (int) segment.length);
+            segments.set(index - 1, new Segment(data, 0, (int) mergedLength));
+            segments.remove(index);
+            invalidateStarts(index);
+            lastIndex--;
+        }
+    }
+
+    /**
+     * Returns segments covering given range.
+     *
+     * @param startFrom start position
+     * @param length length
+     * @param copyData true to copy in-memory data
+     * @return list of segments
+     */
+    private List<Segment> collectSegments(long startFrom, long length, boolean copyData) {
+        List<Segment> result = new ArrayList<>();
+        if (length <= 0) {
+            return result;
+        }
+
+        int index = findSegment(startFrom);
+        long segmentOffset = startFrom - segmentStarts[index];
+        long remaining = length;
+        while (remaining > 0) {
+            Segment segment = segments.get(index);
+            long partLength = Math.min(remaining, segment.length - segmentOffset);
+            if (segment.data == null) {
+                result.add(new Segment(partLength, segment.fileOffset + segmentOffset));
+            } else {
+                int dataOffset = segment.dataOffset + (int) segmentOffset;
+                result.add(copyData
+                        ? new Segment(Arrays.copyOfRange(segment.data, dataOffset, dataOffset + (int) partLength), 0, (int) partLength)
+                        : new Segment(segment.data, dataOffset, (int) partLength));
+            }
+            remaining -= partLength;
+            segmentOffset = 0;
+            index++;
+        }
+        return result;
+    }
+
+    /**
+     * Splits segment at given position if needed.
+     *
+     * @param position position
+     * @return index of segment starting at given position
+     */
+    private int splitAt(long position) {
+        if (position == dataSize) {
+            return segments.size();
+        }
+
+        int index = findSegment(position);
+        long offset = position - segmentStarts[index];
+        if (offset == 0) {
+            return index;
+        }
+
+        Segment segment = segments.get(index);
+        Segment tail;
+        if (segment.data == null) {
+            tail = new Segment(segment.length - offset, segment.fileOffset + offset);
+        } else {
+            tail = new Segment(segment.data, segment.dataOffset + (int) offset, (int) (segment.length - offset));
+        }
+        segment.length = offset;
+        segments.add(index + 1, tail);
+        invalidateStarts(index + 1);
+        return index + 1;
+    }
+
+    private int findSegment(long position) {
+        if (validStartsCount < segments.size()) {
+            updateSegmentStarts();
+        }
+
+        int index = Arrays.binarySearch(segmentStarts, 0, segments.size(), position);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    /**
+     * Marks cached positions of segments from given index as invalid.
+     *
+     * @param index index of first changed segment
+     */
+    private void invalidateStarts(int index) {
+        if (index < validStartsCount) {
+            validStartsCount = index;
+        }
+    }
+
+    /**
+     * Updates cached segment positions starting from first invalid one.
+     * <p>
+     * Synchronized as unmodified data can be read from multiple threads.
+     */
+    private synchronized void updateSegmentStarts() {
+        int segmentsCount = segments.size();
+        int index = validStartsCount;
+        if (index >= segmentsCount) {
+            return;
+        }
+
+        long[] starts = segmentStarts.length < segmentsCount ? Arrays.copyOf(segmentStarts, Math.max(segmentsCount, segmentStarts.length * 2)) : segmentStarts;
+        long start = index == 0 ? 0 : starts[index - 1] + segments.get(index - 1).length;
+        for (int i = index; i < segmentsCount; i++) {
+            starts[i] = start;
+            start += segments.get(i).length;
+        }
+        segmentStarts = starts;
+        validStartsCount = segmentsCount;
+    }
+
+    private void checkRange(long startFrom, long length) {
+        if (startFrom < 0 || length < 0 || startFrom + length > dataSize) {
+            throw new IndexOutOfBoundsException("Range " + startFrom + " + " + length + " is out of data size " + dataSize);
+        }
+    }
+
+    private void checkInsertPosition(long position) {
+        if (position < 0 || position > dataSize) {
+            throw new IndexOutOfBoundsException("Position " + position + " is out of data size " + dataSize);
+        }
+    }
+
+    /**
+     * Segment of data.
+     * <p>
+     * Segment refers to range of mapped file if data is null.
+     */
+    private static final class Segment {
+
+        private long length;
+        private final long fileOffset;
+        @Nullable
+        private final byte[] data;
+        private final int dataOffset;
+
+        public Segment(long length, long fileOffset) {
+            this.length = length;
+            this.fileOffset = fileOffset;
+            data = null;
+            dataOffset = 0;
+        }
+
+        public Segment(byte[] data, int dataOffset, int length) {
+            this.length = length;
+            this.data = data;
+            this.dataOffset = dataOffset;
+            fileOffset = 0;
+        }
+    }
+
+    private class MappedDataInputStream extends InputStream {
+
+        private long position = 0;
+
+        @Override
+        public int read() throws IOException {
+            if (position >= dataSize) {
+                return -1;
+            }
+
+            return getByte(position++) & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (position >= dataSize) {
+                return -1;
+            }
+
+            int copyLength = (int) Math.min(length, dataSize - position);
+            copyToArray(position, buffer, offset, copyLength);
+            position += copyLength;
+            return copyLength;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(Integer.MAX_VALUE, dataSize - position);
+        }
+    }
+
+    private class MappedDataOutputStream extends OutputStream {
+
+        private long position = 0;
+
+        @Override
+        public void write(int value) throws IOException {
+            write(new byte[]{(byte) value}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) throws IOException {
+            replace(position, buffer, offset, length);
+            position += length;
+        }
+    }
+}
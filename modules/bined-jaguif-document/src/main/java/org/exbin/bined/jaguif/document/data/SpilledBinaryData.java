@@ -0,0 +1,221 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.document.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.auxiliary.binary_data.array.paged.ByteArrayPagedData;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Read-only binary data stored in temporary file.
+ * <p>
+ * File is deleted when data is disposed. Single page of data is cached for
+ * access by individual bytes.
+ */
+@NullMarked
+public class SpilledBinaryData implements BinaryData {
+
+    public static final String TEMP_FILE_PREFIX = "bined-spill";
+    private static final int PAGE_SIZE = 65536;
+
+    private final File file;
+    private final long dataSize;
+    @Nullable
+    private RandomAccessFile randomAccessFile;
+    private final byte[] page = new byte[PAGE_SIZE];
+    private long pageIndex = -1;
+
+    private SpilledBinaryData(File file, long dataSize) throws IOException {
+        this.file = file;
+        this.dataSize = dataSize;
+        randomAccessFile = new RandomAccessFile(file, "r");
+    }
+
+    /**
+     * Writes range of data to new temporary file.
+     *
+     * @param source source data
+     * @param position start position of range
+     * @param length length of range
+     * @param directory directory for temporary file or null for default
+     * @return spilled data
+     * @throws IOException if writing fails
+     */
+    public static SpilledBinaryData create(BinaryData source, long position, long length, @Nullable File directory) throws IOException {
+        File file = File.createTempFile(TEMP_FILE_PREFIX, ".tmp", directory);
+        file.deleteOnExit();
+        try {
+            try (RandomAccessFile output = new RandomAccessFile(file, "rw")) {
+                byte[] buffer = new byte[PAGE_SIZE];
+                long offset = 0;
+                while (offset < length) {
+                    int chunkLength = (int) Math.min(PAGE_SIZE, length - offset);
+                    source.copyToArray(position + offset, buffer, 0, chunkLength);
+                    output.write(buffer, 0, chunkLength);
+                    offset += chunkLength;
+                }
+            }
+            return new SpilledBinaryData(file, length);
+        } catch (IOException | RuntimeException ex) {
+            file.delete();
+            throw ex;
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return dataSize == 0;
+    }
+
+    @Override
+    public long getDataSize() {
+        return dataSize;
+    }
+
+    @Override
+    public synchronized byte getByte(long position) {
+        checkRange(position, 1);
+        long index = position / PAGE_SIZE;
+        if (index != pageIndex) {
+            long pageStart = index * PAGE_SIZE;
+            read(pageStart, page, 0, (int) Math.min(PAGE_SIZE, dataSize - pageStart));
+            pageIndex = index;
+        }
+        return page[(int) (position % PAGE_SIZE)];
+    }
+
+    @Override
+    public BinaryData copy() {
+        return copy(0, dataSize);
+    }
+
+    @Override
+    public BinaryData copy(long startFrom, long length) {
+        checkRange(startFrom, length);
+        ByteArrayPagedData result = new ByteArrayPagedData();
+        byte[] buffer = new byte[(int) Math.min(PAGE_SIZE, length)];
+        long offset = 0;
+        while (offset < length) {
+            int chunkLength = (int) Math.min(buffer.length, length - offset);
+            copyToArray(startFrom + offset, buffer, 0, chunkLength);
+            result.insert(offset, buffer, 0, chunkLength);
+            offset += chunkLength;
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void copyToArray(long startFrom, byte[] target, int offset, int length) {
+        checkRange(startFrom, length);
+        read(startFrom, target, offset, length);
+    }
+
+    @Override
+    public void saveToStream(OutputStream outputStream) throws IOException {
+        byte[] buffer = new byte[PAGE_SIZE];
+        long position = 0;
+        while (position < dataSize) {
+            int length = (int) Math.min(PAGE_SIZE, dataSize - position);
+            copyToArray(position, buffer, 0, length);
+            outputStream.write(buffer, 0, length);
+            position += length;
+        }
+    }
+
+    @Override
+    public InputStream getDataInputStream() {
+        return new SpilledDataInputStream();
+    }
+
+    /**
+     * Closes and deletes temporary file.
+     */
+    @Override
+    public synchronized void dispose() {
+        if (randomAccessFile == null) {
+            return;
+        }
+
+        try {
+            randomAccessFile.close();
+        } catch (IOException ex) {
+            // Ignore, file is deleted anyway
+        }
+        randomAccessFile = null;
+        file.delete();
+    }
+
+    private void read(long position, byte[] target, int offset, int length) {
+        if (randomAccessFile == null) {
+            throw new IllegalStateException("Data was already disposed");
+        }
+
+        try {
+            randomAccessFile.seek(position);
+            randomAccessFile.readFully(target, offset, length);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Unable to read spilled data", ex);
+        }
+    }
+
+    private void checkRange(long position, long length) {
+        if (position < 0 || length < 0 || position + length > dataSize) {
+            throw new IndexOutOfBoundsException("Range " + position + "+" + length + " out of data size " + dataSize);
+        }
+    }
+
+    /**
+     * Input stream of spilled data.
+     */
+    private final class SpilledDataInputStream extends InputStream {
+
+        private long position = 0;
+
+        @Override
+        public int read() throws IOException {
+            if (position >= dataSize) {
+                return -1;
+            }
+            return getByte(position++) & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (position >= dataSize) {
+                return -1;
+            }
+
+            int readLength = (int) Math.min(length, dataSize - position);
+            copyToArray(position, buffer, offset, readLength);
+            position += readLength;
+            return readLength;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(Integer.MAX_VALUE, dataSize - position);
+        }
+    }
+}
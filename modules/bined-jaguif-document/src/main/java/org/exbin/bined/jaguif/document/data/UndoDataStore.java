@@ -0,0 +1,232 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.document.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.auxiliary.binary_data.array.ByteArrayData;
+import org.exbin.auxiliary.binary_data.delta.DataSegment;
+import org.exbin.auxiliary.binary_data.delta.DeltaDocument;
+import org.exbin.auxiliary.binary_data.delta.MemorySegment;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Store of original data kept for undo with limited memory budget.
+ * <p>
+ * Copies fitting into remaining budget are kept in memory, larger copies
+ * are spilled to temporary files. Copies of delta documents and mapped files
+ * only reference ranges of source file, so only their in-memory segments are
+ * charged to budget.
+ */
+@NullMarked
+public class UndoDataStore {
+
+    public static final long DEFAULT_MEMORY_BUDGET = 64L * 1024 * 1024;
+
+    private long memoryBudget = DEFAULT_MEMORY_BUDGET;
+    private long memoryUsed = 0;
+    @Nullable
+    private File spillDirectory = null;
+
+    public UndoDataStore() {
+    }
+
+    public synchronized long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Sets maximum total size of undo data kept in memory.
+     * <p>
+     * Already stored data are not affected.
+     *
+     * @param memoryBudget memory budget in bytes
+     */
+    public synchronized void setMemoryBudget(long memoryBudget) {
+        if (memoryBudget < 0) {
+            throw new IllegalArgumentException("Memory budget cannot be negative");
+        }
+
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * Returns size of undo data currently kept in memory.
+     *
+     * @return used memory in bytes
+     */
+    public synchronized long getMemoryUsed() {
+        return memoryUsed;
+    }
+
+    @Nullable
+    public File getSpillDirectory() {
+        return spillDirectory;
+    }
+
+    /**
+     * Sets directory for temporary files.
+     *
+     * @param spillDirectory directory or null for default temporary directory
+     */
+    public void setSpillDirectory(@Nullable File spillDirectory) {
+        this.spillDirectory = spillDirectory;
+    }
+
+    /**
+     * Stores copy of range of data.
+     * <p>
+     * Returned data has to be disposed when no longer needed to release
+     * memory budget or temporary file.
+     *
+     * @param source source data
+     * @param position start position of range
+     * @param length length of range
+     * @return stored copy of data
+     */
+    public BinaryData storeCopy(BinaryData source, long position, long length) {
+        if (length == 0) {
+            return new ByteArrayData();
+        }
+
+        if (source instanceof DeltaDocument || source instanceof MappedFileData) {
+            BinaryData copy = source.copy(position, length);
+            long memoryDataSize = getMemoryDataSize(copy);
+            if (reserveMemory(memoryDataSize)) {
+                return new BudgetedData(copy, memoryDataSize);
+            }
+            copy.dispose();
+        } else if (reserveMemory(length)) {
+            return new BudgetedData(source.copy(position, length), length);
+        }
+
+        try {
+            return SpilledBinaryData.create(source, position, length, spillDirectory);
+        } catch (IOException ex) {
+            Logger.getLogger(UndoDataStore.class.getName()).log(Level.WARNING, "Unable to spill undo data, keeping it in memory", ex);
+            return source.copy(position, length);
+        }
+    }
+
+    private synchronized boolean reserveMemory(long length) {
+        if (length > memoryBudget - memoryUsed) {
+            return false;
+        }
+
+        memoryUsed += length;
+        return true;
+    }
+
+    private synchronized void releaseMemory(long length) {
+        memoryUsed -= length;
+    }
+
+    private static long getMemoryDataSize(BinaryData data) {
+        if (data instanceof MappedFileData) {
+            return ((MappedFileData) data).getMemoryDataSize();
+        }
+        if (data instanceof DeltaDocument) {
+            long memoryDataSize = 0;
+            DataSegment segment = ((DeltaDocument) data).getSegments().first();
+            while (segment != null) {
+                if (segment instanceof MemorySegment) {
+                    memoryDataSize += ((MemorySegment) segment).getLength();
+                }
+                segment = segment.getNext();
+            }
+            return memoryDataSize;
+        }
+        return data.getDataSize();
+    }
+
+    /**
+     * In-memory data charged to memory budget until disposed.
+     */
+    final class BudgetedData implements BinaryData {
+
+        private final BinaryData data;
+        private long chargedLength;
+
+        public BudgetedData(BinaryData data, long chargedLength) {
+            this.data = data;
+            this.chargedLength = chargedLength;
+        }
+
+        /**
+         * Returns wrapped data.
+         *
+         * @return data
+         */
+        BinaryData getData() {
+            return data;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return data.isEmpty();
+        }
+
+        @Override
+        public long getDataSize() {
+            return data.getDataSize();
+        }
+
+        @Override
+        public byte getByte(long position) {
+            return data.getByte(position);
+        }
+
+        @Override
+        public BinaryData copy() {
+            return data.copy();
+        }
+
+        @Override
+        public BinaryData copy(long startFrom, long length) {
+            return data.copy(startFrom, length);
+        }
+
+        @Override
+        public void copyToArray(long startFrom, byte[] target, int offset, int length) {
+            data.copyToArray(startFrom, target, offset, length);
+        }
+
+        @Override
+        public void saveToStream(OutputStream outputStream) throws IOException {
+            data.saveToStream(outputStream);
+        }
+
+        @Override
+        public InputStream getDataInputStream() {
+            return data.getDataInputStream();
+        }
+
+        @Override
+        public void dispose() {
+            if (chargedLength > 0) {
+                releaseMemory(chargedLength);
+                chargedLength = 0;
+            }
+            data.dispose();
+        }
+    }
+}
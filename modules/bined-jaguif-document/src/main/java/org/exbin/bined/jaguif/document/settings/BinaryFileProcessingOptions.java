@@ -29,6 +29,8 @@ import org.exbin.jaguif.options.api.OptionsStorage;
 public class BinaryFileProcessingOptions implements SettingsOptions {
 
     public static final String KEY_FILE_PROCESSING_MODE = "fileHandlingMode";
+    public static final String KEY_UNDO_MEMORY_BUDGET = "undoMemoryBudget";
+    public static final int DEFAULT_UNDO_MEMORY_BUDGET = 64;
 
     protected final OptionsStorage storage;
 
@@ -50,9 +52,23 @@ public class BinaryFileProcessingOptions implements SettingsOptions {
         storage.put(KEY_FILE_PROCESSING_MODE, fileProcessingMode.name());
     }
 
+    /**
+     * Returns memory budget for undo data in MiB.
+     *
+     * @return memory budget
+     */
+    public int getUndoMemoryBudget() {
+        return storage.getInt(KEY_UNDO_MEMORY_BUDGET, DEFAULT_UNDO_MEMORY_BUDGET);
+    }
+
+    public void setUndoMemoryBudget(int undoMemoryBudget) {
+        storage.putInt(KEY_UNDO_MEMORY_BUDGET, undoMemoryBudget);
+    }
+
     @Override
     public void copyTo(SettingsOptions options) {
         BinaryFileProcessingOptions with = (BinaryFileProcessingOptions) options;
         with.setFileProcessingMode(getFileProcessingMode());
+        with.setUndoMemoryBudget(getUndoMemoryBudget());
     }
 }
@@ -43,5 +43,6 @@ public class BinaryFileProcessingSettingsApplier implements SettingsApplier {
         BinedDocumentModule binedDocumentModule = App.getModule(BinedDocumentModule.class);
         // TODO: Move to BinaryFileProcessing
         binedDocumentModule.setInitialFileProcessing(options.getFileProcessingMode());
+        binedDocumentModule.getFileManager().getUndoDataStore().setMemoryBudget(options.getUndoMemoryBudget() * 1024L * 1024L);
     }
 }
@@ -41,6 +41,7 @@ public class CodeAreaFileProcessingSettingsComponent implements SettingsComponen
         List<String> fileHandlingModes = new ArrayList<>();
         fileHandlingModes.add(resourceBundle.getString("fileProcessingMode.memory"));
         fileHandlingModes.add(resourceBundle.getString("fileProcessingMode.delta"));
+        fileHandlingModes.add(resourceBundle.getString("fileProcessingMode.mapped"));
         panel.setFileProcessingModes(fileHandlingModes);
         return panel;
     }
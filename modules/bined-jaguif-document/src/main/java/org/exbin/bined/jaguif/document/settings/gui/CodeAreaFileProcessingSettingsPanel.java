@@ -55,12 +55,14 @@ public class CodeAreaFileProcessingSettingsPanel extends javax.swing.JPanel impl
     public void loadFromOptions(SettingsOptionsProvider settingsOptionsProvider) {
         BinaryFileProcessingOptions options = settingsOptionsProvider.getSettingsOptions(BinaryFileProcessingOptions.class);
         fileProcessingModeComboBox.setSelectedIndex(options.getFileProcessingMode().ordinal());
+        undoMemoryBudgetSpinner.setValue(options.getUndoMemoryBudget());
     }
 
     @Override
     public void saveToOptions(SettingsOptionsProvider settingsOptionsProvider) {
         BinaryFileProcessingOptions options = settingsOptionsProvider.getSettingsOptions(BinaryFileProcessingOptions.class);
         options.setFileProcessingMode(FileProcessingMode.values()[fileProcessingModeComboBox.getSelectedIndex()]);
+        options.setUndoMemoryBudget((Integer) undoMemoryBudgetSpinner.getValue());
     }
 
     /**
@@ -74,6 +76,8 @@ public class CodeAreaFileProcessingSettingsPanel extends javax.swing.JPanel impl
 
         fileProcessingModeLabel = new javax.swing.JLabel();
         fileProcessingModeComboBox = new javax.swing.JComboBox<>();
+        undoMemoryBudgetLabel = new javax.swing.JLabel();
+        undoMemoryBudgetSpinner = new javax.swing.JSpinner();
 
         fileProcessingModeLabel.setText(resourceBundle.getString("fileProcessingModeLabel.text")); // NOI18N
 
@@ -83,6 +87,16 @@ public class CodeAreaFileProcessingSettingsPanel extends javax.swing.JPanel impl
             }
         });
 
+        undoMemoryBudgetLabel.setText(resourceBundle.getString("undoMemoryBudgetLabel.text")); // NOI18N
+        undoMemoryBudgetLabel.setToolTipText(resourceBundle.getString("undoMemoryBudgetLabel.toolTipText")); // NOI18N
+
+        undoMemoryBudgetSpinner.setModel(new javax.swing.SpinnerNumberModel(64, 0, null, 16));
+        undoMemoryBudgetSpinner.addChangeListener(new javax.swing.event.ChangeListener() {
+            public void stateChanged(javax.swing.event.ChangeEvent evt) {
+                undoMemoryBudgetSpinnerStateChanged(evt);
+            }
+        });
+
         javax.swing.GroupLayout layout = new javax.swing.GroupLayout(this);
         this.setLayout(layout);
         layout.setHorizontalGroup(
@@ -91,8 +105,11 @@ public class CodeAreaFileProcessingSettingsPanel extends javax.swing.JPanel impl
                 .addContainerGap()
                 .addGroup(layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
                     .addComponent(fileProcessingModeComboBox, 0, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                    .addComponent(undoMemoryBudgetSpinner)
                     .addGroup(layout.createSequentialGroup()
-                        .addComponent(fileProcessingModeLabel)
+                        .addGroup(layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
+                            .addComponent(fileProcessingModeLabel)
+                            .addComponent(undoMemoryBudgetLabel))
                         .addGap(0, 39, Short.MAX_VALUE)))
                 .addContainerGap())
         );
@@ -103,6 +120,10 @@ public class CodeAreaFileProcessingSettingsPanel extends javax.swing.JPanel impl
                 .addComponent(fileProcessingModeLabel)
                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
                 .addComponent(fileProcessingModeComboBox, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
+                .addComponent(undoMemoryBudgetLabel)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(undoMemoryBudgetSpinner, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
                 .addContainerGap(javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE))
         );
     }// </editor-fold>//GEN-END:initComponents
@@ -111,9 +132,15 @@ public class CodeAreaFileProcessingSettingsPanel extends javax.swing.JPanel impl
         notifyModified();
     }//GEN-LAST:event_fileProcessingModeComboBoxItemStateChanged
 
+    private void undoMemoryBudgetSpinnerStateChanged(javax.swing.event.ChangeEvent evt) {//GEN-FIRST:event_undoMemoryBudgetSpinnerStateChanged
+        notifyModified();
+    }//GEN-LAST:event_undoMemoryBudgetSpinnerStateChanged
+
     // Variables declaration - do not modify//GEN-BEGIN:variables
     private javax.swing.JComboBox<String> fileProcessingModeComboBox;
     private javax.swing.JLabel fileProcessingModeLabel;
+    private javax.swing.JLabel undoMemoryBudgetLabel;
+    private javax.swing.JSpinner undoMemoryBudgetSpinner;
     // End of variables declaration//GEN-END:variables
 
     private void notifyModified() {
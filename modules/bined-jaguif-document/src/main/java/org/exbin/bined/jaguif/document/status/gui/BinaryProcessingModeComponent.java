@@ -16,6 +16,7 @@
 package org.exbin.bined.jaguif.document.status.gui;
 
 import java.awt.Dimension;
+import java.util.Optional;
 import java.util.ResourceBundle;
 import org.jspecify.annotations.NullMarked;
 import javax.swing.JComponent;
@@ -25,6 +26,7 @@ import org.exbin.bined.jaguif.component.BinaryDataComponent;
 import org.exbin.bined.jaguif.document.BinaryFileDocument;
 import org.exbin.bined.jaguif.document.BinedDocumentModule;
 import org.exbin.bined.jaguif.document.FileProcessingMode;
+import org.exbin.bined.jaguif.document.task.DocumentTask;
 import org.exbin.jaguif.App;
 import org.exbin.jaguif.context.api.ActiveContextManagement;
 import org.exbin.jaguif.context.api.ContextChange;
@@ -106,7 +108,7 @@ public class BinaryProcessingModeComponent extends AbstractStatusBarComponent {
                     }
                 });
                 registrar.registerStateUpdateListener(ContextDocument.class, (ContextDocument instance, StateUpdateType updateType) -> {
-                    if (instance instanceof BinaryFileDocument && instance == binaryFileDocument && (updateType == BinaryFileDocument.UpdateType.PROCESSING_MODE)) {
+                    if (instance instanceof BinaryFileDocument && instance == binaryFileDocument && (updateType == BinaryFileDocument.UpdateType.PROCESSING_MODE || updateType == BinaryFileDocument.UpdateType.TASK_PROGRESS)) {
                         updateForDocument(binaryFileDocument);
                     }
                 });
@@ -128,12 +130,27 @@ public class BinaryProcessingModeComponent extends AbstractStatusBarComponent {
         if (binaryFileDocument == null) {
             component.setText("-");
         } else {
+            Optional<DocumentTask> runningTask = binaryFileDocument.getRunningTask();
+            if (runningTask.isPresent()) {
+                DocumentTask task = runningTask.get();
+                boolean loading = task.getOperation() == DocumentTask.Operation.LOAD;
+                component.setText(resourceBundle.getString(loading ? "taskLoad.text" : "taskSave.text"));
+                double progress = task.getProgress();
+                String taskText = String.format(resourceBundle.getString(loading ? "taskLoad.toolTipText" : "taskSave.toolTipText"),
+                        progress < 0 ? "?" : Integer.toString((int) (progress * 100)), task.getBytesPerSecond() / (1024 * 1024));
+                component.setToolTipText(taskText);
+                return;
+            }
+
+            component.setToolTipText(resourceBundle.getString("processingModeLabel.toolTipText"));
             FileProcessingMode fileProcessingMode = binaryFileDocument.getFileProcessingMode();
 
             if (FileProcessingMode.MEMORY.equals(fileProcessingMode)) {
                 component.setText(resourceBundle.getString("fileProcessingMode.memory"));
             } else if (FileProcessingMode.DELTA.equals(fileProcessingMode)) {
                 component.setText(resourceBundle.getString("fileProcessingMode.delta"));
+            } else if (FileProcessingMode.MAPPED.equals(fileProcessingMode)) {
+                component.setText(resourceBundle.getString("fileProcessingMode.mapped"));
             }
         }
     }
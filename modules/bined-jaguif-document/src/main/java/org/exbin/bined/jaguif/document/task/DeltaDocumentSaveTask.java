@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.document.task;
+
+import java.io.File;
+import java.io.IOException;
+import org.exbin.auxiliary.binary_data.delta.DeltaDocument;
+import org.exbin.auxiliary.binary_data.delta.SegmentsRepository;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Task saving delta document to its file data source.
+ * <p>
+ * Document is saved in place by segments repository, so the task cannot be
+ * cancelled and its progress is unknown. Document and segments repository
+ * must not be accessed by other threads until the task is finished.
+ */
+@NullMarked
+public class DeltaDocumentSaveTask extends DocumentSaveTask {
+
+    private final SegmentsRepository segmentsRepository;
+
+    public DeltaDocumentSaveTask(SegmentsRepository segmentsRepository, DeltaDocument document, File file) {
+        super(document, file, -1);
+        this.segmentsRepository = segmentsRepository;
+    }
+
+    @Override
+    public void cancel() {
+        // Interrupted save in place would leave target file damaged
+    }
+
+    @Override
+    protected void execute() throws IOException {
+        segmentsRepository.saveDocument((DeltaDocument) getData());
+    }
+}
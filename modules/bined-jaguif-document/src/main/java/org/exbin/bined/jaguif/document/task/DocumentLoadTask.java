@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.document.task;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import javax.swing.SwingUtilities;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.auxiliary.binary_data.EditableBinaryData;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Task loading file content to memory.
+ * <p>
+ * Data are loaded to target data which must not be accessed by other threads
+ * until the task is finished. Copy of the beginning of the data is passed to
+ * listener as soon as it is loaded.
+ */
+@NullMarked
+public class DocumentLoadTask extends DocumentTask {
+
+    public static final int DEFAULT_PREVIEW_SIZE = 1024 * 1024;
+
+    private final File file;
+    private final EditableBinaryData targetData;
+    private int previewSize = DEFAULT_PREVIEW_SIZE;
+
+    public DocumentLoadTask(File file, EditableBinaryData targetData) {
+        super(Operation.LOAD, file.length());
+        this.file = file;
+        this.targetData = targetData;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public EditableBinaryData getTargetData() {
+        return targetData;
+    }
+
+    public void setPreviewSize(int previewSize) {
+        this.previewSize = previewSize;
+    }
+
+    @Override
+    protected void execute() throws IOException {
+        targetData.clear();
+        boolean previewReported = false;
+        try (InputStream inputStream = new FileInputStream(file)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = inputStream.read(buffer)) >= 0) {
+                targetData.insert(targetData.getDataSize(), buffer, 0, read);
+                addProcessed(read);
+                if (!previewReported && targetData.getDataSize() >= previewSize) {
+                    reportPreview();
+                    previewReported = true;
+                }
+            }
+        }
+    }
+
+    private void reportPreview() {
+        if (Thread.currentThread() != this) {
+            return;
+        }
+
+        BinaryData preview = targetData.copy(0, previewSize);
+        DocumentTaskListener listener = getListener();
+        if (listener != null) {
+            SwingUtilities.invokeLater(() -> listener.previewLoaded(this, preview));
+        }
+    }
+}
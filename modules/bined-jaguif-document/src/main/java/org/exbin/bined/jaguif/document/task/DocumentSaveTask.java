@@ -0,0 +1,278 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.document.task;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.AclFileAttributeView;
+import java.nio.file.attribute.DosFileAttributeView;
+import java.nio.file.attribute.DosFileAttributes;
+import java.nio.file.attribute.FileOwnerAttributeView;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.UserDefinedFileAttributeView;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.List;
+import java.util.Objects;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.bined.jaguif.document.data.MappedFileData;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Task saving data to file.
+ * <p>
+ * Data are written to temporary file which replaces target file when all
+ * data are written, so target file is left intact if save fails or is
+ * cancelled. Owner, permissions, access control list and extended attributes
+ * of target file are copied to temporary file and symbolic links are
+ * followed. If attributes cannot be copied or target file has multiple hard
+ * links, target file is overwritten in place instead, unless target file is
+ * mapped by saved data. Saved data must not be modified until the task is
+ * finished.
+ */
+@NullMarked
+public class DocumentSaveTask extends DocumentTask {
+
+    private static final String TEMP_FILE_PREFIX_SUFFIX = ".bined";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    private final BinaryData data;
+    private final File file;
+
+    private final Thread shutdownHook = new Thread(this::awaitFinished, "DocumentSaveTask-ShutdownHook");
+
+    public DocumentSaveTask(BinaryData data, File file) {
+        this(data, file, data.getDataSize());
+    }
+
+    protected DocumentSaveTask(BinaryData data, File file, long totalSize) {
+        super(Operation.SAVE, totalSize);
+        this.data = data;
+        this.file = file;
+        // Application exit waits for save to finish
+        setDaemon(false);
+    }
+
+    public BinaryData getData() {
+        return data;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    @Override
+    public synchronized void start() {
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+        super.start();
+    }
+
+    @Override
+    public void run() {
+        try {
+            super.run();
+        } finally {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException ex) {
+                // Shutdown in progress
+            }
+        }
+    }
+
+    /**
+     * Waits until background save is finished.
+     */
+    public void awaitFinished() {
+        boolean interrupted = false;
+        while (isAlive()) {
+            try {
+                join();
+            } catch (InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    protected void execute() throws IOException {
+        Path targetPath = file.toPath().toAbsolutePath().normalize();
+        boolean targetExists = Files.exists(targetPath);
+        if (targetExists) {
+            // Symbolic link is kept and file it points to is replaced
+            targetPath = targetPath.toRealPath();
+        }
+        Path directory = Objects.requireNonNull(targetPath.getParent());
+        // Prefix is padded as temporary file prefix must have at least three characters
+        Path tempPath = File.createTempFile("." + targetPath.getFileName() + TEMP_FILE_PREFIX_SUFFIX, TEMP_FILE_SUFFIX, directory.toFile()).toPath();
+        try {
+            try (FileOutputStream outputStream = new FileOutputStream(tempPath.toFile())) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                long dataSize = data.getDataSize();
+                long position = 0;
+                while (position < dataSize) {
+                    int length = (int) Math.min(BUFFER_SIZE, dataSize - position);
+                    data.copyToArray(position, buffer, 0, length);
+                    outputStream.write(buffer, 0, length);
+                    position += length;
+                    addProcessed(length);
+                }
+                outputStream.getFD().sync();
+            }
+
+            checkCancelled();
+            // Mapped file is always replaced as its truncation would break mapping
+            boolean targetMapped = data instanceof MappedFileData && ((MappedFileData) data).isMappedFile(targetPath.toFile());
+            if (targetExists && !canReplace(targetPath, tempPath) && !targetMapped) {
+                writeInPlace(tempPath, targetPath);
+                return;
+            }
+
+            try {
+                Files.move(tempPath, targetPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tempPath, targetPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            File tempFile = tempPath.toFile();
+            if (tempFile.exists() && !tempFile.delete()) {
+                tempFile.deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * Copies attributes of target file to temporary file.
+     *
+     * @param targetPath target file
+     * @param tempPath temporary file
+     * @return true if target file can be replaced by temporary file without
+     * loss of attributes or hard links
+     */
+    private static boolean canReplace(Path targetPath, Path tempPath) {
+        try {
+            if (Files.getFileStore(targetPath).supportsFileAttributeView("unix")) {
+                Object linksCount = Files.getAttribute(targetPath, "unix:nlink");
+                if (linksCount instanceof Integer && (Integer) linksCount > 1) {
+                    return false;
+                }
+            }
+
+            PosixFileAttributeView targetPosixView = Files.getFileAttributeView(targetPath, PosixFileAttributeView.class);
+            if (targetPosixView != null) {
+                PosixFileAttributeView tempPosixView = Files.getFileAttributeView(tempPath, PosixFileAttributeView.class);
+                if (tempPosixView == null) {
+                    return false;
+                }
+                PosixFileAttributes targetAttributes = targetPosixView.readAttributes();
+                PosixFileAttributes tempAttributes = tempPosixView.readAttributes();
+                if (!targetAttributes.owner().equals(tempAttributes.owner())) {
+                    tempPosixView.setOwner(targetAttributes.owner());
+                }
+                if (!targetAttributes.group().equals(tempAttributes.group())) {
+                    tempPosixView.setGroup(targetAttributes.group());
+                }
+                // Permissions are set after owner as change of owner can clear some of them
+                tempPosixView.setPermissions(targetAttributes.permissions());
+            } else {
+                FileOwnerAttributeView targetOwnerView = Files.getFileAttributeView(targetPath, FileOwnerAttributeView.class);
+                if (targetOwnerView != null) {
+                    UserPrincipal owner = targetOwnerView.getOwner();
+                    if (!owner.equals(Files.getOwner(tempPath))) {
+                        Files.setOwner(tempPath, owner);
+                    }
+                }
+                DosFileAttributeView targetDosView = Files.getFileAttributeView(targetPath, DosFileAttributeView.class);
+                if (targetDosView != null) {
+                    DosFileAttributes targetAttributes = targetDosView.readAttributes();
+                    DosFileAttributeView tempDosView = Files.getFileAttributeView(tempPath, DosFileAttributeView.class);
+                    if (tempDosView == null) {
+                        return false;
+                    }
+                    tempDosView.setHidden(targetAttributes.isHidden());
+                    tempDosView.setSystem(targetAttributes.isSystem());
+                    tempDosView.setArchive(targetAttributes.isArchive());
+                }
+            }
+
+            AclFileAttributeView targetAclView = Files.getFileAttributeView(targetPath, AclFileAttributeView.class);
+            if (targetAclView != null) {
+                AclFileAttributeView tempAclView = Files.getFileAttributeView(tempPath, AclFileAttributeView.class);
+                if (tempAclView == null) {
+                    return false;
+                }
+                tempAclView.setAcl(targetAclView.getAcl());
+            }
+
+            UserDefinedFileAttributeView targetUserView = Files.getFileAttributeView(targetPath, UserDefinedFileAttributeView.class);
+            if (targetUserView != null) {
+                List<String> names = targetUserView.list();
+                if (!names.isEmpty()) {
+                    UserDefinedFileAttributeView tempUserView = Files.getFileAttributeView(tempPath, UserDefinedFileAttributeView.class);
+                    if (tempUserView == null) {
+                        return false;
+                    }
+                    for (String name : names) {
+                        ByteBuffer value = ByteBuffer.allocate(targetUserView.size(name));
+                        targetUserView.read(name, value);
+                        value.flip();
+                        tempUserView.write(name, value);
+                    }
+                }
+            }
+
+            return true;
+        } catch (IOException | UnsupportedOperationException | IllegalArgumentException | SecurityException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Overwrites target file with content of temporary file.
+     * <p>
+     * Used when target file cannot be replaced, so it keeps its identity.
+     * Stream access is used as interrupting file channel would close it and
+     * leave target file partially written.
+     *
+     * @param tempPath temporary file
+     * @param targetPath target file
+     * @throws IOException if write failed
+     */
+    private static void writeInPlace(Path tempPath, Path targetPath) throws IOException {
+        try (FileInputStream inputStream = new FileInputStream(tempPath.toFile()); RandomAccessFile targetFile = new RandomAccessFile(targetPath.toFile(), "rw")) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long length = 0;
+            int read;
+            while ((read = inputStream.read(buffer)) > 0) {
+                targetFile.write(buffer, 0, read);
+                length += read;
+            }
+            targetFile.setLength(length);
+            targetFile.getFD().sync();
+        }
+    }
+}
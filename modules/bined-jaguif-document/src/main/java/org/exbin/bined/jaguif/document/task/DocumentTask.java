@@ -0,0 +1,212 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.document.task;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.ClosedByInterruptException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.SwingUtilities;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Cancellable background task transferring document data.
+ * <p>
+ * Listener is notified in event dispatch thread.
+ */
+@NullMarked
+public abstract class DocumentTask extends Thread {
+
+    public static final int BUFFER_SIZE = 1024 * 1024;
+    public static final long PROGRESS_INTERVAL = 200;
+
+    private final Operation operation;
+    private final long totalSize;
+    @Nullable
+    private DocumentTaskListener listener;
+
+    private volatile State state = State.PENDING;
+    private volatile long processedSize = 0;
+    private volatile long startTime;
+    private volatile long endTime;
+    @Nullable
+    private volatile IOException error;
+    private long lastProgressTime;
+
+    public DocumentTask(Operation operation, long totalSize) {
+        super("DocumentTask-" + operation.name());
+        this.operation = operation;
+        this.totalSize = totalSize;
+        setDaemon(true);
+    }
+
+    @Nullable
+    public DocumentTaskListener getListener() {
+        return listener;
+    }
+
+    public void setListener(@Nullable DocumentTaskListener listener) {
+        this.listener = listener;
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public State getTaskState() {
+        return state;
+    }
+
+    /**
+     * Returns total size of transferred data.
+     *
+     * @return size in bytes or -1 if unknown
+     */
+    public long getTotalSize() {
+        return totalSize;
+    }
+
+    public long getProcessedSize() {
+        return processedSize;
+    }
+
+    /**
+     * Returns progress of task.
+     *
+     * @return progress in range 0 to 1 or -1 if unknown
+     */
+    public double getProgress() {
+        if (totalSize < 0) {
+            return -1;
+        }
+
+        return totalSize == 0 ? 1 : (double) processedSize / totalSize;
+    }
+
+    /**
+     * Returns average transfer rate.
+     *
+     * @return bytes per second
+     */
+    public long getBytesPerSecond() {
+        long elapsed = (state == State.RUNNING || state == State.PENDING ? System.currentTimeMillis() : endTime) - startTime;
+        return elapsed <= 0 ? 0 : processedSize * 1000 / elapsed;
+    }
+
+    @Nullable
+    public IOException getError() {
+        return error;
+    }
+
+    /**
+     * Requests cancellation of the task.
+     */
+    public void cancel() {
+        interrupt();
+    }
+
+    /**
+     * Performs task in current thread.
+     *
+     * @throws IOException if transfer failed or was cancelled
+     */
+    public void perform() throws IOException {
+        startTime = System.currentTimeMillis();
+        lastProgressTime = startTime;
+        state = State.RUNNING;
+        try {
+            execute();
+            state = State.FINISHED;
+        } catch (InterruptedIOException | ClosedByInterruptException ex) {
+            state = State.CANCELLED;
+            throw ex;
+        } catch (IOException ex) {
+            error = ex;
+            state = State.FAILED;
+            throw ex;
+        } finally {
+            endTime = System.currentTimeMillis();
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            perform();
+        } catch (InterruptedIOException | ClosedByInterruptException ex) {
+            // Task cancelled
+        } catch (IOException ex) {
+            Logger.getLogger(DocumentTask.class.getName()).log(Level.SEVERE, "Document " + operation.name().toLowerCase() + " failed", ex);
+        } catch (RuntimeException ex) {
+            error = new IOException(ex);
+            state = State.FAILED;
+            endTime = System.currentTimeMillis();
+            Logger.getLogger(DocumentTask.class.getName()).log(Level.SEVERE, null, ex);
+        }
+
+        DocumentTaskListener taskListener = listener;
+        if (taskListener != null) {
+            SwingUtilities.invokeLater(() -> taskListener.taskFinished(this));
+        }
+    }
+
+    /**
+     * Performs transfer.
+     *
+     * @throws IOException if transfer failed
+     */
+    protected abstract void execute() throws IOException;
+
+    /**
+     * Adds processed bytes and reports progress if due.
+     *
+     * @param size processed bytes
+     * @throws InterruptedIOException if task was cancelled
+     */
+    protected void addProcessed(long size) throws InterruptedIOException {
+        processedSize += size;
+        checkCancelled();
+        long time = System.currentTimeMillis();
+        DocumentTaskListener taskListener = listener;
+        if (taskListener != null && time - lastProgressTime >= PROGRESS_INTERVAL) {
+            lastProgressTime = time;
+            if (Thread.currentThread() == this) {
+                SwingUtilities.invokeLater(() -> taskListener.progressChanged(this));
+            }
+        }
+    }
+
+    protected void checkCancelled() throws InterruptedIOException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Document " + operation.name().toLowerCase() + " cancelled");
+        }
+    }
+
+    public enum Operation {
+        LOAD,
+        SAVE
+    }
+
+    public enum State {
+        PENDING,
+        RUNNING,
+        FINISHED,
+        CANCELLED,
+        FAILED
+    }
+}
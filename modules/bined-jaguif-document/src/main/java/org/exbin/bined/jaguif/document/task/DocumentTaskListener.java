@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.document.task;
+
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Listener for document task events.
+ * <p>
+ * Methods are called in event dispatch thread.
+ */
+@NullMarked
+public interface DocumentTaskListener {
+
+    /**
+     * Reports progress of the task.
+     *
+     * @param task task
+     */
+    void progressChanged(DocumentTask task);
+
+    /**
+     * Reports beginning of the loaded data.
+     *
+     * @param task task
+     * @param preview copy of beginning of the data
+     */
+    default void previewLoaded(DocumentTask task, BinaryData preview) {
+    }
+
+    /**
+     * Reports task has finished, was cancelled or failed.
+     *
+     * @param task task
+     */
+    void taskFinished(DocumentTask task);
+}
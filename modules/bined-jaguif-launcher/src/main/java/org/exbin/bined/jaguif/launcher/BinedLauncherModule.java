@@ -19,9 +19,18 @@ import java.awt.Dimension;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.ResourceBundle;
 import java.util.logging.Level;
@@ -35,6 +44,11 @@ import org.apache.commons.cli.OptionGroup;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
 import org.exbin.auxiliary.binary_data.EditableBinaryData;
+import org.exbin.bined.jaguif.compare.batch.BatchCompareReportWriter;
+import org.exbin.bined.jaguif.compare.batch.BatchCompareService;
+import org.exbin.bined.jaguif.compare.batch.ComparePair;
+import org.exbin.bined.jaguif.compare.batch.PairCompareResult;
+import org.exbin.bined.jaguif.compare.batch.ThreeWayCompareResult;
 import org.exbin.jaguif.App;
 import org.exbin.jaguif.LauncherModule;
 import org.exbin.jaguif.ModuleUtils;
@@ -113,6 +127,13 @@ public class BinedLauncherModule implements LauncherModule {
     private static final String OPTION_SINGLE_FILE = "single_file";
     private static final String OPTION_MULTI_FILE = "multi_file";
     private static final String OPTION_FULLSCREEN = "fullscreen";
+    private static final String OPTION_COMPARE = "compare";
+    private static final String OPTION_COMPARE_OUTPUT = "compare_output";
+    private static final String OPTION_COMPARE_THREADS = "compare_threads";
+
+    private static final int COMPARE_EXIT_IDENTICAL = 0;
+    private static final int COMPARE_EXIT_DIFFERENT = 1;
+    private static final int COMPARE_EXIT_ERROR = 2;
 
     public BinedLauncherModule() {
     }
@@ -136,6 +157,9 @@ public class BinedLauncherModule implements LauncherModule {
             editorProviderType.addOption(new Option(OPTION_SINGLE_FILE, bundle.getString("cl_option_single_file")));
             editorProviderType.addOption(new Option(OPTION_MULTI_FILE, bundle.getString("cl_option_multi_file")));
             opt.addOptionGroup(editorProviderType);
+            opt.addOption(OPTION_COMPARE, false, bundle.getString("cl_option_compare"));
+            opt.addOption(OPTION_COMPARE_OUTPUT, true, bundle.getString("cl_option_compare_output"));
+            opt.addOption(OPTION_COMPARE_THREADS, true, bundle.getString("cl_option_compare_threads"));
             BasicParser parser = new BasicParser();
             CommandLine cl = parser.parse(opt, args);
             if (cl.hasOption(OPTION_HELP)) {
@@ -143,6 +167,10 @@ public class BinedLauncherModule implements LauncherModule {
                 f.printHelp(bundle.getString("cl_syntax"), opt);
                 return;
             }
+            if (cl.hasOption(OPTION_COMPARE)) {
+                System.exit(runBatchCompare(cl, bundle));
+                return;
+            }
             boolean verboseMode = cl.hasOption(OPTION_VERBOSE);
             boolean devMode = cl.hasOption(OPTION_DEV);
             boolean demoMode = cl.hasOption(OPTION_DEMO);
@@ -311,6 +339,7 @@ public class BinedLauncherModule implements LauncherModule {
             binedComponentModule.registerGoToPosition();
             searchModule.registerEditFindMenuActions();
             binedOperationMethodModule.registerBlockEditActions();
+            binedSearchModule.registerSignatureScanMenuActions();
 
             binedComponentModule.registerCodeAreaPopupMenu();
             binedViewerModule.registerCodeAreaPopupMenu();
@@ -438,6 +467,111 @@ public class BinedLauncherModule implements LauncherModule {
         }
     }
 
+    /**
+     * Compares files given on command line without user interface.
+     * <p>
+     * Two files, two directories or base file with two derived files are
+     * expected and summary is written in JSON format.
+     *
+     * @param cl command line
+     * @param bundle resource bundle
+     * @return exit code
+     */
+    private static int runBatchCompare(CommandLine cl, ResourceBundle bundle) {
+        String[] fileArgs = cl.getArgs();
+        if (fileArgs.length < 2 || fileArgs.length > 3) {
+            System.err.println(bundle.getString("cl_compare_invalidArguments"));
+            return COMPARE_EXIT_ERROR;
+        }
+
+        Path[] paths = new Path[fileArgs.length];
+        for (int i = 0; i < fileArgs.length; i++) {
+            paths[i] = Paths.get(fileArgs[i]);
+            if (!Files.exists(paths[i])) {
+                System.err.println(MessageFormat.format(bundle.getString("cl_compare_fileNotFound"), fileArgs[i]));
+                return COMPARE_EXIT_ERROR;
+            }
+        }
+
+        int threadsCount = Runtime.getRuntime().availableProcessors();
+        String threadsValue = cl.getOptionValue(OPTION_COMPARE_THREADS);
+        if (threadsValue != null) {
+            try {
+                threadsCount = Integer.parseInt(threadsValue);
+            } catch (NumberFormatException ex) {
+                threadsCount = 0;
+            }
+            if (threadsCount <= 0) {
+                System.err.println(MessageFormat.format(bundle.getString("cl_compare_invalidThreads"), threadsValue));
+                return COMPARE_EXIT_ERROR;
+            }
+        }
+
+        boolean directories = paths.length == 2 && Files.isDirectory(paths[0]) && Files.isDirectory(paths[1]);
+        if (!directories) {
+            for (Path path : paths) {
+                if (Files.isDirectory(path)) {
+                    System.err.println(bundle.getString("cl_compare_invalidArguments"));
+                    return COMPARE_EXIT_ERROR;
+                }
+            }
+        }
+
+        String outputValue = cl.getOptionValue(OPTION_COMPARE_OUTPUT);
+        BatchCompareService compareService = new BatchCompareService(threadsCount);
+        try {
+            long startTime = System.nanoTime();
+            List<PairCompareResult> results;
+            ThreeWayCompareResult threeWayResult = null;
+            if (paths.length == 3) {
+                threeWayResult = compareService.compareThreeWay(paths[0], paths[1], paths[2]);
+                results = Arrays.asList(threeWayResult.getFirstResult(), threeWayResult.getSecondResult());
+            } else {
+                List<ComparePair> pairs = directories
+                        ? BatchCompareService.createDirectoryPairs(paths[0], paths[1])
+                        : Collections.singletonList(new ComparePair(paths[1].getFileName().toString(), paths[0], paths[1]));
+                results = compareService.compare(pairs);
+            }
+            long timeMillis = (System.nanoTime() - startTime) / 1_000_000;
+
+            Writer writer = outputValue == null
+                    ? new OutputStreamWriter(System.out, StandardCharsets.UTF_8)
+                    : Files.newBufferedWriter(Paths.get(outputValue), StandardCharsets.UTF_8);
+            try {
+                BatchCompareReportWriter reportWriter = new BatchCompareReportWriter(writer);
+                if (threeWayResult != null) {
+                    reportWriter.writeThreeWay(threeWayResult, timeMillis);
+                } else {
+                    reportWriter.writePairs(results, timeMillis);
+                }
+            } finally {
+                // Standard output is left open
+                if (outputValue != null) {
+                    writer.close();
+                }
+            }
+
+            int exitCode = COMPARE_EXIT_IDENTICAL;
+            for (PairCompareResult result : results) {
+                if (result.getStatus() == PairCompareResult.Status.ERROR) {
+                    return COMPARE_EXIT_ERROR;
+                }
+                if (result.getStatus() != PairCompareResult.Status.IDENTICAL) {
+                    exitCode = COMPARE_EXIT_DIFFERENT;
+                }
+            }
+            return exitCode;
+        } catch (IOException ex) {
+            System.err.println(MessageFormat.format(bundle.getString("cl_compare_failed"), ex.getMessage()));
+            return COMPARE_EXIT_ERROR;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return COMPARE_EXIT_ERROR;
+        } finally {
+            compareService.dispose();
+        }
+    }
+
     public void loadSampleFile() {
         DocumentModuleApi documentModule = App.getModule(DocumentModuleApi.class);
         DocumentManagement mainDocumentManager = documentModule.getMainDocumentManager();
@@ -63,6 +63,7 @@ public class BinedOperationMethodModule implements Module {
     private final List<ConvertDataMethod> convertDataMethods = new ArrayList<>();
     private final List<CopyAsDataMethod> copyAsDataMethods = new ArrayList<>();
     private final List<PasteFromDataMethod> pasteFromDataMethods = new ArrayList<>();
+    private PreviewExecutor previewExecutor = null;
 
     public BinedOperationMethodModule() {
     }
@@ -156,6 +157,19 @@ public class BinedOperationMethodModule implements Module {
         return pasteFromDataMethods;
     }
 
+    /**
+     * Returns executor shared for computation of operation previews.
+     *
+     * @return preview executor
+     */
+    public PreviewExecutor getPreviewExecutor() {
+        if (previewExecutor == null) {
+            previewExecutor = new PreviewExecutor();
+        }
+
+        return previewExecutor;
+    }
+
     public ResourceBundle getResourceBundle() {
         if (resourceBundle == null) {
             resourceBundle = App.getModule(LanguageModuleApi.class).getBundle(BinedOperationMethodModule.class);
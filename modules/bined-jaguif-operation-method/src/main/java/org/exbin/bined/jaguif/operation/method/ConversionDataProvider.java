@@ -15,8 +15,10 @@
  */
 package org.exbin.bined.jaguif.operation.method;
 
+import java.io.IOException;
 import org.jspecify.annotations.NullMarked;
 import org.exbin.auxiliary.binary_data.EditableBinaryData;
+import org.exbin.bined.jaguif.operation.method.api.StreamDataConverter;
 
 /**
  * Data provider for conversion operation.
@@ -33,4 +35,22 @@ public interface ConversionDataProvider {
      * @param targetPosition target position
      */
     void provideData(EditableBinaryData binaryData, long position, long length, long targetPosition);
+
+    /**
+     * Creates data provider converting source data in chunks using stream
+     * converter.
+     *
+     * @param converter stream converter
+     * @return data provider
+     * @throws IllegalStateException on conversion error
+     */
+    static ConversionDataProvider forStreamConverter(StreamDataConverter converter) {
+        return (EditableBinaryData binaryData, long position, long length, long targetPosition) -> {
+            try {
+                ConversionStreams.convert(binaryData, position, length, converter, binaryData, targetPosition);
+            } catch (IOException ex) {
+                throw new IllegalStateException("Data conversion failed", ex);
+            }
+        };
+    }
 }
@@ -0,0 +1,307 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.operation.method;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.auxiliary.binary_data.EditableBinaryData;
+import org.exbin.bined.jaguif.operation.method.api.StreamDataConverter;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Streams for chunked conversion of binary data.
+ */
+@NullMarked
+public final class ConversionStreams {
+
+    public static final int BUFFER_SIZE = 65536;
+
+    private ConversionStreams() {
+    }
+
+    /**
+     * Converts range of source data and inserts result into target data.
+     * <p>
+     * Partially inserted result is removed if conversion fails.
+     *
+     * @param source source data
+     * @param position source position
+     * @param length source length
+     * @param converter stream converter
+     * @param target target data
+     * @param targetPosition target position
+     * @return length of inserted data
+     * @throws IOException on conversion error
+     */
+    public static long convert(BinaryData source, long position, long length, StreamDataConverter converter, EditableBinaryData target, long targetPosition) throws IOException {
+        return convert(source, position, length, converter, target, targetPosition, -1);
+    }
+
+    /**
+     * Converts range of source data and inserts result into target data.
+     * <p>
+     * Conversion stops when limit of inserted data is reached. Partially
+     * inserted result is removed if conversion fails.
+     *
+     * @param source source data
+     * @param position source position
+     * @param length source length
+     * @param converter stream converter
+     * @param target target data
+     * @param targetPosition target position
+     * @param targetLengthLimit limit of inserted data or -1 for no limit
+     * @return length of inserted data
+     * @throws IOException on conversion error
+     */
+    public static long convert(BinaryData source, long position, long length, StreamDataConverter converter, EditableBinaryData target, long targetPosition, long targetLengthLimit) throws IOException {
+        TargetOutputStream targetStream = new TargetOutputStream(target, targetPosition, targetLengthLimit);
+        try {
+            converter.convert(new SourceInputStream(source, position, length), targetStream);
+            targetStream.flush();
+        } catch (LimitReachedException ex) {
+            // Requested amount of data was converted
+        } catch (IOException | RuntimeException ex) {
+            targetStream.discard();
+            throw ex;
+        }
+        return targetStream.getInsertedLength();
+    }
+
+    /**
+     * Converts range of source data and inserts beginning of the result into
+     * target data.
+     * <p>
+     * Conversion is performed for whole source range, but only up to limit
+     * of data is inserted and the rest is just counted.
+     *
+     * @param source source data
+     * @param position source position
+     * @param length source length
+     * @param converter stream converter
+     * @param target target data
+     * @param targetPosition target position
+     * @param targetLengthLimit limit of inserted data
+     * @return total length of converted data
+     * @throws IOException on conversion error
+     */
+    public static long convertMeasured(BinaryData source, long position, long length, StreamDataConverter converter, EditableBinaryData target, long targetPosition, long targetLengthLimit) throws IOException {
+        TargetOutputStream targetStream = new TargetOutputStream(target, targetPosition, targetLengthLimit);
+        targetStream.setMeasureOnly(true);
+        try {
+            converter.convert(new SourceInputStream(source, position, length), targetStream);
+            targetStream.flush();
+        } catch (IOException | RuntimeException ex) {
+            targetStream.discard();
+            throw ex;
+        }
+        return targetStream.getTotalLength();
+    }
+
+    /**
+     * Creates input stream reading range of binary data in chunks.
+     *
+     * @param source source data
+     * @param position start position
+     * @param length length
+     * @return input stream
+     */
+    public static InputStream createSourceStream(BinaryData source, long position, long length) {
+        return new SourceInputStream(source, position, length);
+    }
+
+    /**
+     * Creates output stream inserting data into target data in chunks.
+     *
+     * @param target target data
+     * @param targetPosition insertion position
+     * @return output stream
+     */
+    public static OutputStream createTargetStream(EditableBinaryData target, long targetPosition) {
+        return new TargetOutputStream(target, targetPosition, -1);
+    }
+
+    /**
+     * Copies all data from input stream to output stream.
+     *
+     * @param source input stream
+     * @param target output stream
+     * @throws IOException on read or write error
+     */
+    public static void transfer(InputStream source, OutputStream target) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = source.read(buffer)) >= 0) {
+            target.write(buffer, 0, read);
+        }
+    }
+
+    private static final class SourceInputStream extends InputStream {
+
+        private final BinaryData source;
+        private final long endPosition;
+        private long position;
+
+        public SourceInputStream(BinaryData source, long position, long length) {
+            this.source = source;
+            this.position = position;
+            endPosition = position + length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (position >= endPosition) {
+                return -1;
+            }
+
+            return source.getByte(position++) & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (position >= endPosition) {
+                return -1;
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("Conversion cancelled");
+            }
+
+            int readLength = (int) Math.min(length, endPosition - position);
+            source.copyToArray(position, buffer, offset, readLength);
+            position += readLength;
+            return readLength;
+        }
+
+        @Override
+        public long skip(long count) throws IOException {
+            long skipped = Math.max(0, Math.min(count, endPosition - position));
+            position += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(Integer.MAX_VALUE, endPosition - position);
+        }
+    }
+
+    private static final class TargetOutputStream extends OutputStream {
+
+        private final EditableBinaryData target;
+        private final long startPosition;
+        private final long lengthLimit;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int bufferUsed = 0;
+        private long insertedLength = 0;
+        private long totalLength = 0;
+        private boolean measureOnly = false;
+
+        public TargetOutputStream(EditableBinaryData target, long startPosition, long lengthLimit) {
+            this.target = target;
+            this.startPosition = startPosition;
+            this.lengthLimit = lengthLimit;
+        }
+
+        @Override
+        public void write(int value) throws IOException {
+            checkLimit();
+            if (bufferUsed == buffer.length) {
+                flush();
+            }
+            buffer[bufferUsed++] = (byte) value;
+        }
+
+        @Override
+        public void write(byte[] data, int offset, int length) throws IOException {
+            int remaining = length;
+            int dataOffset = offset;
+            while (remaining > 0) {
+                checkLimit();
+                if (bufferUsed == buffer.length) {
+                    flush();
+                }
+                int copyLength = Math.min(remaining, buffer.length - bufferUsed);
+                System.arraycopy(data, dataOffset, buffer, bufferUsed, copyLength);
+                bufferUsed += copyLength;
+                dataOffset += copyLength;
+                remaining -= copyLength;
+            }
+        }
+
+        @Override
+        public void flush() {
+            if (bufferUsed == 0) {
+                return;
+            }
+
+            int length = lengthLimit < 0 ? bufferUsed : (int) Math.min(bufferUsed, lengthLimit - insertedLength);
+            if (length > 0) {
+                target.insert(startPosition + insertedLength, buffer, 0, length);
+                insertedLength += length;
+            }
+            totalLength += bufferUsed;
+            bufferUsed = 0;
+        }
+
+        public long getInsertedLength() {
+            return insertedLength;
+        }
+
+        public long getTotalLength() {
+            return totalLength;
+        }
+
+        /**
+         * Sets whether data beyond limit should be only counted.
+         *
+         * @param measureOnly measure only flag
+         */
+        public void setMeasureOnly(boolean measureOnly) {
+            this.measureOnly = measureOnly;
+        }
+
+        /**
+         * Removes data inserted so far.
+         */
+        public void discard() {
+            bufferUsed = 0;
+            totalLength = 0;
+            if (insertedLength > 0) {
+                target.remove(startPosition, insertedLength);
+                insertedLength = 0;
+            }
+        }
+
+        private void checkLimit() throws LimitReachedException {
+            if (!measureOnly && lengthLimit >= 0 && insertedLength + bufferUsed >= lengthLimit) {
+                flush();
+                throw new LimitReachedException();
+            }
+        }
+    }
+
+    private static final class LimitReachedException extends IOException {
+
+        public LimitReachedException() {
+            super("Conversion length limit reached");
+        }
+    }
+}
@@ -16,7 +16,9 @@
 package org.exbin.bined.jaguif.operation.method;
 
 import org.jspecify.annotations.NullMarked;
+import org.exbin.auxiliary.binary_data.BinaryData;
 import org.exbin.auxiliary.binary_data.EditableBinaryData;
+import org.exbin.bined.jaguif.document.data.UndoDataStore;
 import org.exbin.bined.operation.swing.BasicBinaryDataOperationType;
 import org.exbin.bined.operation.swing.RemoveDataOperation;
 import org.exbin.bined.operation.BinaryDataUndoableOperation;
@@ -32,6 +34,8 @@ public class ConvertDataOperation implements BinaryDataUndoableOperation {
     protected final long length;
     protected final long convertedDataLength;
     protected final ConversionDataProvider conversionDataProvider;
+    @Nullable
+    protected UndoDataStore undoDataStore;
 
     public ConvertDataOperation(long startPosition, long length, long convertedDataLength, ConversionDataProvider conversionDataProvider) {
         this.startPosition = startPosition;
@@ -40,6 +44,15 @@ public class ConvertDataOperation implements BinaryDataUndoableOperation {
         this.conversionDataProvider = conversionDataProvider;
     }
 
+    /**
+     * Sets store for original data kept for undo.
+     *
+     * @param undoDataStore undo data store or null to keep copy in memory
+     */
+    public void setUndoDataStore(@Nullable UndoDataStore undoDataStore) {
+        this.undoDataStore = undoDataStore;
+    }
+
     @Override
     public BasicBinaryDataOperationType getType() {
         return BasicBinaryDataOperationType.MODIFY_DATA;
@@ -58,16 +71,23 @@ public class ConvertDataOperation implements BinaryDataUndoableOperation {
     @Nullable
     private BinaryDataUndoableOperation execute(EditableBinaryData contentData, boolean withUndo) {
         BinaryDataUndoableOperation undoOperation = null;
-
+        BinaryDataUndoableOperation originalDataUndoOperation = null;
         if (withUndo) {
-            BinaryDataUndoableOperation originalDataUndoOperation = new org.exbin.bined.operation.swing.InsertDataOperation(startPosition, 0, contentData.copy(startPosition, length));
-            undoOperation = new CompoundBinaryDataOperation();
-            ((CompoundBinaryDataOperation) undoOperation).addOperation(new RemoveDataOperation(startPosition, 0, convertedDataLength));
-            ((CompoundBinaryDataOperation) undoOperation).addOperation(originalDataUndoOperation);
+            BinaryData originalData = undoDataStore == null ? contentData.copy(startPosition, length) : undoDataStore.storeCopy(contentData, startPosition, length);
+            originalDataUndoOperation = new org.exbin.bined.operation.swing.InsertDataOperation(startPosition, 0, originalData);
         }
 
+        long originalDataSize = contentData.getDataSize();
         conversionDataProvider.provideData(contentData, startPosition, length, startPosition + length);
+        // Converted data length is known only after conversion for streamed conversions
+        long resultDataLength = contentData.getDataSize() - originalDataSize;
         contentData.remove(startPosition, length);
+
+        if (withUndo) {
+            undoOperation = new CompoundBinaryDataOperation();
+            ((CompoundBinaryDataOperation) undoOperation).addOperation(new RemoveDataOperation(startPosition, 0, resultDataLength));
+            ((CompoundBinaryDataOperation) undoOperation).addOperation(originalDataUndoOperation);
+        }
         return undoOperation;
     }
 
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.operation.method;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Executor computing operation previews outside of event dispatch thread.
+ * <p>
+ * Only the latest requested preview is delivered, older previews are
+ * cancelled. Requests and results are handled in event dispatch thread, so
+ * preview computation should take all parameters from components before
+ * it is submitted.
+ */
+@NullMarked
+public class PreviewExecutor {
+
+    public static final int DEBOUNCE_DELAY = 200;
+
+    private static final AtomicInteger WORKER_COUNTER = new AtomicInteger();
+
+    private final ExecutorService workerPool;
+    private final Timer debounceTimer;
+    private int generation = 0;
+    @Nullable
+    private Runnable pendingRequest;
+    @Nullable
+    private Future<?> runningPreview;
+
+    public PreviewExecutor() {
+        int workersCount = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        workerPool = Executors.newFixedThreadPool(workersCount, (runnable) -> {
+            Thread thread = new Thread(runnable, "PreviewWorker-" + WORKER_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        });
+        debounceTimer = new Timer(DEBOUNCE_DELAY, (event) -> {
+            Runnable request = pendingRequest;
+            pendingRequest = null;
+            if (request != null) {
+                request.run();
+            }
+        });
+        debounceTimer.setRepeats(false);
+    }
+
+    /**
+     * Schedules preview computation after the parameters stop changing.
+     *
+     * @param <T> result type
+     * @param computation preview computation
+     * @param resultConsumer result consumer called in event dispatch thread
+     */
+    public <T> void schedule(Callable<T> computation, Consumer<T> resultConsumer) {
+        cancelRunning();
+        pendingRequest = () -> submit(computation, resultConsumer);
+        debounceTimer.restart();
+    }
+
+    /**
+     * Starts preview computation immediately.
+     *
+     * @param <T> result type
+     * @param computation preview computation
+     * @param resultConsumer result consumer called in event dispatch thread
+     */
+    public <T> void execute(Callable<T> computation, Consumer<T> resultConsumer) {
+        debounceTimer.stop();
+        pendingRequest = null;
+        submit(computation, resultConsumer);
+    }
+
+    /**
+     * Cancels pending and running preview.
+     */
+    public void cancel() {
+        debounceTimer.stop();
+        pendingRequest = null;
+        cancelRunning();
+    }
+
+    private <T> void submit(Callable<T> computation, Consumer<T> resultConsumer) {
+        cancelRunning();
+        int requestGeneration = generation;
+        runningPreview = workerPool.submit(() -> {
+            T result;
+            try {
+                result = computation.call();
+            } catch (Exception ex) {
+                if (!Thread.currentThread().isInterrupted()) {
+                    Logger.getLogger(PreviewExecutor.class.getName()).log(Level.WARNING, "Preview computation failed", ex);
+                }
+                return;
+            }
+
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+
+            SwingUtilities.invokeLater(() -> {
+                if (requestGeneration == generation) {
+                    runningPreview = null;
+                    resultConsumer.accept(result);
+                }
+            });
+        });
+    }
+
+    private void cancelRunning() {
+        generation++;
+        if (runningPreview != null) {
+            runningPreview.cancel(true);
+            runningPreview = null;
+        }
+    }
+}
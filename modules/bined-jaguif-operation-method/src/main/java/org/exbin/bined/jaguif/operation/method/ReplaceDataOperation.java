@@ -16,9 +16,11 @@
 package org.exbin.bined.jaguif.operation.method;
 
 import org.jspecify.annotations.NullMarked;
+import org.exbin.auxiliary.binary_data.BinaryData;
 import org.exbin.auxiliary.binary_data.EditableBinaryData;
 import org.exbin.auxiliary.binary_data.array.paged.ByteArrayPagedData;
 import org.exbin.auxiliary.binary_data.paged.PagedData;
+import org.exbin.bined.jaguif.document.data.UndoDataStore;
 import org.exbin.bined.operation.swing.BasicBinaryDataOperationType;
 import org.exbin.bined.operation.swing.ModifyDataOperation;
 import org.exbin.bined.operation.swing.RemoveDataOperation;
@@ -34,6 +36,8 @@ public class ReplaceDataOperation implements BinaryDataUndoableOperation {
     protected final long position;
     protected final long length;
     protected final InsertionDataProvider dataOperationDataProvider;
+    @Nullable
+    protected UndoDataStore undoDataStore;
 
     public ReplaceDataOperation(long position, long length, InsertionDataProvider dataOperationDataProvider) {
         this.position = position;
@@ -41,6 +45,15 @@ public class ReplaceDataOperation implements BinaryDataUndoableOperation {
         this.dataOperationDataProvider = dataOperationDataProvider;
     }
 
+    /**
+     * Sets store for original data kept for undo.
+     *
+     * @param undoDataStore undo data store or null to keep copy in memory
+     */
+    public void setUndoDataStore(@Nullable UndoDataStore undoDataStore) {
+        this.undoDataStore = undoDataStore;
+    }
+
     @Override
     public BasicBinaryDataOperationType getType() {
         return BasicBinaryDataOperationType.MODIFY_DATA;
@@ -73,9 +86,7 @@ public class ReplaceDataOperation implements BinaryDataUndoableOperation {
         } else if (position + length > dataSize) {
             long diff = position + length - dataSize;
             if (withUndo) {
-                // TODO use copy directly once delta is fixed
-                PagedData origData = new ByteArrayPagedData();
-                origData.insert(0, contentData.copy(position, length - diff));
+                BinaryData origData = copyOriginalData(contentData, length - diff);
                 undoOperation = new CompoundBinaryDataOperation();
                 ((CompoundBinaryDataOperation) undoOperation).addOperation(new ModifyDataOperation(position, origData));
                 ((CompoundBinaryDataOperation) undoOperation).addOperation(new RemoveDataOperation(dataSize, 0, diff));
@@ -83,10 +94,7 @@ public class ReplaceDataOperation implements BinaryDataUndoableOperation {
 
             contentData.insertUninitialized(dataSize, diff);
         } else if (withUndo) {
-            // TODO use copy directly once delta is fixed
-            PagedData origData = new ByteArrayPagedData();
-            origData.insert(0, contentData.copy(position, length));
-            undoOperation = new ModifyDataOperation(position, origData);
+            undoOperation = new ModifyDataOperation(position, copyOriginalData(contentData, length));
         }
 
         dataOperationDataProvider.provideData(contentData, position);
@@ -94,6 +102,17 @@ public class ReplaceDataOperation implements BinaryDataUndoableOperation {
         return undoOperation;
     }
 
+    private BinaryData copyOriginalData(EditableBinaryData contentData, long originalLength) {
+        if (undoDataStore != null) {
+            return undoDataStore.storeCopy(contentData, position, originalLength);
+        }
+
+        // TODO use copy directly once delta is fixed
+        PagedData origData = new ByteArrayPagedData();
+        origData.insert(0, contentData.copy(position, originalLength));
+        return origData;
+    }
+
     @Override
     public void dispose() {
     }
@@ -164,5 +164,6 @@ public class ConvertDataAction extends AbstractAction {
         });
         SwingUtilities.invokeLater(dataOperationPanel::initFocus);
         dialog.showCentered(codeArea);
+        App.getModule(BinedOperationMethodModule.class).getPreviewExecutor().cancel();
     }
 }
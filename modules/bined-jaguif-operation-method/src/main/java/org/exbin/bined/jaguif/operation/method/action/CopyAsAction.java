@@ -117,5 +117,6 @@ public class CopyAsAction extends AbstractAction {
         });
         SwingUtilities.invokeLater(dataOperationPanel::initFocus);
         dialog.showCentered(codeArea);
+        App.getModule(BinedOperationMethodModule.class).getPreviewExecutor().cancel();
     }
 }
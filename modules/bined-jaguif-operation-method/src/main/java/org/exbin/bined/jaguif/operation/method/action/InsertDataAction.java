@@ -135,5 +135,6 @@ public class InsertDataAction extends AbstractAction {
         });
         SwingUtilities.invokeLater(dataOperationPanel::initFocus);
         dialog.showCentered(codeArea);
+        App.getModule(BinedOperationMethodModule.class).getPreviewExecutor().cancel();
     }
 }
@@ -132,5 +132,6 @@ public class PasteFromAction extends AbstractAction {
         });
         SwingUtilities.invokeLater(dataOperationPanel::initFocus);
         dialog.showCentered(codeArea);
+        App.getModule(BinedOperationMethodModule.class).getPreviewExecutor().cancel();
     }
 }
@@ -16,6 +16,7 @@
 package org.exbin.bined.jaguif.operation.method.api;
 
 import java.awt.Component;
+import java.util.Optional;
 import org.jspecify.annotations.NullMarked;
 import org.exbin.auxiliary.binary_data.BinaryData;
 import org.exbin.bined.operation.swing.command.CodeAreaCommand;
@@ -54,4 +55,16 @@ public interface ConvertDataMethod extends DataOperationMethod {
      * @param lengthLimit limit to length of set data
      */
     void requestPreview(PreviewDataHandler previewDataHandler, Component component, CodeAreaCore codeArea, long lengthLimit);
+
+    /**
+     * Creates stream converter for current parameters of the component.
+     * <p>
+     * Stream converter allows to convert data of any size in bounded memory.
+     *
+     * @param component visual component
+     * @return stream converter or empty if method doesn't support streaming
+     */
+    default Optional<StreamDataConverter> createStreamConverter(Component component) {
+        return Optional.empty();
+    }
 }
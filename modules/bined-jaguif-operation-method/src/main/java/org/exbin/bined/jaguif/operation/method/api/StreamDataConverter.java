@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.operation.method.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Converter of data processing source data as stream.
+ * <p>
+ * Converter should read and write data incrementally so that conversion of
+ * large data runs in bounded memory.
+ */
+@NullMarked
+@FunctionalInterface
+public interface StreamDataConverter {
+
+    /**
+     * Converts data from source stream to target stream.
+     *
+     * @param source source data stream
+     * @param target target data stream
+     * @throws IOException on conversion error
+     */
+    void convert(InputStream source, OutputStream target) throws IOException;
+}
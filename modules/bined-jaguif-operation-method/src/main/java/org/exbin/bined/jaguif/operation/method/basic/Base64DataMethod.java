@@ -16,9 +16,13 @@
 package org.exbin.bined.jaguif.operation.method.basic;
 
 import java.awt.Component;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.Callable;
 import org.jspecify.annotations.NullMarked;
-import javax.swing.SwingUtilities;
 import org.exbin.auxiliary.binary_data.BinaryData;
 import org.exbin.auxiliary.binary_data.array.ByteArrayEditableData;
 import org.exbin.auxiliary.binary_data.EditableBinaryData;
@@ -31,10 +35,14 @@ import org.exbin.jaguif.App;
 import org.exbin.bined.jaguif.operation.method.api.ConvertDataMethod;
 import org.exbin.jaguif.language.api.LanguageModuleApi;
 import org.exbin.bined.jaguif.operation.method.api.PreviewDataHandler;
+import org.exbin.bined.jaguif.operation.method.api.StreamDataConverter;
 import org.exbin.bined.jaguif.operation.method.basic.gui.Base64DataPanel;
+import org.exbin.bined.jaguif.operation.method.BinedOperationMethodModule;
 import org.exbin.bined.jaguif.operation.method.ConversionDataProvider;
+import org.exbin.bined.jaguif.operation.method.ConversionStreams;
 import org.exbin.bined.jaguif.operation.method.command.ConvertDataCommand;
 import org.exbin.bined.jaguif.operation.method.ConvertDataOperation;
+import org.exbin.bined.jaguif.operation.method.PreviewExecutor;
 import org.exbin.bined.jaguif.operation.method.gui.BinaryPreviewPanel;
 
 /**
@@ -109,112 +117,107 @@ public class Base64DataMethod implements ConvertDataMethod {
     }
 
     public static void convertData(BinaryData sourceBinaryData, long position, long length, OperationType operationType, EditableBinaryData targetBinaryData, long targetPosition) throws IllegalStateException {
+        convertData(sourceBinaryData, position, length, operationType, targetBinaryData, targetPosition, -1);
+    }
+
+    /**
+     * Encodes or decodes data in chunks.
+     * <p>
+     * Nothing is inserted if data are not valid for decoding.
+     *
+     * @param sourceBinaryData source binary data
+     * @param position starting position
+     * @param length data length
+     * @param operationType operation type
+     * @param targetBinaryData target binary data
+     * @param targetPosition target position
+     * @param targetLengthLimit limit of inserted data or -1 for no limit
+     */
+    public static void convertData(BinaryData sourceBinaryData, long position, long length, OperationType operationType, EditableBinaryData targetBinaryData, long targetPosition, long targetLengthLimit) {
+        try {
+            ConversionStreams.convert(sourceBinaryData, position, length, createStreamConverter(operationType), targetBinaryData, targetPosition, targetLengthLimit);
+        } catch (IOException | IllegalArgumentException ex) {
+            // ignore
+        }
+    }
+
+    @Override
+    public Optional<StreamDataConverter> createStreamConverter(Component component) {
+        return Optional.of(createStreamConverter(((Base64DataPanel) component).getOperationType()));
+    }
+
+    public static StreamDataConverter createStreamConverter(OperationType operationType) {
         switch (operationType) {
-            case BASIC_ENCODER: {
-                Base64.Encoder encoder = Base64.getEncoder();
-                byte[] sourceData = new byte[(int) length];
-                sourceBinaryData.copyToArray(position, sourceData, 0, (int) length);
-                byte[] output = encoder.encode(sourceData);
-                targetBinaryData.insert(targetPosition, output);
-                break;
-            }
-            case BASIC_DECODER: {
-                Base64.Decoder decoder = Base64.getDecoder();
-                byte[] sourceData = new byte[(int) length];
-                sourceBinaryData.copyToArray(position, sourceData, 0, (int) length);
-                try {
-                    byte[] output = decoder.decode(sourceData);
-                    targetBinaryData.insert(targetPosition, output);
-                } catch (IllegalArgumentException ex) {
-                    // ignore
-                }
-                break;
-            }
-            case MIME_ENCODER: {
-                Base64.Encoder encoder = Base64.getMimeEncoder();
-                byte[] sourceData = new byte[(int) length];
-                sourceBinaryData.copyToArray(position, sourceData, 0, (int) length);
-                try {
-                    byte[] output = encoder.encode(sourceData);
-                    targetBinaryData.insert(targetPosition, output);
-                } catch (IllegalArgumentException ex) {
-                    // ignore
-                }
-                break;
-            }
-            case MIME_DECODER: {
-                Base64.Decoder decoder = Base64.getMimeDecoder();
-                byte[] sourceData = new byte[(int) length];
-                sourceBinaryData.copyToArray(position, sourceData, 0, (int) length);
-                byte[] output = decoder.decode(sourceData);
-                targetBinaryData.insert(targetPosition, output);
-                break;
-            }
-            case URL_ENCODER: {
-                Base64.Encoder encoder = Base64.getUrlEncoder();
-                byte[] sourceData = new byte[(int) length];
-                sourceBinaryData.copyToArray(position, sourceData, 0, (int) length);
-                try {
-                    byte[] output = encoder.encode(sourceData);
-                    targetBinaryData.insert(targetPosition, output);
-                } catch (IllegalArgumentException ex) {
-                    // ignore
-                }
-                break;
-            }
-            case URL_DECODER: {
-                Base64.Decoder decoder = Base64.getUrlDecoder();
-                byte[] sourceData = new byte[(int) length];
-                sourceBinaryData.copyToArray(position, sourceData, 0, (int) length);
-                try {
-                    byte[] output = decoder.decode(sourceData);
-                    targetBinaryData.insert(targetPosition, output);
-                } catch (IllegalArgumentException ex) {
-                    // ignore
-                }
-                break;
-            }
+            case BASIC_ENCODER:
+                return createEncoder(Base64.getEncoder());
+            case BASIC_DECODER:
+                return createDecoder(Base64.getDecoder());
+            case MIME_ENCODER:
+                return createEncoder(Base64.getMimeEncoder());
+            case MIME_DECODER:
+                return createDecoder(Base64.getMimeDecoder());
+            case URL_ENCODER:
+                return createEncoder(Base64.getUrlEncoder());
+            case URL_DECODER:
+                return createDecoder(Base64.getUrlDecoder());
             default:
                 throw CodeAreaUtils.getInvalidTypeException(operationType);
         }
     }
 
+    private static StreamDataConverter createEncoder(Base64.Encoder encoder) {
+        return (InputStream source, OutputStream target) -> {
+            try (OutputStream encodingStream = encoder.wrap(target)) {
+                ConversionStreams.transfer(source, encodingStream);
+            }
+        };
+    }
+
+    private static StreamDataConverter createDecoder(Base64.Decoder decoder) {
+        return (InputStream source, OutputStream target) -> {
+            try (InputStream decodingStream = decoder.wrap(source)) {
+                ConversionStreams.transfer(decodingStream, target);
+            }
+        };
+    }
+
     @Override
     public void requestPreview(PreviewDataHandler previewDataHandler, Component component, CodeAreaCore codeArea, long lengthLimit) {
         this.previewDataHandler = previewDataHandler;
         this.previewLengthLimit = lengthLimit;
         Base64DataPanel panel = (Base64DataPanel) component;
+        PreviewExecutor previewExecutor = App.getModule(BinedOperationMethodModule.class).getPreviewExecutor();
         panel.setParamChangeListener(() -> {
-            fillPreviewData(panel, codeArea);
+            previewExecutor.schedule(createPreviewComputation(panel, codeArea), this::showPreviewData);
         });
-        fillPreviewData(panel, codeArea);
+        previewExecutor.execute(createPreviewComputation(panel, codeArea), this::showPreviewData);
     }
 
-    private void fillPreviewData(Base64DataPanel panel, CodeAreaCore codeArea) {
+    private Callable<BinaryData> createPreviewComputation(Base64DataPanel panel, CodeAreaCore codeArea) {
+        OperationType operationType = panel.getOperationType();
+        long position;
+        long length;
+        SelectionRange selection = ((SelectionCapable) codeArea).getSelection();
+        if (selection.isEmpty()) {
+            position = 0;
+            length = codeArea.getDataSize();
+        } else {
+            position = selection.getFirst();
+            length = selection.getLength();
+        }
+        BinaryData sourceData = codeArea.getContentData();
+        long lengthLimit = previewLengthLimit;
+        return () -> {
+            EditableBinaryData previewBinaryData = new ByteArrayEditableData();
+            convertData(sourceData, position, length, operationType, previewBinaryData, 0, lengthLimit);
+            return previewBinaryData;
+        };
+    }
+
+    private void showPreviewData(BinaryData previewBinaryData) {
         previewPanel = new BinaryPreviewPanel();
         previewDataHandler.setPreviewComponent(previewPanel);
-        SwingUtilities.invokeLater(() -> {
-            OperationType operationType = panel.getOperationType();
-
-            EditableBinaryData previewBinaryData = new ByteArrayEditableData();
-            previewBinaryData.clear();
-            long position;
-            long length;
-            SelectionRange selection = ((SelectionCapable) codeArea).getSelection();
-            if (selection.isEmpty()) {
-                position = 0;
-                length = codeArea.getDataSize();
-            } else {
-                position = selection.getFirst();
-                length = selection.getLength();
-            }
-            convertData(codeArea.getContentData(), position, length, operationType, previewBinaryData, 0);
-            long previewDataSize = previewBinaryData.getDataSize();
-            if (previewDataSize > previewLengthLimit) {
-                previewBinaryData.remove(previewLengthLimit, previewDataSize - previewLengthLimit);
-            }
-            previewPanel.setPreviewData(previewBinaryData);
-        });
+        previewPanel.setPreviewData(previewBinaryData);
     }
 
     public enum OperationType {
@@ -17,8 +17,8 @@ package org.exbin.bined.jaguif.operation.method.basic;
 
 import java.awt.Component;
 import java.util.Optional;
+import java.util.concurrent.Callable;
 import org.jspecify.annotations.NullMarked;
-import javax.swing.SwingUtilities;
 import org.exbin.auxiliary.binary_data.BinaryData;
 import org.exbin.auxiliary.binary_data.array.ByteArrayEditableData;
 import org.exbin.auxiliary.binary_data.EditableBinaryData;
@@ -32,9 +32,11 @@ import org.exbin.bined.jaguif.operation.method.api.ConvertDataMethod;
 import org.exbin.jaguif.language.api.LanguageModuleApi;
 import org.exbin.bined.jaguif.operation.method.api.PreviewDataHandler;
 import org.exbin.bined.jaguif.operation.method.basic.gui.BitSwappingDataPanel;
+import org.exbin.bined.jaguif.operation.method.BinedOperationMethodModule;
 import org.exbin.bined.jaguif.operation.method.ConversionDataProvider;
 import org.exbin.bined.jaguif.operation.method.command.ConvertDataCommand;
 import org.exbin.bined.jaguif.operation.method.ConvertDataOperation;
+import org.exbin.bined.jaguif.operation.method.PreviewExecutor;
 import org.exbin.bined.jaguif.operation.method.gui.BinaryPreviewPanel;
 
 /**
@@ -43,7 +45,7 @@ import org.exbin.bined.jaguif.operation.method.gui.BinaryPreviewPanel;
 @NullMarked
 public class BitSwappingDataMethod implements ConvertDataMethod {
 
-    private static final int BUFFER_SIZE = 4096;
+    private static final int BUFFER_SIZE = 65536;
 
     private java.util.ResourceBundle resourceBundle = App.getModule(LanguageModuleApi.class).getBundle(BitSwappingDataPanel.class);
 
@@ -111,57 +113,58 @@ public class BitSwappingDataMethod implements ConvertDataMethod {
     }
 
     public static void convertData(BinaryData sourceBinaryData, long position, long length, OperationType operationType, EditableBinaryData targetBinaryData, long targetPosition) throws IllegalStateException {
-        switch (operationType) {
-            case INVERT_BITS: {
-                int bufferSize = length < BUFFER_SIZE ? (int) length : BUFFER_SIZE;
-                byte[] buffer = new byte[bufferSize];
-                long remaining = length;
-                while (remaining > 0) {
-                    sourceBinaryData.copyToArray(position, buffer, 0, bufferSize);
-                    for (int i = 0; i < buffer.length; i++) {
+        convertData(sourceBinaryData, position, length, operationType, targetBinaryData, targetPosition, -1);
+    }
+
+    /**
+     * Converts data in chunks.
+     *
+     * @param sourceBinaryData source binary data
+     * @param position starting position
+     * @param length data length
+     * @param operationType operation type
+     * @param targetBinaryData target binary data
+     * @param targetPosition target position
+     * @param targetLengthLimit limit of inserted data or -1 for no limit
+     */
+    public static void convertData(BinaryData sourceBinaryData, long position, long length, OperationType operationType, EditableBinaryData targetBinaryData, long targetPosition, long targetLengthLimit) {
+        long convertedLength = targetLengthLimit < 0 ? length : Math.min(length, targetLengthLimit);
+        byte[] buffer = new byte[(int) Math.min(convertedLength, BUFFER_SIZE)];
+        long processed = 0;
+        while (processed < convertedLength) {
+            int chunkSize = (int) Math.min(buffer.length, convertedLength - processed);
+            switch (operationType) {
+                case INVERT_BITS: {
+                    sourceBinaryData.copyToArray(position + processed, buffer, 0, chunkSize);
+                    for (int i = 0; i < chunkSize; i++) {
                         buffer[i] ^= 0xff;
                     }
-                    remaining -= bufferSize;
-                    targetBinaryData.insert(targetPosition, buffer);
-                    targetPosition += bufferSize;
+                    break;
                 }
-                break;
-            }
-            case REVERT_BYTES_ORDER: {
-                int bufferSize = length < BUFFER_SIZE ? (int) length : BUFFER_SIZE;
-                byte[] buffer = new byte[bufferSize];
-                long remaining = length;
-                while (remaining > 0) {
-                    sourceBinaryData.copyToArray(position, buffer, 0, bufferSize);
-                    for (int i = 0; i < (buffer.length + 1) / 2; i++) {
+                case REVERT_BYTES_ORDER: {
+                    // Chunks are taken from the end of the source
+                    sourceBinaryData.copyToArray(position + length - processed - chunkSize, buffer, 0, chunkSize);
+                    for (int i = 0; i < chunkSize / 2; i++) {
                         byte swap = buffer[i];
-                        buffer[i] = buffer[buffer.length - i - 1];
-                        buffer[buffer.length - i - 1] = swap;
+                        buffer[i] = buffer[chunkSize - i - 1];
+                        buffer[chunkSize - i - 1] = swap;
                     }
-                    remaining -= bufferSize;
-                    targetBinaryData.insert(targetPosition, buffer);
+                    break;
                 }
-                break;
-            }
-            case SWAP_PAIRS: {
-                int bufferSize = length < BUFFER_SIZE ? (int) length : BUFFER_SIZE;
-                byte[] buffer = new byte[bufferSize];
-                long remaining = length;
-                while (remaining > 0) {
-                    sourceBinaryData.copyToArray(position, buffer, 0, bufferSize);
-                    for (int i = 0; i < buffer.length / 2; i++) {
+                case SWAP_PAIRS: {
+                    sourceBinaryData.copyToArray(position + processed, buffer, 0, chunkSize);
+                    for (int i = 0; i < chunkSize / 2; i++) {
                         byte swap = buffer[i * 2];
                         buffer[i * 2] = buffer[i * 2 + 1];
                         buffer[i * 2 + 1] = swap;
                     }
-                    remaining -= bufferSize;
-                    targetBinaryData.insert(targetPosition, buffer);
-                    targetPosition += bufferSize;
+                    break;
                 }
-                break;
+                default:
+                    throw CodeAreaUtils.getInvalidTypeException(operationType);
             }
-            default:
-                throw CodeAreaUtils.getInvalidTypeException(operationType);
+            targetBinaryData.insert(targetPosition + processed, buffer, 0, chunkSize);
+            processed += chunkSize;
         }
     }
 
@@ -170,39 +173,40 @@ public class BitSwappingDataMethod implements ConvertDataMethod {
         this.previewDataHandler = previewDataHandler;
         this.previewLengthLimit = lengthLimit;
         BitSwappingDataPanel panel = (BitSwappingDataPanel) component;
+        PreviewExecutor previewExecutor = App.getModule(BinedOperationMethodModule.class).getPreviewExecutor();
         panel.setParamChangeListener(() -> {
-            fillPreviewData(panel, codeArea);
+            previewExecutor.schedule(createPreviewComputation(panel, codeArea), this::showPreviewData);
         });
-        fillPreviewData(panel, codeArea);
+        previewExecutor.execute(createPreviewComputation(panel, codeArea), this::showPreviewData);
     }
 
-    private void fillPreviewData(BitSwappingDataPanel panel, CodeAreaCore codeArea) {
-        previewPanel = new BinaryPreviewPanel();
-        previewDataHandler.setPreviewComponent(previewPanel);
-        SwingUtilities.invokeLater(() -> {
-            Optional<OperationType> operationType = panel.getOperationType();
-
+    private Callable<BinaryData> createPreviewComputation(BitSwappingDataPanel panel, CodeAreaCore codeArea) {
+        Optional<OperationType> operationType = panel.getOperationType();
+        long position;
+        long length;
+        SelectionRange selection = ((SelectionCapable) codeArea).getSelection();
+        if (selection.isEmpty()) {
+            position = 0;
+            length = codeArea.getDataSize();
+        } else {
+            position = selection.getFirst();
+            length = selection.getLength();
+        }
+        BinaryData sourceData = codeArea.getContentData();
+        long lengthLimit = previewLengthLimit;
+        return () -> {
             EditableBinaryData previewBinaryData = new ByteArrayEditableData();
-            previewBinaryData.clear();
             if (operationType.isPresent()) {
-                long position;
-                long length;
-                SelectionRange selection = ((SelectionCapable) codeArea).getSelection();
-                if (selection.isEmpty()) {
-                    position = 0;
-                    length = codeArea.getDataSize();
-                } else {
-                    position = selection.getFirst();
-                    length = selection.getLength();
-                }
-                convertData(codeArea.getContentData(), position, length, operationType.get(), previewBinaryData, 0);
-                long previewDataSize = previewBinaryData.getDataSize();
-                if (previewDataSize > previewLengthLimit) {
-                    previewBinaryData.remove(previewLengthLimit, previewDataSize - previewLengthLimit);
-                }
+                convertData(sourceData, position, length, operationType.get(), previewBinaryData, 0, lengthLimit);
             }
-            previewPanel.setPreviewData(previewBinaryData);
-        });
+            return previewBinaryData;
+        };
+    }
+
+    private void showPreviewData(BinaryData previewBinaryData) {
+        previewPanel = new BinaryPreviewPanel();
+        previewDataHandler.setPreviewComponent(previewPanel);
+        previewPanel.setPreviewData(previewBinaryData);
     }
 
     public enum OperationType {
@@ -16,9 +16,12 @@
 package org.exbin.bined.jaguif.operation.method.basic;
 
 import java.awt.Component;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Optional;
+import java.util.concurrent.Callable;
 import java.util.zip.Deflater;
 import java.util.zip.DeflaterOutputStream;
 import java.util.zip.GZIPInputStream;
@@ -30,7 +33,6 @@ import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
 import org.jspecify.annotations.Nullable;
 import org.jspecify.annotations.NullMarked;
-import javax.swing.SwingUtilities;
 import org.exbin.auxiliary.binary_data.BinaryData;
 import org.exbin.auxiliary.binary_data.array.ByteArrayEditableData;
 import org.exbin.auxiliary.binary_data.EditableBinaryData;
@@ -43,10 +45,14 @@ import org.exbin.jaguif.App;
 import org.exbin.bined.jaguif.operation.method.api.ConvertDataMethod;
 import org.exbin.jaguif.language.api.LanguageModuleApi;
 import org.exbin.bined.jaguif.operation.method.api.PreviewDataHandler;
+import org.exbin.bined.jaguif.operation.method.api.StreamDataConverter;
 import org.exbin.bined.jaguif.operation.method.basic.gui.CompressionDataPanel;
 import org.exbin.bined.jaguif.operation.method.ConversionDataProvider;
+import org.exbin.bined.jaguif.operation.method.BinedOperationMethodModule;
+import org.exbin.bined.jaguif.operation.method.ConversionStreams;
 import org.exbin.bined.jaguif.operation.method.command.ConvertDataCommand;
 import org.exbin.bined.jaguif.operation.method.ConvertDataOperation;
+import org.exbin.bined.jaguif.operation.method.PreviewExecutor;
 import org.exbin.bined.jaguif.operation.method.gui.BinaryPreviewPanel;
 
 /**
@@ -57,6 +63,9 @@ public class CompressionDataMethod implements ConvertDataMethod {
 
     private java.util.ResourceBundle resourceBundle = App.getModule(LanguageModuleApi.class).getBundle(CompressionDataPanel.class);
 
+    private static final int MAGIC_BYTES_LENGTH = 4;
+    private static final long PREVIEW_SAMPLE_LIMIT = 1024 * 1024;
+
     private PreviewDataHandler previewDataHandler;
     private long previewLengthLimit = 0;
     private BinaryPreviewPanel previewPanel;
@@ -142,27 +151,29 @@ public class CompressionDataMethod implements ConvertDataMethod {
     public String convertData(BinaryData sourceBinaryData, long position, long length, OperationType operationType,
             CompressionAlgorithm algorithm, boolean autoDetect, EditableBinaryData targetBinaryData,
             long targetPosition) throws IllegalStateException {
+        return convertData(sourceBinaryData, position, length, operationType, algorithm, autoDetect, targetBinaryData, targetPosition, -1);
+    }
 
-        byte[] sourceData = new byte[(int) length];
-        sourceBinaryData.copyToArray(position, sourceData, 0, (int) length);
-
+    /**
+     * Compresses or decompresses binary data in chunks.
+     *
+     * @param sourceBinaryData source binary data
+     * @param position starting position
+     * @param length data length
+     * @param operationType compress or decompress
+     * @param algorithm compression algorithm
+     * @param autoDetect auto-detect compression type for decompression
+     * @param targetBinaryData target binary data
+     * @param targetPosition target position
+     * @param targetLengthLimit limit of inserted data or -1 for no limit
+     * @return result message
+     */
+    public String convertData(BinaryData sourceBinaryData, long position, long length, OperationType operationType,
+            CompressionAlgorithm algorithm, boolean autoDetect, EditableBinaryData targetBinaryData,
+            long targetPosition, long targetLengthLimit) {
+        CompressionAlgorithm usedAlgorithm = resolveAlgorithm(sourceBinaryData, position, length, operationType, algorithm, autoDetect);
         try {
-            byte[] output;
-            if (operationType == OperationType.COMPRESS) {
-                output = compress(sourceData, algorithm);
-            } else {
-                // Auto-detect compression type if enabled
-                CompressionAlgorithm detectedAlgorithm = algorithm;
-                if (autoDetect) {
-                    CompressionAlgorithm detected = detectCompressionType(sourceData);
-                    if (detected != null) {
-                        detectedAlgorithm = detected;
-                    }
-                }
-                output = decompress(sourceData, detectedAlgorithm);
-            }
-            targetBinaryData.insert(targetPosition, output);
-
+            ConversionStreams.convert(sourceBinaryData, position, length, createStreamConverter(operationType, usedAlgorithm), targetBinaryData, targetPosition, targetLengthLimit);
         } catch (Exception ex) {
             // Handle errors gracefully
             String errorMsg = "Error: " + ex.getMessage();
@@ -170,106 +181,128 @@ public class CompressionDataMethod implements ConvertDataMethod {
             targetBinaryData.insert(targetPosition, output);
             return errorMsg;
         }
-        
+
         return "";
     }
 
+    private static CompressionAlgorithm resolveAlgorithm(BinaryData sourceBinaryData, long position, long length, OperationType operationType, CompressionAlgorithm algorithm, boolean autoDetect) {
+        if (operationType == OperationType.DECOMPRESS && autoDetect) {
+            // Auto-detect compression type if enabled
+            byte[] header = new byte[(int) Math.min(length, MAGIC_BYTES_LENGTH)];
+            sourceBinaryData.copyToArray(position, header, 0, header.length);
+            CompressionAlgorithm detected = detectCompressionType(header);
+            if (detected != null) {
+                return detected;
+            }
+        }
+
+        return algorithm;
+    }
+
+    @Override
+    public Optional<StreamDataConverter> createStreamConverter(Component component) {
+        CompressionDataPanel panel = (CompressionDataPanel) component;
+        if (panel.getOperationType() == OperationType.DECOMPRESS && panel.isAutoDetect()) {
+            // Algorithm depends on data
+            return Optional.empty();
+        }
+
+        return Optional.of(createStreamConverter(panel.getOperationType(), panel.getAlgorithm()));
+    }
+
+    /**
+     * Creates stream converter for given operation and algorithm.
+     *
+     * @param operationType compress or decompress
+     * @param algorithm compression algorithm
+     * @return stream converter
+     */
+    public static StreamDataConverter createStreamConverter(OperationType operationType, CompressionAlgorithm algorithm) {
+        switch (operationType) {
+            case COMPRESS:
+                return (InputStream source, OutputStream target) -> compress(source, target, algorithm);
+            case DECOMPRESS:
+                return (InputStream source, OutputStream target) -> decompress(source, target, algorithm);
+            default:
+                throw CodeAreaUtils.getInvalidTypeException(operationType);
+        }
+    }
+
     /**
      * Compresses data using specified algorithm.
      *
-     * @param data input data
+     * @param source input data
+     * @param target output for compressed data
      * @param algorithm compression algorithm
-     * @return compressed data
      * @throws IOException on compression error
      */
-    private static byte[] compress(byte[] data, CompressionAlgorithm algorithm) throws IOException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-
+    private static void compress(InputStream source, OutputStream target, CompressionAlgorithm algorithm) throws IOException {
         switch (algorithm) {
             case GZIP: {
-                try (GZIPOutputStream gzip = new GZIPOutputStream(baos)) {
-                    gzip.write(data);
+                try (GZIPOutputStream gzip = new GZIPOutputStream(target, ConversionStreams.BUFFER_SIZE)) {
+                    ConversionStreams.transfer(source, gzip);
                 }
                 break;
             }
             case ZIP: {
-                try (ZipOutputStream zip = new ZipOutputStream(baos)) {
+                try (ZipOutputStream zip = new ZipOutputStream(target)) {
                     zip.putNextEntry(new ZipEntry("data"));
-                    zip.write(data);
+                    ConversionStreams.transfer(source, zip);
                     zip.closeEntry();
                 }
                 break;
             }
             case DEFLATE: {
-                try (DeflaterOutputStream deflate = new DeflaterOutputStream(baos, new Deflater())) {
-                    deflate.write(data);
+                try (DeflaterOutputStream deflate = new DeflaterOutputStream(target, new Deflater(), ConversionStreams.BUFFER_SIZE)) {
+                    ConversionStreams.transfer(source, deflate);
                 }
                 break;
             }
             default:
                 throw CodeAreaUtils.getInvalidTypeException(algorithm);
         }
-
-        return baos.toByteArray();
     }
 
     /**
      * Decompresses data using specified algorithm.
      *
-     * @param data compressed data
+     * @param source compressed data
+     * @param target output for decompressed data
      * @param algorithm compression algorithm
-     * @return decompressed data
      * @throws IOException on decompression error
      */
-    private static byte[] decompress(byte[] data, CompressionAlgorithm algorithm) throws IOException {
-        ByteArrayInputStream bais = new ByteArrayInputStream(data);
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-
+    private static void decompress(InputStream source, OutputStream target, CompressionAlgorithm algorithm) throws IOException {
         switch (algorithm) {
             case GZIP: {
-                try (GZIPInputStream gzip = new GZIPInputStream(bais)) {
-                    byte[] buffer = new byte[4096];
-                    int len;
-                    while ((len = gzip.read(buffer)) > 0) {
-                        baos.write(buffer, 0, len);
-                    }
+                try (GZIPInputStream gzip = new GZIPInputStream(source, ConversionStreams.BUFFER_SIZE)) {
+                    ConversionStreams.transfer(gzip, target);
                 }
                 break;
             }
             case ZIP: {
-                try (ZipInputStream zip = new ZipInputStream(bais)) {
+                try (ZipInputStream zip = new ZipInputStream(source)) {
                     ZipEntry entry = zip.getNextEntry();
                     if (entry != null) {
-                        byte[] buffer = new byte[4096];
-                        int len;
-                        while ((len = zip.read(buffer)) > 0) {
-                            baos.write(buffer, 0, len);
-                        }
+                        ConversionStreams.transfer(zip, target);
                     }
                 }
                 break;
             }
             case DEFLATE: {
-                try (InflaterInputStream inflate = new InflaterInputStream(bais, new Inflater())) {
-                    byte[] buffer = new byte[4096];
-                    int len;
-                    while ((len = inflate.read(buffer)) > 0) {
-                        baos.write(buffer, 0, len);
-                    }
+                try (InflaterInputStream inflate = new InflaterInputStream(source, new Inflater(), ConversionStreams.BUFFER_SIZE)) {
+                    ConversionStreams.transfer(inflate, target);
                 }
                 break;
             }
             default:
                 throw CodeAreaUtils.getInvalidTypeException(algorithm);
         }
-
-        return baos.toByteArray();
     }
 
     /**
      * Detects compression type by examining magic bytes.
      *
-     * @param data compressed data
+     * @param data beginning of compressed data
      * @return detected compression algorithm, or null if unknown
      */
     @Nullable
@@ -297,53 +330,70 @@ public class CompressionDataMethod implements ConvertDataMethod {
         this.previewDataHandler = previewDataHandler;
         this.previewLengthLimit = lengthLimit;
         CompressionDataPanel panel = (CompressionDataPanel) component;
+        PreviewExecutor previewExecutor = App.getModule(BinedOperationMethodModule.class).getPreviewExecutor();
         panel.setParamChangeListener(() -> {
-            fillPreviewData(panel, codeArea);
+            previewExecutor.schedule(createPreviewComputation(panel, codeArea), (result) -> showPreviewResult(panel, result));
         });
-        fillPreviewData(panel, codeArea);
+        previewExecutor.execute(createPreviewComputation(panel, codeArea), (result) -> showPreviewResult(panel, result));
     }
 
-    private void fillPreviewData(CompressionDataPanel panel, CodeAreaCore codeArea) {
-        previewPanel = new BinaryPreviewPanel();
-        previewDataHandler.setPreviewComponent(previewPanel);
-        SwingUtilities.invokeLater(() -> {
-            OperationType operationType = panel.getOperationType();
-            CompressionAlgorithm algorithm = panel.getAlgorithm();
-            boolean autoDetect = panel.isAutoDetect();
-
+    private Callable<PreviewResult> createPreviewComputation(CompressionDataPanel panel, CodeAreaCore codeArea) {
+        OperationType operationType = panel.getOperationType();
+        CompressionAlgorithm algorithm = panel.getAlgorithm();
+        boolean autoDetect = panel.isAutoDetect();
+        long position;
+        long length;
+        SelectionRange selection = ((SelectionCapable) codeArea).getSelection();
+        if (selection.isEmpty()) {
+            position = 0;
+            length = codeArea.getDataSize();
+        } else {
+            position = selection.getFirst();
+            length = selection.getLength();
+        }
+        // Limit preview data size to avoid performance issues
+        long sampleLength = Math.min(length, PREVIEW_SAMPLE_LIMIT);
+        BinaryData sourceData = codeArea.getContentData();
+        long lengthLimit = previewLengthLimit;
+        return () -> {
             EditableBinaryData previewBinaryData = new ByteArrayEditableData();
-            previewBinaryData.clear();
-            long position;
-            long length;
-            SelectionRange selection = ((SelectionCapable) codeArea).getSelection();
-            if (selection.isEmpty()) {
-                position = 0;
-                length = codeArea.getDataSize();
-            } else {
-                position = selection.getFirst();
-                length = selection.getLength();
+            CompressionAlgorithm usedAlgorithm = resolveAlgorithm(sourceData, position, sampleLength, operationType, algorithm, autoDetect);
+            try {
+                // Whole sample is converted for statistics, but only preview is kept
+                long resultSize = ConversionStreams.convertMeasured(sourceData, position, sampleLength, createStreamConverter(operationType, usedAlgorithm), previewBinaryData, 0, lengthLimit);
+                return new PreviewResult(previewBinaryData, "", sampleLength, resultSize);
+            } catch (InterruptedIOException ex) {
+                throw ex;
+            } catch (IOException | RuntimeException ex) {
+                return new PreviewResult(previewBinaryData, "Error: " + ex.getMessage(), sampleLength, 0);
             }
+        };
+    }
 
-            // Limit preview data size to avoid performance issues
-            length = Math.min(length, 1024 * 1024); // Max 1MB for preview
+    private void showPreviewResult(CompressionDataPanel panel, PreviewResult result) {
+        panel.updateStatistics(result.originalSize, result.resultSize);
+        previewPanel = new BinaryPreviewPanel();
+        previewDataHandler.setPreviewComponent(previewPanel);
+        if (result.message.isEmpty()) {
+            previewPanel.setPreviewData(result.previewData);
+        } else {
+            previewPanel.setErrorMessage(result.message);
+        }
+    }
 
-            String message = convertData(codeArea.getContentData(), position, length, operationType, algorithm, autoDetect, previewBinaryData, 0);
+    private static final class PreviewResult {
 
-            // Update statistics in panel
-            long originalSize = length;
-            long compressedSize = previewBinaryData.getDataSize();
-            panel.updateStatistics(originalSize, compressedSize);
+        private final BinaryData previewData;
+        private final String message;
+        private final long originalSize;
+        private final long resultSize;
 
-            if (message.isEmpty()) {
-                long previewDataSize = previewBinaryData.getDataSize();
-                if (previewDataSize > previewLengthLimit) {
-                    previewBinaryData.remove(previewLengthLimit, previewDataSize - previewLengthLimit);
-                }
-                previewPanel.setPreviewData(previewBinaryData);
-            } else {
-                previewPanel.setErrorMessage(message);
-            }
-        });
+        public PreviewResult(BinaryData previewData, String message, long originalSize, long resultSize) {
+            this.previewData = previewData;
+            this.message = message;
+            this.originalSize = originalSize;
+            this.resultSize = resultSize;
+        }
     }
 
     /**
@@ -22,8 +22,8 @@ import java.awt.datatransfer.StringSelection;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
 import org.jspecify.annotations.NullMarked;
-import javax.swing.SwingUtilities;
 import org.exbin.auxiliary.binary_data.BinaryData;
 import org.exbin.bined.CodeAreaUtils;
 import org.exbin.bined.CodeCharactersCase;
@@ -32,7 +32,9 @@ import org.exbin.bined.SelectionRange;
 import org.exbin.bined.capability.SelectionCapable;
 import org.exbin.bined.swing.CodeAreaCore;
 import org.exbin.jaguif.App;
+import org.exbin.bined.jaguif.operation.method.BinedOperationMethodModule;
 import org.exbin.bined.jaguif.operation.method.CodeSeparator;
+import org.exbin.bined.jaguif.operation.method.PreviewExecutor;
 import org.exbin.jaguif.language.api.LanguageModuleApi;
 import org.exbin.bined.jaguif.operation.method.api.PreviewDataHandler;
 import org.exbin.bined.jaguif.operation.method.api.CopyAsDataMethod;
@@ -119,38 +121,38 @@ public class CopyAsTextDataMethod implements CopyAsDataMethod {
         this.previewDataHandler = previewDataHandler;
         this.previewLengthLimit = lengthLimit;
         CopyAsTextDataPanel panel = (CopyAsTextDataPanel) component;
+        PreviewExecutor previewExecutor = App.getModule(BinedOperationMethodModule.class).getPreviewExecutor();
         panel.setParamChangeListener(() -> {
-            fillPreviewData(panel, codeArea);
+            previewExecutor.schedule(createPreviewComputation(panel, codeArea), this::showPreviewText);
         });
-        fillPreviewData(panel, codeArea);
+        previewExecutor.execute(createPreviewComputation(panel, codeArea), this::showPreviewText);
     }
 
-    private void fillPreviewData(CopyAsTextDataPanel panel, CodeAreaCore codeArea) {
+    private Callable<String> createPreviewComputation(CopyAsTextDataPanel panel, CodeAreaCore codeArea) {
+        CodeType codeType = panel.getCodeType();
+        CodeCharactersCase codeCharactersCase = panel.getCodeCharactersCase();
+        CodeSeparator codeSeparator = panel.getCodeSeparator();
+        int codesPerRow = panel.getCodesPerRow();
+
+        long position;
+        long length;
+        SelectionRange selection = ((SelectionCapable) codeArea).getSelection();
+        if (selection.isEmpty()) {
+            position = 0;
+            length = codeArea.getDataSize();
+        } else {
+            position = selection.getFirst();
+            length = selection.getLength();
+        }
+        int previewLength = (int) Math.min(length, previewLengthLimit);
+        BinaryData sourceData = codeArea.getContentData();
+        return () -> generateData(sourceData, position, previewLength, codeType, codeCharactersCase, codeSeparator, codesPerRow);
+    }
+
+    private void showPreviewText(String previewText) {
         previewPanel = new TextPreviewPanel();
         previewDataHandler.setPreviewComponent(previewPanel);
-
-        SwingUtilities.invokeLater(() -> {
-            CodeType codeType = panel.getCodeType();
-            CodeCharactersCase codeCharactersCase = panel.getCodeCharactersCase();
-            CodeSeparator codeSeparator = panel.getCodeSeparator();
-            int codesPerRow = panel.getCodesPerRow();
-
-            long position;
-            long length;
-            SelectionRange selection = ((SelectionCapable) codeArea).getSelection();
-            if (selection.isEmpty()) {
-                position = 0;
-                length = codeArea.getDataSize();
-            } else {
-                position = selection.getFirst();
-                length = selection.getLength();
-            }
-            if (length > previewLengthLimit) {
-                length = previewLengthLimit;
-            }
-            String previewText = generateData(codeArea.getContentData(), position, (int) length, codeType, codeCharactersCase, codeSeparator, codesPerRow);
-            previewPanel.setPreviewText(previewText);
-        });
+        previewPanel.setPreviewText(previewText);
     }
 
     public String generateData(BinaryData sourceData, long position, int length, CodeType codeType, CodeCharactersCase codeCharactersCase, CodeSeparator codeSeparator, int codesPerRow) {
@@ -17,8 +17,9 @@ package org.exbin.bined.jaguif.operation.method.basic;
 
 import java.awt.Component;
 import java.util.Random;
+import java.util.concurrent.Callable;
 import org.jspecify.annotations.NullMarked;
-import javax.swing.SwingUtilities;
+import org.exbin.auxiliary.binary_data.BinaryData;
 import org.exbin.auxiliary.binary_data.array.ByteArrayEditableData;
 import org.exbin.auxiliary.binary_data.EditableBinaryData;
 import org.exbin.bined.CodeAreaUtils;
@@ -30,11 +31,13 @@ import org.exbin.bined.jaguif.operation.method.basic.gui.RandomDataPanel;
 import org.exbin.jaguif.language.api.LanguageModuleApi;
 import org.exbin.bined.jaguif.operation.method.api.InsertDataMethod;
 import org.exbin.bined.jaguif.operation.method.api.PreviewDataHandler;
+import org.exbin.bined.jaguif.operation.method.BinedOperationMethodModule;
 import org.exbin.bined.jaguif.operation.method.command.InsertFromProviderCommand;
 import org.exbin.bined.jaguif.operation.method.InsertFromProviderOperation;
 import org.exbin.bined.jaguif.operation.method.ReplaceDataOperation;
 import org.exbin.bined.jaguif.operation.method.InsertionDataProvider;
 import org.exbin.bined.jaguif.operation.method.command.ReplaceDataCommand;
+import org.exbin.bined.jaguif.operation.method.PreviewExecutor;
 import org.exbin.bined.jaguif.operation.method.gui.BinaryPreviewPanel;
 
 /**
@@ -114,27 +117,28 @@ public class RandomDataMethod implements InsertDataMethod {
         this.previewDataHandler = previewDataHandler;
         this.previewLengthLimit = lengthLimit;
         RandomDataPanel panel = (RandomDataPanel) component;
+        PreviewExecutor previewExecutor = App.getModule(BinedOperationMethodModule.class).getPreviewExecutor();
         panel.setParamChangeListener(() -> {
-            fillPreviewData(panel);
+            previewExecutor.schedule(createPreviewComputation(panel), this::showPreviewData);
         });
-        fillPreviewData(panel);
+        previewExecutor.execute(createPreviewComputation(panel), this::showPreviewData);
     }
 
-    private void fillPreviewData(RandomDataPanel panel) {
-        previewPanel = new BinaryPreviewPanel();
-        previewDataHandler.setPreviewComponent(previewPanel);
-        SwingUtilities.invokeLater(() -> {
-            AlgorithmType algorithmType = panel.getAlgorithmType();
-            long dataLength = panel.getDataLength();
-            if (dataLength > previewLengthLimit) {
-                dataLength = previewLengthLimit;
-            }
-
+    private Callable<BinaryData> createPreviewComputation(RandomDataPanel panel) {
+        AlgorithmType algorithmType = panel.getAlgorithmType();
+        long dataLength = Math.min(panel.getDataLength(), previewLengthLimit);
+        return () -> {
             EditableBinaryData previewBinaryData = new ByteArrayEditableData();
             previewBinaryData.insertUninitialized(0, dataLength);
             generateData(previewBinaryData, algorithmType, 0, dataLength);
-            previewPanel.setPreviewData(previewBinaryData);
-        });
+            return previewBinaryData;
+        };
+    }
+
+    private void showPreviewData(BinaryData previewBinaryData) {
+        previewPanel = new BinaryPreviewPanel();
+        previewDataHandler.setPreviewComponent(previewPanel);
+        previewPanel.setPreviewData(previewBinaryData);
     }
 
     public enum AlgorithmType {
@@ -16,12 +16,15 @@
 package org.exbin.bined.jaguif.operation.method.command;
 
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 import org.exbin.auxiliary.binary_data.EditableBinaryData;
 import org.exbin.bined.capability.ScrollingCapable;
 import org.exbin.bined.operation.BinaryDataUndoableOperation;
 import org.exbin.bined.operation.swing.command.CodeAreaCommand;
 import org.exbin.bined.operation.swing.command.CodeAreaCommandType;
 import org.exbin.bined.swing.CodeAreaCore;
+import org.exbin.bined.jaguif.document.BinedDocumentModule;
+import org.exbin.jaguif.App;
 import org.exbin.bined.jaguif.operation.method.ConvertDataOperation;
 
 /**
@@ -31,11 +34,13 @@ import org.exbin.bined.jaguif.operation.method.ConvertDataOperation;
 public class ConvertDataCommand extends CodeAreaCommand {
 
     protected final ConvertDataOperation operation;
+    @Nullable
     protected BinaryDataUndoableOperation undoOperation;
 
     public ConvertDataCommand(CodeAreaCore codeArea, ConvertDataOperation operation) {
         super(codeArea);
         this.operation = operation;
+        operation.setUndoDataStore(App.getModule(BinedDocumentModule.class).getFileManager().getUndoDataStore());
     }
 
     @Override
@@ -54,6 +59,7 @@ public class ConvertDataCommand extends CodeAreaCommand {
     public void performUndo() {
         undoOperation.execute((EditableBinaryData) codeArea.getContentData());
         undoOperation.dispose();
+        undoOperation = null;
         ((ScrollingCapable) codeArea).revealCursor();
         codeArea.notifyDataChanged();
     }
@@ -61,6 +67,11 @@ public class ConvertDataCommand extends CodeAreaCommand {
     @Override
     public void dispose() {
         super.dispose();
+        if (undoOperation != null) {
+            // Releases original data kept for undo
+            undoOperation.dispose();
+            undoOperation = null;
+        }
         operation.dispose();
     }
 }
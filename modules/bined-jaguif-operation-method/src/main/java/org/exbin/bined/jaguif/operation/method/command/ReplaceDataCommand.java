@@ -16,12 +16,15 @@
 package org.exbin.bined.jaguif.operation.method.command;
 
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 import org.exbin.auxiliary.binary_data.EditableBinaryData;
 import org.exbin.bined.capability.ScrollingCapable;
 import org.exbin.bined.operation.BinaryDataUndoableOperation;
 import org.exbin.bined.operation.swing.command.CodeAreaCommand;
 import org.exbin.bined.operation.swing.command.CodeAreaCommandType;
 import org.exbin.bined.swing.CodeAreaCore;
+import org.exbin.bined.jaguif.document.BinedDocumentModule;
+import org.exbin.jaguif.App;
 import org.exbin.bined.jaguif.operation.method.ReplaceDataOperation;
 
 /**
@@ -31,11 +34,13 @@ import org.exbin.bined.jaguif.operation.method.ReplaceDataOperation;
 public class ReplaceDataCommand extends CodeAreaCommand {
 
     protected final ReplaceDataOperation operation;
+    @Nullable
     protected BinaryDataUndoableOperation undoOperation;
 
     public ReplaceDataCommand(CodeAreaCore codeArea, ReplaceDataOperation operation) {
         super(codeArea);
         this.operation = operation;
+        operation.setUndoDataStore(App.getModule(BinedDocumentModule.class).getFileManager().getUndoDataStore());
     }
 
     @Override
@@ -54,11 +59,17 @@ public class ReplaceDataCommand extends CodeAreaCommand {
     public void performUndo() {
         undoOperation.execute((EditableBinaryData) codeArea.getContentData());
         undoOperation.dispose();
+        undoOperation = null;
     }
 
     @Override
     public void dispose() {
         super.dispose();
+        if (undoOperation != null) {
+            // Releases original data kept for undo
+            undoOperation.dispose();
+            undoOperation = null;
+        }
         operation.dispose();
     }
 }
@@ -22,8 +22,10 @@ import java.util.ResourceBundle;
 import org.jspecify.annotations.Nullable;
 import org.jspecify.annotations.NullMarked;
 import javax.swing.JPopupMenu;
+import javax.swing.SwingUtilities;
 import org.exbin.auxiliary.binary_data.array.ByteArrayEditableData;
 import org.exbin.auxiliary.binary_data.EditableBinaryData;
+import org.exbin.bined.CodeAreaUtils;
 import org.exbin.jaguif.App;
 import org.exbin.bined.jaguif.search.gui.BinaryMultilinePanel;
 import org.exbin.bined.jaguif.search.gui.BinarySearchPanel;
@@ -49,9 +51,11 @@ public class BinarySearch {
     protected final ResourceBundle resourceBundle = App.getModule(LanguageModuleApi.class).getBundle(BinarySearch.class);
     protected static final int DEFAULT_DELAY = 500;
 
-    protected InvokeSearchThread invokeSearchThread;
-    protected SearchThread searchThread;
+    protected final SearchScheduler searchScheduler = new SearchScheduler();
+    @Nullable
+    protected volatile SearchOperation runningSearchOperation;
 
+    // Accessed on event dispatch thread only
     protected SearchOperation currentSearchOperation = SearchOperation.FIND;
     protected SearchParameters.SearchDirection currentSearchDirection = SearchParameters.SearchDirection.FORWARD;
     protected final SearchParameters currentSearchParameters = new SearchParameters();
@@ -77,14 +81,26 @@ public class BinarySearch {
                         binarySearchPanel.setInfoLabel(resourceBundle.getString("searchStatus.noMatch"));
                         break;
                     case 1:
-                        binarySearchPanel.setInfoLabel(
-                                matchMode == SearchParameters.MatchMode.MULTIPLE ? resourceBundle.getString("searchStatus.singleMatch") : resourceBundle.getString("searchStatus.matchFound")
-                        );
+                        if (foundMatches.getMatchDistance() > 0) {
+                            binarySearchPanel.setInfoLabel(
+                                    java.text.MessageFormat.format(resourceBundle.getString("searchStatus.approximateMatchFound"), foundMatches.getMatchDistance())
+                            );
+                        } else {
+                            binarySearchPanel.setInfoLabel(
+                                    matchMode == SearchParameters.MatchMode.MULTIPLE ? resourceBundle.getString("searchStatus.singleMatch") : resourceBundle.getString("searchStatus.matchFound")
+                            );
+                        }
                         break;
                     default:
-                        binarySearchPanel.setInfoLabel(
-                                java.text.MessageFormat.format(resourceBundle.getString("searchStatus.foundMatches"), foundMatches.getMatchIndex() + 1, foundMatches.getMatchesCount())
-                        );
+                        if (foundMatches.getMatchDistance() > 0) {
+                            binarySearchPanel.setInfoLabel(
+                                    java.text.MessageFormat.format(resourceBundle.getString("searchStatus.foundApproximateMatches"), foundMatches.getMatchIndex() + 1, foundMatches.getMatchesCount(), foundMatches.getMatchDistance())
+                            );
+                        } else {
+                            binarySearchPanel.setInfoLabel(
+                                    java.text.MessageFormat.format(resourceBundle.getString("searchStatus.foundMatches"), foundMatches.getMatchIndex() + 1, foundMatches.getMatchesCount())
+                            );
+                        }
                         break;
                 }
                 updateMatchStatus();
@@ -102,6 +118,13 @@ public class BinarySearch {
                 updateMatchStatus();
             }
 
+            @Override
+            public void setReplaced(int replacedCount) {
+                binarySearchPanel.setInfoLabel(java.text.MessageFormat.format(resourceBundle.getString("searchStatus.replaced"), replacedCount));
+                BinarySearch.this.foundMatches = new BinarySearchService.FoundMatches();
+                updateMatchStatus();
+            }
+
             @Override
             public void clearStatus() {
                 binarySearchPanel.setInfoLabel("");
@@ -123,6 +146,7 @@ public class BinarySearch {
             public void prevMatch() {
                 foundMatches.prev();
                 binarySearchService.setMatchIndex(foundMatches.getMatchIndex());
+                foundMatches.setMatchDistance(binarySearchService.getMatchDistance(foundMatches.getMatchIndex()));
                 searchStatusListener.setStatus(foundMatches, binarySearchService.getLastSearchParameters().getMatchMode());
             }
 
@@ -130,6 +154,7 @@ public class BinarySearch {
             public void nextMatch() {
                 foundMatches.next();
                 binarySearchService.setMatchIndex(foundMatches.getMatchIndex());
+                foundMatches.setMatchDistance(binarySearchService.getMatchDistance(foundMatches.getMatchIndex()));
                 searchStatusListener.setStatus(foundMatches, binarySearchService.getLastSearchParameters().getMatchMode());
             }
 
@@ -181,7 +206,9 @@ public class BinarySearch {
 
                 switch (updatedSearchCondition.getSearchMode()) {
                     case REGEX:
-                    case TEXT: {
+                    case TEXT:
+                    case MASKED_BINARY:
+                    case VALUE: {
                         String searchText = updatedSearchCondition.getSearchText();
                         if (searchText.isEmpty()) {
                             condition.setSearchText(searchText);
@@ -268,6 +295,7 @@ public class BinarySearch {
                         SearchParameters searchParameters = findBinaryPanel.getSearchParameters();
                         searchParameters.setFromParameters(searchParameters);
                         currentSearchDirection = searchParameters.getSearchDirection();
+                        binarySearchPanel.setApproximateMatch(searchParameters.getMaxDistance(), searchParameters.getDistanceMetric());
 
                         ReplaceParameters replaceParameters = new ReplaceParameters();
                         replaceParameters.setFromParameters(findBinaryPanel.getReplaceParameters());
@@ -333,28 +361,119 @@ public class BinarySearch {
     }
 
     private void invokeSearch(SearchOperation searchOperation, SearchParameters searchParameters, @Nullable ReplaceParameters replaceParameters, final int delay) {
-        if (invokeSearchThread != null) {
-            invokeSearchThread.interrupt();
-        }
-        invokeSearchThread = new InvokeSearchThread();
-        invokeSearchThread.delay = delay;
-        currentSearchOperation = searchOperation;
+        currentSearchOperation = searchOperation == SearchOperation.UPDATE ? SearchOperation.FIND : searchOperation;
         currentSearchParameters.setFromParameters(searchParameters);
         if (replaceParameters != null) {
             currentReplaceParameters.setFromParameters(replaceParameters);
         }
-        invokeSearchThread.start();
+
+        // Task works with copy of parameters as current parameters change while typing
+        SearchParameters taskSearchParameters = new SearchParameters();
+        taskSearchParameters.setFromParameters(currentSearchParameters);
+        taskSearchParameters.setCondition(new SearchCondition(currentSearchParameters.getCondition()));
+        ReplaceParameters taskReplaceParameters = new ReplaceParameters();
+        taskReplaceParameters.setFromParameters(currentReplaceParameters);
+        searchScheduler.schedule((SearchScheduler.SearchTask task) -> performSearch(searchOperation, taskSearchParameters, taskReplaceParameters, task), delay);
     }
 
-    public void cancelSearch() {
-        if (invokeSearchThread != null) {
-            invokeSearchThread.interrupt();
-        }
-        if (searchThread != null) {
-            searchThread.interrupt();
+    private void performSearch(SearchOperation searchOperation, SearchParameters searchParameters, ReplaceParameters replaceParameters, SearchScheduler.SearchTask task) {
+        BinarySearchService.SearchStatusListener taskStatusListener = createTaskStatusListener(task);
+        runningSearchOperation = searchOperation;
+        try {
+            switch (searchOperation) {
+                case FIND:
+                    binarySearchService.performFind(searchParameters, taskStatusListener);
+                    break;
+                case FIND_AGAIN:
+                    binarySearchService.performFindAgain(taskStatusListener);
+                    break;
+                case UPDATE:
+                    binarySearchService.performUpdate(searchParameters, taskStatusListener);
+                    break;
+                case REPLACE:
+                    binarySearchService.performReplace(searchParameters, replaceParameters, taskStatusListener);
+                    break;
+                case REPLACE_ALL:
+                    // Data change caused by replacing shouldn't trigger another replace,
+                    // reset is queued before replacing command is executed
+                    SwingUtilities.invokeLater(() -> {
+                        if (task.isCurrent() && currentSearchOperation == SearchOperation.REPLACE_ALL) {
+                            currentSearchOperation = SearchOperation.FIND;
+                        }
+                    });
+                    binarySearchService.performReplaceAll(searchParameters, replaceParameters, taskStatusListener);
+                    break;
+                default:
+                    throw CodeAreaUtils.getInvalidTypeException(searchOperation);
+            }
+        } finally {
+            runningSearchOperation = null;
         }
     }
 
+    /**
+     * Creates status listener of search task dropping updates of superseded
+     * task.
+     */
+    private BinarySearchService.SearchStatusListener createTaskStatusListener(SearchScheduler.SearchTask task) {
+        return new BinarySearchService.SearchStatusListener() {
+            @Override
+            public void setStatus(BinarySearchService.FoundMatches foundMatches, SearchParameters.MatchMode matchMode) {
+                if (task.isCurrent()) {
+                    searchStatusListener.setStatus(foundMatches, matchMode);
+                }
+            }
+
+            @Override
+            public void setProgress(int progress) {
+                if (task.isCurrent()) {
+                    searchStatusListener.setProgress(progress);
+                }
+            }
+
+            @Override
+            public void clearStatus() {
+                if (task.isCurrent()) {
+                    searchStatusListener.clearStatus();
+                }
+            }
+
+            @Override
+            public void setCancelled() {
+                if (task.isCurrent()) {
+                    searchStatusListener.setCancelled();
+                }
+            }
+
+            @Override
+            public void setReplaced(int replacedCount) {
+                if (task.isCurrent()) {
+                    searchStatusListener.setReplaced(replacedCount);
+                }
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return task.isCancelled();
+            }
+        };
+    }
+
+    public void cancelSearch() {
+        searchScheduler.cancel();
+    }
+
+    public SearchScheduler getSearchScheduler() {
+        return searchScheduler;
+    }
+
+    /**
+     * Cancels search and releases search worker thread.
+     */
+    public void dispose() {
+        searchScheduler.dispose();
+    }
+
     public void clearSearch() {
         SearchCondition condition = currentSearchParameters.getCondition();
         condition.clear();
@@ -372,51 +491,36 @@ public class BinarySearch {
         invokeSearch(currentSearchOperation, DEFAULT_DELAY);
     }
 
-    private class InvokeSearchThread extends Thread {
-
-        private int delay = DEFAULT_DELAY;
-
-        public InvokeSearchThread() {
-            super("InvokeSearchThread");
+    /**
+     * Notifies data were modified in given range.
+     * <p>
+     * Found matches are updated around modified range if possible, otherwise
+     * search is performed again.
+     *
+     * @param startPosition start position of modification
+     * @param removedLength length of removed data
+     * @param insertedLength length of inserted data
+     */
+    public void dataModified(long startPosition, long removedLength, long insertedLength) {
+        if (!isSearchRunning() && binarySearchService.updateMatches(startPosition, removedLength, insertedLength, searchStatusListener)) {
+            return;
         }
 
-        @Override
-        public void run() {
-            try {
-                Thread.sleep(delay);
-                if (searchThread != null) {
-                    searchThread.interrupt();
-                }
-                searchThread = new SearchThread();
-                searchThread.start();
-            } catch (InterruptedException ex) {
-                // don't search
-            }
-        }
+        dataReplaced();
     }
 
-    private class SearchThread extends Thread {
-
-        public SearchThread() {
-            super("SearchThread");
-        }
+    /**
+     * Notifies data were modified in unknown range, so search is performed
+     * again without scrolling to found match.
+     */
+    public void dataReplaced() {
+        binarySearchService.clearMatches();
+        invokeSearch(SearchOperation.UPDATE, DEFAULT_DELAY);
+    }
 
-        @Override
-        public void run() {
-            switch (currentSearchOperation) {
-                case FIND:
-                    binarySearchService.performFind(currentSearchParameters, searchStatusListener);
-                    break;
-                case FIND_AGAIN:
-                    binarySearchService.performFindAgain(searchStatusListener);
-                    break;
-                case REPLACE:
-                    binarySearchService.performReplace(currentSearchParameters, currentReplaceParameters);
-                    break;
-                default:
-                    throw new UnsupportedOperationException("Not supported yet.");
-            }
-        }
+    private boolean isSearchRunning() {
+        SearchOperation searchOperation = runningSearchOperation;
+        return searchOperation == SearchOperation.FIND || searchOperation == SearchOperation.FIND_AGAIN || searchOperation == SearchOperation.UPDATE;
     }
 
     public interface PanelClosingListener {
@@ -427,6 +531,10 @@ public class BinarySearch {
     private enum SearchOperation {
         FIND,
         FIND_AGAIN,
+        /**
+         * Find performed after data modification.
+         */
+        UPDATE,
         REPLACE,
         REPLACE_ALL
     }
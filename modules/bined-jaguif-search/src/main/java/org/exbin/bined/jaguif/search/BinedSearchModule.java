@@ -15,6 +15,7 @@
  */
 package org.exbin.bined.jaguif.search;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -27,7 +28,13 @@ import org.exbin.jaguif.ModuleUtils;
 import org.exbin.bined.jaguif.document.BinEdFileManager;
 import org.exbin.bined.jaguif.component.gui.BinEdComponentPanel;
 import org.exbin.bined.jaguif.document.BinedDocumentModule;
+import org.exbin.bined.jaguif.search.contribution.SignatureScanContribution;
+import org.exbin.bined.jaguif.search.service.index.SearchIndexManager;
+import org.exbin.jaguif.contribution.api.PositionSequenceContributionRule;
+import org.exbin.jaguif.contribution.api.SequenceContribution;
 import org.exbin.jaguif.language.api.LanguageModuleApi;
+import org.exbin.jaguif.menu.api.MenuDefinitionManagement;
+import org.exbin.jaguif.menu.api.MenuModuleApi;
 
 /**
  * Binary data search module.
@@ -40,6 +47,8 @@ public class BinedSearchModule implements Module {
     private java.util.ResourceBundle resourceBundle = null;
 
     private final List<FindAgainListener> findAgainListeners = new ArrayList<>();
+    private boolean searchIndexEnabled = false;
+    private File searchIndexDirectory = SearchIndexManager.getDefaultCacheDirectory();
 
     public BinedSearchModule() {
     }
@@ -50,6 +59,14 @@ public class BinedSearchModule implements Module {
         fileManager.addBinEdComponentExtension((BinEdComponentPanel component) -> Optional.of(new DefaultBinEdComponentSearch()));
     }
 
+    public void registerSignatureScanMenuActions() {
+        MenuModuleApi menuModule = App.getModule(MenuModuleApi.class);
+        MenuDefinitionManagement mgmt = menuModule.getMainMenuDefinition(MODULE_ID).getSubMenu(MenuModuleApi.TOOLS_SUBMENU_ID);
+        SequenceContribution contribution = new SignatureScanContribution();
+        mgmt.registerMenuContribution(contribution);
+        mgmt.registerMenuRule(contribution, new PositionSequenceContributionRule(PositionSequenceContributionRule.PositionMode.MIDDLE));
+    }
+
     public ResourceBundle getResourceBundle() {
         if (resourceBundle == null) {
             resourceBundle = App.getModule(LanguageModuleApi.class).getBundle(BinedSearchModule.class);
@@ -70,6 +87,31 @@ public class BinedSearchModule implements Module {
         findAgainListeners.remove(findAgainListener);
     }
     
+    public boolean isSearchIndexEnabled() {
+        return searchIndexEnabled;
+    }
+
+    /**
+     * Sets whether persistent search index should be built for large files
+     * opened in delta mode.
+     * <p>
+     * Index is disabled by default as it takes about one eighth of size of
+     * indexed file in cache directory.
+     *
+     * @param searchIndexEnabled true to enable search index
+     */
+    public void setSearchIndexEnabled(boolean searchIndexEnabled) {
+        this.searchIndexEnabled = searchIndexEnabled;
+    }
+
+    public File getSearchIndexDirectory() {
+        return searchIndexDirectory;
+    }
+
+    public void setSearchIndexDirectory(File searchIndexDirectory) {
+        this.searchIndexDirectory = searchIndexDirectory;
+    }
+
     public BinarySearchController createBinarySearchController(BinaryDataComponent binaryComponent) {
         return new BinarySearchController(binaryComponent);
     }
@@ -0,0 +1,342 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search;
+
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.util.Map;
+import java.util.WeakHashMap;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.bined.CodeAreaCaretPosition;
+import org.exbin.bined.SelectionRange;
+import org.exbin.bined.jaguif.component.BinaryCompoundUndoRedo;
+import org.exbin.bined.operation.command.BinaryDataCommand;
+import org.exbin.bined.operation.swing.command.DeleteSelectionCommand;
+import org.exbin.bined.operation.swing.command.PasteDataCommand;
+import org.exbin.bined.swing.section.SectCodeArea;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Tracker of modified data range.
+ * <p>
+ * Data change notification doesn't provide modified range, so it is derived
+ * from change of data size, caret position and selection for edits at caret,
+ * which are direct typing, paste and deletion of selection. Range of
+ * modification is recorded for each command executed by undo redo, so undo
+ * and redo of such commands is reported with its range as well. Typing
+ * includes characters typed with AltGr. Any other change, such as replace
+ * all, macro or plugin operation, is reported as replacement of whole data.
+ */
+@NullMarked
+public class DataModificationTracker {
+
+    private final SectCodeArea codeArea;
+    private final ModificationListener listener;
+    private final Map<BinaryDataCommand, Modification> commandModifications = new WeakHashMap<>();
+    private final BinaryCompoundUndoRedo.CommandListener commandListener = new BinaryCompoundUndoRedo.CommandListener() {
+        @Override
+        public void commandStarted(BinaryDataCommand command, BinaryCompoundUndoRedo.CommandAction action) {
+            DataModificationTracker.this.commandStarted(command, action);
+        }
+
+        @Override
+        public void commandFinished(BinaryDataCommand command, BinaryCompoundUndoRedo.CommandAction action) {
+            DataModificationTracker.this.commandFinished(command, action);
+        }
+    };
+
+    @Nullable
+    private BinaryCompoundUndoRedo undoRedo;
+    @Nullable
+    private BinaryData data;
+    private long dataSize;
+    private long caretPosition;
+    private long selectionStart;
+    private long selectionLength;
+
+    private boolean commandRunning = false;
+    private boolean caretEdit;
+    private boolean dataChangedInCommand;
+    @Nullable
+    private BinaryDataCommand previousTopCommand;
+    // Modification of performed commands, which wasn't notified yet
+    private boolean pending = false;
+    private boolean pendingKnown;
+    @Nullable
+    private Modification pendingModification;
+    private long pendingDataSize;
+
+    public DataModificationTracker(SectCodeArea codeArea, ModificationListener listener) {
+        this.codeArea = codeArea;
+        this.listener = listener;
+        updateState();
+        codeArea.addCaretMovedListener((CodeAreaCaretPosition position) -> stateChanged());
+        codeArea.addSelectionChangedListener(this::stateChanged);
+        codeArea.addDataChangedListener(this::dataChanged);
+    }
+
+    /**
+     * Sets undo redo to track commands of.
+     *
+     * @param undoRedo undo redo or null if commands are not tracked
+     */
+    public void setUndoRedo(@Nullable BinaryCompoundUndoRedo undoRedo) {
+        if (this.undoRedo != null) {
+            this.undoRedo.removeCommandListener(commandListener);
+        }
+        this.undoRedo = undoRedo;
+        commandModifications.clear();
+        commandRunning = false;
+        pending = false;
+        if (undoRedo != null) {
+            undoRedo.addCommandListener(commandListener);
+        }
+    }
+
+    private void stateChanged() {
+        // Caret and selection can change before data change is notified
+        if (!commandRunning && codeArea.getContentData() == data && codeArea.getDataSize() == dataSize) {
+            updateState();
+        }
+    }
+
+    private void dataChanged() {
+        if (commandRunning) {
+            dataChangedInCommand = true;
+            return;
+        }
+
+        if (pending) {
+            notifyPending();
+        } else {
+            Modification modification = codeArea.getContentData() == data && isDirectTyping() ? getCaretModification() : null;
+            notifyModification(modification);
+        }
+        updateState();
+    }
+
+    private void commandStarted(BinaryDataCommand command, BinaryCompoundUndoRedo.CommandAction action) {
+        updateState();
+        if (!pending) {
+            pending = true;
+            pendingKnown = true;
+            pendingModification = null;
+            pendingDataSize = dataSize;
+        }
+        commandRunning = true;
+        dataChangedInCommand = false;
+
+        switch (action) {
+            case EXECUTE: {
+                caretEdit = isDirectTyping() || command instanceof PasteDataCommand || command instanceof DeleteSelectionCommand;
+                previousTopCommand = undoRedo == null ? null : undoRedo.getTopUndoCommand().orElse(null);
+                break;
+            }
+            case UNDO: {
+                Modification modification = commandModifications.get(command);
+                addPending(modification == null ? null : modification.inverse());
+                break;
+            }
+            case REDO: {
+                addPending(commandModifications.get(command));
+                break;
+            }
+        }
+    }
+
+    private void commandFinished(BinaryDataCommand command, BinaryCompoundUndoRedo.CommandAction action) {
+        if (!commandRunning) {
+            return;
+        }
+
+        if (action == BinaryCompoundUndoRedo.CommandAction.EXECUTE) {
+            Modification modification = caretEdit && codeArea.getContentData() == data ? getCaretModification() : null;
+            recordModification(command, modification);
+            addPending(modification);
+        }
+        commandRunning = false;
+        previousTopCommand = null;
+        if (dataChangedInCommand) {
+            notifyPending();
+            updateState();
+        }
+    }
+
+    /**
+     * Records modification of executed command, command merged with previous
+     * command records modification of both.
+     */
+    private void recordModification(BinaryDataCommand command, @Nullable Modification modification) {
+        BinaryDataCommand topCommand = undoRedo == null ? null : undoRedo.getTopUndoCommand().orElse(null);
+        if (topCommand == null) {
+            return;
+        }
+
+        Modification topModification = modification;
+        if (topCommand != command) {
+            Modification previousModification = previousTopCommand == null ? null : commandModifications.get(previousTopCommand);
+            topModification = previousModification == null || modification == null ? null : previousModification.then(modification);
+        }
+        if (topModification == null) {
+            commandModifications.remove(topCommand);
+        } else {
+            commandModifications.put(topCommand, topModification);
+        }
+    }
+
+    private void addPending(@Nullable Modification modification) {
+        if (modification == null) {
+            pendingKnown = false;
+        } else if (pendingKnown) {
+            pendingModification = pendingModification == null ? modification : pendingModification.then(modification);
+        }
+    }
+
+    private void notifyPending() {
+        Modification modification = pendingModification;
+        boolean known = pendingKnown && modification != null && codeArea.getContentData() == data
+                && modification.insertedLength - modification.removedLength == codeArea.getDataSize() - pendingDataSize;
+        pending = false;
+        pendingModification = null;
+        notifyModification(known ? modification : null);
+    }
+
+    private void notifyModification(@Nullable Modification modification) {
+        if (modification == null) {
+            listener.dataReplaced();
+        } else {
+            listener.dataModified(modification.startPosition, modification.removedLength, modification.insertedLength);
+        }
+    }
+
+    private boolean isDirectTyping() {
+        AWTEvent event = EventQueue.getCurrentEvent();
+        if (!(event instanceof KeyEvent) || event.getSource() != codeArea) {
+            return false;
+        }
+
+        KeyEvent keyEvent = (KeyEvent) event;
+        switch (keyEvent.getID()) {
+            case KeyEvent.KEY_TYPED:
+                // Characters typed with AltGr are reported with control and alt modifiers on some platforms
+                return !Character.isISOControl(keyEvent.getKeyChar());
+            case KeyEvent.KEY_PRESSED:
+                // Shortcut keys invoke actions like undo, paste or macro
+                return (keyEvent.getModifiersEx() & (InputEvent.CTRL_DOWN_MASK | InputEvent.ALT_DOWN_MASK | InputEvent.META_DOWN_MASK | InputEvent.ALT_GRAPH_DOWN_MASK)) == 0
+                        && (keyEvent.getKeyCode() == KeyEvent.VK_DELETE || keyEvent.getKeyCode() == KeyEvent.VK_BACK_SPACE);
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Returns modification at caret or selection.
+     * <p>
+     * Caret can be placed before or after edited data and it stays on the
+     * same position when half byte is edited, so range includes one byte
+     * around edited data.
+     *
+     * @return modification or null if data change doesn't match edit at caret
+     */
+    @Nullable
+    private Modification getCaretModification() {
+        long currentSize = codeArea.getDataSize();
+        long currentCaretPosition = codeArea.getActiveCaretPosition().getDataPosition();
+        long sizeChange = currentSize - dataSize;
+        long editStart = selectionLength > 0 ? selectionStart : caretPosition;
+        long editEnd = editStart + selectionLength;
+        long startPosition = Math.max(0, Math.min(editStart, currentCaretPosition) - 1);
+        long endPosition = Math.min(dataSize, Math.max(editEnd, currentCaretPosition - sizeChange) + 1);
+        long insertedEnd = endPosition + sizeChange;
+        if (endPosition < startPosition || insertedEnd < startPosition || insertedEnd > currentSize) {
+            return null;
+        }
+
+        return new Modification(startPosition, endPosition - startPosition, insertedEnd - startPosition);
+    }
+
+    private void updateState() {
+        data = codeArea.getContentData();
+        dataSize = codeArea.getDataSize();
+        caretPosition = codeArea.getActiveCaretPosition().getDataPosition();
+        SelectionRange selection = codeArea.getSelection();
+        selectionStart = selection.getFirst();
+        selectionLength = selection.isEmpty() ? 0 : selection.getLength();
+    }
+
+    /**
+     * Modification replacing range of data.
+     */
+    @NullMarked
+    private static final class Modification {
+
+        private final long startPosition;
+        private final long removedLength;
+        private final long insertedLength;
+
+        public Modification(long startPosition, long removedLength, long insertedLength) {
+            this.startPosition = startPosition;
+            this.removedLength = removedLength;
+            this.insertedLength = insertedLength;
+        }
+
+        /**
+         * Returns modification reverting this modification.
+         *
+         * @return modification
+         */
+        public Modification inverse() {
+            return new Modification(startPosition, insertedLength, removedLength);
+        }
+
+        /**
+         * Returns modification covering this modification followed by given
+         * modification.
+         *
+         * @param next following modification
+         * @return modification
+         */
+        public Modification then(Modification next) {
+            long start = Math.min(startPosition, next.startPosition);
+            long end = Math.max(startPosition + insertedLength, next.startPosition + next.removedLength);
+            return new Modification(start, end - insertedLength + removedLength - start, end - next.removedLength + next.insertedLength - start);
+        }
+    }
+
+    /**
+     * Listener for data modification.
+     */
+    @NullMarked
+    public interface ModificationListener {
+
+        /**
+         * Notifies data were modified.
+         *
+         * @param startPosition start position of modification
+         * @param removedLength length of removed data
+         * @param insertedLength length of inserted data
+         */
+        void dataModified(long startPosition, long removedLength, long insertedLength);
+
+        /**
+         * Notifies data were modified in unknown range.
+         */
+        void dataReplaced();
+    }
+}
@@ -17,8 +17,12 @@ package org.exbin.bined.jaguif.search;
 
 import java.awt.BorderLayout;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 import javax.swing.JPopupMenu;
+import org.exbin.auxiliary.binary_data.BinaryData;
 import org.exbin.bined.jaguif.component.BinEdDataComponent;
+import org.exbin.bined.jaguif.component.BinaryCompoundUndoRedo;
+import org.exbin.bined.operation.command.BinaryDataUndoRedo;
 import org.exbin.bined.swing.section.SectCodeArea;
 import org.exbin.jaguif.App;
 import org.exbin.bined.jaguif.component.BinaryDataComponent;
@@ -26,6 +30,7 @@ import org.exbin.bined.jaguif.component.BinedComponentModule;
 import org.exbin.bined.jaguif.component.gui.BinEdComponentPanel;
 import org.exbin.bined.jaguif.search.service.BinarySearchService;
 import org.exbin.bined.jaguif.search.service.DefaultBinarySearchService;
+import org.exbin.bined.jaguif.search.service.index.SearchIndexManager;
 
 /**
  * Bined component search.
@@ -33,22 +38,55 @@ import org.exbin.bined.jaguif.search.service.DefaultBinarySearchService;
 @NullMarked
 public class DefaultBinEdComponentSearch implements BinEdComponentSearch {
 
+    private BinaryDataComponent dataComponent;
     private BinEdComponentPanel componentPanel;
+    private DataModificationTracker modificationTracker;
     private BinarySearch binarySearch;
     private BinarySearchService binarySearchService;
+    private SectCodeArea codeArea;
+    @Nullable
+    private SearchIndexManager searchIndexManager;
     private boolean binarySearchPanelVisible = false;
 
     @Override
     public void onCreate(BinaryDataComponent dataComponent) {
+        this.dataComponent = dataComponent;
         this.componentPanel = (BinEdComponentPanel) dataComponent.getComponent();
-        SectCodeArea codeArea = (SectCodeArea) dataComponent.getCodeArea();
+        codeArea = (SectCodeArea) dataComponent.getCodeArea();
 
-        binarySearchService = new DefaultBinarySearchService(codeArea);
+        DefaultBinarySearchService searchService = new DefaultBinarySearchService(codeArea);
+        BinedSearchModule binedSearchModule = App.getModule(BinedSearchModule.class);
+        if (binedSearchModule.isSearchIndexEnabled()) {
+            SearchIndexManager indexManager = new SearchIndexManager(binedSearchModule.getSearchIndexDirectory());
+            codeArea.addDataChangedListener(() -> indexManager.dataChanged(codeArea.getContentData()));
+            searchService.setSearchIndexManager(indexManager);
+            searchIndexManager = indexManager;
+        }
+        binarySearchService = searchService;
+        modificationTracker = new DataModificationTracker(codeArea, new DataModificationTracker.ModificationListener() {
+            @Override
+            public void dataModified(long startPosition, long removedLength, long insertedLength) {
+                if (binarySearchPanelVisible) {
+                    getBinarySearch().dataModified(startPosition, removedLength, insertedLength);
+                }
+            }
+
+            @Override
+            public void dataReplaced() {
+                if (binarySearchPanelVisible) {
+                    getBinarySearch().dataReplaced();
+                }
+            }
+        });
         dataComponent.setSearchController(new BinarySearchController((BinEdDataComponent) dataComponent));
     }
 
     @Override
     public void onDataChange() {
+        BinaryData contentData = codeArea.getContentData();
+        if (searchIndexManager != null && contentData != null) {
+            searchIndexManager.contentLoaded(contentData);
+        }
         if (binarySearchPanelVisible) {
             getBinarySearch().dataChanged();
         }
@@ -68,6 +106,18 @@ public class DefaultBinEdComponentSearch implements BinEdComponentSearch {
 
     @Override
     public void onUndoHandlerChange() {
+        BinaryDataUndoRedo undoRedo = dataComponent.getUndoRedo().orElse(null);
+        modificationTracker.setUndoRedo(undoRedo instanceof BinaryCompoundUndoRedo ? (BinaryCompoundUndoRedo) undoRedo : null);
+    }
+
+    @Override
+    public void onClose() {
+        if (binarySearch != null) {
+            binarySearch.dispose();
+        }
+        if (searchIndexManager != null) {
+            searchIndexManager.close();
+        }
     }
 
     @Override
@@ -79,6 +79,8 @@ public class SearchCondition {
         switch (searchMode) {
             case TEXT:
             case REGEX:
+            case MASKED_BINARY:
+            case VALUE:
                 return searchText == null || searchText.isEmpty();
             case BINARY:
                 return binaryData == null || binaryData.isEmpty();
@@ -123,6 +125,14 @@ public class SearchCondition {
     }
 
     public enum SearchMode {
-        TEXT, REGEX, BINARY
+        TEXT, REGEX, BINARY,
+        /**
+         * Binary data with wildcards specified as text.
+         */
+        MASKED_BINARY,
+        /**
+         * Numeric value or range of values specified as text.
+         */
+        VALUE
     }
 }
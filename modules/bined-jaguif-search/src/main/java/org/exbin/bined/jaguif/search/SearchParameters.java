@@ -29,6 +29,8 @@ public class SearchParameters {
     protected boolean matchCase = true;
     protected MatchMode matchMode = MatchMode.MULTIPLE;
     protected SearchDirection searchDirection = SearchDirection.FORWARD;
+    protected int maxDistance = 0;
+    protected DistanceMetric distanceMetric = DistanceMetric.HAMMING;
 
     public SearchParameters() {
     }
@@ -81,6 +83,27 @@ public class SearchParameters {
         this.searchDirection = searchDirection;
     }
 
+    public int getMaxDistance() {
+        return maxDistance;
+    }
+
+    /**
+     * Sets maximum distance of approximate match of binary data.
+     *
+     * @param maxDistance maximum distance, 0 for exact match
+     */
+    public void setMaxDistance(int maxDistance) {
+        this.maxDistance = maxDistance;
+    }
+
+    public DistanceMetric getDistanceMetric() {
+        return distanceMetric;
+    }
+
+    public void setDistanceMetric(DistanceMetric distanceMetric) {
+        this.distanceMetric = distanceMetric;
+    }
+
     public void setFromParameters(SearchParameters searchParameters) {
         condition = searchParameters.getCondition();
         startPosition = searchParameters.getStartPosition();
@@ -88,12 +111,28 @@ public class SearchParameters {
         matchCase = searchParameters.isMatchCase();
         matchMode = searchParameters.getMatchMode();
         searchDirection = searchParameters.getSearchDirection();
+        maxDistance = searchParameters.getMaxDistance();
+        distanceMetric = searchParameters.getDistanceMetric();
     }
 
     public enum SearchDirection {
         FORWARD, BACKWARD
     }
 
+    /**
+     * Metric of distance for approximate match.
+     */
+    public enum DistanceMetric {
+        /**
+         * Number of substituted bytes.
+         */
+        HAMMING,
+        /**
+         * Number of inserted, deleted or substituted bytes.
+         */
+        LEVENSHTEIN
+    }
+
     public enum MatchMode {
         SINGLE, MULTIPLE;
         
@@ -0,0 +1,286 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Scheduler of search tasks.
+ * <p>
+ * Tasks are executed one at a time by single worker thread. Scheduling of new
+ * task cancels running task and replaces task waiting for its delay to pass,
+ * so only the latest request is performed. Cancellation is cooperative,
+ * search checks cancellation of its task.
+ */
+@NullMarked
+public class SearchScheduler {
+
+    public static final long WORKER_KEEP_ALIVE = 30;
+
+    private final ScheduledThreadPoolExecutor executor;
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicLong scheduledCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+    private final AtomicLong cancelledCount = new AtomicLong();
+    private final AtomicLong completedCount = new AtomicLong();
+    private final AtomicLong totalRunTime = new AtomicLong();
+    private volatile long lastWaitTime = -1;
+    private volatile long lastRunTime = -1;
+
+    @Nullable
+    private SearchTask pendingTask;
+    @Nullable
+    private SearchTask runningTask;
+
+    public SearchScheduler() {
+        executor = new ScheduledThreadPoolExecutor(1, (runnable) -> {
+            Thread thread = new Thread(runnable, "SearchWorker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        executor.setKeepAliveTime(WORKER_KEEP_ALIVE, TimeUnit.SECONDS);
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Schedules search task replacing previously scheduled tasks.
+     * <p>
+     * Task scheduled after scheduler was disposed is cancelled and not run.
+     *
+     * @param job search job
+     * @param delay delay in milliseconds before task is started
+     * @return scheduled task
+     */
+    public synchronized SearchTask schedule(SearchJob job, long delay) {
+        cancelTasks();
+        SearchTask task = new SearchTask(generation.incrementAndGet(), job, System.currentTimeMillis() + delay);
+        if (executor.isShutdown()) {
+            task.cancel();
+            return task;
+        }
+
+        pendingTask = task;
+        queueDepth.incrementAndGet();
+        scheduledCount.incrementAndGet();
+        task.future = executor.schedule(() -> run(task), delay, TimeUnit.MILLISECONDS);
+        return task;
+    }
+
+    /**
+     * Cancels pending and running task.
+     */
+    public synchronized void cancel() {
+        cancelTasks();
+    }
+
+    /**
+     * Returns true if there is pending or running task.
+     *
+     * @return true if busy
+     */
+    public boolean isBusy() {
+        return queueDepth.get() > 0;
+    }
+
+    /**
+     * Cancels tasks and releases worker thread.
+     */
+    public synchronized void dispose() {
+        cancelTasks();
+        executor.shutdown();
+    }
+
+    private void cancelTasks() {
+        SearchTask task = pendingTask;
+        if (task != null) {
+            task.cancel();
+            ScheduledFuture<?> future = task.future;
+            if (future != null && future.cancel(false)) {
+                coalescedCount.incrementAndGet();
+                queueDepth.decrementAndGet();
+            }
+            pendingTask = null;
+        }
+        if (runningTask != null) {
+            runningTask.cancel();
+        }
+    }
+
+    private void run(SearchTask task) {
+        synchronized (this) {
+            if (pendingTask == task) {
+                pendingTask = null;
+            }
+            if (task.isCancelled()) {
+                coalescedCount.incrementAndGet();
+                queueDepth.decrementAndGet();
+                return;
+            }
+            runningTask = task;
+        }
+
+        long startTime = System.currentTimeMillis();
+        lastWaitTime = Math.max(0, startTime - task.plannedStartTime);
+        try {
+            task.job.run(task);
+        } catch (RuntimeException ex) {
+            Logger.getLogger(SearchScheduler.class.getName()).log(Level.SEVERE, "Search failed", ex);
+        } finally {
+            long runTime = System.currentTimeMillis() - startTime;
+            lastRunTime = runTime;
+            totalRunTime.addAndGet(runTime);
+            if (task.isCancelled()) {
+                cancelledCount.incrementAndGet();
+            } else {
+                completedCount.incrementAndGet();
+            }
+            synchronized (this) {
+                if (runningTask == task) {
+                    runningTask = null;
+                }
+            }
+            queueDepth.decrementAndGet();
+        }
+    }
+
+    /**
+     * Returns number of pending and running tasks.
+     *
+     * @return queue depth
+     */
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    public long getScheduledCount() {
+        return scheduledCount.get();
+    }
+
+    /**
+     * Returns number of tasks replaced by newer task before they started.
+     *
+     * @return count of coalesced tasks
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    /**
+     * Returns number of tasks cancelled while running.
+     *
+     * @return count of cancelled tasks
+     */
+    public long getCancelledCount() {
+        return cancelledCount.get();
+    }
+
+    public long getCompletedCount() {
+        return completedCount.get();
+    }
+
+    /**
+     * Returns time last task waited for previous task after its delay passed.
+     *
+     * @return wait time in milliseconds or -1 if no task was started
+     */
+    public long getLastWaitTime() {
+        return lastWaitTime;
+    }
+
+    /**
+     * Returns run time of last finished task.
+     *
+     * @return run time in milliseconds or -1 if no task finished
+     */
+    public long getLastRunTime() {
+        return lastRunTime;
+    }
+
+    /**
+     * Returns average run time of finished tasks.
+     *
+     * @return run time in milliseconds
+     */
+    public long getAverageRunTime() {
+        long finishedCount = cancelledCount.get() + completedCount.get();
+        return finishedCount == 0 ? 0 : totalRunTime.get() / finishedCount;
+    }
+
+    /**
+     * Scheduled search task serving as its cancellation token.
+     */
+    @NullMarked
+    public final class SearchTask {
+
+        private final long taskGeneration;
+        private final SearchJob job;
+        private final long plannedStartTime;
+        private volatile boolean cancelled = false;
+        @Nullable
+        private volatile ScheduledFuture<?> future;
+
+        private SearchTask(long taskGeneration, SearchJob job, long plannedStartTime) {
+            this.taskGeneration = taskGeneration;
+            this.job = job;
+            this.plannedStartTime = plannedStartTime;
+        }
+
+        public long getGeneration() {
+            return taskGeneration;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * Returns true if no newer task was scheduled.
+         *
+         * @return true if task is current
+         */
+        public boolean isCurrent() {
+            return taskGeneration == generation.get();
+        }
+
+        private void cancel() {
+            cancelled = true;
+        }
+    }
+
+    /**
+     * Search job performed by scheduled task.
+     */
+    @NullMarked
+    public interface SearchJob {
+
+        /**
+         * Performs search.
+         *
+         * @param task task of the search
+         */
+        void run(SearchTask task);
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.action;
+
+import java.awt.Dialog;
+import java.awt.event.ActionEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.File;
+import java.io.IOException;
+import java.util.ResourceBundle;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.AbstractAction;
+import javax.swing.SwingUtilities;
+import org.exbin.bined.DataChangedListener;
+import org.exbin.bined.jaguif.component.BinaryDataComponent;
+import org.exbin.bined.jaguif.search.SearchScheduler;
+import org.exbin.bined.jaguif.search.gui.SignatureScanResultsPanel;
+import org.exbin.bined.jaguif.search.service.DefaultSignatureScanService;
+import org.exbin.bined.jaguif.search.service.SignatureScanService;
+import org.exbin.bined.jaguif.search.service.signature.SignatureHitStore;
+import org.exbin.bined.jaguif.search.service.signature.SignatureSet;
+import org.exbin.bined.swing.section.SectCodeArea;
+import org.exbin.jaguif.App;
+import org.exbin.jaguif.action.api.ActionConsts;
+import org.exbin.jaguif.action.api.ActionContextChange;
+import org.exbin.jaguif.action.api.ActionModuleApi;
+import org.exbin.jaguif.context.api.ContextChangeRegistration;
+import org.exbin.jaguif.context.api.ContextComponent;
+import org.exbin.jaguif.file.api.AllFileTypes;
+import org.exbin.jaguif.file.api.FileDialogsProvider;
+import org.exbin.jaguif.file.api.FileModuleApi;
+import org.exbin.jaguif.file.api.OpenFileResult;
+import org.exbin.jaguif.help.api.HelpLink;
+import org.exbin.jaguif.help.api.HelpModuleApi;
+import org.exbin.jaguif.window.api.WindowHandler;
+import org.exbin.jaguif.window.api.WindowModuleApi;
+import org.exbin.jaguif.window.api.gui.CloseControlPanel;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Signature scan action.
+ */
+@NullMarked
+public class SignatureScanAction extends AbstractAction implements ActionContextChange {
+
+    public static final String ACTION_ID = "signatureScan";
+    public static final String HELP_ID = "signature-scan";
+
+    @Nullable
+    private SectCodeArea codeArea;
+
+    public SignatureScanAction() {
+    }
+
+    public void init(ResourceBundle resourceBundle) {
+        ActionModuleApi actionModule = App.getModule(ActionModuleApi.class);
+        actionModule.initAction(this, resourceBundle, ACTION_ID);
+        setEnabled(false);
+        putValue(ActionConsts.ACTION_DIALOG_MODE, true);
+        putValue(ActionConsts.ACTION_CONTEXT_CHANGE, this);
+    }
+
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        SectCodeArea scannedCodeArea = codeArea;
+        if (scannedCodeArea == null) {
+            return;
+        }
+
+        final SignatureScanResultsPanel resultsPanel = new SignatureScanResultsPanel();
+        ResourceBundle panelResourceBundle = resultsPanel.getResourceBundle();
+        CloseControlPanel controlPanel = new CloseControlPanel(panelResourceBundle);
+        HelpModuleApi helpModule = App.getModule(HelpModuleApi.class);
+        helpModule.addLinkToControlPanel(controlPanel, new HelpLink(HELP_ID));
+
+        WindowModuleApi windowModule = App.getModule(WindowModuleApi.class);
+        final WindowHandler dialog = windowModule.createDialog(scannedCodeArea, Dialog.ModalityType.MODELESS, resultsPanel, controlPanel);
+        windowModule.setWindowTitle(dialog, panelResourceBundle);
+        windowModule.addHeaderPanel(dialog.getWindow(), resultsPanel.getClass(), panelResourceBundle);
+
+        final SignatureScanService scanService = new DefaultSignatureScanService(scannedCodeArea);
+        final SearchScheduler scanScheduler = new SearchScheduler();
+        final AtomicBoolean scanPerformed = new AtomicBoolean();
+        resultsPanel.setController(new SignatureScanResultsPanel.Controller() {
+
+            @Nullable
+            private SignatureSet signatureSet;
+
+            @Override
+            public void loadSignatures() {
+                FileModuleApi fileModule = App.getModule(FileModuleApi.class);
+                FileDialogsProvider dialogsProvider = fileModule.getFileDialogsProvider();
+                OpenFileResult openFileResult = dialogsProvider.showOpenFileDialog(dialog.getWindow(), new AllFileTypes(), null, null, null);
+                if (openFileResult.getResultType() != OpenFileResult.ResultType.APPROVED) {
+                    return;
+                }
+
+                File file = openFileResult.getSelectedFile().get();
+                try {
+                    signatureSet = SignatureSet.load(file);
+                    resultsPanel.setSignatureSet(signatureSet, file.getName());
+                } catch (IllegalArgumentException ex) {
+                    resultsPanel.setError(ex.getMessage());
+                } catch (IOException ex) {
+                    Logger.getLogger(SignatureScanAction.class.getName()).log(Level.SEVERE, "Loading of signature set failed", ex);
+                    resultsPanel.setError(ex.getMessage());
+                }
+            }
+
+            @Override
+            public void performScan() {
+                SignatureSet scannedSet = signatureSet;
+                if (scannedSet == null) {
+                    return;
+                }
+
+                scanPerformed.set(true);
+                resultsPanel.setScanning(true);
+                scanScheduler.schedule((SearchScheduler.SearchTask task) -> {
+                    scanService.performScan(scannedSet, new SignatureScanService.ScanStatusListener() {
+                        @Override
+                        public void setProgress(int progress) {
+                            SwingUtilities.invokeLater(() -> {
+                                if (task.isCurrent()) {
+                                    resultsPanel.setProgress(progress);
+                                }
+                            });
+                        }
+
+                        @Override
+                        public void setFinished(SignatureHitStore hits, boolean limitReached) {
+                            SwingUtilities.invokeLater(() -> {
+                                if (task.isCurrent()) {
+                                    resultsPanel.setScanning(false);
+                                    resultsPanel.setHits(hits, limitReached);
+                                }
+                            });
+                        }
+
+                        @Override
+                        public void setCancelled() {
+                            SwingUtilities.invokeLater(() -> {
+                                if (task.isCurrent()) {
+                                    resultsPanel.setScanning(false);
+                                    resultsPanel.setCancelled();
+                                }
+                            });
+                        }
+
+                        @Override
+                        public boolean isCancelled() {
+                            return task.isCancelled();
+                        }
+                    });
+                }, 0);
+            }
+
+            @Override
+            public void cancelScan() {
+                scanScheduler.cancel();
+                resultsPanel.setScanning(false);
+                resultsPanel.setCancelled();
+            }
+
+            @Override
+            public void hitSelected(int hitIndex) {
+                scanService.setHitIndex(hitIndex);
+            }
+        });
+        DataChangedListener dataChangedListener = () -> {
+            if (!scanPerformed.getAndSet(false)) {
+                return;
+            }
+
+            scanScheduler.cancel();
+            scanService.clearHits();
+            resultsPanel.setScanning(false);
+            resultsPanel.setDataChanged();
+        };
+        scannedCodeArea.addDataChangedListener(dataChangedListener);
+        dialog.getWindow().addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                release();
+            }
+
+            @Override
+            public void windowClosed(WindowEvent e) {
+                release();
+            }
+
+            private void release() {
+                scannedCodeArea.removeDataChangedListener(dataChangedListener);
+                scanScheduler.dispose();
+                scanService.clearHits();
+            }
+        });
+        controlPanel.setController(() -> {
+            dialog.close();
+            dialog.dispose();
+        });
+        dialog.showCentered(scannedCodeArea);
+    }
+
+    @Override
+    public void register(ContextChangeRegistration registrar) {
+        registrar.registerChangeListener(ContextComponent.class, (instance) -> {
+            codeArea = instance instanceof BinaryDataComponent ? (SectCodeArea) ((BinaryDataComponent) instance).getCodeArea() : null;
+            setEnabled(codeArea != null);
+        });
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.command;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.exbin.auxiliary.binary_data.EditableBinaryData;
+import org.exbin.bined.operation.BinaryDataUndoableOperation;
+import org.exbin.bined.operation.swing.command.CodeAreaCommand;
+import org.exbin.bined.operation.swing.command.CodeAreaCommandType;
+import org.exbin.bined.swing.CodeAreaCore;
+import org.exbin.bined.jaguif.document.BinedDocumentModule;
+import org.exbin.jaguif.App;
+import org.exbin.bined.jaguif.search.service.ReplaceAllOperation;
+
+/**
+ * Replace all matches command.
+ */
+@NullMarked
+public class ReplaceAllCommand extends CodeAreaCommand {
+
+    protected final ReplaceAllOperation operation;
+    @Nullable
+    protected BinaryDataUndoableOperation undoOperation;
+
+    public ReplaceAllCommand(CodeAreaCore codeArea, ReplaceAllOperation operation) {
+        super(codeArea);
+        this.operation = operation;
+        operation.setUndoDataStore(App.getModule(BinedDocumentModule.class).getFileManager().getUndoDataStore());
+    }
+
+    @Override
+    public CodeAreaCommandType getType() {
+        return CodeAreaCommandType.DATA_MODIFIED;
+    }
+
+    @Override
+    public void performExecute() {
+        undoOperation = operation.executeWithUndo((EditableBinaryData) codeArea.getContentData());
+        codeArea.notifyDataChanged();
+    }
+
+    @Override
+    public void performUndo() {
+        if (undoOperation == null) {
+            throw new IllegalStateException("Command was not executed");
+        }
+
+        undoOperation.execute((EditableBinaryData) codeArea.getContentData());
+        undoOperation.dispose();
+        undoOperation = null;
+        codeArea.notifyDataChanged();
+    }
+
+    @Override
+    public void dispose() {
+        super.dispose();
+        if (undoOperation != null) {
+            // Releases original data kept for undo
+            undoOperation.dispose();
+            undoOperation = null;
+        }
+        operation.dispose();
+    }
+}
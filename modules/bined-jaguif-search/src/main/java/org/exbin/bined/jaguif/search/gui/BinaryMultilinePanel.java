@@ -17,11 +17,18 @@ package org.exbin.bined.jaguif.search.gui;
 
 import org.exbin.bined.jaguif.search.SearchCondition;
 import java.awt.BorderLayout;
+import java.nio.ByteOrder;
+import java.text.MessageFormat;
 import java.util.ResourceBundle;
 import org.jspecify.annotations.NullMarked;
+import javax.swing.JLabel;
 import javax.swing.JPopupMenu;
 import javax.swing.JScrollPane;
 import javax.swing.JTextArea;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import org.exbin.bined.jaguif.search.service.matcher.MaskedBinaryPattern;
+import org.exbin.bined.jaguif.search.service.matcher.NumericValuePattern;
 import org.exbin.bined.swing.section.SectCodeArea;
 import org.exbin.jaguif.language.api.LanguageModuleApi;
 import org.exbin.auxiliary.binary_data.EditableBinaryData;
@@ -38,6 +45,7 @@ public class BinaryMultilinePanel extends javax.swing.JPanel {
 
     private JTextArea textArea;
     private JScrollPane scrollPane;
+    private JLabel patternStatusLabel;
     private SectCodeArea codeArea;
     private JPopupMenu codeAreaPopupMenu;
 
@@ -98,11 +106,67 @@ public class BinaryMultilinePanel extends javax.swing.JPanel {
 
             textArea.setText(condition.getSearchText());
             add(scrollPane, BorderLayout.CENTER);
+            if (condition.getSearchMode() == SearchCondition.SearchMode.MASKED_BINARY || condition.getSearchMode() == SearchCondition.SearchMode.VALUE) {
+                patternStatusLabel = new JLabel();
+                add(patternStatusLabel, BorderLayout.SOUTH);
+                textArea.getDocument().addDocumentListener(new DocumentListener() {
+                    @Override
+                    public void insertUpdate(DocumentEvent e) {
+                        updatePatternStatus();
+                    }
+
+                    @Override
+                    public void removeUpdate(DocumentEvent e) {
+                        updatePatternStatus();
+                    }
+
+                    @Override
+                    public void changedUpdate(DocumentEvent e) {
+                        updatePatternStatus();
+                    }
+                });
+                updatePatternStatus();
+            }
         }
         revalidate();
         repaint();
     }
 
+    private void updatePatternStatus() {
+        String text = textArea.getText();
+        if (condition.getSearchMode() == SearchCondition.SearchMode.VALUE) {
+            updateValuePatternStatus(text);
+            return;
+        }
+
+        if (text.trim().isEmpty()) {
+            patternStatusLabel.setText(resourceBundle.getString("maskedPattern.hint"));
+            return;
+        }
+
+        try {
+            MaskedBinaryPattern pattern = MaskedBinaryPattern.parse(text);
+            patternStatusLabel.setText(MessageFormat.format(resourceBundle.getString("maskedPattern.valid"), pattern.getLength(), pattern.getFixedBytesCount()));
+        } catch (IllegalArgumentException ex) {
+            patternStatusLabel.setText(MessageFormat.format(resourceBundle.getString("maskedPattern.invalid"), ex.getMessage()));
+        }
+    }
+
+    private void updateValuePatternStatus(String text) {
+        if (text.trim().isEmpty()) {
+            patternStatusLabel.setText(resourceBundle.getString("valuePattern.hint"));
+            return;
+        }
+
+        try {
+            NumericValuePattern pattern = NumericValuePattern.parse(text);
+            String byteOrder = resourceBundle.getString(pattern.getByteOrder() == ByteOrder.BIG_ENDIAN ? "valuePattern.bigEndian" : "valuePattern.littleEndian");
+            patternStatusLabel.setText(MessageFormat.format(resourceBundle.getString("valuePattern.valid"), pattern.getValueType().getCode(), byteOrder, pattern.getStride(), pattern.getOffset()));
+        } catch (IllegalArgumentException ex) {
+            patternStatusLabel.setText(MessageFormat.format(resourceBundle.getString("maskedPattern.invalid"), ex.getMessage()));
+        }
+    }
+
     public void setCodeAreaPopupMenu(JPopupMenu popupMenu) {
         this.codeAreaPopupMenu = popupMenu;
         if (codeArea != null) {
@@ -103,6 +103,8 @@ public class BinarySearchComboBoxPanel extends JPanel {
         switch (item.getSearchMode()) {
             case TEXT:
             case REGEX:
+            case MASKED_BINARY:
+            case VALUE:
                 item.setSearchText(textField.getText());
                 break;
             case BINARY:
@@ -130,7 +132,9 @@ public class BinarySearchComboBoxPanel extends JPanel {
                 revalidate();
                 break;
             }
-            case REGEX: {
+            case REGEX:
+            case MASKED_BINARY:
+            case VALUE: {
                 this.item.setSearchText(item.getSearchText());
                 this.item.setBinaryData(null);
                 runningUpdate = true;
@@ -163,6 +167,8 @@ public class BinarySearchComboBoxPanel extends JPanel {
         switch (item.getSearchMode()) {
             case TEXT:
             case REGEX:
+            case MASKED_BINARY:
+            case VALUE:
                 textField.selectAll();
                 break;
             case BINARY:
@@ -192,6 +198,8 @@ public class BinarySearchComboBoxPanel extends JPanel {
         switch (item.getSearchMode()) {
             case TEXT:
             case REGEX:
+            case MASKED_BINARY:
+            case VALUE:
                 textField.requestFocus();
                 break;
             case BINARY:
@@ -214,6 +222,8 @@ public class BinarySearchComboBoxPanel extends JPanel {
         switch (item.getSearchMode()) {
             case TEXT:
             case REGEX:
+            case MASKED_BINARY:
+            case VALUE:
                 String text = textField.getText();
                 if (!"".equals(text)) {
                     textField.setText("");
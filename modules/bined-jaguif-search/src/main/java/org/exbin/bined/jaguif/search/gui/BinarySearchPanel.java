@@ -70,6 +70,8 @@ public class BinarySearchPanel extends javax.swing.JPanel {
     private ComboBoxEditor replaceComboBoxEditor;
     private BinarySearchComboBoxPanel replaceComboBoxEditorComponent;
     private final SearchTypeUtils searchTypeUtils = new SearchTypeUtils();
+    private int maxDistance = 0;
+    private SearchParameters.DistanceMetric distanceMetric = SearchParameters.DistanceMetric.HAMMING;
 
     public BinarySearchPanel() {
         initComponents();
@@ -322,6 +324,8 @@ public class BinarySearchPanel extends javax.swing.JPanel {
         SearchParameters searchParameters = new SearchParameters();
         searchParameters.setMatchCase(matchCaseToggleButton.isSelected());
         searchParameters.setMatchMode(SearchParameters.MatchMode.fromBoolean(multipleMatchesToggleButton.isSelected()));
+        searchParameters.setMaxDistance(maxDistance);
+        searchParameters.setDistanceMetric(distanceMetric);
         SearchParameters.SearchDirection searchDirection = controller.getSearchDirection();
         searchParameters.setSearchDirection(searchDirection);
 
@@ -348,6 +352,17 @@ public class BinarySearchPanel extends javax.swing.JPanel {
         return searchParameters;
     }
 
+    /**
+     * Sets approximate match options used by following searches.
+     *
+     * @param maxDistance maximum distance, 0 for exact match
+     * @param distanceMetric distance metric
+     */
+    public void setApproximateMatch(int maxDistance, SearchParameters.DistanceMetric distanceMetric) {
+        this.maxDistance = maxDistance;
+        this.distanceMetric = distanceMetric;
+    }
+
     public ReplaceParameters getReplaceParameters() {
         ReplaceParameters replaceParameters = new ReplaceParameters();
         replaceParameters.setCondition(new SearchCondition(replaceComboBoxEditorComponent.getItem()));
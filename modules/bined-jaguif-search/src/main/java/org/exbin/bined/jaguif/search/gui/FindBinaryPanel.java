@@ -89,6 +89,8 @@ public class FindBinaryPanel extends javax.swing.JPanel {
         findCodeArea.setVerticalScrollBarVisibility(ScrollBarVisibility.NEVER);
         findCodeArea.setHorizontalScrollBarVisibility(ScrollBarVisibility.NEVER);
         findCodeArea.setContentData(new ByteArrayEditableData());
+        distanceMetricComboBox.addItem(resourceBundle.getString("distanceMetric.hamming"));
+        distanceMetricComboBox.addItem(resourceBundle.getString("distanceMetric.levenshtein"));
 
         findComboBoxEditorComponent = new BinarySearchComboBoxPanel();
         findComboBox.setRenderer(new ListCellRenderer<SearchCondition>() {
@@ -262,6 +264,9 @@ public class FindBinaryPanel extends javax.swing.JPanel {
         multipleMatchesCheckBox = new javax.swing.JCheckBox();
         searchBackwardCheckBox = new javax.swing.JCheckBox();
         searchTypeButton = new org.exbin.auxiliary.dropdownbutton.DropDownButton();
+        maxDistanceLabel = new javax.swing.JLabel();
+        maxDistanceSpinner = new javax.swing.JSpinner();
+        distanceMetricComboBox = new javax.swing.JComboBox<>();
         replacePanel = new javax.swing.JPanel();
         performReplaceCheckBox = new javax.swing.JCheckBox();
         replaceLabel = new javax.swing.JLabel();
@@ -302,6 +307,11 @@ public class FindBinaryPanel extends javax.swing.JPanel {
         searchTypeButton.setMinimumSize(new java.awt.Dimension(33, 23));
         searchTypeButton.setPreferredSize(new java.awt.Dimension(33, 23));
 
+        maxDistanceLabel.setText(resourceBundle.getString("maxDistanceLabel.text")); // NOI18N
+        maxDistanceLabel.setToolTipText(resourceBundle.getString("maxDistanceLabel.toolTipText")); // NOI18N
+
+        maxDistanceSpinner.setModel(new javax.swing.SpinnerNumberModel(0, 0, null, 1));
+
         javax.swing.GroupLayout findPanelLayout = new javax.swing.GroupLayout(findPanel);
         findPanel.setLayout(findPanelLayout);
         findPanelLayout.setHorizontalGroup(
@@ -321,7 +331,13 @@ public class FindBinaryPanel extends javax.swing.JPanel {
                     .addGroup(findPanelLayout.createSequentialGroup()
                         .addComponent(findLabel)
                         .addGap(0, 0, Short.MAX_VALUE))
-                    .addComponent(searchBackwardCheckBox, javax.swing.GroupLayout.DEFAULT_SIZE, 378, Short.MAX_VALUE))
+                    .addComponent(searchBackwardCheckBox, javax.swing.GroupLayout.DEFAULT_SIZE, 378, Short.MAX_VALUE)
+                    .addGroup(findPanelLayout.createSequentialGroup()
+                        .addComponent(maxDistanceLabel)
+                        .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                        .addComponent(maxDistanceSpinner, javax.swing.GroupLayout.PREFERRED_SIZE, 60, javax.swing.GroupLayout.PREFERRED_SIZE)
+                        .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                        .addComponent(distanceMetricComboBox, 0, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)))
                 .addContainerGap())
         );
         findPanelLayout.setVerticalGroup(
@@ -343,6 +359,11 @@ public class FindBinaryPanel extends javax.swing.JPanel {
                 .addComponent(multipleMatchesCheckBox)
                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
                 .addComponent(searchBackwardCheckBox)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addGroup(findPanelLayout.createParallelGroup(javax.swing.GroupLayout.Alignment.BASELINE)
+                    .addComponent(maxDistanceLabel)
+                    .addComponent(maxDistanceSpinner, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
+                    .addComponent(distanceMetricComboBox, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE))
                 .addContainerGap())
         );
 
@@ -485,6 +506,10 @@ public class FindBinaryPanel extends javax.swing.JPanel {
                 matchCaseCheckBox.setEnabled(false);
                 break;
         }
+        boolean approximateMatchAvailable = searchMode == SearchCondition.SearchMode.BINARY;
+        maxDistanceLabel.setEnabled(approximateMatchAvailable);
+        maxDistanceSpinner.setEnabled(approximateMatchAvailable);
+        distanceMetricComboBox.setEnabled(approximateMatchAvailable);
     }
 
     private void updateReplaceStatus() {
@@ -497,11 +522,14 @@ public class FindBinaryPanel extends javax.swing.JPanel {
     }
 
     // Variables declaration - do not modify//GEN-BEGIN:variables
+    private javax.swing.JComboBox<String> distanceMetricComboBox;
     private javax.swing.JComboBox<SearchCondition> findComboBox;
     private javax.swing.JLabel findLabel;
     private javax.swing.JButton findMultilineButton;
     private javax.swing.JPanel findPanel;
     private javax.swing.JCheckBox matchCaseCheckBox;
+    private javax.swing.JLabel maxDistanceLabel;
+    private javax.swing.JSpinner maxDistanceSpinner;
     private javax.swing.JCheckBox multipleMatchesCheckBox;
     private javax.swing.JCheckBox performReplaceCheckBox;
     private javax.swing.JCheckBox replaceAllMatchesCheckBox;
@@ -534,6 +562,8 @@ public class FindBinaryPanel extends javax.swing.JPanel {
         result.setMatchCase(matchCaseCheckBox.isSelected());
         result.setMatchMode(SearchParameters.MatchMode.fromBoolean(multipleMatchesCheckBox.isSelected()));
         result.setSearchDirection(searchBackwardCheckBox.isSelected() ? SearchParameters.SearchDirection.BACKWARD : SearchParameters.SearchDirection.FORWARD);
+        result.setMaxDistance((Integer) maxDistanceSpinner.getValue());
+        result.setDistanceMetric(SearchParameters.DistanceMetric.values()[distanceMetricComboBox.getSelectedIndex()]);
         return result;
     }
 
@@ -542,6 +572,8 @@ public class FindBinaryPanel extends javax.swing.JPanel {
         matchCaseCheckBox.setSelected(parameters.isMatchCase());
         multipleMatchesCheckBox.setSelected(parameters.getMatchMode() == SearchParameters.MatchMode.MULTIPLE);
         searchBackwardCheckBox.setSelected(parameters.getSearchDirection() == SearchParameters.SearchDirection.BACKWARD);
+        maxDistanceSpinner.setValue(parameters.getMaxDistance());
+        distanceMetricComboBox.setSelectedIndex(parameters.getDistanceMetric().ordinal());
         findComboBoxEditorComponent.setItem(parameters.getCondition());
         findComboBox.setEditor(findComboBoxEditor);
         findComboBox.repaint();
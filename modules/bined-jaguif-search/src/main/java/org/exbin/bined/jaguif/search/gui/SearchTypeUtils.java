@@ -52,6 +52,12 @@ public class SearchTypeUtils {
                         listener.searchTypeChanged(SearchCondition.SearchMode.BINARY);
                         break;
                     case BINARY:
+                        listener.searchTypeChanged(SearchCondition.SearchMode.MASKED_BINARY);
+                        break;
+                    case MASKED_BINARY:
+                        listener.searchTypeChanged(SearchCondition.SearchMode.VALUE);
+                        break;
+                    case VALUE:
                         listener.searchTypeChanged(SearchCondition.SearchMode.TEXT);
                         break;
                 }
@@ -82,6 +88,20 @@ public class SearchTypeUtils {
                 }
             };
             searchTypeMenu.add(new JMenuItem(binarySearchType));
+            Action maskedBinarySearchType = new AbstractAction(resourceBundle.getString("searchType.maskedBinary.name")) {
+                @Override
+                public void actionPerformed(ActionEvent ae) {
+                    listener.searchTypeChanged(SearchCondition.SearchMode.MASKED_BINARY);
+                }
+            };
+            searchTypeMenu.add(new JMenuItem(maskedBinarySearchType));
+            Action valueSearchType = new AbstractAction(resourceBundle.getString("searchType.value.name")) {
+                @Override
+                public void actionPerformed(ActionEvent ae) {
+                    listener.searchTypeChanged(SearchCondition.SearchMode.VALUE);
+                }
+            };
+            searchTypeMenu.add(new JMenuItem(valueSearchType));
             searchTypeButton.setDropDownMenu(searchTypeMenu);
         }
     }
@@ -96,6 +116,14 @@ public class SearchTypeUtils {
                 searchTypeButton.setActionText(resourceBundle.getString("searchType.regex.code"));
                 searchTypeButton.setActionTooltip(resourceBundle.getString("searchType.regex.code") + " - " + resourceBundle.getString("searchType.regex.name"));
                 break;
+            case MASKED_BINARY:
+                searchTypeButton.setActionText(resourceBundle.getString("searchType.maskedBinary.code"));
+                searchTypeButton.setActionTooltip(resourceBundle.getString("searchType.maskedBinary.code") + " - " + resourceBundle.getString("searchType.maskedBinary.name"));
+                break;
+            case VALUE:
+                searchTypeButton.setActionText(resourceBundle.getString("searchType.value.code"));
+                searchTypeButton.setActionTooltip(resourceBundle.getString("searchType.value.code") + " - " + resourceBundle.getString("searchType.value.name"));
+                break;
             default:
                 searchTypeButton.setActionText(resourceBundle.getString("searchType.binary.code"));
                 searchTypeButton.setActionTooltip(resourceBundle.getString("searchType.binary.code") + " - " + resourceBundle.getString("searchType.binary.name"));
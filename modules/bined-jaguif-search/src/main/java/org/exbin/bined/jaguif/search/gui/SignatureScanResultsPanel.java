@@ -0,0 +1,286 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.gui;
+
+import java.util.ResourceBundle;
+import javax.swing.event.ListSelectionEvent;
+import javax.swing.table.AbstractTableModel;
+import org.exbin.bined.jaguif.search.service.signature.SignatureHitStore;
+import org.exbin.bined.jaguif.search.service.signature.SignatureSet;
+import org.exbin.jaguif.App;
+import org.exbin.jaguif.language.api.LanguageModuleApi;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Panel for signature scan results.
+ */
+@NullMarked
+public class SignatureScanResultsPanel extends javax.swing.JPanel {
+
+    private final java.util.ResourceBundle resourceBundle = App.getModule(LanguageModuleApi.class).getBundle(SignatureScanResultsPanel.class);
+
+    private final HitsTableModel hitsTableModel = new HitsTableModel();
+    private Controller controller;
+    private boolean signatureSetLoaded = false;
+
+    public SignatureScanResultsPanel() {
+        initComponents();
+        init();
+    }
+
+    private void init() {
+        hitsTable.getSelectionModel().addListSelectionListener((ListSelectionEvent event) -> {
+            if (event.getValueIsAdjusting()) {
+                return;
+            }
+
+            int selectedRow = hitsTable.getSelectedRow();
+            if (selectedRow >= 0 && controller != null) {
+                controller.hitSelected(selectedRow);
+            }
+        });
+    }
+
+    public ResourceBundle getResourceBundle() {
+        return resourceBundle;
+    }
+
+    public void setController(Controller controller) {
+        this.controller = controller;
+    }
+
+    /**
+     * Sets loaded signature set.
+     *
+     * @param signatureSet signature set
+     * @param sourceName name of signature set source
+     */
+    public void setSignatureSet(SignatureSet signatureSet, String sourceName) {
+        signatureSetLabel.setText(java.text.MessageFormat.format(resourceBundle.getString("signatureSetLabel.text"), sourceName, signatureSet.size()));
+        signatureSetLoaded = !signatureSet.isEmpty();
+        scanButton.setEnabled(signatureSetLoaded && !stopButton.isEnabled());
+    }
+
+    public void setScanning(boolean scanning) {
+        loadSignaturesButton.setEnabled(!scanning);
+        scanButton.setEnabled(!scanning && signatureSetLoaded);
+        stopButton.setEnabled(scanning);
+        if (scanning) {
+            hitsTableModel.setHits(null);
+            setProgress(0);
+        }
+    }
+
+    public void setProgress(int progress) {
+        statusLabel.setText(java.text.MessageFormat.format(resourceBundle.getString("scanStatus.progress"), progress / 10));
+    }
+
+    /**
+     * Shows found hits.
+     *
+     * @param hits hits sorted by position or null to clear results
+     * @param limitReached true if hits limit was reached
+     */
+    public void setHits(@Nullable SignatureHitStore hits, boolean limitReached) {
+        hitsTableModel.setHits(hits);
+        if (hits != null) {
+            statusLabel.setText(java.text.MessageFormat.format(resourceBundle.getString(limitReached ? "scanStatus.limitReached" : "scanStatus.finished"), hits.size()));
+        }
+    }
+
+    public void setCancelled() {
+        statusLabel.setText(resourceBundle.getString("scanStatus.cancelled"));
+    }
+
+    /**
+     * Clears hits invalidated by modification of scanned data.
+     */
+    public void setDataChanged() {
+        hitsTableModel.setHits(null);
+        statusLabel.setText(resourceBundle.getString("scanStatus.dataChanged"));
+    }
+
+    public void setError(String message) {
+        statusLabel.setText(java.text.MessageFormat.format(resourceBundle.getString("scanStatus.error"), message));
+    }
+
+    /**
+     * This method is called from within the constructor to initialize the form.
+     * WARNING: Do NOT modify this code. The content of this method is always
+     * regenerated by the Form Editor.
+     */
+    @SuppressWarnings("unchecked")
+    // <editor-fold defaultstate="collapsed" desc="Generated Code">//GEN-BEGIN:initComponents
+    private void initComponents() {
+
+        controlsPanel = new javax.swing.JPanel();
+        loadSignaturesButton = new javax.swing.JButton();
+        scanButton = new javax.swing.JButton();
+        stopButton = new javax.swing.JButton();
+        signatureSetLabel = new javax.swing.JLabel();
+        hitsScrollPane = new javax.swing.JScrollPane();
+        hitsTable = new javax.swing.JTable();
+        statusLabel = new javax.swing.JLabel();
+
+        setPreferredSize(new java.awt.Dimension(500, 400));
+        setLayout(new java.awt.BorderLayout());
+
+        controlsPanel.setLayout(new java.awt.FlowLayout(java.awt.FlowLayout.LEFT));
+
+        loadSignaturesButton.setText(resourceBundle.getString("loadSignaturesButton.text")); // NOI18N
+        loadSignaturesButton.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                loadSignaturesButtonActionPerformed(evt);
+            }
+        });
+        controlsPanel.add(loadSignaturesButton);
+
+        scanButton.setText(resourceBundle.getString("scanButton.text")); // NOI18N
+        scanButton.setEnabled(false);
+        scanButton.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                scanButtonActionPerformed(evt);
+            }
+        });
+        controlsPanel.add(scanButton);
+
+        stopButton.setText(resourceBundle.getString("stopButton.text")); // NOI18N
+        stopButton.setEnabled(false);
+        stopButton.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                stopButtonActionPerformed(evt);
+            }
+        });
+        controlsPanel.add(stopButton);
+
+        signatureSetLabel.setText(resourceBundle.getString("signatureSetLabel.noSet")); // NOI18N
+        controlsPanel.add(signatureSetLabel);
+
+        add(controlsPanel, java.awt.BorderLayout.NORTH);
+
+        hitsTable.setModel(hitsTableModel);
+        hitsTable.setSelectionMode(javax.swing.ListSelectionModel.SINGLE_SELECTION);
+        hitsScrollPane.setViewportView(hitsTable);
+
+        add(hitsScrollPane, java.awt.BorderLayout.CENTER);
+
+        statusLabel.setBorder(javax.swing.BorderFactory.createEmptyBorder(2, 4, 2, 4));
+        add(statusLabel, java.awt.BorderLayout.SOUTH);
+    }// </editor-fold>//GEN-END:initComponents
+
+    private void loadSignaturesButtonActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_loadSignaturesButtonActionPerformed
+        controller.loadSignatures();
+    }//GEN-LAST:event_loadSignaturesButtonActionPerformed
+
+    private void scanButtonActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_scanButtonActionPerformed
+        controller.performScan();
+    }//GEN-LAST:event_scanButtonActionPerformed
+
+    private void stopButtonActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_stopButtonActionPerformed
+        controller.cancelScan();
+    }//GEN-LAST:event_stopButtonActionPerformed
+
+    // Variables declaration - do not modify//GEN-BEGIN:variables
+    private javax.swing.JPanel controlsPanel;
+    private javax.swing.JScrollPane hitsScrollPane;
+    private javax.swing.JTable hitsTable;
+    private javax.swing.JButton loadSignaturesButton;
+    private javax.swing.JButton scanButton;
+    private javax.swing.JLabel signatureSetLabel;
+    private javax.swing.JLabel statusLabel;
+    private javax.swing.JButton stopButton;
+    // End of variables declaration//GEN-END:variables
+
+    /**
+     * Table model of signature hits.
+     */
+    @NullMarked
+    private class HitsTableModel extends AbstractTableModel {
+
+        private final String[] columnNames = new String[]{
+            resourceBundle.getString("hitsTable.positionColumn"),
+            resourceBundle.getString("hitsTable.lengthColumn"),
+            resourceBundle.getString("hitsTable.signatureColumn")
+        };
+        @Nullable
+        private SignatureHitStore hits;
+
+        public void setHits(@Nullable SignatureHitStore hits) {
+            this.hits = hits;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return hits == null ? 0 : hits.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return columnNames.length;
+        }
+
+        @Override
+        public String getColumnName(int columnIndex) {
+            return columnNames[columnIndex];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int columnIndex) {
+            return columnIndex == 2 ? String.class : Long.class;
+        }
+
+        @Nullable
+        @Override
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            if (hits == null) {
+                return null;
+            }
+
+            switch (columnIndex) {
+                case 0:
+                    return hits.getPosition(rowIndex);
+                case 1:
+                    return hits.getLength(rowIndex);
+                case 2:
+                    return hits.getSignature(rowIndex).getName();
+                default:
+                    throw new IndexOutOfBoundsException("Invalid column " + columnIndex);
+            }
+        }
+    }
+
+    /**
+     * Controller for signature scan panel.
+     */
+    @NullMarked
+    public interface Controller {
+
+        void loadSignatures();
+
+        void performScan();
+
+        void cancelScan();
+
+        /**
+         * Reports selection of hit.
+         *
+         * @param hitIndex index of hit
+         */
+        void hitSelected(int hitIndex);
+    }
+}
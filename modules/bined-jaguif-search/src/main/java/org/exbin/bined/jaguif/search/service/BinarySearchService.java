@@ -27,11 +27,53 @@ public interface BinarySearchService {
 
     void performFind(SearchParameters searchParameters, SearchStatusListener searchStatusListener);
 
+    /**
+     * Performs search again after data were modified.
+     * <p>
+     * Unlike find, code area is not scrolled to found match.
+     *
+     * @param searchParameters search parameters
+     * @param searchStatusListener search status listener
+     */
+    void performUpdate(SearchParameters searchParameters, SearchStatusListener searchStatusListener);
+
     void setMatchIndex(int matchIndex);
 
+    /**
+     * Returns distance of match found by approximate search.
+     *
+     * @param matchIndex match index
+     * @return distance of match from searched pattern, 0 for exact match
+     */
+    int getMatchDistance(int matchIndex);
+
     void performFindAgain(SearchStatusListener searchStatusListener);
 
-    void performReplace(SearchParameters searchParameters, ReplaceParameters replaceParameters);
+    void performReplace(SearchParameters searchParameters, ReplaceParameters replaceParameters, SearchStatusListener searchStatusListener);
+
+    /**
+     * Replaces all matches in data as single undoable step.
+     *
+     * @param searchParameters search parameters
+     * @param replaceParameters replace parameters
+     * @param searchStatusListener search status listener
+     */
+    void performReplaceAll(SearchParameters searchParameters, ReplaceParameters replaceParameters, SearchStatusListener searchStatusListener);
+
+    /**
+     * Updates found matches after data modification.
+     * <p>
+     * Matches following modified range are shifted and only surroundings of
+     * modified range are searched again.
+     *
+     * @param startPosition start position of modification
+     * @param removedLength length of removed data
+     * @param insertedLength length of inserted data
+     * @param searchStatusListener search status listener
+     * @return true if matches were updated, false if search has to be
+     * performed again
+     */
+    boolean updateMatches(long startPosition, long removedLength, long insertedLength, SearchStatusListener searchStatusListener);
 
     SearchParameters getLastSearchParameters();
 
@@ -47,12 +89,27 @@ public interface BinarySearchService {
         void clearStatus();
 
         void setCancelled();
+
+        void setReplaced(int replacedCount);
+
+        /**
+         * Returns true if search should be cancelled.
+         * <p>
+         * Checked repeatedly while searching, default implementation checks
+         * interruption of current thread.
+         *
+         * @return true if cancelled
+         */
+        default boolean isCancelled() {
+            return Thread.currentThread().isInterrupted();
+        }
     }
 
     public static class FoundMatches {
 
         private int matchesCount;
         private int matchIndex;
+        private int matchDistance = 0;
 
         public FoundMatches() {
             matchesCount = 0;
@@ -76,6 +133,10 @@ public interface BinarySearchService {
             return matchIndex;
         }
 
+        public int getMatchDistance() {
+            return matchDistance;
+        }
+
         public void setMatchesCount(int matchesCount) {
             this.matchesCount = matchesCount;
         }
@@ -84,6 +145,10 @@ public interface BinarySearchService {
             this.matchIndex = matchIndex;
         }
 
+        public void setMatchDistance(int matchDistance) {
+            this.matchDistance = matchDistance;
+        }
+
         public void next() {
             if (matchIndex == matchesCount - 1) {
                 throw new IllegalStateException("Cannot find next on last match");
@@ -15,27 +15,44 @@
  */
 package org.exbin.bined.jaguif.search.service;
 
-import java.nio.charset.Charset;
-import java.nio.charset.CharsetEncoder;
-import java.io.InputStream;
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.lang.reflect.InvocationTargetException;
+import java.util.BitSet;
 import java.util.List;
-import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Pattern;
-import java.util.Scanner;
-import java.util.regex.MatchResult;
+import javax.swing.SwingUtilities;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 import org.exbin.bined.swing.section.SectCodeArea;
 import org.exbin.bined.jaguif.search.ReplaceParameters;
 import org.exbin.bined.jaguif.search.SearchCondition;
 import org.exbin.bined.jaguif.search.SearchParameters;
+import org.exbin.bined.jaguif.search.command.ReplaceAllCommand;
+import org.exbin.bined.jaguif.search.service.index.IndexedDataScanner;
+import org.exbin.bined.jaguif.search.service.index.NgramIndex;
+import org.exbin.bined.jaguif.search.service.index.SearchIndexManager;
+import org.exbin.bined.jaguif.search.service.matcher.ApproximateDataScanner;
+import org.exbin.bined.jaguif.search.service.matcher.ApproximatePatternMatcher;
+import org.exbin.bined.jaguif.search.service.matcher.BinaryPatternMatcher;
+import org.exbin.bined.jaguif.search.service.matcher.BinaryPatternMatchers;
+import org.exbin.bined.jaguif.search.service.matcher.ChunkedDataScanner;
+import org.exbin.bined.jaguif.search.service.matcher.HammingPatternMatcher;
+import org.exbin.bined.jaguif.search.service.matcher.LevenshteinPatternMatcher;
+import org.exbin.bined.jaguif.search.service.matcher.MaskedBinaryPattern;
+import org.exbin.bined.jaguif.search.service.matcher.NumericValuePattern;
+import org.exbin.bined.jaguif.search.service.matcher.NumericValueScanner;
+import org.exbin.bined.jaguif.search.service.matcher.ParallelDataScanner;
+import org.exbin.bined.jaguif.search.service.matcher.RangeScanListener;
+import org.exbin.bined.jaguif.search.service.matcher.RegexDataScanner;
+import org.exbin.bined.jaguif.search.service.matcher.TextDataScanner;
+import org.exbin.bined.jaguif.search.service.matcher.TextPatternMatcher;
 import org.exbin.auxiliary.binary_data.BinaryData;
-import org.exbin.auxiliary.binary_data.BinaryDataRangeInputStream;
 import org.exbin.auxiliary.binary_data.EditableBinaryData;
-import org.exbin.bined.CharsetStreamTranslator;
+import org.exbin.auxiliary.binary_data.array.ByteArrayData;
 import org.exbin.bined.CodeAreaUtils;
+import org.exbin.bined.DataChangedListener;
+import org.exbin.bined.operation.swing.CodeAreaOperationCommandHandler;
+import org.exbin.bined.swing.CodeAreaCommandHandler;
 import org.exbin.bined.highlight.swing.SearchCodeAreaColorAssessor;
 import org.exbin.bined.highlight.swing.SearchMatch;
 import org.exbin.bined.swing.CodeAreaSwingUtils;
@@ -47,9 +64,26 @@ import org.exbin.bined.swing.capability.ColorAssessorPainterCapable;
 @NullMarked
 public class DefaultBinarySearchService implements BinarySearchService {
 
-    private static final int MAX_MATCHES_COUNT = 100;
+    public static final int DEFAULT_MATCHES_LIMIT = 1000000;
+    /**
+     * Maximum length of inserted data for which matches are updated
+     * incrementally.
+     */
+    public static final long MAX_INCREMENTAL_LENGTH = ChunkedDataScanner.DEFAULT_CHUNK_SIZE;
     private final SectCodeArea codeArea;
     private final SearchParameters lastSearchParameters = new SearchParameters();
+    private final ChunkedDataScanner dataScanner = new ChunkedDataScanner();
+    private final ParallelDataScanner parallelScanner = new ParallelDataScanner();
+    private final IndexedDataScanner indexedScanner = new IndexedDataScanner(dataScanner);
+    @Nullable
+    private SearchIndexManager searchIndexManager;
+    private boolean parallelSearch = true;
+    private int matchesLimit = DEFAULT_MATCHES_LIMIT;
+    private volatile MatchesState matchesState = MatchesState.NONE;
+    @Nullable
+    private volatile SearchSession approximateSession;
+    // Accessed on search thread only
+    private boolean revealMatch = true;
 
     public DefaultBinarySearchService(SectCodeArea codeArea) {
         this.codeArea = codeArea;
@@ -57,15 +91,55 @@ public class DefaultBinarySearchService implements BinarySearchService {
 
     @Override
     public void performFind(SearchParameters searchParameters, SearchStatusListener searchStatusListener) {
+        revealMatch = true;
+        findMatches(searchParameters, searchStatusListener);
+    }
+
+    @Override
+    public void performUpdate(SearchParameters searchParameters, SearchStatusListener searchStatusListener) {
+        revealMatch = false;
+        findMatches(searchParameters, searchStatusListener);
+    }
+
+    private void findMatches(SearchParameters searchParameters, SearchStatusListener searchStatusListener) {
         SearchCodeAreaColorAssessor searchAssessor = CodeAreaSwingUtils.findColorAssessor((ColorAssessorPainterCapable) codeArea.getPainter(), SearchCodeAreaColorAssessor.class);
         SearchCondition condition = searchParameters.getCondition();
-        searchStatusListener.clearStatus();
+        matchesState = MatchesState.NONE;
+        approximateSession = null;
+        SwingUtilities.invokeLater(searchStatusListener::clearStatus);
         if (condition.isEmpty()) {
-            searchAssessor.clearMatches();
-            codeArea.repaint();
+            SwingUtilities.invokeLater(() -> {
+                searchAssessor.clearMatches();
+                codeArea.repaint();
+            });
             return;
         }
 
+        MaskedBinaryPattern maskedPattern = null;
+        if (condition.getSearchMode() == SearchCondition.SearchMode.MASKED_BINARY) {
+            maskedPattern = parseMaskedPattern(condition);
+            if (maskedPattern == null) {
+                SwingUtilities.invokeLater(() -> {
+                    searchAssessor.clearMatches();
+                    searchStatusListener.setStatus(new FoundMatches(), searchParameters.getMatchMode());
+                    codeArea.repaint();
+                });
+                return;
+            }
+        }
+        NumericValuePattern valuePattern = null;
+        if (condition.getSearchMode() == SearchCondition.SearchMode.VALUE) {
+            valuePattern = parseValuePattern(condition);
+            if (valuePattern == null) {
+                SwingUtilities.invokeLater(() -> {
+                    searchAssessor.clearMatches();
+                    searchStatusListener.setStatus(new FoundMatches(), searchParameters.getMatchMode());
+                    codeArea.repaint();
+                });
+                return;
+            }
+        }
+
         long position;
         switch (searchParameters.getSearchDirection()) {
             case FORWARD: {
@@ -87,10 +161,21 @@ public class DefaultBinarySearchService implements BinarySearchService {
                             break;
                         }
                         case REGEX: {
-                            throw new UnsupportedOperationException("Not supported yet.");
+                            // Match can start at any position
+                            searchDataSize = 1;
+                            break;
                         }
                         case BINARY: {
-                            searchDataSize = condition.getBinaryData().getDataSize();
+                            // Approximate match can be shorter than searched data
+                            searchDataSize = isApproximateSearch(searchParameters) ? 1 : condition.getBinaryData().getDataSize();
+                            break;
+                        }
+                        case MASKED_BINARY: {
+                            searchDataSize = maskedPattern.getLength();
+                            break;
+                        }
+                        case VALUE: {
+                            searchDataSize = valuePattern.getValueLength();
                             break;
                         }
                         default:
@@ -113,7 +198,17 @@ public class DefaultBinarySearchService implements BinarySearchService {
                 searchRegEx(searchParameters, searchStatusListener);
                 break;
             case BINARY:
-                searchForBinaryData(searchParameters, searchStatusListener);
+                if (isApproximateSearch(searchParameters)) {
+                    searchApproximately(searchParameters, searchStatusListener);
+                } else {
+                    searchForBinaryData(searchParameters, searchStatusListener);
+                }
+                break;
+            case MASKED_BINARY:
+                searchForMatcher(BinaryPatternMatchers.createMatcher(maskedPattern), null, searchParameters, searchStatusListener);
+                break;
+            case VALUE:
+                searchForValue(valuePattern, searchParameters, searchStatusListener);
                 break;
             default:
                 throw CodeAreaUtils.getInvalidTypeException(condition.getSearchMode());
@@ -124,283 +219,409 @@ public class DefaultBinarySearchService implements BinarySearchService {
      * Performs search by binary data.
      */
     private void searchForBinaryData(SearchParameters searchParameters, SearchStatusListener searchStatusListener) {
-        SearchCodeAreaColorAssessor searchAssessor = CodeAreaSwingUtils.findColorAssessor((ColorAssessorPainterCapable) codeArea.getPainter(), SearchCodeAreaColorAssessor.class);
         SearchCondition condition = searchParameters.getCondition();
-        long position = searchParameters.getStartPosition();
-
         BinaryData searchData = condition.getBinaryData();
         if (searchData == null) {
             throw new IllegalStateException("Missing data to search");
         }
-        long searchDataSize = searchData.getDataSize();
-        BinaryData data = codeArea.getContentData();
+        byte[] pattern = new byte[(int) searchData.getDataSize()];
+        searchData.copyToArray(0, pattern, 0, pattern.length);
+        searchForPattern(pattern, searchParameters, searchStatusListener);
+    }
 
-        List<SearchMatch> foundMatches = new ArrayList<>();
+    /**
+     * Performs search by binary data allowing limited distance.
+     */
+    private void searchApproximately(SearchParameters searchParameters, SearchStatusListener searchStatusListener) {
+        SearchCondition condition = searchParameters.getCondition();
+        BinaryData searchData = condition.getBinaryData();
+        if (searchData == null) {
+            throw new IllegalStateException("Missing data to search");
+        }
+        byte[] pattern = new byte[(int) searchData.getDataSize()];
+        searchData.copyToArray(0, pattern, 0, pattern.length);
 
-        long dataSize = data.getDataSize();
-        int lastProgressState = -1;
-        while (position >= 0 && position <= dataSize - searchDataSize) {
-            if (Thread.interrupted()) {
-                searchStatusListener.setCancelled();
-                return;
+        long position = searchParameters.getStartPosition();
+        BinaryData data = codeArea.getContentData();
+        ApproximateDataScanner approximateScanner = new ApproximateDataScanner(createApproximateMatcher(pattern, searchParameters));
+        SearchSession session = createSession(searchParameters, searchStatusListener);
+        approximateSession = session;
+        ApproximateDataScanner.MatchListener scanListener = new ApproximateDataScanner.MatchListener() {
+            @Override
+            public boolean matchFound(long matchPosition, long matchLength, int distance) {
+                return session.matchFound(matchPosition, matchLength, distance);
             }
 
-            int matchLength = 0;
-            while (matchLength < searchDataSize) {
-                if (Thread.interrupted()) {
-                    searchStatusListener.setCancelled();
-                    return;
-                }
-
-                if (data.getByte(position + matchLength) != searchData.getByte(matchLength)) {
-                    break;
-                }
-                matchLength++;
+            @Override
+            public void positionReached(long reachedPosition) {
+                session.positionReached(reachedPosition);
             }
 
-            if (matchLength == searchDataSize) {
-                SearchMatch match = new SearchMatch();
-                match.setPosition(position);
-                match.setLength(searchDataSize);
-                if (searchParameters.getSearchDirection() == SearchParameters.SearchDirection.BACKWARD) {
-                    foundMatches.add(0, match);
-                } else {
-                    foundMatches.add(match);
-                }
-
-                if (foundMatches.size() == MAX_MATCHES_COUNT || searchParameters.getMatchMode() == SearchParameters.MatchMode.SINGLE) {
-                    break;
-                }
+            @Override
+            public boolean isCancelled() {
+                return session.isCancelled();
             }
+        };
 
-            int progressState;
-            switch (searchParameters.getSearchDirection()) {
-                case FORWARD: {
-                    position++;
-                    progressState = (int) (dataSize > Integer.MAX_VALUE ? position / (dataSize / 1000) : (position * 1000) / dataSize);
-                    break;
-                }
-                case BACKWARD: {
-                    position--;
-                    progressState = (int) (dataSize > Integer.MAX_VALUE ? (dataSize - position) / (dataSize / 1000) : ((dataSize - position) * 1000) / dataSize);
-                    break;
-                }
-                default:
-                    throw CodeAreaUtils.getInvalidTypeException(searchParameters.getSearchDirection());
+        boolean finished;
+        switch (searchParameters.getSearchDirection()) {
+            case FORWARD: {
+                finished = approximateScanner.scanForward(data, position, data.getDataSize(), scanListener);
+                break;
             }
-
-            if (progressState != lastProgressState) {
-                lastProgressState = progressState;
-                searchStatusListener.setProgress(progressState);
+            case BACKWARD: {
+                finished = position < 0 || approximateScanner.scanBackward(data, 0, position + 1, scanListener);
+                break;
             }
+            default:
+                throw CodeAreaUtils.getInvalidTypeException(searchParameters.getSearchDirection());
         }
 
-        if (Thread.interrupted()) {
-            searchStatusListener.setCancelled();
-            return;
-        }
-
-        searchAssessor.setMatches(foundMatches);
-        if (!foundMatches.isEmpty()) {
-            if (searchParameters.getSearchDirection() == SearchParameters.SearchDirection.BACKWARD) {
-                searchAssessor.setCurrentMatchIndex(foundMatches.size() - 1);
-            } else {
-                searchAssessor.setCurrentMatchIndex(0);
-            }
-            SearchMatch firstMatch = Objects.requireNonNull(searchAssessor.getCurrentMatch());
-            codeArea.revealPosition(firstMatch.getPosition(), 0, codeArea.getActiveSection());
+        finishSearch(session, finished, searchParameters);
+        if (matchesState == MatchesState.NONE) {
+            approximateSession = null;
         }
-        lastSearchParameters.setFromParameters(searchParameters);
-        searchStatusListener.setStatus(new FoundMatches(foundMatches.size(), foundMatches.isEmpty() ? -1 : searchAssessor.getCurrentMatchIndex()), searchParameters.getMatchMode());
-        codeArea.repaint();
     }
 
     /**
-     * Performs search by text/characters.
+     * Performs search by exact byte pattern.
      */
-    private void searchForText(SearchParameters searchParameters, SearchStatusListener searchStatusListener) {
-        SearchCodeAreaColorAssessor searchAssessor = CodeAreaSwingUtils.findColorAssessor((ColorAssessorPainterCapable) codeArea.getPainter(), SearchCodeAreaColorAssessor.class);
-        SearchCondition condition = searchParameters.getCondition();
+    private void searchForPattern(byte[] pattern, SearchParameters searchParameters, SearchStatusListener searchStatusListener) {
+        searchForMatcher(createMatcher(pattern), pattern, searchParameters, searchStatusListener);
+    }
 
+    /**
+     * Performs search using fixed length pattern matcher.
+     *
+     * @param matcher pattern matcher
+     * @param pattern exact pattern usable for index lookup or null
+     * @param searchParameters search parameters
+     * @param searchStatusListener search status listener
+     */
+    private void searchForMatcher(BinaryPatternMatcher matcher, @Nullable byte[] pattern, SearchParameters searchParameters, SearchStatusListener searchStatusListener) {
         long position = searchParameters.getStartPosition();
-        String findText;
-        if (searchParameters.isMatchCase()) {
-            findText = condition.getSearchText();
-        } else {
-            findText = condition.getSearchText().toLowerCase();
-        }
-        long searchDataSize = findText.length();
+        int patternLength = matcher.getPatternLength();
         BinaryData data = codeArea.getContentData();
 
-        List<SearchMatch> foundMatches = new ArrayList<>();
-
-        Charset charset = codeArea.getCharset();
-        int maxBytesPerChar;
-        try {
-            CharsetEncoder encoder = charset.newEncoder();
-            maxBytesPerChar = (int) encoder.maxBytesPerChar();
-        } catch (UnsupportedOperationException ex) {
-            maxBytesPerChar = CharsetStreamTranslator.DEFAULT_MAX_BYTES_PER_CHAR;
-        }
-        byte[] charData = new byte[maxBytesPerChar];
         long dataSize = data.getDataSize();
-        long lastPosition = position;
-        int lastProgressState = -1;
-        while (position >= 0 && position <= dataSize - searchDataSize) {
-            int matchCharLength = 0;
-            int matchLength = 0;
-            while (matchCharLength < searchDataSize) {
-                if (Thread.interrupted()) {
-                    searchStatusListener.setCancelled();
-                    return;
-                }
+        SearchParameters.SearchDirection searchDirection = searchParameters.getSearchDirection();
+        int matchesLimit = getMatchesLimit(searchParameters);
+        SearchSession session = createSession(searchParameters, searchStatusListener);
+        ChunkedDataScanner.ScanListener scanListener = new ChunkedDataScanner.ScanListener() {
+            @Override
+            public boolean matchFound(long matchPosition) {
+                return session.matchFound(matchPosition, patternLength);
+            }
 
-                long searchPosition = position + matchLength;
-                int bytesToUse = maxBytesPerChar;
-                if (searchPosition + bytesToUse > dataSize) {
-                    bytesToUse = (int) (dataSize - searchPosition);
-                }
+            @Override
+            public void positionReached(long reachedPosition) {
+                session.positionReached(reachedPosition);
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return session.isCancelled();
+            }
+        };
 
-                if (searchPosition == lastPosition + 1) {
-                    System.arraycopy(charData, 1, charData, 0, maxBytesPerChar - 1);
-                    charData[bytesToUse - 1] = searchPosition + bytesToUse - 1 < dataSize ? data.getByte(searchPosition + bytesToUse - 1) : 0;
-                } else if (searchPosition == lastPosition - 1) {
-                    System.arraycopy(charData, 0, charData, 1, maxBytesPerChar - 1);
-                    charData[0] = data.getByte(searchPosition);
+        NgramIndex index = searchIndexManager == null || pattern == null || pattern.length < NgramIndex.GRAM_LENGTH ? null : searchIndexManager.getIndex(data);
+        BitSet candidates = null;
+        if (searchIndexManager != null && pattern != null) {
+            if (index != null) {
+                candidates = index.findCandidateBlocks(pattern);
+                searchIndexManager.recordQuery(true, candidates.cardinality(), index.getBlockCount());
+            } else {
+                searchIndexManager.recordQuery(false, 0, 0);
+            }
+        }
+
+        boolean finished;
+        switch (searchDirection) {
+            case FORWARD: {
+                if (index != null && candidates != null) {
+                    finished = indexedScanner.scanForward(data, matcher, index, candidates, position, dataSize, scanListener);
+                } else if (parallelSearch && parallelScanner.isParallelizable(dataSize - position)) {
+                    finished = parallelScanner.scanForward(data, matcher, position, dataSize, matchesLimit, scanListener);
                 } else {
-                    data.copyToArray(searchPosition, charData, 0, bytesToUse);
+                    finished = dataScanner.scanForward(data, matcher, position, dataSize, scanListener);
                 }
-                if (bytesToUse < maxBytesPerChar) {
-                    Arrays.fill(charData, bytesToUse, maxBytesPerChar, (byte) 0);
+                break;
+            }
+            case BACKWARD: {
+                if (position < 0) {
+                    finished = true;
+                } else if (index != null && candidates != null) {
+                    finished = indexedScanner.scanBackward(data, matcher, index, candidates, 0, position + 1, scanListener);
+                } else if (parallelSearch && parallelScanner.isParallelizable(position + 1)) {
+                    finished = parallelScanner.scanBackward(data, matcher, 0, position + 1, matchesLimit, scanListener);
+                } else {
+                    finished = dataScanner.scanBackward(data, matcher, 0, position + 1, scanListener);
                 }
-                lastPosition = searchPosition;
-                char singleChar = new String(charData, charset).charAt(0);
+                break;
+            }
+            default:
+                throw CodeAreaUtils.getInvalidTypeException(searchDirection);
+        }
 
-                if (searchParameters.isMatchCase()) {
-                    if (singleChar != findText.charAt(matchCharLength)) {
-                        break;
-                    }
-                } else if (Character.toLowerCase(singleChar) != findText.charAt(matchCharLength)) {
-                    break;
-                }
-                int characterLength = String.valueOf(singleChar).getBytes(charset).length;
-                matchCharLength++;
-                matchLength += characterLength;
+        finishSearch(session, finished, searchParameters);
+    }
+
+    /**
+     * Performs search for numeric values.
+     *
+     * @param valuePattern numeric value pattern
+     * @param searchParameters search parameters
+     * @param searchStatusListener search status listener
+     */
+    private void searchForValue(NumericValuePattern valuePattern, SearchParameters searchParameters, SearchStatusListener searchStatusListener) {
+        long position = searchParameters.getStartPosition();
+        int valueLength = valuePattern.getValueLength();
+        BinaryData data = codeArea.getContentData();
+        long dataSize = data.getDataSize();
+        NumericValueScanner valueScanner = new NumericValueScanner(valuePattern);
+        int matchesLimit = getMatchesLimit(searchParameters);
+        SearchSession session = createSession(searchParameters, searchStatusListener);
+        ChunkedDataScanner.ScanListener scanListener = new ChunkedDataScanner.ScanListener() {
+            @Override
+            public boolean matchFound(long matchPosition) {
+                return session.matchFound(matchPosition, valueLength);
             }
 
-            if (matchCharLength == findText.length()) {
-                SearchMatch match = new SearchMatch();
-                match.setPosition(position);
-                match.setLength(matchLength);
-                if (searchParameters.getSearchDirection() == SearchParameters.SearchDirection.BACKWARD) {
-                    foundMatches.add(0, match);
-                } else {
-                    foundMatches.add(match);
-                }
+            @Override
+            public void positionReached(long reachedPosition) {
+                session.positionReached(reachedPosition);
+            }
 
-                if (foundMatches.size() == MAX_MATCHES_COUNT || searchParameters.getMatchMode() == SearchParameters.MatchMode.SINGLE) {
-                    break;
-                }
+            @Override
+            public boolean isCancelled() {
+                return session.isCancelled();
             }
+        };
 
-            int progressState;
-            switch (searchParameters.getSearchDirection()) {
-                case FORWARD: {
-                    position++;
-                    progressState = (int) (dataSize > Integer.MAX_VALUE ? position / (dataSize / 1000) : (position * 1000) / dataSize);
-                    break;
-                }
-                case BACKWARD: {
-                    position--;
-                    progressState = (int) (dataSize > Integer.MAX_VALUE ? (dataSize - position) / (dataSize / 1000) : ((dataSize - position) * 1000) / dataSize);
-                    break;
+        boolean finished;
+        switch (searchParameters.getSearchDirection()) {
+            case FORWARD: {
+                if (parallelSearch && parallelScanner.isParallelizable(dataSize - position)) {
+                    finished = parallelScanner.scanForward(data, valueLength, valueScanner, position, dataSize, matchesLimit, scanListener);
+                } else {
+                    finished = valueScanner.scanForward(data, position, dataSize, scanListener);
                 }
-                default:
-                    throw CodeAreaUtils.getInvalidTypeException(searchParameters.getSearchDirection());
+                break;
             }
-
-            if (progressState != lastProgressState) {
-                lastProgressState = progressState;
-                searchStatusListener.setProgress(progressState);
+            case BACKWARD: {
+                if (position < 0) {
+                    finished = true;
+                } else if (parallelSearch && parallelScanner.isParallelizable(position + 1)) {
+                    finished = parallelScanner.scanBackward(data, valueLength, valueScanner, 0, position + 1, matchesLimit, scanListener);
+                } else {
+                    finished = valueScanner.scanBackward(data, 0, position + 1, scanListener);
+                }
+                break;
             }
+            default:
+                throw CodeAreaUtils.getInvalidTypeException(searchParameters.getSearchDirection());
         }
 
-        if (Thread.interrupted()) {
-            searchStatusListener.setCancelled();
+        finishSearch(session, finished, searchParameters);
+    }
+
+    /**
+     * Performs search by text/characters.
+     */
+    private void searchForText(SearchParameters searchParameters, SearchStatusListener searchStatusListener) {
+        SearchCondition condition = searchParameters.getCondition();
+        TextPatternMatcher textMatcher = new TextPatternMatcher(condition.getSearchText(), codeArea.getCharset(), searchParameters.isMatchCase());
+        if (textMatcher.isSingleForm()) {
+            searchForPattern(textMatcher.getSingleForm(), searchParameters, searchStatusListener);
             return;
         }
 
-        searchAssessor.setMatches(foundMatches);
-        if (!foundMatches.isEmpty()) {
-            if (searchParameters.getSearchDirection() == SearchParameters.SearchDirection.BACKWARD) {
-                searchAssessor.setCurrentMatchIndex(foundMatches.size() - 1);
-            } else {
-                searchAssessor.setCurrentMatchIndex(0);
+        long position = searchParameters.getStartPosition();
+        BinaryData data = codeArea.getContentData();
+        TextDataScanner textScanner = new TextDataScanner(textMatcher);
+        SearchSession session = createSession(searchParameters, searchStatusListener);
+        RangeScanListener scanListener = createRangeScanListener(session);
+
+        boolean finished;
+        switch (searchParameters.getSearchDirection()) {
+            case FORWARD: {
+                finished = textScanner.scanForward(data, position, data.getDataSize(), scanListener);
+                break;
+            }
+            case BACKWARD: {
+                finished = position < 0 || textScanner.scanBackward(data, 0, position + 1, scanListener);
+                break;
             }
-            SearchMatch firstMatch = searchAssessor.getCurrentMatch();
-            codeArea.revealPosition(firstMatch.getPosition(), 0, codeArea.getActiveSection());
+            default:
+                throw CodeAreaUtils.getInvalidTypeException(searchParameters.getSearchDirection());
         }
-        lastSearchParameters.setFromParameters(searchParameters);
-        searchStatusListener.setStatus(new FoundMatches(foundMatches.size(), foundMatches.isEmpty() ? -1 : searchAssessor.getCurrentMatchIndex()), searchParameters.getMatchMode());
-        codeArea.repaint();
+
+        finishSearch(session, finished, searchParameters);
     }
 
     public void searchRegEx(SearchParameters searchParameters, SearchStatusListener searchStatusListener) {
-        // TODO: Rework to support multibyte encodings
-        SearchCodeAreaColorAssessor searchAssessor = CodeAreaSwingUtils.findColorAssessor((ColorAssessorPainterCapable) codeArea.getPainter(), SearchCodeAreaColorAssessor.class);
         SearchCondition condition = searchParameters.getCondition();
-        int flags = searchParameters.isMatchCase() ? 0 : Pattern.CASE_INSENSITIVE;
+        int flags = searchParameters.isMatchCase() ? 0 : Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
         Pattern textPattern = Pattern.compile(condition.getSearchText(), flags | Pattern.DOTALL);
         long position = searchParameters.getStartPosition();
 
-        List<SearchMatch> foundMatches = new ArrayList<>();
-        Charset charset = codeArea.getCharset();
-        BinaryData contentData = codeArea.getContentData();
-        try (InputStream stream = new BinaryDataRangeInputStream(codeArea.getContentData(), position, contentData.getDataSize() - position); Scanner scanner = new Scanner(stream, charset.name())) {
-            while (scanner.findWithinHorizon(textPattern, 0) != null) {
-                if (Thread.interrupted()) {
-                    searchStatusListener.setCancelled();
-                    return;
-                }
+        RegexDataScanner regexScanner = new RegexDataScanner(textPattern, codeArea.getCharset());
+        BinaryData data = codeArea.getContentData();
+        SearchSession session = createSession(searchParameters, searchStatusListener);
+        RangeScanListener scanListener = createRangeScanListener(session);
 
-                MatchResult matchResult = scanner.match();
-                int matchPosition = matchResult.start();
-                int matchLength = (int) (matchResult.end() - matchPosition);
-                SearchMatch match = new SearchMatch();
-                match.setPosition(matchPosition);
-                match.setLength(matchLength);
-                if (searchParameters.getSearchDirection() == SearchParameters.SearchDirection.BACKWARD) {
-                    foundMatches.add(0, match);
-                } else {
-                    foundMatches.add(match);
-                }
+        boolean finished;
+        switch (searchParameters.getSearchDirection()) {
+            case FORWARD: {
+                finished = regexScanner.scanForward(data, position, data.getDataSize(), scanListener);
+                break;
+            }
+            case BACKWARD: {
+                finished = position < 0 || regexScanner.scanBackward(data, 0, position + 1, scanListener);
+                break;
+            }
+            default:
+                throw CodeAreaUtils.getInvalidTypeException(searchParameters.getSearchDirection());
+        }
 
-                if (foundMatches.size() == MAX_MATCHES_COUNT || searchParameters.getMatchMode() == SearchParameters.MatchMode.SINGLE) {
-                    break;
-                }
+        finishSearch(session, finished, searchParameters);
+    }
+
+    private SearchSession createSession(SearchParameters searchParameters, SearchStatusListener searchStatusListener) {
+        SearchCodeAreaColorAssessor searchAssessor = CodeAreaSwingUtils.findColorAssessor((ColorAssessorPainterCapable) codeArea.getPainter(), SearchCodeAreaColorAssessor.class);
+        return new SearchSession(codeArea, searchAssessor, searchParameters, searchStatusListener, getMatchesLimit(searchParameters), revealMatch);
+    }
+
+    private static RangeScanListener createRangeScanListener(SearchSession session) {
+        return new RangeScanListener() {
+            @Override
+            public boolean matchFound(long matchPosition, long matchLength) {
+                return session.matchFound(matchPosition, matchLength);
             }
-        } catch (IOException ex) {
-            // ignore
+
+            @Override
+            public void positionReached(long reachedPosition) {
+                session.positionReached(reachedPosition);
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return session.isCancelled();
+            }
+        };
+    }
+
+    private void finishSearch(SearchSession session, boolean finished, SearchParameters searchParameters) {
+        if (session.finish(finished)) {
+            lastSearchParameters.setFromParameters(searchParameters);
+            boolean updatable = searchParameters.getMatchMode() == SearchParameters.MatchMode.MULTIPLE
+                    && searchParameters.getCondition().getSearchMode() != SearchCondition.SearchMode.REGEX
+                    && !isApproximateSearch(searchParameters)
+                    && !isStridedValueSearch(searchParameters)
+                    && session.getMatches().size() < getMatchesLimit(searchParameters);
+            matchesState = updatable ? MatchesState.UPDATABLE : MatchesState.STATIC;
+        } else {
+            matchesState = MatchesState.NONE;
         }
+    }
 
-        if (Thread.interrupted()) {
-            searchStatusListener.setCancelled();
-            return;
+    private static boolean isApproximateSearch(SearchParameters searchParameters) {
+        return searchParameters.getCondition().getSearchMode() == SearchCondition.SearchMode.BINARY && searchParameters.getMaxDistance() > 0;
+    }
+
+    /**
+     * Returns true if values are searched only at positions aligned to stride.
+     * <p>
+     * Modification changing data size shifts alignment of following data, so
+     * such matches cannot be updated incrementally.
+     *
+     * @param searchParameters search parameters
+     * @return true for value search with stride greater than one
+     */
+    private static boolean isStridedValueSearch(SearchParameters searchParameters) {
+        SearchCondition condition = searchParameters.getCondition();
+        if (condition.getSearchMode() != SearchCondition.SearchMode.VALUE) {
+            return false;
         }
 
-        searchAssessor.setMatches(foundMatches);
-        if (!foundMatches.isEmpty()) {
-            if (searchParameters.getSearchDirection() == SearchParameters.SearchDirection.BACKWARD) {
-                searchAssessor.setCurrentMatchIndex(foundMatches.size() - 1);
-            } else {
-                searchAssessor.setCurrentMatchIndex(0);
-            }
-            SearchMatch firstMatch = searchAssessor.getCurrentMatch();
-            codeArea.revealPosition(firstMatch.getPosition(), 0, codeArea.getActiveSection());
+        NumericValuePattern valuePattern = parseValuePattern(condition);
+        return valuePattern != null && valuePattern.getStride() > 1;
+    }
+
+    /**
+     * Creates matcher for approximate search of binary pattern.
+     *
+     * @param pattern searched pattern
+     * @param searchParameters search parameters
+     * @return pattern matcher
+     */
+    private static ApproximatePatternMatcher createApproximateMatcher(byte[] pattern, SearchParameters searchParameters) {
+        // Whole pattern cannot differ, otherwise any data would match
+        int maxDistance = Math.min(searchParameters.getMaxDistance(), pattern.length - 1);
+        SearchParameters.DistanceMetric distanceMetric = searchParameters.getDistanceMetric();
+        switch (distanceMetric) {
+            case HAMMING:
+                return new HammingPatternMatcher(pattern, maxDistance);
+            case LEVENSHTEIN:
+                return new LevenshteinPatternMatcher(pattern, maxDistance);
+            default:
+                throw CodeAreaUtils.getInvalidTypeException(distanceMetric);
         }
-        lastSearchParameters.setFromParameters(searchParameters);
-        searchStatusListener.setStatus(new FoundMatches(foundMatches.size(), foundMatches.isEmpty() ? -1 : searchAssessor.getCurrentMatchIndex()), searchParameters.getMatchMode());
-        codeArea.repaint();
+    }
+
+    private int getMatchesLimit(SearchParameters searchParameters) {
+        return searchParameters.getMatchMode() == SearchParameters.MatchMode.SINGLE ? 1 : matchesLimit;
+    }
+
+    public int getMatchesLimit() {
+        return matchesLimit;
+    }
+
+    /**
+     * Sets maximum number of matches collected in multiple matches mode.
+     *
+     * @param matchesLimit matches limit
+     */
+    public void setMatchesLimit(int matchesLimit) {
+        this.matchesLimit = matchesLimit;
+    }
+    @Nullable
+    public SearchIndexManager getSearchIndexManager() {
+        return searchIndexManager;
+    }
+
+    /**
+     * Sets manager of persistent index used to skip blocks without matches.
+     *
+     * @param searchIndexManager search index manager or null
+     */
+    public void setSearchIndexManager(@Nullable SearchIndexManager searchIndexManager) {
+        this.searchIndexManager = searchIndexManager;
+    }
+
+    public boolean isParallelSearch() {
+        return parallelSearch;
+    }
+
+    /**
+     * Sets whether large data should be searched using multiple threads.
+     *
+     * @param parallelSearch true for parallel search
+     */
+    public void setParallelSearch(boolean parallelSearch) {
+        this.parallelSearch = parallelSearch;
+    }
+
+    /**
+     * Creates matcher for binary pattern.
+     * <p>
+     * Override to provide alternative search algorithm.
+     *
+     * @param pattern searched pattern
+     * @return pattern matcher
+     */
+    protected BinaryPatternMatcher createMatcher(byte[] pattern) {
+        return BinaryPatternMatchers.createMatcher(pattern);
     }
 
     @Override
@@ -412,6 +633,12 @@ public class DefaultBinarySearchService implements BinarySearchService {
         codeArea.repaint();
     }
 
+    @Override
+    public int getMatchDistance(int matchIndex) {
+        SearchSession session = approximateSession;
+        return session == null || matchIndex < 0 ? 0 : session.getMatchDistance(matchIndex);
+    }
+
     @Override
     public void performFindAgain(SearchStatusListener searchStatusListener) {
         SearchCodeAreaColorAssessor searchAssessor = CodeAreaSwingUtils.findColorAssessor((ColorAssessorPainterCapable) codeArea.getPainter(), SearchCodeAreaColorAssessor.class);
@@ -426,11 +653,14 @@ public class DefaultBinarySearchService implements BinarySearchService {
                 if (matchesCount > 1) {
                     int currentMatchIndex = searchAssessor.getCurrentMatchIndex();
                     setMatchIndex(currentMatchIndex < matchesCount - 1 ? currentMatchIndex + 1 : 0);
-                    searchStatusListener.setStatus(new FoundMatches(foundMatches.size(), searchAssessor.getCurrentMatchIndex()), lastSearchParameters.getMatchMode());
+                    FoundMatches status = new FoundMatches(foundMatches.size(), searchAssessor.getCurrentMatchIndex());
+                    status.setMatchDistance(getMatchDistance(status.getMatchIndex()));
+                    searchStatusListener.setStatus(status, lastSearchParameters.getMatchMode());
                 }
 
                 break;
             case SINGLE:
+                revealMatch = true;
                 switch (lastSearchParameters.getSearchDirection()) {
                     case FORWARD:
                         lastSearchParameters.setStartPosition(foundMatches.get(0).getPosition() + 1);
@@ -450,8 +680,26 @@ public class DefaultBinarySearchService implements BinarySearchService {
                         searchRegEx(lastSearchParameters, searchStatusListener);
                         break;
                     case BINARY:
-                        searchForBinaryData(lastSearchParameters, searchStatusListener);
+                        if (isApproximateSearch(lastSearchParameters)) {
+                            searchApproximately(lastSearchParameters, searchStatusListener);
+                        } else {
+                            searchForBinaryData(lastSearchParameters, searchStatusListener);
+                        }
+                        break;
+                    case MASKED_BINARY: {
+                        MaskedBinaryPattern maskedPattern = parseMaskedPattern(condition);
+                        if (maskedPattern != null) {
+                            searchForMatcher(BinaryPatternMatchers.createMatcher(maskedPattern), null, lastSearchParameters, searchStatusListener);
+                        }
+                        break;
+                    }
+                    case VALUE: {
+                        NumericValuePattern valuePattern = parseValuePattern(condition);
+                        if (valuePattern != null) {
+                            searchForValue(valuePattern, lastSearchParameters, searchStatusListener);
+                        }
                         break;
+                    }
                     default:
                         throw CodeAreaUtils.getInvalidTypeException(condition.getSearchMode());
                 }
@@ -460,23 +708,406 @@ public class DefaultBinarySearchService implements BinarySearchService {
     }
 
     @Override
-    public void performReplace(SearchParameters searchParameters, ReplaceParameters replaceParameters) {
-        SearchCondition replaceCondition = replaceParameters.getCondition();
+    public void performReplace(SearchParameters searchParameters, ReplaceParameters replaceParameters, SearchStatusListener searchStatusListener) {
         SearchCodeAreaColorAssessor searchAssessor = CodeAreaSwingUtils.findColorAssessor((ColorAssessorPainterCapable) codeArea.getPainter(), SearchCodeAreaColorAssessor.class);
         SearchMatch currentMatch = searchAssessor.getCurrentMatch();
         if (currentMatch != null) {
             EditableBinaryData editableData = ((EditableBinaryData) codeArea.getContentData());
-            editableData.remove(currentMatch.getPosition(), currentMatch.getLength());
-            if (replaceCondition.getSearchMode() == SearchCondition.SearchMode.BINARY) {
-                editableData.insert(currentMatch.getPosition(), replaceCondition.getBinaryData());
-            } else {
-                editableData.insert(currentMatch.getPosition(), replaceCondition.getSearchText().getBytes(codeArea.getCharset()));
+            BinaryData replacementData = getReplacementData(replaceParameters);
+            long position = currentMatch.getPosition();
+            editableData.remove(position, currentMatch.getLength());
+            editableData.insert(position, replacementData);
+            if (!updateMatches(position, currentMatch.getLength(), replacementData.getDataSize(), searchStatusListener)) {
+                clearMatches();
+                searchStatusListener.clearStatus();
             }
-            searchAssessor.getMatches().remove(currentMatch);
             codeArea.repaint();
         }
     }
 
+    @Override
+    public void performReplaceAll(SearchParameters searchParameters, ReplaceParameters replaceParameters, SearchStatusListener searchStatusListener) {
+        SearchCondition condition = searchParameters.getCondition();
+        SwingUtilities.invokeLater(searchStatusListener::clearStatus);
+        if (condition.isEmpty()) {
+            return;
+        }
+
+        AtomicBoolean dataModified = new AtomicBoolean();
+        DataChangedListener dataChangedListener = () -> dataModified.set(true);
+        try {
+            SwingUtilities.invokeAndWait(() -> codeArea.addDataChangedListener(dataChangedListener));
+        } catch (InterruptedException ex) {
+            searchStatusListener.setCancelled();
+            return;
+        } catch (InvocationTargetException ex) {
+            throw new IllegalStateException(ex);
+        }
+
+        BinaryData data = codeArea.getContentData();
+        SearchMatchStore matches = collectAllMatches(data, searchParameters, searchStatusListener);
+        SwingUtilities.invokeLater(() -> {
+            codeArea.removeDataChangedListener(dataChangedListener);
+            if (matches == null || dataModified.get() || codeArea.getContentData() != data) {
+                searchStatusListener.setCancelled();
+                return;
+            }
+
+            // Matches are cleared first so that data change doesn't trigger search
+            clearMatches();
+            if (!matches.isEmpty()) {
+                ReplaceAllOperation operation = new ReplaceAllOperation(matches, getReplacementData(replaceParameters));
+                ReplaceAllCommand command = new ReplaceAllCommand(codeArea, operation);
+                CodeAreaCommandHandler commandHandler = codeArea.getCommandHandler();
+                if (commandHandler instanceof CodeAreaOperationCommandHandler) {
+                    ((CodeAreaOperationCommandHandler) commandHandler).getUndoRedo().execute(command);
+                } else {
+                    command.execute();
+                }
+            }
+            codeArea.repaint();
+            searchStatusListener.setReplaced(matches.size());
+        });
+    }
+
+    /**
+     * Collects all non-overlapping matches in whole data in ascending order.
+     *
+     * @return matches or null if cancelled
+     */
+    @Nullable
+    private SearchMatchStore collectAllMatches(BinaryData data, SearchParameters searchParameters, SearchStatusListener searchStatusListener) {
+        SearchCondition condition = searchParameters.getCondition();
+        long dataSize = data.getDataSize();
+        SearchMatchStore matches = new SearchMatchStore();
+        RangeScanListener scanListener = new RangeScanListener() {
+            private long lastMatchEnd = 0;
+            private int lastProgressState = -1;
+
+            @Override
+            public boolean matchFound(long position, long length) {
+                // Replaced matches cannot overlap
+                if (position >= lastMatchEnd) {
+                    matches.add(position, length);
+                    lastMatchEnd = position + Math.max(1, length);
+                }
+                return true;
+            }
+
+            @Override
+            public void positionReached(long position) {
+                int progressState = dataSize == 0 ? 1000 : (int) (dataSize > Integer.MAX_VALUE ? position / (dataSize / 1000) : (position * 1000) / dataSize);
+                if (progressState != lastProgressState) {
+                    lastProgressState = progressState;
+                    searchStatusListener.setProgress(progressState);
+                }
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return searchStatusListener.isCancelled();
+            }
+        };
+
+        boolean finished;
+        switch (condition.getSearchMode()) {
+            case TEXT: {
+                TextPatternMatcher textMatcher = new TextPatternMatcher(condition.getSearchText(), codeArea.getCharset(), searchParameters.isMatchCase());
+                if (textMatcher.isSingleForm()) {
+                    finished = scanForPattern(data, textMatcher.getSingleForm(), 0, dataSize, scanListener);
+                } else {
+                    finished = new TextDataScanner(textMatcher).scanForward(data, 0, dataSize, scanListener);
+                }
+                break;
+            }
+            case REGEX: {
+                int flags = searchParameters.isMatchCase() ? 0 : Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
+                Pattern textPattern = Pattern.compile(condition.getSearchText(), flags | Pattern.DOTALL);
+                finished = new RegexDataScanner(textPattern, codeArea.getCharset()).scanForward(data, 0, dataSize, scanListener);
+                break;
+            }
+            case BINARY: {
+                BinaryData searchData = condition.getBinaryData();
+                if (searchData == null) {
+                    throw new IllegalStateException("Missing data to search");
+                }
+                byte[] pattern = new byte[(int) searchData.getDataSize()];
+                searchData.copyToArray(0, pattern, 0, pattern.length);
+                if (isApproximateSearch(searchParameters)) {
+                    finished = scanApproximately(data, createApproximateMatcher(pattern, searchParameters), 0, dataSize, scanListener);
+                } else {
+                    finished = scanForPattern(data, pattern, 0, dataSize, scanListener);
+                }
+                break;
+            }
+            case MASKED_BINARY: {
+                MaskedBinaryPattern maskedPattern = parseMaskedPattern(condition);
+                finished = maskedPattern == null || scanForMatcher(data, BinaryPatternMatchers.createMatcher(maskedPattern), 0, dataSize, scanListener);
+                break;
+            }
+            case VALUE: {
+                NumericValuePattern valuePattern = parseValuePattern(condition);
+                finished = valuePattern == null || scanForValue(data, valuePattern, 0, dataSize, scanListener);
+                break;
+            }
+            default:
+                throw CodeAreaUtils.getInvalidTypeException(condition.getSearchMode());
+        }
+
+        return finished && !searchStatusListener.isCancelled() ? matches : null;
+    }
+
+    private boolean scanForPattern(BinaryData data, byte[] pattern, long rangeStart, long rangeEnd, RangeScanListener rangeScanListener) {
+        return scanForMatcher(data, createMatcher(pattern), rangeStart, rangeEnd, rangeScanListener);
+    }
+
+    private boolean scanForMatcher(BinaryData data, BinaryPatternMatcher matcher, long rangeStart, long rangeEnd, RangeScanListener rangeScanListener) {
+        int patternLength = matcher.getPatternLength();
+        return dataScanner.scanForward(data, matcher, rangeStart, rangeEnd, new ChunkedDataScanner.ScanListener() {
+            @Override
+            public boolean matchFound(long position) {
+                return rangeScanListener.matchFound(position, patternLength);
+            }
+
+            @Override
+            public void positionReached(long position) {
+                rangeScanListener.positionReached(position);
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return rangeScanListener.isCancelled();
+            }
+        });
+    }
+
+    private boolean scanForValue(BinaryData data, NumericValuePattern valuePattern, long rangeStart, long rangeEnd, RangeScanListener rangeScanListener) {
+        int valueLength = valuePattern.getValueLength();
+        return new NumericValueScanner(valuePattern).scanForward(data, rangeStart, rangeEnd, new ChunkedDataScanner.ScanListener() {
+            @Override
+            public boolean matchFound(long position) {
+                return rangeScanListener.matchFound(position, valueLength);
+            }
+
+            @Override
+            public void positionReached(long position) {
+                rangeScanListener.positionReached(position);
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return rangeScanListener.isCancelled();
+            }
+        });
+    }
+
+    private boolean scanApproximately(BinaryData data, ApproximatePatternMatcher matcher, long rangeStart, long rangeEnd, RangeScanListener rangeScanListener) {
+        return new ApproximateDataScanner(matcher).scanForward(data, rangeStart, rangeEnd, new ApproximateDataScanner.MatchListener() {
+            @Override
+            public boolean matchFound(long position, long length, int distance) {
+                return rangeScanListener.matchFound(position, length);
+            }
+
+            @Override
+            public void positionReached(long position) {
+                rangeScanListener.positionReached(position);
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return rangeScanListener.isCancelled();
+            }
+        });
+    }
+
+    /**
+     * Parses pattern of masked binary search condition.
+     *
+     * @param condition search condition
+     * @return pattern or null if condition is not valid pattern
+     */
+    @Nullable
+    private static MaskedBinaryPattern parseMaskedPattern(SearchCondition condition) {
+        try {
+            return MaskedBinaryPattern.parse(condition.getSearchText());
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Parses pattern of numeric value search condition.
+     *
+     * @param condition search condition
+     * @return pattern or null if condition is not valid pattern
+     */
+    @Nullable
+    private static NumericValuePattern parseValuePattern(SearchCondition condition) {
+        try {
+            return NumericValuePattern.parse(condition.getSearchText());
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private BinaryData getReplacementData(ReplaceParameters replaceParameters) {
+        SearchCondition replaceCondition = replaceParameters.getCondition();
+        if (replaceCondition.getSearchMode() == SearchCondition.SearchMode.BINARY) {
+            BinaryData replacementData = replaceCondition.getBinaryData();
+            return replacementData == null ? new ByteArrayData() : replacementData.copy();
+        }
+
+        return new ByteArrayData(replaceCondition.getSearchText().getBytes(codeArea.getCharset()));
+    }
+
+    @Override
+    public boolean updateMatches(long startPosition, long removedLength, long insertedLength, SearchStatusListener searchStatusListener) {
+        switch (matchesState) {
+            case NONE:
+                return true;
+            case STATIC:
+                return false;
+            case UPDATABLE:
+                break;
+            default:
+                throw CodeAreaUtils.getInvalidTypeException(matchesState);
+        }
+
+        if (insertedLength > MAX_INCREMENTAL_LENGTH) {
+            return false;
+        }
+
+        SearchMatchStore foundMatches = searchModifiedRange(codeArea.getContentData(), startPosition, startPosition + insertedLength);
+        SearchCodeAreaColorAssessor searchAssessor = CodeAreaSwingUtils.findColorAssessor((ColorAssessorPainterCapable) codeArea.getPainter(), SearchCodeAreaColorAssessor.class);
+        List<SearchMatch> matches = searchAssessor.getMatches();
+        int currentMatchIndex = searchAssessor.getCurrentMatchIndex();
+        long removedEnd = startPosition + removedLength;
+        long shift = insertedLength - removedLength;
+
+        // Merge preceding matches and found matches in ascending order, matches
+        // intersecting modified range are dropped and following are shifted
+        SearchMatchStore updatedMatches = new SearchMatchStore();
+        int updatedMatchIndex = -1;
+        int foundIndex = 0;
+        int matchesCount = matches.size();
+        for (int i = 0; i < matchesCount; i++) {
+            SearchMatch match = matches.get(i);
+            long position = match.getPosition();
+            long length = match.getLength();
+            if (position + length <= startPosition) {
+                while (foundIndex < foundMatches.size() && foundMatches.getPosition(foundIndex) < position) {
+                    updatedMatches.add(foundMatches.getPosition(foundIndex), foundMatches.getLength(foundIndex));
+                    foundIndex++;
+                }
+                updatedMatches.add(position, length);
+            } else if (position >= removedEnd) {
+                while (foundIndex < foundMatches.size()) {
+                    updatedMatches.add(foundMatches.getPosition(foundIndex), foundMatches.getLength(foundIndex));
+                    foundIndex++;
+                }
+                updatedMatches.add(position + shift, length);
+            } else {
+                if (i == currentMatchIndex) {
+                    updatedMatchIndex = updatedMatches.size();
+                }
+                continue;
+            }
+
+            if (i == currentMatchIndex) {
+                updatedMatchIndex = updatedMatches.size() - 1;
+            }
+        }
+        while (foundIndex < foundMatches.size()) {
+            updatedMatches.add(foundMatches.getPosition(foundIndex), foundMatches.getLength(foundIndex));
+            foundIndex++;
+        }
+
+        SearchParameters.MatchMode matchMode = lastSearchParameters.getMatchMode();
+        if (updatedMatches.isEmpty()) {
+            searchAssessor.clearMatches();
+            searchStatusListener.setStatus(new FoundMatches(), matchMode);
+        } else {
+            updatedMatchIndex = Math.max(0, Math.min(updatedMatchIndex, updatedMatches.size() - 1));
+            searchAssessor.setMatches(updatedMatches.asList(false));
+            searchAssessor.setCurrentMatchIndex(updatedMatchIndex);
+            searchStatusListener.setStatus(new FoundMatches(updatedMatches.size(), updatedMatchIndex), matchMode);
+        }
+        codeArea.repaint();
+        return true;
+    }
+
+    /**
+     * Searches for matches affected by modification of data.
+     *
+     * @param data modified data
+     * @param startPosition start position of modified range
+     * @param endPosition end position of modified range after modification
+     * @return matches intersecting modified range or spanning its position
+     */
+    private SearchMatchStore searchModifiedRange(BinaryData data, long startPosition, long endPosition) {
+        SearchMatchStore foundMatches = new SearchMatchStore();
+        RangeScanListener scanListener = new RangeScanListener() {
+            @Override
+            public boolean matchFound(long position, long length) {
+                if (position + length > startPosition) {
+                    foundMatches.add(position, length);
+                }
+                return true;
+            }
+
+            @Override
+            public void positionReached(long position) {
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return false;
+            }
+        };
+
+        SearchCondition condition = lastSearchParameters.getCondition();
+        switch (condition.getSearchMode()) {
+            case TEXT: {
+                TextPatternMatcher textMatcher = new TextPatternMatcher(condition.getSearchText(), codeArea.getCharset(), lastSearchParameters.isMatchCase());
+                if (textMatcher.isSingleForm()) {
+                    byte[] pattern = textMatcher.getSingleForm();
+                    scanForPattern(data, pattern, startPosition - pattern.length + 1, endPosition, scanListener);
+                } else {
+                    new TextDataScanner(textMatcher).scanForward(data, startPosition - textMatcher.getMaxLength() + 1, endPosition, scanListener);
+                }
+                break;
+            }
+            case BINARY: {
+                BinaryData searchData = condition.getBinaryData();
+                if (searchData == null) {
+                    throw new IllegalStateException("Missing data to search");
+                }
+                byte[] pattern = new byte[(int) searchData.getDataSize()];
+                searchData.copyToArray(0, pattern, 0, pattern.length);
+                scanForPattern(data, pattern, startPosition - pattern.length + 1, endPosition, scanListener);
+                break;
+            }
+            case MASKED_BINARY: {
+                MaskedBinaryPattern maskedPattern = parseMaskedPattern(condition);
+                if (maskedPattern != null) {
+                    scanForMatcher(data, BinaryPatternMatchers.createMatcher(maskedPattern), startPosition - maskedPattern.getLength() + 1, endPosition, scanListener);
+                }
+                break;
+            }
+            case VALUE: {
+                NumericValuePattern valuePattern = parseValuePattern(condition);
+                if (valuePattern != null) {
+                    scanForValue(data, valuePattern, startPosition - valuePattern.getValueLength() + 1, endPosition, scanListener);
+                }
+                break;
+            }
+            default:
+                throw CodeAreaUtils.getInvalidTypeException(condition.getSearchMode());
+        }
+
+        return foundMatches;
+    }
+
     @Override
     public SearchParameters getLastSearchParameters() {
         return lastSearchParameters;
@@ -484,7 +1115,28 @@ public class DefaultBinarySearchService implements BinarySearchService {
 
     @Override
     public void clearMatches() {
+        matchesState = MatchesState.NONE;
+        approximateSession = null;
         SearchCodeAreaColorAssessor searchAssessor = CodeAreaSwingUtils.findColorAssessor((ColorAssessorPainterCapable) codeArea.getPainter(), SearchCodeAreaColorAssessor.class);
         searchAssessor.clearMatches();
     }
+
+    /**
+     * State of found matches.
+     */
+    private enum MatchesState {
+        /**
+         * No matches of finished search.
+         */
+        NONE,
+        /**
+         * Matches can be updated after data modification.
+         */
+        UPDATABLE,
+        /**
+         * Matches require search to be performed again after data
+         * modification.
+         */
+        STATIC
+    }
 }
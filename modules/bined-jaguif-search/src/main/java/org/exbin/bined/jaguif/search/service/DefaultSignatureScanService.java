@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service;
+
+import javax.swing.SwingUtilities;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.bined.highlight.swing.SearchCodeAreaColorAssessor;
+import org.exbin.bined.highlight.swing.SearchMatch;
+import org.exbin.bined.jaguif.search.service.signature.SignatureHitStore;
+import org.exbin.bined.jaguif.search.service.signature.SignatureScanner;
+import org.exbin.bined.jaguif.search.service.signature.SignatureSet;
+import org.exbin.bined.swing.CodeAreaSwingUtils;
+import org.exbin.bined.swing.capability.ColorAssessorPainterCapable;
+import org.exbin.bined.swing.section.SectCodeArea;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Signature scan service.
+ */
+@NullMarked
+public class DefaultSignatureScanService implements SignatureScanService {
+
+    public static final int DEFAULT_HITS_LIMIT = 1000000;
+
+    private final SectCodeArea codeArea;
+    private int hitsLimit = DEFAULT_HITS_LIMIT;
+
+    public DefaultSignatureScanService(SectCodeArea codeArea) {
+        this.codeArea = codeArea;
+    }
+
+    @Override
+    public void performScan(SignatureSet signatureSet, ScanStatusListener scanStatusListener) {
+        SearchCodeAreaColorAssessor searchAssessor = CodeAreaSwingUtils.findColorAssessor((ColorAssessorPainterCapable) codeArea.getPainter(), SearchCodeAreaColorAssessor.class);
+        BinaryData data = codeArea.getContentData();
+        SignatureHitStore hits = new SignatureHitStore(signatureSet);
+        long dataSize = data.getDataSize();
+        SignatureScanner scanner = new SignatureScanner(signatureSet);
+        boolean finished = scanner.scan(data, new SignatureScanner.HitListener() {
+
+            private int lastProgressState = -1;
+
+            @Override
+            public boolean hitFound(int signatureIndex, long position) {
+                hits.add(signatureIndex, position);
+                return hits.size() < hitsLimit;
+            }
+
+            @Override
+            public void positionReached(long position) {
+                int progressState = dataSize == 0 ? 1000 : (int) (dataSize > Integer.MAX_VALUE ? position / (dataSize / 1000) : (position * 1000) / dataSize);
+                if (progressState != lastProgressState) {
+                    lastProgressState = progressState;
+                    scanStatusListener.setProgress(progressState);
+                }
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return scanStatusListener.isCancelled();
+            }
+        });
+
+        if (!finished || scanStatusListener.isCancelled()) {
+            scanStatusListener.setCancelled();
+            return;
+        }
+
+        hits.sort();
+        SwingUtilities.invokeLater(() -> {
+            if (scanStatusListener.isCancelled()) {
+                return;
+            }
+
+            searchAssessor.setMatches(hits.asMatchList());
+            searchAssessor.setCurrentMatchIndex(-1);
+            codeArea.repaint();
+        });
+        scanStatusListener.setFinished(hits, hits.size() >= hitsLimit);
+    }
+
+    @Override
+    public void setHitIndex(int hitIndex) {
+        SearchCodeAreaColorAssessor searchAssessor = CodeAreaSwingUtils.findColorAssessor((ColorAssessorPainterCapable) codeArea.getPainter(), SearchCodeAreaColorAssessor.class);
+        searchAssessor.setCurrentMatchIndex(hitIndex);
+        SearchMatch currentMatch = searchAssessor.getCurrentMatch();
+        if (currentMatch != null) {
+            codeArea.revealPosition(currentMatch.getPosition(), 0, codeArea.getActiveSection());
+        }
+        codeArea.repaint();
+    }
+
+    @Override
+    public void clearHits() {
+        SearchCodeAreaColorAssessor searchAssessor = CodeAreaSwingUtils.findColorAssessor((ColorAssessorPainterCapable) codeArea.getPainter(), SearchCodeAreaColorAssessor.class);
+        searchAssessor.clearMatches();
+        codeArea.repaint();
+    }
+
+    public int getHitsLimit() {
+        return hitsLimit;
+    }
+
+    /**
+     * Sets maximum number of collected hits.
+     *
+     * @param hitsLimit hits limit
+     */
+    public void setHitsLimit(int hitsLimit) {
+        this.hitsLimit = hitsLimit;
+    }
+}
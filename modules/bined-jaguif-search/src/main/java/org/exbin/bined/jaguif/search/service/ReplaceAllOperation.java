@@ -0,0 +1,407 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.auxiliary.binary_data.EditableBinaryData;
+import org.exbin.auxiliary.binary_data.array.paged.ByteArrayPagedData;
+import org.exbin.auxiliary.binary_data.delta.DeltaDocument;
+import org.exbin.bined.jaguif.document.data.UndoDataStore;
+import org.exbin.bined.operation.BinaryDataUndoableOperation;
+import org.exbin.bined.operation.swing.BasicBinaryDataOperationType;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Operation replacing all matches in single pass over data.
+ * <p>
+ * Matches must be sorted by position and must not overlap. Data are
+ * rewritten in place in two passes, first pass writes shortened matches and
+ * compacts data forward, second pass expands longer replacements from the
+ * end. Delta documents are modified per match from the end, which only
+ * splices segments.
+ * <p>
+ * Original content of matches kept for undo is passed to undo data store if
+ * set, so that it is spilled to temporary file when it exceeds memory budget.
+ */
+@NullMarked
+public class ReplaceAllOperation implements BinaryDataUndoableOperation {
+
+    private static final int BUFFER_SIZE = 65536;
+
+    private final SearchMatchStore matches;
+    private final BinaryData replacementData;
+    @Nullable
+    private final long[] replacementOffsets;
+    private final boolean disposeReplacementData;
+    @Nullable
+    private UndoDataStore undoDataStore;
+
+    public ReplaceAllOperation(SearchMatchStore matches, BinaryData replacementData) {
+        this(matches, replacementData, null);
+    }
+
+    /**
+     * Creates operation with individual replacement for each match.
+     *
+     * @param matches replaced matches
+     * @param replacementData replacement data
+     * @param replacementOffsets start offsets of replacements in replacement
+     * data followed by end offset of the last replacement or null to use
+     * whole replacement data for all matches
+     */
+    public ReplaceAllOperation(SearchMatchStore matches, BinaryData replacementData, @Nullable long[] replacementOffsets) {
+        this(matches, replacementData, replacementOffsets, false);
+    }
+
+    private ReplaceAllOperation(SearchMatchStore matches, BinaryData replacementData, @Nullable long[] replacementOffsets, boolean disposeReplacementData) {
+        if (replacementOffsets != null && replacementOffsets.length != matches.size() + 1) {
+            throw new IllegalArgumentException("Replacement offsets don't match matches count");
+        }
+        this.matches = matches;
+        this.replacementData = replacementData;
+        this.replacementOffsets = replacementOffsets;
+        this.disposeReplacementData = disposeReplacementData;
+    }
+
+    /**
+     * Sets store for original data kept for undo.
+     *
+     * @param undoDataStore undo data store or null to keep copy in memory
+     */
+    public void setUndoDataStore(@Nullable UndoDataStore undoDataStore) {
+        this.undoDataStore = undoDataStore;
+    }
+
+    @Override
+    public BasicBinaryDataOperationType getType() {
+        return BasicBinaryDataOperationType.MODIFY_DATA;
+    }
+
+    public int getMatchesCount() {
+        return matches.size();
+    }
+
+    @Override
+    public void execute(EditableBinaryData contentData) {
+        execute(contentData, false);
+    }
+
+    @Override
+    public BinaryDataUndoableOperation executeWithUndo(EditableBinaryData contentData) {
+        return execute(contentData, true);
+    }
+
+    @Nullable
+    private BinaryDataUndoableOperation execute(EditableBinaryData contentData, boolean withUndo) {
+        BinaryDataUndoableOperation undoOperation = withUndo ? createUndoOperation(contentData) : null;
+        if (contentData instanceof DeltaDocument) {
+            replaceBySplicing(contentData);
+        } else {
+            replaceInPlace(contentData);
+        }
+        return undoOperation;
+    }
+
+    /**
+     * Creates operation restoring original content of matches.
+     */
+    private ReplaceAllOperation createUndoOperation(BinaryData contentData) {
+        int matchesCount = matches.size();
+        long[] originalOffsets = new long[matchesCount + 1];
+        SearchMatchStore replacedMatches = new SearchMatchStore();
+        long offset = 0;
+        long shift = 0;
+        for (int i = 0; i < matchesCount; i++) {
+            long position = matches.getPosition(i);
+            long length = matches.getLength(i);
+            originalOffsets[i] = offset;
+            offset += length;
+
+            long replacementLength = getReplacementLength(i);
+            replacedMatches.add(position + shift, replacementLength);
+            shift += replacementLength - length;
+        }
+        originalOffsets[matchesCount] = offset;
+
+        MatchesData originals = new MatchesData(contentData, matches, originalOffsets);
+        BinaryData originalData = undoDataStore != null ? undoDataStore.storeCopy(originals, 0, offset) : originals.copy();
+        return new ReplaceAllOperation(replacedMatches, originalData, originalOffsets, true);
+    }
+
+    private void replaceBySplicing(EditableBinaryData contentData) {
+        for (int i = matches.size() - 1; i >= 0; i--) {
+            long position = matches.getPosition(i);
+            long length = matches.getLength(i);
+            long replacementLength = getReplacementLength(i);
+            if (length == replacementLength) {
+                contentData.replace(position, replacementData, getReplacementStart(i), replacementLength);
+            } else {
+                contentData.remove(position, length);
+                contentData.insert(position, replacementData, getReplacementStart(i), replacementLength);
+            }
+        }
+    }
+
+    private void replaceInPlace(EditableBinaryData contentData) {
+        int matchesCount = matches.size();
+        long dataSize = contentData.getDataSize();
+        byte[] buffer = new byte[BUFFER_SIZE];
+
+        // Forward pass writes replacements shortened to match length
+        long readPosition = 0;
+        long writePosition = 0;
+        long growth = 0;
+        for (int i = 0; i < matchesCount; i++) {
+            long position = matches.getPosition(i);
+            long length = matches.getLength(i);
+            long replacementLength = getReplacementLength(i);
+            long keptLength = Math.min(length, replacementLength);
+            moveForward(contentData, readPosition, writePosition, position - readPosition, buffer);
+            writePosition += position - readPosition;
+            contentData.replace(writePosition, replacementData, getReplacementStart(i), keptLength);
+            writePosition += keptLength;
+            readPosition = position + length;
+            growth += replacementLength - keptLength;
+        }
+        moveForward(contentData, readPosition, writePosition, dataSize - readPosition, buffer);
+        writePosition += dataSize - readPosition;
+        if (writePosition < dataSize) {
+            contentData.remove(writePosition, dataSize - writePosition);
+        }
+
+        if (growth == 0) {
+            return;
+        }
+
+        // Backward pass expands replacements longer than match
+        long compactedSize = writePosition;
+        contentData.insertUninitialized(compactedSize, growth);
+        long readEnd = compactedSize;
+        long writeEnd = compactedSize + growth;
+        long shrinkBefore = compactedSize - dataSize;
+        for (int i = matchesCount - 1; i >= 0 && writeEnd > readEnd; i--) {
+            long length = matches.getLength(i);
+            long replacementLength = getReplacementLength(i);
+            long keptLength = Math.min(length, replacementLength);
+            shrinkBefore -= keptLength - length;
+            long keptPosition = matches.getPosition(i) + shrinkBefore;
+            long gapLength = readEnd - (keptPosition + keptLength);
+            moveBackward(contentData, keptPosition + keptLength, writeEnd - gapLength, gapLength, buffer);
+            writeEnd -= gapLength + replacementLength;
+            contentData.replace(writeEnd, replacementData, getReplacementStart(i), replacementLength);
+            readEnd = keptPosition;
+        }
+    }
+
+    private long getReplacementStart(int matchIndex) {
+        return replacementOffsets == null ? 0 : replacementOffsets[matchIndex];
+    }
+
+    private long getReplacementLength(int matchIndex) {
+        return replacementOffsets == null ? replacementData.getDataSize() : replacementOffsets[matchIndex + 1] - replacementOffsets[matchIndex];
+    }
+
+    private static void moveForward(EditableBinaryData data, long sourcePosition, long targetPosition, long length, byte[] buffer) {
+        if (sourcePosition == targetPosition) {
+            return;
+        }
+
+        long offset = 0;
+        while (offset < length) {
+            int chunkLength = (int) Math.min(buffer.length, length - offset);
+            data.copyToArray(sourcePosition + offset, buffer, 0, chunkLength);
+            data.replace(targetPosition + offset, buffer, 0, chunkLength);
+            offset += chunkLength;
+        }
+    }
+
+    private static void moveBackward(EditableBinaryData data, long sourcePosition, long targetPosition, long length, byte[] buffer) {
+        if (sourcePosition == targetPosition) {
+            return;
+        }
+
+        long remaining = length;
+        while (remaining > 0) {
+            int chunkLength = (int) Math.min(buffer.length, remaining);
+            remaining -= chunkLength;
+            data.copyToArray(sourcePosition + remaining, buffer, 0, chunkLength);
+            data.replace(targetPosition + remaining, buffer, 0, chunkLength);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        if (disposeReplacementData) {
+            replacementData.dispose();
+        }
+    }
+
+    /**
+     * Read-only view of content of matches joined together.
+     * <p>
+     * View is valid only until source data are modified.
+     */
+    private static final class MatchesData implements BinaryData {
+
+        private final BinaryData source;
+        private final SearchMatchStore matches;
+        private final long[] offsets;
+
+        public MatchesData(BinaryData source, SearchMatchStore matches, long[] offsets) {
+            this.source = source;
+            this.matches = matches;
+            this.offsets = offsets;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return getDataSize() == 0;
+        }
+
+        @Override
+        public long getDataSize() {
+            return offsets[offsets.length - 1];
+        }
+
+        @Override
+        public byte getByte(long position) {
+            int matchIndex = findMatch(position);
+            return source.getByte(matches.getPosition(matchIndex) + position - offsets[matchIndex]);
+        }
+
+        @Override
+        public BinaryData copy() {
+            return copy(0, getDataSize());
+        }
+
+        @Override
+        public BinaryData copy(long startFrom, long length) {
+            EditableBinaryData copy = new ByteArrayPagedData();
+            copy.insertUninitialized(0, length);
+            byte[] buffer = new byte[(int) Math.min(BUFFER_SIZE, length)];
+            long offset = 0;
+            while (offset < length) {
+                int chunkLength = (int) Math.min(buffer.length, length - offset);
+                copyToArray(startFrom + offset, buffer, 0, chunkLength);
+                copy.replace(offset, buffer, 0, chunkLength);
+                offset += chunkLength;
+            }
+            return copy;
+        }
+
+        @Override
+        public void copyToArray(long startFrom, byte[] target, int offset, int length) {
+            if (length == 0) {
+                return;
+            }
+
+            int matchIndex = findMatch(startFrom);
+            long position = startFrom;
+            int copied = 0;
+            while (copied < length) {
+                long matchOffset = position - offsets[matchIndex];
+                int chunkLength = (int) Math.min(length - copied, offsets[matchIndex + 1] - position);
+                source.copyToArray(matches.getPosition(matchIndex) + matchOffset, target, offset + copied, chunkLength);
+                copied += chunkLength;
+                position += chunkLength;
+                matchIndex++;
+            }
+        }
+
+        @Override
+        public void saveToStream(OutputStream outputStream) throws IOException {
+            long dataSize = getDataSize();
+            byte[] buffer = new byte[(int) Math.min(BUFFER_SIZE, dataSize)];
+            long offset = 0;
+            while (offset < dataSize) {
+                int chunkLength = (int) Math.min(buffer.length, dataSize - offset);
+                copyToArray(offset, buffer, 0, chunkLength);
+                outputStream.write(buffer, 0, chunkLength);
+                offset += chunkLength;
+            }
+        }
+
+        @Override
+        public InputStream getDataInputStream() {
+            return new MatchesDataInputStream();
+        }
+
+        @Override
+        public void dispose() {
+        }
+
+        /**
+         * Returns index of match containing given position of view.
+         */
+        private int findMatch(long position) {
+            if (position < 0 || position >= getDataSize()) {
+                throw new IndexOutOfBoundsException("Position " + position + " out of range 0.." + getDataSize());
+            }
+
+            // Empty matches share offset with following match
+            int index = Arrays.binarySearch(offsets, position);
+            if (index < 0) {
+                return -index - 2;
+            }
+            while (offsets[index + 1] == position) {
+                index++;
+            }
+            return index;
+        }
+
+        /**
+         * Input stream of content of matches.
+         */
+        private final class MatchesDataInputStream extends InputStream {
+
+            private long position = 0;
+
+            @Override
+            public int read() throws IOException {
+                if (position >= getDataSize()) {
+                    return -1;
+                }
+                return getByte(position++) & 0xff;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                if (length == 0) {
+                    return 0;
+                }
+                long dataSize = getDataSize();
+                if (position >= dataSize) {
+                    return -1;
+                }
+
+                int readLength = (int) Math.min(length, dataSize - position);
+                copyToArray(position, buffer, offset, readLength);
+                position += readLength;
+                return readLength;
+            }
+
+            @Override
+            public int available() throws IOException {
+                return (int) Math.min(Integer.MAX_VALUE, getDataSize() - position);
+            }
+        }
+    }
+}
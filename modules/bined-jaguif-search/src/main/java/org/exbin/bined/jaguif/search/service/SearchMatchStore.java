@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import org.exbin.bined.highlight.swing.SearchMatch;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Store of search matches backed by primitive arrays.
+ * <p>
+ * Matches are stored in order in which they were found. Matches of backward
+ * search are found in descending order and are accessible in ascending order
+ * through reversed view. Distances of approximate matches are stored only
+ * when any match has non-zero distance.
+ * <p>
+ * Matches can be added by single thread while other thread reads matches
+ * which were stored before it was notified about them.
+ */
+@NullMarked
+public class SearchMatchStore {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    // Arrays are replaced when grown, so readers always see copied values
+    private volatile long[] positions = new long[INITIAL_CAPACITY];
+    private volatile long[] lengths = new long[INITIAL_CAPACITY];
+    @Nullable
+    private volatile int[] distances;
+    private int count = 0;
+
+    public void add(long position, long length) {
+        add(position, length, 0);
+    }
+
+    /**
+     * Adds approximate match.
+     *
+     * @param position match position
+     * @param length match length
+     * @param distance distance of match from searched pattern
+     */
+    public void add(long position, long length, int distance) {
+        if (count == positions.length) {
+            int capacity = count * 2;
+            positions = Arrays.copyOf(positions, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            if (distances != null) {
+                distances = Arrays.copyOf(distances, capacity);
+            }
+        }
+        if (distance != 0 && distances == null) {
+            distances = new int[positions.length];
+        }
+        positions[count] = position;
+        lengths[count] = length;
+        if (distances != null) {
+            distances[count] = distance;
+        }
+        count++;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public long getPosition(int index) {
+        checkIndex(index);
+        return positions[index];
+    }
+
+    public long getLength(int index) {
+        checkIndex(index);
+        return lengths[index];
+    }
+
+    public int getDistance(int index) {
+        checkIndex(index);
+        return distances == null ? 0 : distances[index];
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * Returns read-only view of stored matches.
+     * <p>
+     * Match instances are created on access. View is limited to matches
+     * stored at the time of the call.
+     *
+     * @param reversed true to access matches in reversed order
+     * @return list of matches
+     */
+    public List<SearchMatch> asList(boolean reversed) {
+        return asList(count, reversed);
+    }
+
+    /**
+     * Returns read-only view of given count of first stored matches.
+     *
+     * @param matchesCount count of matches
+     * @param reversed true to access matches in reversed order
+     * @return list of matches
+     */
+    public List<SearchMatch> asList(int matchesCount, boolean reversed) {
+        if (matchesCount < 0 || matchesCount > count) {
+            throw new IndexOutOfBoundsException("Matches count " + matchesCount + " out of range 0.." + count);
+        }
+
+        return new MatchesView(matchesCount, reversed);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Match index " + index + " out of range 0.." + count);
+        }
+    }
+
+    /**
+     * Read-only view of matches.
+     */
+    private final class MatchesView extends AbstractList<SearchMatch> implements RandomAccess {
+
+        private final int matchesCount;
+        private final boolean reversed;
+
+        public MatchesView(int matchesCount, boolean reversed) {
+            this.matchesCount = matchesCount;
+            this.reversed = reversed;
+        }
+
+        @Override
+        public SearchMatch get(int index) {
+            if (index < 0 || index >= matchesCount) {
+                throw new IndexOutOfBoundsException("Match index " + index + " out of range 0.." + matchesCount);
+            }
+
+            int storeIndex = reversed ? matchesCount - 1 - index : index;
+            return new SearchMatch(positions[storeIndex], lengths[storeIndex]);
+        }
+
+        @Override
+        public int size() {
+            return matchesCount;
+        }
+    }
+}
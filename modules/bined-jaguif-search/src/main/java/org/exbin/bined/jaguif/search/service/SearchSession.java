@@ -0,0 +1,240 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.swing.SwingUtilities;
+import org.exbin.bined.highlight.swing.SearchCodeAreaColorAssessor;
+import org.exbin.bined.jaguif.search.SearchParameters;
+import org.exbin.bined.swing.section.SectCodeArea;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Session of single search run.
+ * <p>
+ * Collects found matches into match store and publishes them in batches to
+ * search color assessor and search status listener while search continues.
+ * <p>
+ * Matches are collected on search thread and passed to code area on event
+ * dispatch thread. Publish requests made while previous request is still
+ * waiting are merged into it.
+ */
+@NullMarked
+public class SearchSession {
+
+    public static final long PUBLISH_INTERVAL = 200;
+    /**
+     * Minimum ratio between publish delay and time spent publishing matches.
+     */
+    private static final int PUBLISH_COST_RATIO = 10;
+
+    private final SectCodeArea codeArea;
+    private final SearchCodeAreaColorAssessor searchAssessor;
+    private final SearchParameters searchParameters;
+    private final BinarySearchService.SearchStatusListener searchStatusListener;
+    private final SearchMatchStore matches = new SearchMatchStore();
+    private final int matchesLimit;
+    private final long dataSize;
+    private final boolean backward;
+    private final boolean revealMatch;
+
+    private final AtomicBoolean publishPending = new AtomicBoolean();
+    private volatile int availableCount = 0;
+    private volatile long publishDelay = PUBLISH_INTERVAL;
+    private volatile boolean cancelled = false;
+    private int requestedCount = 0;
+    private long lastPublishTime;
+    private int lastProgressState = -1;
+    // Accessed on event dispatch thread only
+    private int publishedCount = 0;
+
+    public SearchSession(SectCodeArea codeArea, SearchCodeAreaColorAssessor searchAssessor, SearchParameters searchParameters, BinarySearchService.SearchStatusListener searchStatusListener, int matchesLimit, boolean revealMatch) {
+        this.codeArea = codeArea;
+        this.searchAssessor = searchAssessor;
+        this.searchParameters = searchParameters;
+        this.searchStatusListener = searchStatusListener;
+        this.matchesLimit = matchesLimit;
+        this.revealMatch = revealMatch;
+        dataSize = codeArea.getDataSize();
+        backward = searchParameters.getSearchDirection() == SearchParameters.SearchDirection.BACKWARD;
+        lastPublishTime = System.currentTimeMillis();
+    }
+
+    public SearchMatchStore getMatches() {
+        return matches;
+    }
+
+    /**
+     * Records found match.
+     *
+     * @param position match position
+     * @param length match length
+     * @return true if more matches are accepted
+     */
+    public boolean matchFound(long position, long length) {
+        return matchFound(position, length, 0);
+    }
+
+    /**
+     * Records found approximate match.
+     *
+     * @param position match position
+     * @param length match length
+     * @param distance distance of match from searched pattern
+     * @return true if more matches are accepted
+     */
+    public boolean matchFound(long position, long length, int distance) {
+        matches.add(position, length, distance);
+        if (requestedCount == 0 || isPublishDue()) {
+            requestPublish();
+        }
+        return matches.size() < matchesLimit;
+    }
+
+    /**
+     * Returns distance of published match.
+     * <p>
+     * Has to be called on event dispatch thread.
+     *
+     * @param matchIndex index of match as published to search assessor
+     * @return match distance
+     */
+    public int getMatchDistance(int matchIndex) {
+        return matches.getDistance(backward ? publishedCount - 1 - matchIndex : matchIndex);
+    }
+
+    /**
+     * Reports search progress.
+     *
+     * @param position position search reached
+     */
+    public void positionReached(long position) {
+        int progressState;
+        if (dataSize == 0) {
+            progressState = 1000;
+        } else if (backward) {
+            progressState = (int) (dataSize > Integer.MAX_VALUE ? (dataSize - position) / (dataSize / 1000) : ((dataSize - position) * 1000) / dataSize);
+        } else {
+            progressState = (int) (dataSize > Integer.MAX_VALUE ? position / (dataSize / 1000) : (position * 1000) / dataSize);
+        }
+
+        if (progressState != lastProgressState) {
+            lastProgressState = progressState;
+            SwingUtilities.invokeLater(() -> {
+                if (!cancelled) {
+                    searchStatusListener.setProgress(progressState);
+                }
+            });
+        }
+
+        if (matches.size() > requestedCount && isPublishDue()) {
+            requestPublish();
+        }
+    }
+
+    /**
+     * Returns true if search was cancelled.
+     *
+     * @return true if cancelled
+     */
+    public boolean isCancelled() {
+        return searchStatusListener.isCancelled();
+    }
+
+    /**
+     * Finishes search session.
+     *
+     * @param finished false if search was cancelled
+     * @return true if search finished
+     */
+    public boolean finish(boolean finished) {
+        if (!finished || isCancelled()) {
+            cancelled = true;
+            SwingUtilities.invokeLater(() -> {
+                if (publishedCount > 0) {
+                    searchAssessor.clearMatches();
+                    codeArea.repaint();
+                }
+                searchStatusListener.setCancelled();
+            });
+            return false;
+        }
+
+        if (matches.isEmpty()) {
+            SwingUtilities.invokeLater(() -> {
+                searchAssessor.clearMatches();
+                searchStatusListener.setStatus(new BinarySearchService.FoundMatches(), searchParameters.getMatchMode());
+                codeArea.repaint();
+            });
+        } else if (matches.size() > requestedCount) {
+            requestPublish();
+        }
+        return true;
+    }
+
+    private boolean isPublishDue() {
+        return System.currentTimeMillis() - lastPublishTime >= publishDelay;
+    }
+
+    /**
+     * Requests publishing of matches found so far.
+     */
+    private void requestPublish() {
+        requestedCount = matches.size();
+        availableCount = requestedCount;
+        lastPublishTime = System.currentTimeMillis();
+        if (!publishPending.getAndSet(true)) {
+            SwingUtilities.invokeLater(this::publish);
+        }
+    }
+
+    /**
+     * Passes available matches to search assessor keeping current match.
+     */
+    private void publish() {
+        publishPending.set(false);
+        int matchesCount = availableCount;
+        if (cancelled || isCancelled() || matchesCount <= publishedCount) {
+            return;
+        }
+
+        long publishStart = System.currentTimeMillis();
+        int currentMatchIndex;
+        int previousMatchIndex = searchAssessor.getCurrentMatchIndex();
+        if (publishedCount == 0 || previousMatchIndex < 0) {
+            currentMatchIndex = backward ? matchesCount - 1 : 0;
+        } else {
+            currentMatchIndex = previousMatchIndex;
+            if (backward) {
+                // Matches with lower positions are prepended
+                currentMatchIndex += matchesCount - publishedCount;
+            }
+        }
+
+        searchAssessor.setMatches(matches.asList(matchesCount, backward));
+        searchAssessor.setCurrentMatchIndex(currentMatchIndex);
+        if (publishedCount == 0 && revealMatch) {
+            codeArea.revealPosition(matches.getPosition(0), 0, codeArea.getActiveSection());
+        }
+        publishedCount = matchesCount;
+        BinarySearchService.FoundMatches foundMatches = new BinarySearchService.FoundMatches(matchesCount, currentMatchIndex);
+        foundMatches.setMatchDistance(getMatchDistance(currentMatchIndex));
+        searchStatusListener.setStatus(foundMatches, searchParameters.getMatchMode());
+        codeArea.repaint();
+
+        publishDelay = Math.max(PUBLISH_INTERVAL, (System.currentTimeMillis() - publishStart) * PUBLISH_COST_RATIO);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service;
+
+import org.exbin.bined.jaguif.search.service.signature.SignatureHitStore;
+import org.exbin.bined.jaguif.search.service.signature.SignatureSet;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Signature scan service.
+ */
+@NullMarked
+public interface SignatureScanService {
+
+    /**
+     * Scans whole data for all signatures of signature set and highlights
+     * found hits.
+     *
+     * @param signatureSet signature set
+     * @param scanStatusListener scan status listener
+     */
+    void performScan(SignatureSet signatureSet, ScanStatusListener scanStatusListener);
+
+    /**
+     * Sets current hit and reveals its position.
+     *
+     * @param hitIndex index of hit in hits sorted by position
+     */
+    void setHitIndex(int hitIndex);
+
+    void clearHits();
+
+    @NullMarked
+    public interface ScanStatusListener {
+
+        void setProgress(int progress);
+
+        /**
+         * Reports finished scan.
+         *
+         * @param hits found hits sorted by position
+         * @param limitReached true if scan was stopped after reaching limit
+         * of hits
+         */
+        void setFinished(SignatureHitStore hits, boolean limitReached);
+
+        void setCancelled();
+
+        /**
+         * Returns true if scan should be cancelled.
+         * <p>
+         * Checked repeatedly while scanning, default implementation checks
+         * interruption of current thread.
+         *
+         * @return true if cancelled
+         */
+        default boolean isCancelled() {
+            return Thread.currentThread().isInterrupted();
+        }
+    }
+}
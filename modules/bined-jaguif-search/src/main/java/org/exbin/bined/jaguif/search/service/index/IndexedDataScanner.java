@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service.index;
+
+import java.util.BitSet;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.bined.jaguif.search.service.matcher.BinaryPatternMatcher;
+import org.exbin.bined.jaguif.search.service.matcher.ChunkedDataScanner;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Scanner of binary data limited to candidate blocks of n-gram index.
+ */
+@NullMarked
+public class IndexedDataScanner {
+
+    private final ChunkedDataScanner dataScanner;
+
+    public IndexedDataScanner(ChunkedDataScanner dataScanner) {
+        this.dataScanner = dataScanner;
+    }
+
+    /**
+     * Scans candidate blocks for matches in forward direction.
+     *
+     * @param data data to scan
+     * @param matcher pattern matcher
+     * @param index index
+     * @param candidates candidate blocks
+     * @param rangeStart lowest match position
+     * @param rangeEnd highest match position (exclusive)
+     * @param listener scan listener
+     * @return true if scan finished, false if it was cancelled
+     */
+    public boolean scanForward(BinaryData data, BinaryPatternMatcher matcher, NgramIndex index, BitSet candidates, long rangeStart, long rangeEnd, ChunkedDataScanner.ScanListener listener) {
+        long blockSize = index.getBlockSize();
+        StoppableListener stoppableListener = new StoppableListener(listener);
+        int block = candidates.nextSetBit((int) (Math.max(0, rangeStart) / blockSize));
+        while (block >= 0) {
+            int runEnd = candidates.nextClearBit(block);
+            long runStartPosition = Math.max(rangeStart, block * blockSize);
+            long runEndPosition = Math.min(rangeEnd, runEnd * blockSize);
+            if (runStartPosition >= runEndPosition) {
+                break;
+            }
+
+            listener.positionReached(runStartPosition);
+            if (!dataScanner.scanForward(data, matcher, runStartPosition, runEndPosition, stoppableListener)) {
+                return false;
+            }
+            if (stoppableListener.stopped) {
+                return true;
+            }
+            block = candidates.nextSetBit(runEnd);
+        }
+
+        return true;
+    }
+
+    /**
+     * Scans candidate blocks for matches in backward direction.
+     *
+     * @param data data to scan
+     * @param matcher pattern matcher
+     * @param index index
+     * @param candidates candidate blocks
+     * @param rangeStart lowest match position
+     * @param rangeEnd highest match position (exclusive)
+     * @param listener scan listener
+     * @return true if scan finished, false if it was cancelled
+     */
+    public boolean scanBackward(BinaryData data, BinaryPatternMatcher matcher, NgramIndex index, BitSet candidates, long rangeStart, long rangeEnd, ChunkedDataScanner.ScanListener listener) {
+        if (rangeEnd <= 0) {
+            return true;
+        }
+
+        long blockSize = index.getBlockSize();
+        StoppableListener stoppableListener = new StoppableListener(listener);
+        int block = candidates.previousSetBit((int) ((rangeEnd - 1) / blockSize));
+        while (block >= 0) {
+            int runStart = candidates.previousClearBit(block) + 1;
+            long runStartPosition = Math.max(rangeStart, runStart * blockSize);
+            long runEndPosition = Math.min(rangeEnd, (block + 1) * blockSize);
+            if (runStartPosition >= runEndPosition) {
+                break;
+            }
+
+            listener.positionReached(runEndPosition);
+            if (!dataScanner.scanBackward(data, matcher, runStartPosition, runEndPosition, stoppableListener)) {
+                return false;
+            }
+            if (stoppableListener.stopped) {
+                return true;
+            }
+            block = runStart == 0 ? -1 : candidates.previousSetBit(runStart - 1);
+        }
+
+        return true;
+    }
+
+    /**
+     * Listener recording whether scanning was stopped by target listener.
+     */
+    private static final class StoppableListener implements ChunkedDataScanner.ScanListener {
+
+        private final ChunkedDataScanner.ScanListener listener;
+        private boolean stopped = false;
+
+        public StoppableListener(ChunkedDataScanner.ScanListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public boolean matchFound(long position) {
+            if (!listener.matchFound(position)) {
+                stopped = true;
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public void positionReached(long position) {
+            listener.positionReached(position);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return listener.isCancelled();
+        }
+    }
+}
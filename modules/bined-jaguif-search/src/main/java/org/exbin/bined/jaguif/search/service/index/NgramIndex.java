@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service.index;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.BitSet;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Persistent n-gram index of file content.
+ * <p>
+ * File is split into blocks and for each block bitmap of hashed n-grams
+ * starting in it is stored. Size of bitmap is proportional to size of block,
+ * so that bitmap is not saturated by n-grams of block. Block can contain pattern only if all n-grams of
+ * pattern are present in bitmaps of block or following blocks. Index is
+ * stored in file which is mapped to memory for querying.
+ */
+@NullMarked
+public class NgramIndex {
+
+    public static final int MAGIC = 0x42534958;
+    public static final int VERSION = 2;
+    public static final int HEADER_SIZE = 40;
+    public static final int GRAM_LENGTH = 4;
+    public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+    /**
+     * Number of filter bits per byte of block.
+     * <p>
+     * Block of random data, which is the worst case, sets about 63 % of
+     * filter bits, so pattern of sixteen bytes passes filter of unrelated
+     * block with probability below 10 % and longer patterns with rapidly
+     * decreasing probability.
+     */
+    public static final int FILTER_BITS_PER_BYTE = 1;
+
+    private final File indexFile;
+    private final long fileLength;
+    private final long fileLastModified;
+    private final int blockSize;
+    private final int filterBits;
+    private final int blockCount;
+    private final LongBuffer bitmaps;
+
+    private NgramIndex(File indexFile, long fileLength, long fileLastModified, int blockSize, int filterBits, int blockCount, LongBuffer bitmaps) {
+        this.indexFile = indexFile;
+        this.fileLength = fileLength;
+        this.fileLastModified = fileLastModified;
+        this.blockSize = blockSize;
+        this.filterBits = filterBits;
+        this.blockCount = blockCount;
+        this.bitmaps = bitmaps;
+    }
+
+    /**
+     * Opens index file if it matches current state of indexed file.
+     *
+     * @param indexFile index file
+     * @param dataFile indexed file
+     * @return index or null if index file is missing or outdated
+     * @throws IOException if reading failed
+     */
+    @Nullable
+    public static NgramIndex open(File indexFile, File dataFile) throws IOException {
+        if (!indexFile.isFile()) {
+            return null;
+        }
+
+        try (RandomAccessFile file = new RandomAccessFile(indexFile, "r"); FileChannel channel = file.getChannel()) {
+            if (channel.size() < HEADER_SIZE) {
+                return null;
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Read whole header
+            }
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION) {
+                return null;
+            }
+
+            long fileLength = header.getLong();
+            long fileLastModified = header.getLong();
+            int blockSize = header.getInt();
+            int gramLength = header.getInt();
+            int filterBits = header.getInt();
+            int blockCount = header.getInt();
+            if (fileLength != dataFile.length() || fileLastModified != dataFile.lastModified() || gramLength != GRAM_LENGTH
+                    || blockSize <= 0 || filterBits <= 0 || Integer.bitCount(filterBits) != 1 || blockCount != getBlockCount(fileLength, blockSize)) {
+                return null;
+            }
+
+            long bitmapsSize = (long) blockCount * (filterBits / 8);
+            if (channel.size() != HEADER_SIZE + bitmapsSize) {
+                return null;
+            }
+
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, bitmapsSize);
+            return new NgramIndex(indexFile, fileLength, fileLastModified, blockSize, filterBits, blockCount, mapped.asLongBuffer());
+        }
+    }
+
+    public File getIndexFile() {
+        return indexFile;
+    }
+
+    public long getFileLength() {
+        return fileLength;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    public int getBlockCount() {
+        return blockCount;
+    }
+
+    /**
+     * Returns true if index still matches given file.
+     *
+     * @param dataFile indexed file
+     * @return true if file was not changed since indexing
+     */
+    public boolean isValidFor(File dataFile) {
+        return fileLength == dataFile.length() && fileLastModified == dataFile.lastModified();
+    }
+
+    /**
+     * Finds blocks in which pattern can start.
+     *
+     * @param pattern searched pattern of at least gram length
+     * @return set of candidate blocks
+     */
+    public BitSet findCandidateBlocks(byte[] pattern) {
+        if (pattern.length < GRAM_LENGTH) {
+            throw new IllegalArgumentException("Pattern is shorter than indexed n-gram");
+        }
+
+        int gramsCount = pattern.length - GRAM_LENGTH + 1;
+        int[] buckets = new int[gramsCount];
+        int gram = 0;
+        for (int i = 0; i < pattern.length; i++) {
+            gram = (gram << 8) | (pattern[i] & 0xff);
+            if (i >= GRAM_LENGTH - 1) {
+                buckets[i - GRAM_LENGTH + 1] = bucket(gram, filterBits);
+            }
+        }
+
+        BitSet candidates = new BitSet(blockCount);
+        int wordsPerBlock = filterBits / Long.SIZE;
+        for (int block = 0; block < blockCount; block++) {
+            boolean candidate = true;
+            for (int offset = 0; offset < gramsCount && candidate; offset++) {
+                // Gram at offset starts in this block or in one of following blocks
+                int firstBlock = block + offset / blockSize;
+                int lastBlock = Math.min(blockCount - 1, block + (blockSize - 1 + offset) / blockSize);
+                int bucket = buckets[offset];
+                candidate = false;
+                for (int gramBlock = firstBlock; gramBlock <= lastBlock; gramBlock++) {
+                    long word = bitmaps.get(gramBlock * wordsPerBlock + (bucket >>> 6));
+                    if ((word & (1L << bucket)) != 0) {
+                        candidate = true;
+                        break;
+                    }
+                }
+            }
+            if (candidate) {
+                candidates.set(block);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Returns size of n-gram filter for given block size.
+     *
+     * @param blockSize block size in bytes
+     * @return number of filter bits, power of two
+     */
+    public static int getFilterBits(int blockSize) {
+        long bits = Math.max(Long.SIZE, Math.min(1 << 30, (long) blockSize * FILTER_BITS_PER_BYTE));
+        return Integer.highestOneBit((int) bits);
+    }
+
+    static int getBlockCount(long fileLength, int blockSize) {
+        return (int) ((fileLength + blockSize - 1) / blockSize);
+    }
+
+    static int bucket(int gram, int filterBits) {
+        return (gram * 0x9E3779B1) >>> (Integer.SIZE - Integer.numberOfTrailingZeros(filterBits));
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service.index;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Builder of persistent n-gram index.
+ * <p>
+ * Index is written to temporary file which replaces target index file when
+ * build is finished.
+ */
+@NullMarked
+public class NgramIndexBuilder {
+
+    private final int blockSize;
+    private final int filterBits;
+
+    public NgramIndexBuilder() {
+        this(NgramIndex.DEFAULT_BLOCK_SIZE);
+    }
+
+    public NgramIndexBuilder(int blockSize) {
+        this(blockSize, NgramIndex.getFilterBits(blockSize));
+    }
+
+    public NgramIndexBuilder(int blockSize, int filterBits) {
+        if (blockSize <= 0 || filterBits < Long.SIZE || Integer.bitCount(filterBits) != 1) {
+            throw new IllegalArgumentException("Invalid index parameters");
+        }
+
+        this.blockSize = blockSize;
+        this.filterBits = filterBits;
+    }
+
+    /**
+     * Builds index of given file.
+     * <p>
+     * Build is cancelled when current thread is interrupted.
+     *
+     * @param dataFile indexed file
+     * @param indexFile target index file
+     * @return built index
+     * @throws IOException if reading or writing failed
+     */
+    public NgramIndex build(File dataFile, File indexFile) throws IOException {
+        long fileLength = dataFile.length();
+        long fileLastModified = dataFile.lastModified();
+        int blockCount = NgramIndex.getBlockCount(fileLength, blockSize);
+        int wordsPerBlock = filterBits / Long.SIZE;
+        File directory = indexFile.getAbsoluteFile().getParentFile();
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Unable to create index directory " + directory);
+        }
+
+        File tempFile = File.createTempFile(indexFile.getName(), ".tmp", directory);
+        try {
+            try (RandomAccessFile source = new RandomAccessFile(dataFile, "r"); FileChannel sourceChannel = source.getChannel();
+                    RandomAccessFile target = new RandomAccessFile(tempFile, "rw"); FileChannel targetChannel = target.getChannel()) {
+                ByteBuffer header = ByteBuffer.allocate(NgramIndex.HEADER_SIZE);
+                header.putInt(NgramIndex.MAGIC);
+                header.putInt(NgramIndex.VERSION);
+                header.putLong(fileLength);
+                header.putLong(fileLastModified);
+                header.putInt(blockSize);
+                header.putInt(NgramIndex.GRAM_LENGTH);
+                header.putInt(filterBits);
+                header.putInt(blockCount);
+                header.flip();
+                writeFully(targetChannel, header);
+
+                ByteBuffer input = ByteBuffer.allocate(blockSize + NgramIndex.GRAM_LENGTH - 1);
+                ByteBuffer output = ByteBuffer.allocate(wordsPerBlock * Long.BYTES);
+                long[] bitmap = new long[wordsPerBlock];
+                byte[] inputArray = input.array();
+                for (int block = 0; block < blockCount; block++) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedIOException("Index build cancelled");
+                    }
+
+                    long blockStart = (long) block * blockSize;
+                    input.clear();
+                    input.limit((int) Math.min(input.capacity(), fileLength - blockStart));
+                    while (input.hasRemaining()) {
+                        if (sourceChannel.read(input, blockStart + input.position()) < 0) {
+                            throw new IOException("File was truncated during indexing");
+                        }
+                    }
+
+                    Arrays.fill(bitmap, 0);
+                    int length = input.position();
+                    int gram = 0;
+                    for (int i = 0; i < length; i++) {
+                        gram = (gram << 8) | (inputArray[i] & 0xff);
+                        if (i >= NgramIndex.GRAM_LENGTH - 1) {
+                            int bucket = NgramIndex.bucket(gram, filterBits);
+                            bitmap[bucket >>> 6] |= 1L << bucket;
+                        }
+                    }
+
+                    output.clear();
+                    output.asLongBuffer().put(bitmap);
+                    writeFully(targetChannel, output);
+                }
+                targetChannel.force(false);
+            }
+
+            try {
+                Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            if (tempFile.exists() && !tempFile.delete()) {
+                tempFile.deleteOnExit();
+            }
+        }
+
+        NgramIndex index = NgramIndex.open(indexFile, dataFile);
+        if (index == null) {
+            throw new IOException("File was modified during indexing");
+        }
+
+        return index;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
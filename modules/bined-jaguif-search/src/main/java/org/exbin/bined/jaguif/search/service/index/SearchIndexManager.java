@@ -0,0 +1,323 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service.index;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.ClosedByInterruptException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.auxiliary.binary_data.delta.DataSource;
+import org.exbin.auxiliary.binary_data.delta.DeltaDocument;
+import org.exbin.auxiliary.binary_data.delta.file.FileDataSource;
+import org.exbin.bined.jaguif.document.data.MappedFileData;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Manager of persistent search index for file based binary data.
+ * <p>
+ * Index is built in background after content is loaded and it is used only
+ * while loaded data are not modified. Index files are stored in cache
+ * directory and reused while indexed file is not changed. Total size of cache
+ * is limited and least recently used index files are deleted.
+ */
+@NullMarked
+public class SearchIndexManager {
+
+    public static final long DEFAULT_MIN_INDEXED_SIZE = 64L * 1024 * 1024;
+    public static final long DEFAULT_MAX_CACHE_SIZE = 1024L * 1024 * 1024;
+    private static final String INDEX_FILE_EXTENSION = ".bsi";
+
+    private final File cacheDirectory;
+    private long minIndexedSize = DEFAULT_MIN_INDEXED_SIZE;
+    private volatile long maxCacheSize = DEFAULT_MAX_CACHE_SIZE;
+
+    @Nullable
+    private volatile BinaryData indexedData;
+    @Nullable
+    private volatile File indexedFile;
+    @Nullable
+    private volatile NgramIndex index;
+    private volatile boolean dataModified = false;
+    @Nullable
+    private Thread buildThread;
+
+    private volatile long lastBuildTime = -1;
+    private final AtomicLong queriesCount = new AtomicLong();
+    private final AtomicLong indexedQueriesCount = new AtomicLong();
+    private final AtomicLong scannedBlocksCount = new AtomicLong();
+    private final AtomicLong totalBlocksCount = new AtomicLong();
+
+    public SearchIndexManager(File cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    public static File getDefaultCacheDirectory() {
+        return new File(System.getProperty("java.io.tmpdir"), "bined-search-index");
+    }
+
+    public long getMinIndexedSize() {
+        return minIndexedSize;
+    }
+
+    public void setMinIndexedSize(long minIndexedSize) {
+        this.minIndexedSize = minIndexedSize;
+    }
+
+    public long getMaxCacheSize() {
+        return maxCacheSize;
+    }
+
+    /**
+     * Sets maximum total size of index files in cache directory.
+     *
+     * @param maxCacheSize size in bytes
+     */
+    public void setMaxCacheSize(long maxCacheSize) {
+        this.maxCacheSize = maxCacheSize;
+    }
+
+    /**
+     * Notifies content data was loaded.
+     * <p>
+     * Starts loading or building index in background if data are backed by
+     * file.
+     *
+     * @param data loaded data
+     */
+    public synchronized void contentLoaded(BinaryData data) {
+        cancelBuild();
+        index = null;
+        dataModified = false;
+        indexedData = data;
+        indexedFile = getDataFile(data);
+        File dataFile = indexedFile;
+        if (dataFile == null || dataFile.length() < minIndexedSize) {
+            return;
+        }
+
+        buildThread = new IndexBuildThread(dataFile);
+        buildThread.start();
+    }
+
+    /**
+     * Notifies content data was changed.
+     *
+     * @param data current data
+     */
+    public void dataChanged(@Nullable BinaryData data) {
+        if (data == indexedData && !dataModified) {
+            dataModified = true;
+            Logger.getLogger(SearchIndexManager.class.getName()).log(Level.FINE, "Search index invalidated by data modification");
+        }
+    }
+
+    /**
+     * Returns index usable for searching in given data.
+     *
+     * @param data searched data
+     * @return index or null if not available
+     */
+    @Nullable
+    public NgramIndex getIndex(BinaryData data) {
+        NgramIndex currentIndex = index;
+        File dataFile = indexedFile;
+        if (currentIndex == null || dataFile == null || dataModified || data != indexedData
+                || data.getDataSize() != currentIndex.getFileLength() || !currentIndex.isValidFor(dataFile)) {
+            return null;
+        }
+
+        return currentIndex;
+    }
+
+    /**
+     * Records search query for statistics.
+     *
+     * @param indexUsed true if index was used
+     * @param scannedBlocks number of scanned blocks
+     * @param totalBlocks total number of blocks
+     */
+    public void recordQuery(boolean indexUsed, int scannedBlocks, int totalBlocks) {
+        queriesCount.incrementAndGet();
+        if (indexUsed) {
+            indexedQueriesCount.incrementAndGet();
+            scannedBlocksCount.addAndGet(scannedBlocks);
+            totalBlocksCount.addAndGet(totalBlocks);
+            Logger.getLogger(SearchIndexManager.class.getName()).log(Level.FINE, "Search index query scanned {0} of {1} blocks, hit rate {2}",
+                    new Object[]{scannedBlocks, totalBlocks, getHitRate()});
+        }
+    }
+
+    /**
+     * Returns time of last index build in milliseconds.
+     *
+     * @return build time or -1 if no index was built
+     */
+    public long getLastBuildTime() {
+        return lastBuildTime;
+    }
+
+    public long getQueriesCount() {
+        return queriesCount.get();
+    }
+
+    public long getIndexedQueriesCount() {
+        return indexedQueriesCount.get();
+    }
+
+    /**
+     * Returns ratio of queries which were answered using index.
+     *
+     * @return hit rate in range 0 to 1
+     */
+    public double getHitRate() {
+        long queries = queriesCount.get();
+        return queries == 0 ? 0 : (double) indexedQueriesCount.get() / queries;
+    }
+
+    /**
+     * Returns ratio of blocks which had to be scanned for indexed queries.
+     *
+     * @return scanned blocks ratio in range 0 to 1
+     */
+    public double getScannedBlocksRatio() {
+        long totalBlocks = totalBlocksCount.get();
+        return totalBlocks == 0 ? 0 : (double) scannedBlocksCount.get() / totalBlocks;
+    }
+
+    /**
+     * Releases index and cancels its building.
+     */
+    public synchronized void close() {
+        cancelBuild();
+        index = null;
+        indexedData = null;
+        indexedFile = null;
+    }
+
+    private void cancelBuild() {
+        if (buildThread != null) {
+            buildThread.interrupt();
+            buildThread = null;
+        }
+    }
+
+    private File getIndexFile(File dataFile) {
+        File absoluteFile = dataFile.getAbsoluteFile();
+        String pathHash = Integer.toHexString(absoluteFile.getPath().hashCode());
+        return new File(cacheDirectory, absoluteFile.getName() + "-" + pathHash + INDEX_FILE_EXTENSION);
+    }
+
+    /**
+     * Deletes least recently used index files over cache size limit.
+     *
+     * @param usedIndexFile index file in use which is kept
+     */
+    private void evictCache(File usedIndexFile) {
+        File[] indexFiles = cacheDirectory.listFiles((File file) -> file.isFile() && file.getName().endsWith(INDEX_FILE_EXTENSION));
+        if (indexFiles == null) {
+            return;
+        }
+
+        long totalSize = 0;
+        for (File indexFile : indexFiles) {
+            totalSize += indexFile.length();
+        }
+        if (totalSize <= maxCacheSize) {
+            return;
+        }
+
+        Arrays.sort(indexFiles, Comparator.comparingLong(File::lastModified));
+        for (File indexFile : indexFiles) {
+            if (totalSize <= maxCacheSize) {
+                break;
+            }
+            if (indexFile.equals(usedIndexFile)) {
+                continue;
+            }
+
+            long indexFileSize = indexFile.length();
+            // Index file mapped by another process might not be deletable
+            if (indexFile.delete()) {
+                totalSize -= indexFileSize;
+            }
+        }
+    }
+
+    @Nullable
+    private static File getDataFile(BinaryData data) {
+        if (data instanceof DeltaDocument) {
+            DataSource dataSource = ((DeltaDocument) data).getDataSource();
+            if (dataSource instanceof FileDataSource) {
+                return ((FileDataSource) dataSource).getFile();
+            }
+        }
+        if (data instanceof MappedFileData && !((MappedFileData) data).isModified()) {
+            return ((MappedFileData) data).getFile();
+        }
+
+        return null;
+    }
+
+    private synchronized void indexReady(Thread thread, NgramIndex builtIndex) {
+        if (buildThread == thread) {
+            index = builtIndex;
+            buildThread = null;
+        }
+    }
+
+    private class IndexBuildThread extends Thread {
+
+        private final File dataFile;
+
+        public IndexBuildThread(File dataFile) {
+            super("SearchIndexBuildThread");
+            this.dataFile = dataFile;
+            setDaemon(true);
+            setPriority(Thread.MIN_PRIORITY);
+        }
+
+        @Override
+        public void run() {
+            File indexFile = getIndexFile(dataFile);
+            try {
+                NgramIndex builtIndex = NgramIndex.open(indexFile, dataFile);
+                if (builtIndex != null) {
+                    // Modification time marks recently used index files
+                    indexFile.setLastModified(System.currentTimeMillis());
+                } else {
+                    long buildStart = System.currentTimeMillis();
+                    builtIndex = new NgramIndexBuilder().build(dataFile, indexFile);
+                    lastBuildTime = System.currentTimeMillis() - buildStart;
+                    Logger.getLogger(SearchIndexManager.class.getName()).log(Level.INFO, "Search index for {0} built in {1} ms",
+                            new Object[]{dataFile.getName(), lastBuildTime});
+                }
+                indexReady(this, builtIndex);
+                evictCache(indexFile);
+            } catch (InterruptedIOException | ClosedByInterruptException ex) {
+                // Build cancelled
+            } catch (IOException ex) {
+                Logger.getLogger(SearchIndexManager.class.getName()).log(Level.WARNING, "Unable to build search index", ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service.matcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Aho-Corasick automaton for matching multiple byte keywords in single pass.
+ * <p>
+ * Automaton is compiled into full transition table, so that each processed
+ * byte costs single table lookup.
+ */
+@NullMarked
+public class AhoCorasickAutomaton {
+
+    public static final int INITIAL_STATE = 0;
+    private static final int ALPHABET_SIZE = 256;
+
+    private final int[] keywordLengths;
+    private final int[] transitions;
+    private final int[][] outputs;
+    private final int maxKeywordLength;
+
+    public AhoCorasickAutomaton(List<byte[]> keywords) {
+        keywordLengths = new int[keywords.size()];
+        int maxLength = 0;
+        int statesLimit = 1;
+        for (int i = 0; i < keywords.size(); i++) {
+            byte[] keyword = keywords.get(i);
+            if (keyword.length == 0) {
+                throw new IllegalArgumentException("Keyword cannot be empty");
+            }
+            keywordLengths[i] = keyword.length;
+            maxLength = Math.max(maxLength, keyword.length);
+            statesLimit += keyword.length;
+        }
+        maxKeywordLength = maxLength;
+
+        // Build trie
+        int[] trie = new int[statesLimit * ALPHABET_SIZE];
+        Arrays.fill(trie, -1);
+        List<List<Integer>> stateOutputs = new ArrayList<>();
+        stateOutputs.add(new ArrayList<>());
+        int statesCount = 1;
+        for (int i = 0; i < keywords.size(); i++) {
+            int state = INITIAL_STATE;
+            for (byte value : keywords.get(i)) {
+                int index = state * ALPHABET_SIZE + (value & 0xff);
+                if (trie[index] < 0) {
+                    trie[index] = statesCount++;
+                    stateOutputs.add(new ArrayList<>());
+                }
+                state = trie[index];
+            }
+            stateOutputs.get(state).add(i);
+        }
+
+        // Compute failure links in breadth first order and fill transitions
+        transitions = new int[statesCount * ALPHABET_SIZE];
+        int[] failure = new int[statesCount];
+        int[] queue = new int[statesCount];
+        int queueHead = 0;
+        int queueTail = 0;
+        for (int value = 0; value < ALPHABET_SIZE; value++) {
+            int target = trie[value];
+            if (target < 0) {
+                transitions[value] = INITIAL_STATE;
+            } else {
+                transitions[value] = target;
+                failure[target] = INITIAL_STATE;
+                queue[queueTail++] = target;
+            }
+        }
+        while (queueHead < queueTail) {
+            int state = queue[queueHead++];
+            stateOutputs.get(state).addAll(stateOutputs.get(failure[state]));
+            for (int value = 0; value < ALPHABET_SIZE; value++) {
+                int index = state * ALPHABET_SIZE + value;
+                int target = trie[index];
+                int fallback = transitions[failure[state] * ALPHABET_SIZE + value];
+                if (target < 0) {
+                    transitions[index] = fallback;
+                } else {
+                    transitions[index] = target;
+                    failure[target] = fallback;
+                    queue[queueTail++] = target;
+                }
+            }
+        }
+
+        outputs = new int[statesCount][];
+        for (int state = 0; state < statesCount; state++) {
+            List<Integer> stateOutput = stateOutputs.get(state);
+            if (!stateOutput.isEmpty()) {
+                int[] keywordIndexes = new int[stateOutput.size()];
+                for (int i = 0; i < keywordIndexes.length; i++) {
+                    keywordIndexes[i] = stateOutput.get(i);
+                }
+                outputs[state] = keywordIndexes;
+            }
+        }
+    }
+
+    public int getKeywordsCount() {
+        return keywordLengths.length;
+    }
+
+    public int getKeywordLength(int keywordIndex) {
+        return keywordLengths[keywordIndex];
+    }
+
+    public int getMaxKeywordLength() {
+        return maxKeywordLength;
+    }
+
+    /**
+     * Returns state after processing given byte.
+     *
+     * @param state current state
+     * @param value processed byte
+     * @return next state
+     */
+    public int nextState(int state, byte value) {
+        return transitions[(state << 8) | (value & 0xff)];
+    }
+
+    /**
+     * Returns indexes of keywords ending in given state.
+     *
+     * @param state state
+     * @return keyword indexes or null if no keyword ends in this state
+     */
+    @Nullable
+    public int[] getMatchedKeywords(int state) {
+        return outputs[state];
+    }
+
+    /**
+     * Finds all keyword occurrences in buffer.
+     *
+     * @param buffer data buffer
+     * @param from start of data
+     * @param to end of data (exclusive)
+     * @param listener listener for keyword occurrences
+     * @return false if listener stopped processing
+     */
+    public boolean findAll(byte[] buffer, int from, int to, KeywordListener listener) {
+        int state = INITIAL_STATE;
+        for (int position = from; position < to; position++) {
+            state = transitions[(state << 8) | (buffer[position] & 0xff)];
+            int[] matched = outputs[state];
+            if (matched != null) {
+                for (int keywordIndex : matched) {
+                    if (!listener.keywordFound(keywordIndex, position + 1 - keywordLengths[keywordIndex])) {
+                        return false;
+                    }
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Listener for keyword occurrences.
+     */
+    @NullMarked
+    public interface KeywordListener {
+
+        /**
+         * Reports keyword occurrence.
+         *
+         * @param keywordIndex keyword index
+         * @param position start position of occurrence
+         * @return true to continue
+         */
+        boolean keywordFound(int keywordIndex, int position);
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service.matcher;
+
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Scanner of binary data for approximate pattern occurrences.
+ * <p>
+ * Data are streamed through matcher in bulk chunks, so that state of matcher
+ * is kept across chunk boundaries. Backward scan streams data in reversed
+ * order through matcher of reversed pattern. Matches of variable length
+ * overlapping each other are reduced to the one with the lowest distance.
+ */
+@NullMarked
+public class ApproximateDataScanner {
+
+    private final ApproximatePatternMatcher matcher;
+    private final int chunkSize;
+
+    public ApproximateDataScanner(ApproximatePatternMatcher matcher) {
+        this(matcher, ChunkedDataScanner.DEFAULT_CHUNK_SIZE);
+    }
+
+    public ApproximateDataScanner(ApproximatePatternMatcher matcher, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+
+        this.matcher = matcher;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Scans data for matches in forward direction.
+     *
+     * @param data data to scan
+     * @param rangeStart lowest match position
+     * @param rangeEnd highest match position (exclusive)
+     * @param listener scan listener
+     * @return true if scan finished, false if it was cancelled
+     */
+    public boolean scanForward(BinaryData data, long rangeStart, long rangeEnd, MatchListener listener) {
+        return scan(data, rangeStart, rangeEnd, false, listener);
+    }
+
+    /**
+     * Scans data for matches in backward direction.
+     *
+     * @param data data to scan
+     * @param rangeStart lowest match position
+     * @param rangeEnd highest match position (exclusive)
+     * @param listener scan listener
+     * @return true if scan finished, false if it was cancelled
+     */
+    public boolean scanBackward(BinaryData data, long rangeStart, long rangeEnd, MatchListener listener) {
+        return scan(data, rangeStart, rangeEnd, true, listener);
+    }
+
+    private boolean scan(BinaryData data, long rangeStart, long rangeEnd, boolean backward, MatchListener listener) {
+        ApproximatePatternMatcher streamMatcher = backward ? matcher.createReversed() : matcher;
+        int maxMatchLength = streamMatcher.getMaxMatchLength();
+        long startPosition = Math.max(0, rangeStart);
+        long endPosition = Math.min(data.getDataSize(), rangeEnd + maxMatchLength - 1);
+        long streamLength = endPosition - startPosition;
+        if (rangeStart >= rangeEnd || streamLength < streamMatcher.getPatternLength() - streamMatcher.getMaxDistance()) {
+            return true;
+        }
+
+        // Buffer keeps preceding data needed to determine match length
+        int historyLength = maxMatchLength - 1;
+        byte[] buffer = new byte[(int) Math.min((long) chunkSize + historyLength, streamLength)];
+        MatchStream stream = new MatchStream(streamMatcher, backward ? endPosition : startPosition, backward, rangeEnd, listener);
+        streamMatcher.reset();
+        int keptLength = 0;
+        long streamPosition = 0;
+        while (streamPosition < streamLength) {
+            if (listener.isCancelled()) {
+                return false;
+            }
+
+            int length = (int) Math.min(buffer.length - keptLength, streamLength - streamPosition);
+            if (backward) {
+                data.copyToArray(endPosition - streamPosition - length, buffer, keptLength, length);
+                for (int left = keptLength, right = keptLength + length - 1; left < right; left++, right--) {
+                    byte value = buffer[left];
+                    buffer[left] = buffer[right];
+                    buffer[right] = value;
+                }
+            } else {
+                data.copyToArray(startPosition + streamPosition, buffer, keptLength, length);
+            }
+
+            long bufferStart = streamPosition - keptLength;
+            int bufferEnd = keptLength + length;
+            for (int index = keptLength; index < bufferEnd; index++) {
+                int distance = streamMatcher.next(buffer[index]);
+                if (distance >= 0 && !stream.matchFound(buffer, index, bufferStart, distance)) {
+                    return true;
+                }
+            }
+
+            streamPosition += length;
+            keptLength = Math.min(historyLength, bufferEnd);
+            System.arraycopy(buffer, bufferEnd - keptLength, buffer, 0, keptLength);
+            listener.positionReached(backward ? endPosition - streamPosition : startPosition + streamPosition);
+        }
+
+        stream.flush();
+        return true;
+    }
+
+    /**
+     * Processing of matches found in stream of data.
+     * <p>
+     * Positions are counted from the start of the stream and match end is
+     * inclusive.
+     */
+    private static final class MatchStream {
+
+        private final ApproximatePatternMatcher matcher;
+        private final long origin;
+        private final boolean backward;
+        private final long rangeEnd;
+        private final MatchListener listener;
+        private final boolean fixedLength;
+
+        private long reportedEnd = -1;
+        private boolean pending = false;
+        private long pendingStart;
+        private long pendingEnd;
+        private int pendingDistance;
+
+        public MatchStream(ApproximatePatternMatcher matcher, long origin, boolean backward, long rangeEnd, MatchListener listener) {
+            this.matcher = matcher;
+            this.origin = origin;
+            this.backward = backward;
+            this.rangeEnd = rangeEnd;
+            this.listener = listener;
+            fixedLength = matcher.getMaxMatchLength() == matcher.getPatternLength();
+        }
+
+        /**
+         * Processes match ending at given index of buffer.
+         *
+         * @return false if listener stopped processing
+         */
+        public boolean matchFound(byte[] buffer, int index, long bufferStart, int distance) {
+            long end = bufferStart + index;
+            if (backward && origin - 1 - end >= rangeEnd) {
+                return true;
+            }
+
+            if (fixedLength) {
+                return report(end - matcher.getPatternLength() + 1, end, distance);
+            }
+
+            if (pending && distance >= pendingDistance && end - matcher.getPatternLength() + distance < pendingEnd) {
+                // Shortest possible match still overlaps pending better match
+                return true;
+            }
+
+            long start = end - matcher.getMatchLength(buffer, 0, index) + 1;
+            if (start <= reportedEnd || (!backward && origin + start >= rangeEnd)) {
+                return true;
+            }
+
+            if (pending && start <= pendingEnd) {
+                if (distance < pendingDistance) {
+                    setPending(start, end, distance);
+                }
+                return true;
+            }
+
+            if (!flush()) {
+                return false;
+            }
+            setPending(start, end, distance);
+            return true;
+        }
+
+        /**
+         * Reports pending match.
+         *
+         * @return false if listener stopped processing
+         */
+        public boolean flush() {
+            if (!pending) {
+                return true;
+            }
+
+            pending = false;
+            return report(pendingStart, pendingEnd, pendingDistance);
+        }
+
+        private void setPending(long start, long end, int distance) {
+            pending = true;
+            pendingStart = start;
+            pendingEnd = end;
+            pendingDistance = distance;
+        }
+
+        private boolean report(long start, long end, int distance) {
+            reportedEnd = end;
+            long position = backward ? origin - 1 - end : origin + start;
+            if (position >= rangeEnd) {
+                return true;
+            }
+
+            return listener.matchFound(position, end - start + 1, distance);
+        }
+    }
+
+    /**
+     * Listener for approximate matches.
+     */
+    @NullMarked
+    public interface MatchListener {
+
+        /**
+         * Reports found match.
+         *
+         * @param position match position
+         * @param length match length in bytes
+         * @param distance distance of match from pattern
+         * @return true to continue scanning
+         */
+        boolean matchFound(long position, long length, int distance);
+
+        /**
+         * Reports position scanning reached after processing chunk of data.
+         *
+         * @param position position
+         */
+        void positionReached(long position);
+
+        /**
+         * Returns true if scanning should be cancelled.
+         *
+         * @return true if cancelled
+         */
+        default boolean isCancelled() {
+            return Thread.interrupted();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service.matcher;
+
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Streaming matcher of binary pattern allowing limited distance.
+ * <p>
+ * Data are passed byte by byte and matcher reports distance of best match
+ * ending at each byte. Implementations keep state of processed data and
+ * cannot be shared between threads.
+ */
+@NullMarked
+public interface ApproximatePatternMatcher {
+
+    /**
+     * Returns length of the searched pattern in bytes.
+     *
+     * @return pattern length
+     */
+    int getPatternLength();
+
+    /**
+     * Returns maximum allowed distance of match.
+     *
+     * @return maximum distance
+     */
+    int getMaxDistance();
+
+    /**
+     * Returns maximum length of match in bytes.
+     *
+     * @return maximum match length
+     */
+    int getMaxMatchLength();
+
+    /**
+     * Resets matcher to state before processing any data.
+     */
+    void reset();
+
+    /**
+     * Processes next byte of data.
+     *
+     * @param value byte value
+     * @return distance of best match ending at processed byte or -1 if there
+     * is no match within maximum distance
+     */
+    int next(byte value);
+
+    /**
+     * Returns length of best match ending at given index of buffer.
+     * <p>
+     * Buffer has to contain processed data preceding match end up to maximum
+     * match length or since the start of processing.
+     *
+     * @param buffer data buffer
+     * @param from first valid position in buffer
+     * @param end index of last byte of match
+     * @return match length
+     */
+    int getMatchLength(byte[] buffer, int from, int end);
+
+    /**
+     * Creates matcher of reversed pattern for processing data backwards.
+     *
+     * @return matcher of reversed pattern
+     */
+    ApproximatePatternMatcher createReversed();
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service.matcher;
+
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Matcher of fixed binary pattern in block of data.
+ * <p>
+ * Implementations are stateless and can be shared between threads.
+ */
+@NullMarked
+public interface BinaryPatternMatcher {
+
+    /**
+     * Returns length of the searched pattern in bytes.
+     *
+     * @return pattern length
+     */
+    int getPatternLength();
+
+    /**
+     * Finds first occurrence of pattern in given range of buffer.
+     *
+     * @param buffer data buffer
+     * @param from first possible match position
+     * @param to end of valid data in buffer (exclusive)
+     * @return match position or -1 if not found
+     */
+    int indexOf(byte[] buffer, int from, int to);
+
+    /**
+     * Finds last occurrence of pattern in given range of buffer.
+     *
+     * @param buffer data buffer
+     * @param from first possible match position
+     * @param to end of valid data in buffer (exclusive)
+     * @return match position or -1 if not found
+     */
+    int lastIndexOf(byte[] buffer, int from, int to);
+}
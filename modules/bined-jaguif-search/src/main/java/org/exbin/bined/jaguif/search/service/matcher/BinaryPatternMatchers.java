@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service.matcher;
+
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Factory for binary pattern matchers.
+ */
+@NullMarked
+public class BinaryPatternMatchers {
+
+    /**
+     * Patterns up to this length are searched by first byte scanning, where
+     * shift tables cannot outperform it.
+     */
+    public static final int SHORT_PATTERN_LENGTH = 4;
+
+    private BinaryPatternMatchers() {
+    }
+
+    /**
+     * Creates matcher most suitable for given pattern.
+     *
+     * @param pattern pattern
+     * @return matcher
+     */
+    public static BinaryPatternMatcher createMatcher(byte[] pattern) {
+        if (pattern.length <= SHORT_PATTERN_LENGTH) {
+            return new FirstByteScanMatcher(pattern);
+        }
+
+        return new HorspoolMatcher(pattern);
+    }
+
+    /**
+     * Creates matcher for pattern with wildcards.
+     *
+     * @param pattern masked pattern
+     * @return matcher
+     */
+    public static BinaryPatternMatcher createMatcher(MaskedBinaryPattern pattern) {
+        if (pattern.isExact()) {
+            return createMatcher(pattern.getValues());
+        }
+
+        return new MaskedPatternMatcher(pattern);
+    }
+}
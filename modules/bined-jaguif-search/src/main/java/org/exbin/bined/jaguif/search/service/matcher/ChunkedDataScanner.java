@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service.matcher;
+
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Scanner of binary data for pattern occurrences.
+ * <p>
+ * Data are read in bulk chunks overlapping by pattern length - 1 bytes, so
+ * that no match crossing chunk boundary is missed.
+ */
+@NullMarked
+public class ChunkedDataScanner {
+
+    public static final int DEFAULT_CHUNK_SIZE = 256 * 1024;
+
+    private final int chunkSize;
+
+    public ChunkedDataScanner() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    public ChunkedDataScanner(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Scans data for matches in forward direction.
+     *
+     * @param data data to scan
+     * @param matcher pattern matcher
+     * @param rangeStart lowest match position
+     * @param rangeEnd highest match position (exclusive)
+     * @param listener scan listener
+     * @return true if scan finished, false if it was cancelled
+     */
+    public boolean scanForward(BinaryData data, BinaryPatternMatcher matcher, long rangeStart, long rangeEnd, ScanListener listener) {
+        int patternLength = matcher.getPatternLength();
+        long startPosition = Math.max(0, rangeStart);
+        long endPosition = Math.min(rangeEnd, data.getDataSize() - patternLength + 1);
+        if (startPosition >= endPosition) {
+            return true;
+        }
+
+        byte[] buffer = allocateBuffer(patternLength, endPosition - startPosition);
+        long chunkStart = startPosition;
+        while (chunkStart < endPosition) {
+            if (listener.isCancelled()) {
+                return false;
+            }
+
+            long chunkEnd = Math.min(endPosition + patternLength - 1, chunkStart + buffer.length);
+            int length = (int) (chunkEnd - chunkStart);
+            readChunk(data, chunkStart, buffer, length);
+            int index = matcher.indexOf(buffer, 0, length);
+            while (index >= 0) {
+                if (!listener.matchFound(chunkStart + index)) {
+                    return true;
+                }
+                index = matcher.indexOf(buffer, index + 1, length);
+            }
+
+            chunkStart = chunkEnd - patternLength + 1;
+            listener.positionReached(chunkStart);
+        }
+
+        return true;
+    }
+
+    /**
+     * Scans data for matches in backward direction.
+     *
+     * @param data data to scan
+     * @param matcher pattern matcher
+     * @param rangeStart lowest match position
+     * @param rangeEnd highest match position (exclusive)
+     * @param listener scan listener
+     * @return true if scan finished, false if it was cancelled
+     */
+    public boolean scanBackward(BinaryData data, BinaryPatternMatcher matcher, long rangeStart, long rangeEnd, ScanListener listener) {
+        int patternLength = matcher.getPatternLength();
+        long startPosition = Math.max(0, rangeStart);
+        long endPosition = Math.min(rangeEnd, data.getDataSize() - patternLength + 1);
+        if (startPosition >= endPosition) {
+            return true;
+        }
+
+        byte[] buffer = allocateBuffer(patternLength, endPosition - startPosition);
+        long chunkEnd = endPosition + patternLength - 1;
+        while (chunkEnd - patternLength + 1 > startPosition) {
+            if (listener.isCancelled()) {
+                return false;
+            }
+
+            long chunkStart = Math.max(startPosition, chunkEnd - buffer.length);
+            int length = (int) (chunkEnd - chunkStart);
+            readChunk(data, chunkStart, buffer, length);
+            int index = matcher.lastIndexOf(buffer, 0, length);
+            while (index >= 0) {
+                if (!listener.matchFound(chunkStart + index)) {
+                    return true;
+                }
+                index = index == 0 ? -1 : matcher.lastIndexOf(buffer, 0, index - 1 + patternLength);
+            }
+
+            chunkEnd = chunkStart + patternLength - 1;
+            listener.positionReached(chunkStart);
+        }
+
+        return true;
+    }
+
+    /**
+     * Reads chunk of data into buffer.
+     *
+     * @param data source data
+     * @param position chunk position
+     * @param buffer target buffer
+     * @param length chunk length
+     */
+    protected void readChunk(BinaryData data, long position, byte[] buffer, int length) {
+        data.copyToArray(position, buffer, 0, length);
+    }
+
+    private byte[] allocateBuffer(int patternLength, long positionsCount) {
+        long bufferSize = Math.max(chunkSize, 2L * patternLength);
+        return new byte[(int) Math.min(bufferSize, positionsCount + patternLength - 1)];
+    }
+
+    /**
+     * Listener for scanning events.
+     */
+    @NullMarked
+    public interface ScanListener {
+
+        /**
+         * Reports found match.
+         *
+         * @param position match position
+         * @return true to continue scanning
+         */
+        boolean matchFound(long position);
+
+        /**
+         * Reports position scanning reached after processing chunk of data.
+         *
+         * @param position position
+         */
+        void positionReached(long position);
+
+        /**
+         * Returns true if scanning should be cancelled.
+         * <p>
+         * Checked once per chunk, default implementation checks interruption
+         * of current thread.
+         *
+         * @return true if cancelled
+         */
+        default boolean isCancelled() {
+            return Thread.interrupted();
+        }
+    }
+}
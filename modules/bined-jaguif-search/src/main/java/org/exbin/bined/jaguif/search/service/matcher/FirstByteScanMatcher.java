@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service.matcher;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Matcher for short patterns scanning for the first byte of pattern.
+ * <p>
+ * Candidates are located eight bytes at a time using SWAR (SIMD within a
+ * register) byte comparison and verified afterwards.
+ */
+@NullMarked
+public class FirstByteScanMatcher implements BinaryPatternMatcher {
+
+    private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+    private static final long BYTE_MULTIPLIER = 0x0101010101010101L;
+
+    private final byte[] pattern;
+    private final long firstByteMask;
+
+    public FirstByteScanMatcher(byte[] pattern) {
+        if (pattern.length == 0) {
+            throw new IllegalArgumentException("Pattern cannot be empty");
+        }
+
+        this.pattern = pattern;
+        firstByteMask = BYTE_MULTIPLIER * (pattern[0] & 0xff);
+    }
+
+    @Override
+    public int getPatternLength() {
+        return pattern.length;
+    }
+
+    @Override
+    public int indexOf(byte[] buffer, int from, int to) {
+        int limit = to - pattern.length;
+        if (from > limit) {
+            return -1;
+        }
+
+        ByteBuffer wordBuffer = ByteBuffer.wrap(buffer).order(ByteOrder.LITTLE_ENDIAN);
+        int position = from;
+        while (position + Long.BYTES <= to) {
+            long found = findFirstByte(wordBuffer.getLong(position));
+            while (found != 0) {
+                int candidate = position + (Long.numberOfTrailingZeros(found) >>> 3);
+                if (candidate > limit) {
+                    return -1;
+                }
+                if (matchesAt(buffer, candidate)) {
+                    return candidate;
+                }
+                found &= found - 1;
+            }
+            position += Long.BYTES;
+        }
+
+        while (position <= limit) {
+            if (buffer[position] == pattern[0] && matchesAt(buffer, position)) {
+                return position;
+            }
+            position++;
+        }
+
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(byte[] buffer, int from, int to) {
+        int limit = to - pattern.length;
+        if (from > limit) {
+            return -1;
+        }
+
+        ByteBuffer wordBuffer = ByteBuffer.wrap(buffer).order(ByteOrder.LITTLE_ENDIAN);
+        // Word end is aligned to last candidate position so that no candidates are skipped
+        int wordEnd = limit + 1;
+        while (wordEnd - Long.BYTES >= from) {
+            int wordStart = wordEnd - Long.BYTES;
+            long found = findFirstByte(wordBuffer.getLong(wordStart));
+            while (found != 0) {
+                int highestBit = 63 - Long.numberOfLeadingZeros(found);
+                int candidate = wordStart + (highestBit >>> 3);
+                if (matchesAt(buffer, candidate)) {
+                    return candidate;
+                }
+                found &= ~(1L << highestBit);
+            }
+            wordEnd = wordStart;
+        }
+
+        int position = wordEnd - 1;
+        while (position >= from) {
+            if (buffer[position] == pattern[0] && matchesAt(buffer, position)) {
+                return position;
+            }
+            position--;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns word with highest bit set in each byte equal to the first byte
+     * of pattern.
+     *
+     * @param word data word
+     * @return matching bytes mask
+     */
+    private long findFirstByte(long word) {
+        long difference = word ^ firstByteMask;
+        long result = (difference & LOW_BITS) + LOW_BITS;
+        return ~(result | difference | LOW_BITS);
+    }
+
+    private boolean matchesAt(byte[] buffer, int position) {
+        for (int i = 1; i < pattern.length; i++) {
+            if (buffer[position + i] != pattern[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
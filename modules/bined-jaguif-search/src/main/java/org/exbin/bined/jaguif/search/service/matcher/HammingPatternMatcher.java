@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service.matcher;
+
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Matcher of binary pattern allowing limited number of mismatching bytes.
+ * <p>
+ * Uses bit-parallel Shift-And automaton extended by Wu and Manber with one
+ * state vector per allowed mismatch count. Patterns longer than 64 bytes are
+ * split into multiple words.
+ */
+@NullMarked
+public class HammingPatternMatcher implements ApproximatePatternMatcher {
+
+    private static final int ALPHABET_SIZE = 256;
+
+    private final byte[] pattern;
+    private final int maxDistance;
+    private final int wordsCount;
+    private final long matchBit;
+    private final long[][] byteMasks;
+    private final long[][] states;
+
+    public HammingPatternMatcher(byte[] pattern, int maxDistance) {
+        if (pattern.length == 0) {
+            throw new IllegalArgumentException("Pattern cannot be empty");
+        }
+        if (maxDistance < 0 || maxDistance >= pattern.length) {
+            throw new IllegalArgumentException("Maximum distance must be between 0 and pattern length - 1");
+        }
+
+        this.pattern = pattern;
+        this.maxDistance = maxDistance;
+        wordsCount = (pattern.length + 63) / 64;
+        matchBit = 1L << ((pattern.length - 1) & 63);
+        byteMasks = new long[ALPHABET_SIZE][wordsCount];
+        for (int i = 0; i < pattern.length; i++) {
+            byteMasks[pattern[i] & 0xff][i / 64] |= 1L << (i & 63);
+        }
+        states = new long[maxDistance + 1][wordsCount];
+    }
+
+    @Override
+    public int getPatternLength() {
+        return pattern.length;
+    }
+
+    @Override
+    public int getMaxDistance() {
+        return maxDistance;
+    }
+
+    @Override
+    public int getMaxMatchLength() {
+        return pattern.length;
+    }
+
+    @Override
+    public void reset() {
+        for (long[] state : states) {
+            for (int word = 0; word < wordsCount; word++) {
+                state[word] = 0;
+            }
+        }
+    }
+
+    @Override
+    public int next(byte value) {
+        long[] byteMask = byteMasks[value & 0xff];
+        // Levels are updated from highest, so that lower level holds previous state
+        for (int level = maxDistance; level >= 0; level--) {
+            long[] state = states[level];
+            long[] lowerState = level == 0 ? null : states[level - 1];
+            long carry = 1;
+            long lowerCarry = 1;
+            for (int word = 0; word < wordsCount; word++) {
+                long current = state[word];
+                long shifted = (current << 1) | carry;
+                carry = current >>> 63;
+                long updated = shifted & byteMask[word];
+                if (lowerState != null) {
+                    long lower = lowerState[word];
+                    updated |= (lower << 1) | lowerCarry;
+                    lowerCarry = lower >>> 63;
+                }
+                state[word] = updated;
+            }
+        }
+
+        int lastWord = wordsCount - 1;
+        for (int level = 0; level <= maxDistance; level++) {
+            if ((states[level][lastWord] & matchBit) != 0) {
+                return level;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int getMatchLength(byte[] buffer, int from, int end) {
+        return pattern.length;
+    }
+
+    @Override
+    public ApproximatePatternMatcher createReversed() {
+        byte[] reversedPattern = new byte[pattern.length];
+        for (int i = 0; i < pattern.length; i++) {
+            reversedPattern[i] = pattern[pattern.length - 1 - i];
+        }
+        return new HammingPatternMatcher(reversedPattern, maxDistance);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service.matcher;
+
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Boyer-Moore-Horspool matcher for longer patterns.
+ * <p>
+ * Uses bad character shift table for both directions, so that backward search
+ * is sublinear as well.
+ */
+@NullMarked
+public class HorspoolMatcher implements BinaryPatternMatcher {
+
+    private static final int ALPHABET_SIZE = 256;
+
+    private final byte[] pattern;
+    private final int[] forwardShift = new int[ALPHABET_SIZE];
+    private final int[] backwardShift = new int[ALPHABET_SIZE];
+
+    public HorspoolMatcher(byte[] pattern) {
+        if (pattern.length == 0) {
+            throw new IllegalArgumentException("Pattern cannot be empty");
+        }
+
+        this.pattern = pattern;
+        int patternLength = pattern.length;
+        for (int i = 0; i < ALPHABET_SIZE; i++) {
+            forwardShift[i] = patternLength;
+            backwardShift[i] = patternLength;
+        }
+        for (int i = 0; i < patternLength - 1; i++) {
+            forwardShift[pattern[i] & 0xff] = patternLength - 1 - i;
+        }
+        for (int i = patternLength - 1; i > 0; i--) {
+            backwardShift[pattern[i] & 0xff] = i;
+        }
+    }
+
+    @Override
+    public int getPatternLength() {
+        return pattern.length;
+    }
+
+    @Override
+    public int indexOf(byte[] buffer, int from, int to) {
+        int lastIndex = pattern.length - 1;
+        byte lastByte = pattern[lastIndex];
+        int limit = to - pattern.length;
+        int position = from;
+        while (position <= limit) {
+            byte value = buffer[position + lastIndex];
+            if (value == lastByte && matchesAt(buffer, position, 0, lastIndex)) {
+                return position;
+            }
+            position += forwardShift[value & 0xff];
+        }
+
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(byte[] buffer, int from, int to) {
+        byte firstByte = pattern[0];
+        int position = to - pattern.length;
+        while (position >= from) {
+            byte value = buffer[position];
+            if (value == firstByte && matchesAt(buffer, position, 1, pattern.length)) {
+                return position;
+            }
+            position -= backwardShift[value & 0xff];
+        }
+
+        return -1;
+    }
+
+    private boolean matchesAt(byte[] buffer, int position, int startIndex, int endIndex) {
+        for (int i = startIndex; i < endIndex; i++) {
+            if (buffer[position + i] != pattern[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
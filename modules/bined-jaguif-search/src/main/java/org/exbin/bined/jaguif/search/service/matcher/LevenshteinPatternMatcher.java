@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service.matcher;
+
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Matcher of binary pattern allowing limited number of inserted, deleted or
+ * substituted bytes.
+ * <p>
+ * Uses Myers bit-vector algorithm computing column of edit distance matrix
+ * per processed byte. Patterns longer than 64 bytes are processed in blocks
+ * as described by Hyyrö. Match start is found afterwards by dynamic
+ * programming over reversed pattern limited to maximum match length.
+ */
+@NullMarked
+public class LevenshteinPatternMatcher implements ApproximatePatternMatcher {
+
+    private static final int ALPHABET_SIZE = 256;
+    private static final long HIGH_BIT = 1L << 63;
+
+    private final byte[] pattern;
+    private final int maxDistance;
+    private final int blocksCount;
+    private final long lastBit;
+    private final long[][] byteMasks;
+    private final long[] positiveVectors;
+    private final long[] negativeVectors;
+    private final int[] previousRow;
+    private final int[] currentRow;
+    private int score;
+
+    public LevenshteinPatternMatcher(byte[] pattern, int maxDistance) {
+        if (pattern.length == 0) {
+            throw new IllegalArgumentException("Pattern cannot be empty");
+        }
+        if (maxDistance < 0 || maxDistance >= pattern.length) {
+            throw new IllegalArgumentException("Maximum distance must be between 0 and pattern length - 1");
+        }
+
+        this.pattern = pattern;
+        this.maxDistance = maxDistance;
+        blocksCount = (pattern.length + 63) / 64;
+        lastBit = 1L << ((pattern.length - 1) & 63);
+        byteMasks = new long[ALPHABET_SIZE][blocksCount];
+        for (int i = 0; i < pattern.length; i++) {
+            byteMasks[pattern[i] & 0xff][i / 64] |= 1L << (i & 63);
+        }
+        positiveVectors = new long[blocksCount];
+        negativeVectors = new long[blocksCount];
+        previousRow = new int[pattern.length + maxDistance + 1];
+        currentRow = new int[pattern.length + maxDistance + 1];
+        reset();
+    }
+
+    @Override
+    public int getPatternLength() {
+        return pattern.length;
+    }
+
+    @Override
+    public int getMaxDistance() {
+        return maxDistance;
+    }
+
+    @Override
+    public int getMaxMatchLength() {
+        return pattern.length + maxDistance;
+    }
+
+    @Override
+    public void reset() {
+        for (int block = 0; block < blocksCount; block++) {
+            positiveVectors[block] = -1L;
+            negativeVectors[block] = 0;
+        }
+        score = pattern.length;
+    }
+
+    @Override
+    public int next(byte value) {
+        long[] byteMask = byteMasks[value & 0xff];
+        // Match can start anywhere, so first row of matrix is zero
+        int horizontalIn = 0;
+        int lastBlock = blocksCount - 1;
+        for (int block = 0; block <= lastBlock; block++) {
+            long equal = byteMask[block];
+            long positive = positiveVectors[block];
+            long negative = negativeVectors[block];
+            long verticalChange = equal | negative;
+            if (horizontalIn < 0) {
+                equal |= 1;
+            }
+            long horizontalChange = (((equal & positive) + positive) ^ positive) | equal;
+            long horizontalPositive = negative | ~(horizontalChange | positive);
+            long horizontalNegative = positive & horizontalChange;
+
+            long outputBit = block == lastBlock ? lastBit : HIGH_BIT;
+            int horizontalOut = (horizontalPositive & outputBit) != 0 ? 1 : ((horizontalNegative & outputBit) != 0 ? -1 : 0);
+
+            horizontalPositive <<= 1;
+            horizontalNegative <<= 1;
+            if (horizontalIn < 0) {
+                horizontalNegative |= 1;
+            } else if (horizontalIn > 0) {
+                horizontalPositive |= 1;
+            }
+            positiveVectors[block] = horizontalNegative | ~(verticalChange | horizontalPositive);
+            negativeVectors[block] = horizontalPositive & verticalChange;
+            horizontalIn = horizontalOut;
+        }
+        score += horizontalIn;
+
+        return score <= maxDistance ? score : -1;
+    }
+
+    @Override
+    public int getMatchLength(byte[] buffer, int from, int end) {
+        int patternLength = pattern.length;
+        int windowLength = Math.min(end - from + 1, patternLength + maxDistance);
+        // Distances between pattern suffixes and data ending at match end
+        int[] previous = previousRow;
+        int[] current = currentRow;
+        for (int length = 0; length <= windowLength; length++) {
+            previous[length] = length;
+        }
+        for (int suffix = 1; suffix <= patternLength; suffix++) {
+            byte patternByte = pattern[patternLength - suffix];
+            current[0] = suffix;
+            for (int length = 1; length <= windowLength; length++) {
+                int substitution = previous[length - 1] + (buffer[end - length + 1] == patternByte ? 0 : 1);
+                int deletion = previous[length] + 1;
+                int insertion = current[length - 1] + 1;
+                current[length] = Math.min(substitution, Math.min(deletion, insertion));
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+
+        // Length closest to pattern length is preferred among best matches
+        int bestLength = windowLength;
+        for (int length = windowLength - 1; length > 0; length--) {
+            int distance = previous[length];
+            int bestDistance = previous[bestLength];
+            if (distance < bestDistance || (distance == bestDistance && Math.abs(length - patternLength) < Math.abs(bestLength - patternLength))) {
+                bestLength = length;
+            }
+        }
+        return bestLength;
+    }
+
+    @Override
+    public ApproximatePatternMatcher createReversed() {
+        byte[] reversedPattern = new byte[pattern.length];
+        for (int i = 0; i < pattern.length; i++) {
+            reversedPattern[i] = pattern[pattern.length - 1 - i];
+        }
+        return new LevenshteinPatternMatcher(reversedPattern, maxDistance);
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service.matcher;
+
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Binary pattern with mask of compared bits.
+ * <p>
+ * Textual form consists of hexadecimal bytes where any nibble can be
+ * replaced by wildcard {@code ?}, for example {@code 4D 5A ?? ?? 50 45} or
+ * {@code A? ?F}. Single byte can be also specified by eight bits in square
+ * brackets where any bit can be wildcard, for example {@code [01??1???]}.
+ * Whitespace is allowed between bytes.
+ */
+@NullMarked
+public class MaskedBinaryPattern {
+
+    public static final char WILDCARD = '?';
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    private final byte[] values;
+    private final byte[] masks;
+
+    /**
+     * Creates pattern.
+     *
+     * @param values byte values, bits outside of mask are ignored
+     * @param masks masks of compared bits
+     */
+    public MaskedBinaryPattern(byte[] values, byte[] masks) {
+        if (values.length != masks.length) {
+            throw new IllegalArgumentException("Values and masks length differ");
+        }
+        if (values.length == 0) {
+            throw new IllegalArgumentException("Pattern cannot be empty");
+        }
+
+        this.values = new byte[values.length];
+        this.masks = masks.clone();
+        for (int i = 0; i < values.length; i++) {
+            this.values[i] = (byte) (values[i] & masks[i]);
+        }
+    }
+
+    /**
+     * Parses pattern from textual form.
+     *
+     * @param text textual form of pattern
+     * @return pattern
+     * @throws IllegalArgumentException if text is not valid pattern
+     */
+    public static MaskedBinaryPattern parse(String text) {
+        int textLength = text.length();
+        byte[] values = new byte[(textLength + 1) / 2];
+        byte[] masks = new byte[values.length];
+        int length = 0;
+        int nibbles = 0;
+        int value = 0;
+        int mask = 0;
+        int position = 0;
+        while (position < textLength) {
+            char character = text.charAt(position);
+            if (Character.isWhitespace(character)) {
+                if (nibbles == 1) {
+                    throw new IllegalArgumentException("Incomplete byte at position " + position);
+                }
+                position++;
+                continue;
+            }
+
+            if (character == '[') {
+                if (nibbles == 1) {
+                    throw new IllegalArgumentException("Incomplete byte at position " + position);
+                }
+                int groupEnd = position + 9;
+                if (groupEnd >= textLength || text.charAt(groupEnd) != ']') {
+                    throw new IllegalArgumentException("Bit group must have 8 bits at position " + position);
+                }
+                int bitsValue = 0;
+                int bitsMask = 0;
+                for (int i = position + 1; i < groupEnd; i++) {
+                    char bit = text.charAt(i);
+                    bitsValue <<= 1;
+                    bitsMask <<= 1;
+                    if (bit == '0' || bit == '1') {
+                        bitsValue |= bit - '0';
+                        bitsMask |= 1;
+                    } else if (bit != WILDCARD) {
+                        throw new IllegalArgumentException("Invalid bit '" + bit + "' at position " + i);
+                    }
+                }
+                values[length] = (byte) bitsValue;
+                masks[length] = (byte) bitsMask;
+                length++;
+                position = groupEnd + 1;
+                continue;
+            }
+
+            value <<= 4;
+            mask <<= 4;
+            if (character != WILDCARD) {
+                int digit = Character.digit(character, 16);
+                if (digit < 0) {
+                    throw new IllegalArgumentException("Invalid character '" + character + "' at position " + position);
+                }
+                value |= digit;
+                mask |= 0xf;
+            }
+            nibbles++;
+            if (nibbles == 2) {
+                values[length] = (byte) value;
+                masks[length] = (byte) mask;
+                length++;
+                nibbles = 0;
+                value = 0;
+                mask = 0;
+            }
+            position++;
+        }
+
+        if (nibbles == 1) {
+            throw new IllegalArgumentException("Incomplete byte at position " + textLength);
+        }
+        if (length == 0) {
+            throw new IllegalArgumentException("Pattern cannot be empty");
+        }
+
+        byte[] patternValues = new byte[length];
+        byte[] patternMasks = new byte[length];
+        System.arraycopy(values, 0, patternValues, 0, length);
+        System.arraycopy(masks, 0, patternMasks, 0, length);
+        return new MaskedBinaryPattern(patternValues, patternMasks);
+    }
+
+    public int getLength() {
+        return values.length;
+    }
+
+    /**
+     * Returns values of pattern bytes with bits outside of mask cleared.
+     *
+     * @param index byte index
+     * @return byte value
+     */
+    public byte getValue(int index) {
+        return values[index];
+    }
+
+    public byte getMask(int index) {
+        return masks[index];
+    }
+
+    /**
+     * Returns values of bytes as exact pattern.
+     *
+     * @return byte values
+     */
+    public byte[] getValues() {
+        return values.clone();
+    }
+
+    /**
+     * Returns true if pattern has no wildcards.
+     *
+     * @return true if all bits are compared
+     */
+    public boolean isExact() {
+        for (byte mask : masks) {
+            if (mask != (byte) 0xff) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns number of bytes without any wildcard.
+     *
+     * @return fixed bytes count
+     */
+    public int getFixedBytesCount() {
+        int count = 0;
+        for (byte mask : masks) {
+            if (mask == (byte) 0xff) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns true if given byte matches pattern byte.
+     *
+     * @param index pattern byte index
+     * @param data data byte
+     * @return true if matches
+     */
+    public boolean matches(int index, byte data) {
+        return (data & masks[index]) == values[index];
+    }
+
+    /**
+     * Returns true if part of pattern matches data in buffer.
+     *
+     * @param buffer data buffer
+     * @param position position in buffer corresponding to pattern offset
+     * @param offset pattern offset
+     * @param length compared length
+     * @return true if matches
+     */
+    public boolean matches(byte[] buffer, int position, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            int index = offset + i;
+            if ((buffer[position + i] & masks[index]) != values[index]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                builder.append(' ');
+            }
+            int value = values[i] & 0xff;
+            int mask = masks[i] & 0xff;
+            int highMask = mask >> 4;
+            int lowMask = mask & 0xf;
+            if ((highMask == 0 || highMask == 0xf) && (lowMask == 0 || lowMask == 0xf)) {
+                builder.append(highMask == 0 ? WILDCARD : HEX_DIGITS[value >> 4]);
+                builder.append(lowMask == 0 ? WILDCARD : HEX_DIGITS[value & 0xf]);
+            } else {
+                builder.append('[');
+                for (int bit = 7; bit >= 0; bit--) {
+                    builder.append(((mask >> bit) & 1) == 0 ? WILDCARD : (char) ('0' + ((value >> bit) & 1)));
+                }
+                builder.append(']');
+            }
+        }
+
+        return builder.toString();
+    }
+}
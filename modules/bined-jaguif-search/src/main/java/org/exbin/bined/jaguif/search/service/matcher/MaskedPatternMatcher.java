@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service.matcher;
+
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Matcher of binary pattern with wildcard bits.
+ * <p>
+ * Uses bit-parallel Shift-And algorithm, which processes each byte of data
+ * once regardless of wildcards. Patterns longer than 64 bytes are matched
+ * by their first (or last for backward search) 64 bytes and the rest of
+ * pattern is verified afterwards.
+ */
+@NullMarked
+public class MaskedPatternMatcher implements BinaryPatternMatcher {
+
+    public static final int MAX_STATE_LENGTH = Long.SIZE;
+
+    private final MaskedBinaryPattern pattern;
+    private final int patternLength;
+    private final int stateLength;
+    private final long acceptBit;
+    private final long[] forwardMasks = new long[256];
+    private final long[] backwardMasks = new long[256];
+
+    public MaskedPatternMatcher(MaskedBinaryPattern pattern) {
+        this.pattern = pattern;
+        patternLength = pattern.getLength();
+        stateLength = Math.min(patternLength, MAX_STATE_LENGTH);
+        acceptBit = 1L << (stateLength - 1);
+        for (int value = 0; value < 256; value++) {
+            long forwardMask = 0;
+            long backwardMask = 0;
+            for (int i = 0; i < stateLength; i++) {
+                if (pattern.matches(i, (byte) value)) {
+                    forwardMask |= 1L << i;
+                }
+                if (pattern.matches(patternLength - 1 - i, (byte) value)) {
+                    backwardMask |= 1L << i;
+                }
+            }
+            forwardMasks[value] = forwardMask;
+            backwardMasks[value] = backwardMask;
+        }
+    }
+
+    @Override
+    public int getPatternLength() {
+        return patternLength;
+    }
+
+    @Override
+    public int indexOf(byte[] buffer, int from, int to) {
+        int limit = to - patternLength;
+        if (from > limit) {
+            return -1;
+        }
+
+        long state = 0;
+        int scanEnd = limit + stateLength;
+        for (int position = from; position < scanEnd; position++) {
+            state = ((state << 1) | 1) & forwardMasks[buffer[position] & 0xff];
+            if ((state & acceptBit) != 0) {
+                int start = position - stateLength + 1;
+                if (stateLength == patternLength || pattern.matches(buffer, position + 1, stateLength, patternLength - stateLength)) {
+                    return start;
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(byte[] buffer, int from, int to) {
+        int limit = to - patternLength;
+        if (from > limit) {
+            return -1;
+        }
+
+        long state = 0;
+        int prefixLength = patternLength - stateLength;
+        int scanEnd = from + prefixLength;
+        for (int position = to - 1; position >= scanEnd; position--) {
+            state = ((state << 1) | 1) & backwardMasks[buffer[position] & 0xff];
+            if ((state & acceptBit) != 0) {
+                int start = position - prefixLength;
+                if (prefixLength == 0 || pattern.matches(buffer, start, 0, prefixLength)) {
+                    return start;
+                }
+            }
+        }
+
+        return -1;
+    }
+}
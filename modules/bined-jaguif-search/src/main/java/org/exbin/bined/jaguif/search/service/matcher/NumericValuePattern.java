@@ -0,0 +1,426 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service.matcher;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Locale;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Pattern of numeric values of fixed width type.
+ * <p>
+ * Textual form is {@code type[le|be] condition [stride n] [offset n]}, where
+ * type is one of {@code i8, u8, i16, u16, i32, u32, i64, u64, f32, f64} with
+ * optional byte order suffix, little endian is default. Condition is single
+ * value, inclusive range {@code min..max} or value with tolerance
+ * {@code value~tolerance}, for example {@code i32le 1000..2000} or
+ * {@code f32 3.14159~1e-5}. Integer values are decimal or hexadecimal with 0x
+ * prefix. Values are matched at positions aligned to stride relative to
+ * offset, stride defaults to width of type.
+ */
+@NullMarked
+public class NumericValuePattern {
+
+    public static final String LITTLE_ENDIAN_SUFFIX = "le";
+    public static final String BIG_ENDIAN_SUFFIX = "be";
+    public static final String STRIDE_KEYWORD = "stride";
+    public static final String OFFSET_KEYWORD = "offset";
+    public static final String RANGE_SEPARATOR = "..";
+    public static final char TOLERANCE_SEPARATOR = '~';
+
+    private final ValueType valueType;
+    private final ByteOrder byteOrder;
+    private final int stride;
+    private final long offset;
+    private final long minValue;
+    private final long maxValue;
+    private final double minFloatValue;
+    private final double maxFloatValue;
+
+    private NumericValuePattern(ValueType valueType, ByteOrder byteOrder, int stride, long offset, long minValue, long maxValue, double minFloatValue, double maxFloatValue) {
+        this.valueType = valueType;
+        this.byteOrder = byteOrder;
+        this.stride = stride;
+        this.offset = offset;
+        this.minValue = minValue;
+        this.maxValue = maxValue;
+        this.minFloatValue = minFloatValue;
+        this.maxFloatValue = maxFloatValue;
+    }
+
+    /**
+     * Creates pattern for range of integer values.
+     * <p>
+     * Range is clamped to bounds of type, unsigned 64-bit values are passed
+     * as bits of unsigned value.
+     *
+     * @param valueType integer value type
+     * @param byteOrder byte order
+     * @param minValue lowest matching value
+     * @param maxValue highest matching value
+     * @param stride distance of matched positions
+     * @param offset position of matched positions alignment
+     * @return pattern
+     * @throws IllegalArgumentException if parameters are not valid
+     */
+    public static NumericValuePattern createIntegerRange(ValueType valueType, ByteOrder byteOrder, long minValue, long maxValue, int stride, long offset) {
+        if (valueType.isFloatingPoint()) {
+            throw new IllegalArgumentException("Type " + valueType.getCode() + " is not integer type");
+        }
+        BigInteger min = valueType == ValueType.UINT64 ? toUnsignedBigInteger(minValue) : BigInteger.valueOf(minValue);
+        BigInteger max = valueType == ValueType.UINT64 ? toUnsignedBigInteger(maxValue) : BigInteger.valueOf(maxValue);
+        return createIntegerRange(valueType, byteOrder, min, max, stride, offset);
+    }
+
+    /**
+     * Creates pattern for range of floating point values.
+     *
+     * @param valueType floating point value type
+     * @param byteOrder byte order
+     * @param minValue lowest matching value
+     * @param maxValue highest matching value
+     * @param stride distance of matched positions
+     * @param offset position of matched positions alignment
+     * @return pattern
+     * @throws IllegalArgumentException if parameters are not valid
+     */
+    public static NumericValuePattern createFloatRange(ValueType valueType, ByteOrder byteOrder, double minValue, double maxValue, int stride, long offset) {
+        if (!valueType.isFloatingPoint()) {
+            throw new IllegalArgumentException("Type " + valueType.getCode() + " is not floating point type");
+        }
+        if (Double.isNaN(minValue) || Double.isNaN(maxValue)) {
+            throw new IllegalArgumentException("NaN cannot be searched for");
+        }
+        if (minValue > maxValue) {
+            throw new IllegalArgumentException("Range minimum is greater than maximum");
+        }
+        checkAlignment(stride, offset);
+
+        return new NumericValuePattern(valueType, byteOrder, stride, offset, 0, 0, minValue, maxValue);
+    }
+
+    /**
+     * Parses pattern from textual form.
+     *
+     * @param text textual form of pattern
+     * @return pattern
+     * @throws IllegalArgumentException if text is not valid pattern
+     */
+    public static NumericValuePattern parse(String text) {
+        String[] tokens = text.trim().split("\\s+");
+        if (tokens.length == 0 || tokens[0].isEmpty()) {
+            throw new IllegalArgumentException("Pattern cannot be empty");
+        }
+
+        String typeToken = tokens[0].toLowerCase(Locale.ROOT);
+        ByteOrder byteOrder = ByteOrder.LITTLE_ENDIAN;
+        if (typeToken.endsWith(LITTLE_ENDIAN_SUFFIX)) {
+            typeToken = typeToken.substring(0, typeToken.length() - LITTLE_ENDIAN_SUFFIX.length());
+        } else if (typeToken.endsWith(BIG_ENDIAN_SUFFIX)) {
+            typeToken = typeToken.substring(0, typeToken.length() - BIG_ENDIAN_SUFFIX.length());
+            byteOrder = ByteOrder.BIG_ENDIAN;
+        }
+        ValueType valueType = ValueType.findByCode(typeToken);
+        if (valueType == null) {
+            throw new IllegalArgumentException("Unknown value type " + tokens[0]);
+        }
+
+        StringBuilder condition = new StringBuilder();
+        int stride = valueType.getLength();
+        long offset = 0;
+        boolean alignmentSpecified = false;
+        int index = 1;
+        while (index < tokens.length) {
+            String token = tokens[index].toLowerCase(Locale.ROOT);
+            if (STRIDE_KEYWORD.equals(token) || OFFSET_KEYWORD.equals(token)) {
+                if (index + 1 == tokens.length) {
+                    throw new IllegalArgumentException("Missing value of " + token);
+                }
+                long value = parseInteger(tokens[index + 1]).longValue();
+                if (STRIDE_KEYWORD.equals(token)) {
+                    if (value <= 0 || value > Integer.MAX_VALUE) {
+                        throw new IllegalArgumentException("Invalid stride " + tokens[index + 1]);
+                    }
+                    stride = (int) value;
+                } else {
+                    offset = value;
+                }
+                alignmentSpecified = true;
+                index += 2;
+                continue;
+            }
+            if (alignmentSpecified) {
+                throw new IllegalArgumentException("Unexpected " + tokens[index]);
+            }
+            condition.append(tokens[index]);
+            index++;
+        }
+        if (condition.length() == 0) {
+            throw new IllegalArgumentException("Missing value");
+        }
+
+        String conditionText = condition.toString();
+        String minText;
+        String maxText;
+        String toleranceText = null;
+        int rangeSeparator = conditionText.indexOf(RANGE_SEPARATOR);
+        int toleranceSeparator = conditionText.indexOf(TOLERANCE_SEPARATOR);
+        if (rangeSeparator >= 0) {
+            minText = conditionText.substring(0, rangeSeparator);
+            maxText = conditionText.substring(rangeSeparator + RANGE_SEPARATOR.length());
+        } else if (toleranceSeparator >= 0) {
+            minText = conditionText.substring(0, toleranceSeparator);
+            maxText = minText;
+            toleranceText = conditionText.substring(toleranceSeparator + 1);
+        } else {
+            minText = conditionText;
+            maxText = conditionText;
+        }
+
+        if (valueType.isFloatingPoint()) {
+            double minValue = parseFloat(minText);
+            double maxValue = parseFloat(maxText);
+            if (rangeSeparator < 0 && toleranceText == null && valueType == ValueType.FLOAT32) {
+                // Exact value is compared in precision of the type
+                minValue = (float) minValue;
+                maxValue = minValue;
+            }
+            if (toleranceText != null) {
+                double tolerance = parseFloat(toleranceText);
+                if (tolerance < 0) {
+                    throw new IllegalArgumentException("Tolerance cannot be negative");
+                }
+                minValue -= tolerance;
+                maxValue += tolerance;
+            }
+            return createFloatRange(valueType, byteOrder, minValue, maxValue, stride, offset);
+        }
+
+        BigInteger minValue = parseInteger(minText);
+        BigInteger maxValue = parseInteger(maxText);
+        if (toleranceText != null) {
+            BigInteger tolerance = parseInteger(toleranceText);
+            if (tolerance.signum() < 0) {
+                throw new IllegalArgumentException("Tolerance cannot be negative");
+            }
+            minValue = minValue.subtract(tolerance);
+            maxValue = maxValue.add(tolerance);
+        }
+        return createIntegerRange(valueType, byteOrder, minValue, maxValue, stride, offset);
+    }
+
+    public ValueType getValueType() {
+        return valueType;
+    }
+
+    public ByteOrder getByteOrder() {
+        return byteOrder;
+    }
+
+    /**
+     * Returns length of single value in bytes.
+     *
+     * @return value length
+     */
+    public int getValueLength() {
+        return valueType.getLength();
+    }
+
+    public int getStride() {
+        return stride;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Returns true if given position is aligned to stride and offset.
+     *
+     * @param position position in data
+     * @return true for aligned position
+     */
+    public boolean isAligned(long position) {
+        return Math.floorMod(position - offset, (long) stride) == 0;
+    }
+
+    /**
+     * Returns true if value decoded at given index matches pattern.
+     *
+     * @param view buffer view with byte order of pattern
+     * @param index index of value in buffer
+     * @return true if value matches
+     */
+    public boolean matches(ByteBuffer view, int index) {
+        switch (valueType) {
+            case INT8:
+                return matchesSigned(view.get(index));
+            case UINT8:
+                return matchesSigned(view.get(index) & 0xffL);
+            case INT16:
+                return matchesSigned(view.getShort(index));
+            case UINT16:
+                return matchesSigned(view.getShort(index) & 0xffffL);
+            case INT32:
+                return matchesSigned(view.getInt(index));
+            case UINT32:
+                return matchesSigned(view.getInt(index) & 0xffffffffL);
+            case INT64:
+                return matchesSigned(view.getLong(index));
+            case UINT64: {
+                long value = view.getLong(index);
+                return Long.compareUnsigned(value, minValue) >= 0 && Long.compareUnsigned(value, maxValue) <= 0;
+            }
+            case FLOAT32:
+                return matchesFloat(view.getFloat(index));
+            case FLOAT64:
+                return matchesFloat(view.getDouble(index));
+            default:
+                throw new IllegalStateException("Unexpected value type " + valueType);
+        }
+    }
+
+    private boolean matchesSigned(long value) {
+        return value >= minValue && value <= maxValue;
+    }
+
+    private boolean matchesFloat(double value) {
+        return value >= minFloatValue && value <= maxFloatValue;
+    }
+
+    private static NumericValuePattern createIntegerRange(ValueType valueType, ByteOrder byteOrder, BigInteger minValue, BigInteger maxValue, int stride, long offset) {
+        if (minValue.compareTo(maxValue) > 0) {
+            throw new IllegalArgumentException("Range minimum is greater than maximum");
+        }
+        BigInteger typeMin = valueType.getMinValue();
+        BigInteger typeMax = valueType.getMaxValue();
+        if (minValue.compareTo(typeMax) > 0 || maxValue.compareTo(typeMin) < 0) {
+            throw new IllegalArgumentException("Value is out of range of type " + valueType.getCode());
+        }
+        checkAlignment(stride, offset);
+
+        return new NumericValuePattern(valueType, byteOrder, stride, offset, minValue.max(typeMin).longValue(), maxValue.min(typeMax).longValue(), 0, 0);
+    }
+
+    private static void checkAlignment(int stride, long offset) {
+        if (stride <= 0) {
+            throw new IllegalArgumentException("Stride must be positive");
+        }
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset cannot be negative");
+        }
+    }
+
+    private static BigInteger parseInteger(String text) {
+        boolean negative = text.startsWith("-");
+        String digits = negative || text.startsWith("+") ? text.substring(1) : text;
+        try {
+            BigInteger value;
+            if (digits.startsWith("0x") || digits.startsWith("0X")) {
+                value = new BigInteger(digits.substring(2), 16);
+            } else {
+                value = new BigInteger(digits);
+            }
+            return negative ? value.negate() : value;
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid integer value " + text, ex);
+        }
+    }
+
+    private static double parseFloat(String text) {
+        double value;
+        try {
+            value = Double.parseDouble(text);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid floating point value " + text, ex);
+        }
+        if (Double.isNaN(value)) {
+            throw new IllegalArgumentException("NaN cannot be searched for");
+        }
+
+        return value;
+    }
+
+    private static BigInteger toUnsignedBigInteger(long value) {
+        BigInteger result = BigInteger.valueOf(value & Long.MAX_VALUE);
+        return value < 0 ? result.setBit(Long.SIZE - 1) : result;
+    }
+
+    /**
+     * Type of numeric value.
+     */
+    public enum ValueType {
+        INT8("i8", 1, false, true),
+        UINT8("u8", 1, false, false),
+        INT16("i16", 2, false, true),
+        UINT16("u16", 2, false, false),
+        INT32("i32", 4, false, true),
+        UINT32("u32", 4, false, false),
+        INT64("i64", 8, false, true),
+        UINT64("u64", 8, false, false),
+        FLOAT32("f32", 4, true, true),
+        FLOAT64("f64", 8, true, true);
+
+        private final String code;
+        private final int length;
+        private final boolean floatingPoint;
+        private final boolean signed;
+
+        private ValueType(String code, int length, boolean floatingPoint, boolean signed) {
+            this.code = code;
+            this.length = length;
+            this.floatingPoint = floatingPoint;
+            this.signed = signed;
+        }
+
+        public String getCode() {
+            return code;
+        }
+
+        public int getLength() {
+            return length;
+        }
+
+        public boolean isFloatingPoint() {
+            return floatingPoint;
+        }
+
+        public boolean isSigned() {
+            return signed;
+        }
+
+        private BigInteger getMinValue() {
+            return signed ? BigInteger.ONE.shiftLeft(length * 8 - 1).negate() : BigInteger.ZERO;
+        }
+
+        private BigInteger getMaxValue() {
+            return signed ? BigInteger.ONE.shiftLeft(length * 8 - 1).subtract(BigInteger.ONE) : BigInteger.ONE.shiftLeft(length * 8).subtract(BigInteger.ONE);
+        }
+
+        @Nullable
+        public static ValueType findByCode(String code) {
+            for (ValueType valueType : values()) {
+                if (valueType.code.equals(code)) {
+                    return valueType;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service.matcher;
+
+import java.nio.ByteBuffer;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Scanner of binary data for numeric values.
+ * <p>
+ * Only positions aligned to stride of pattern are tested. Data are read in
+ * bulk chunks covering multiple aligned positions and values are decoded
+ * using byte buffer view over chunk.
+ */
+@NullMarked
+public class NumericValueScanner implements ParallelDataScanner.SegmentScanner {
+
+    private final NumericValuePattern pattern;
+    private final int chunkSize;
+
+    public NumericValueScanner(NumericValuePattern pattern) {
+        this(pattern, ChunkedDataScanner.DEFAULT_CHUNK_SIZE);
+    }
+
+    public NumericValueScanner(NumericValuePattern pattern, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+
+        this.pattern = pattern;
+        this.chunkSize = chunkSize;
+    }
+
+    public NumericValuePattern getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Scans data for matching values in forward direction.
+     *
+     * @param data data to scan
+     * @param rangeStart lowest match position
+     * @param rangeEnd highest match position (exclusive)
+     * @param listener scan listener
+     * @return true if scan finished, false if it was cancelled
+     */
+    public boolean scanForward(BinaryData data, long rangeStart, long rangeEnd, ChunkedDataScanner.ScanListener listener) {
+        return scanForward(data, rangeStart, rangeEnd, false, listener);
+    }
+
+    private boolean scanForward(BinaryData data, long rangeStart, long rangeEnd, boolean serializedRead, ChunkedDataScanner.ScanListener listener) {
+        int valueLength = pattern.getValueLength();
+        int stride = pattern.getStride();
+        long startPosition = Math.max(0, rangeStart);
+        long endPosition = Math.min(rangeEnd, data.getDataSize() - valueLength + 1);
+        long remainder = Math.floorMod(startPosition - pattern.getOffset(), (long) stride);
+        long position = remainder == 0 ? startPosition : startPosition + stride - remainder;
+        if (position >= endPosition) {
+            return true;
+        }
+
+        int positionsPerChunk = Math.max(1, chunkSize / stride);
+        byte[] buffer = allocateBuffer(positionsPerChunk, (endPosition - 1 - position) / stride + 1);
+        ByteBuffer view = ByteBuffer.wrap(buffer).order(pattern.getByteOrder());
+        while (position < endPosition) {
+            if (listener.isCancelled()) {
+                return false;
+            }
+
+            int count = (int) Math.min(positionsPerChunk, (endPosition - 1 - position) / stride + 1);
+            readChunk(data, position, buffer, (count - 1) * stride + valueLength, serializedRead);
+            for (int i = 0; i < count; i++) {
+                int index = i * stride;
+                if (pattern.matches(view, index) && !listener.matchFound(position + index)) {
+                    return true;
+                }
+            }
+
+            position += (long) count * stride;
+            listener.positionReached(position);
+        }
+
+        return true;
+    }
+
+    /**
+     * Scans data for matching values in backward direction.
+     *
+     * @param data data to scan
+     * @param rangeStart lowest match position
+     * @param rangeEnd highest match position (exclusive)
+     * @param listener scan listener
+     * @return true if scan finished, false if it was cancelled
+     */
+    public boolean scanBackward(BinaryData data, long rangeStart, long rangeEnd, ChunkedDataScanner.ScanListener listener) {
+        return scanBackward(data, rangeStart, rangeEnd, false, listener);
+    }
+
+    private boolean scanBackward(BinaryData data, long rangeStart, long rangeEnd, boolean serializedRead, ChunkedDataScanner.ScanListener listener) {
+        int valueLength = pattern.getValueLength();
+        int stride = pattern.getStride();
+        long startPosition = Math.max(0, rangeStart);
+        long endPosition = Math.min(rangeEnd, data.getDataSize() - valueLength + 1);
+        if (startPosition >= endPosition) {
+            return true;
+        }
+        long position = endPosition - 1 - Math.floorMod(endPosition - 1 - pattern.getOffset(), (long) stride);
+        if (position < startPosition) {
+            return true;
+        }
+
+        int positionsPerChunk = Math.max(1, chunkSize / stride);
+        byte[] buffer = allocateBuffer(positionsPerChunk, (position - startPosition) / stride + 1);
+        ByteBuffer view = ByteBuffer.wrap(buffer).order(pattern.getByteOrder());
+        while (position >= startPosition) {
+            if (listener.isCancelled()) {
+                return false;
+            }
+
+            int count = (int) Math.min(positionsPerChunk, (position - startPosition) / stride + 1);
+            long chunkStart = position - (long) (count - 1) * stride;
+            readChunk(data, chunkStart, buffer, (count - 1) * stride + valueLength, serializedRead);
+            for (int i = count - 1; i >= 0; i--) {
+                int index = i * stride;
+                if (pattern.matches(view, index) && !listener.matchFound(chunkStart + index)) {
+                    return true;
+                }
+            }
+
+            position = chunkStart - stride;
+            listener.positionReached(chunkStart);
+        }
+
+        return true;
+    }
+
+    @Override
+    public boolean scanSegment(BinaryData data, long segmentStart, long segmentEnd, boolean backward, ChunkedDataScanner.ScanListener listener) {
+        return backward ? scanBackward(data, segmentStart, segmentEnd, true, listener) : scanForward(data, segmentStart, segmentEnd, true, listener);
+    }
+
+    /**
+     * Reads chunk of data into buffer.
+     *
+     * @param data source data
+     * @param position chunk position
+     * @param buffer target buffer
+     * @param length chunk length
+     */
+    protected void readChunk(BinaryData data, long position, byte[] buffer, int length) {
+        data.copyToArray(position, buffer, 0, length);
+    }
+
+    private void readChunk(BinaryData data, long position, byte[] buffer, int length, boolean serializedRead) {
+        if (serializedRead) {
+            synchronized (data) {
+                readChunk(data, position, buffer, length);
+            }
+        } else {
+            readChunk(data, position, buffer, length);
+        }
+    }
+
+    private byte[] allocateBuffer(int positionsPerChunk, long positionsCount) {
+        long count = Math.min(positionsPerChunk, positionsCount);
+        return new byte[(int) ((count - 1) * pattern.getStride() + pattern.getValueLength())];
+    }
+}
@@ -0,0 +1,352 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service.matcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Scanner of binary data splitting data into segments scanned in parallel.
+ * <p>
+ * Segments overlap by pattern length - 1 bytes and matches are reported in
+ * scan order from the calling thread after segments are finished. Reading of
+ * the data is serialized, as binary data implementations are not required to
+ * be thread safe, while matching itself runs concurrently. Segments can be
+ * processed by custom {@link SegmentScanner}.
+ * <p>
+ * Matches buffered by all segments are counted together and all segments are
+ * stopped when limit of matches is reached. Scanning then continues in the
+ * calling thread after last match of first incomplete segment. Segments are
+ * processed in dedicated pool as workers are blocked while reading of data
+ * is serialized.
+ */
+@NullMarked
+public class ParallelDataScanner {
+
+    public static final long MIN_SEGMENT_SIZE = 8 * 1024 * 1024;
+    private static final int SEGMENTS_PER_THREAD = 4;
+    private static final long PROGRESS_INTERVAL = 100;
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    public ParallelDataScanner() {
+        this(DefaultPoolHolder.POOL, ChunkedDataScanner.DEFAULT_CHUNK_SIZE);
+    }
+
+    public ParallelDataScanner(ForkJoinPool pool, int chunkSize) {
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Returns true if it is worth to scan given range in parallel.
+     *
+     * @param rangeLength length of range
+     * @return true for parallel scanning
+     */
+    public boolean isParallelizable(long rangeLength) {
+        return pool.getParallelism() > 1 && rangeLength >= 2 * MIN_SEGMENT_SIZE;
+    }
+
+    /**
+     * Scans data for matches in forward direction.
+     *
+     * @param data data to scan
+     * @param matcher pattern matcher
+     * @param rangeStart lowest match position
+     * @param rangeEnd highest match position (exclusive)
+     * @param matchesLimit maximum number of matches to report
+     * @param listener scan listener
+     * @return true if scan finished, false if it was cancelled
+     */
+    public boolean scanForward(BinaryData data, BinaryPatternMatcher matcher, long rangeStart, long rangeEnd, int matchesLimit, ChunkedDataScanner.ScanListener listener) {
+        return scan(data, matcher.getPatternLength(), new MatcherSegmentScanner(matcher), rangeStart, rangeEnd, matchesLimit, false, listener);
+    }
+
+    /**
+     * Scans data for matches in backward direction.
+     *
+     * @param data data to scan
+     * @param matcher pattern matcher
+     * @param rangeStart lowest match position
+     * @param rangeEnd highest match position (exclusive)
+     * @param matchesLimit maximum number of matches to report
+     * @param listener scan listener
+     * @return true if scan finished, false if it was cancelled
+     */
+    public boolean scanBackward(BinaryData data, BinaryPatternMatcher matcher, long rangeStart, long rangeEnd, int matchesLimit, ChunkedDataScanner.ScanListener listener) {
+        return scan(data, matcher.getPatternLength(), new MatcherSegmentScanner(matcher), rangeStart, rangeEnd, matchesLimit, true, listener);
+    }
+
+    /**
+     * Scans data for matches in forward direction using segment scanner.
+     *
+     * @param data data to scan
+     * @param matchLength length of single match
+     * @param segmentScanner scanner of segments
+     * @param rangeStart lowest match position
+     * @param rangeEnd highest match position (exclusive)
+     * @param matchesLimit maximum number of matches to report
+     * @param listener scan listener
+     * @return true if scan finished, false if it was cancelled
+     */
+    public boolean scanForward(BinaryData data, int matchLength, SegmentScanner segmentScanner, long rangeStart, long rangeEnd, int matchesLimit, ChunkedDataScanner.ScanListener listener) {
+        return scan(data, matchLength, segmentScanner, rangeStart, rangeEnd, matchesLimit, false, listener);
+    }
+
+    /**
+     * Scans data for matches in backward direction using segment scanner.
+     *
+     * @param data data to scan
+     * @param matchLength length of single match
+     * @param segmentScanner scanner of segments
+     * @param rangeStart lowest match position
+     * @param rangeEnd highest match position (exclusive)
+     * @param matchesLimit maximum number of matches to report
+     * @param listener scan listener
+     * @return true if scan finished, false if it was cancelled
+     */
+    public boolean scanBackward(BinaryData data, int matchLength, SegmentScanner segmentScanner, long rangeStart, long rangeEnd, int matchesLimit, ChunkedDataScanner.ScanListener listener) {
+        return scan(data, matchLength, segmentScanner, rangeStart, rangeEnd, matchesLimit, true, listener);
+    }
+
+    private boolean scan(BinaryData data, int matchLength, SegmentScanner segmentScanner, long rangeStart, long rangeEnd, int matchesLimit, boolean backward, ChunkedDataScanner.ScanListener listener) {
+        long startPosition = Math.max(0, rangeStart);
+        long endPosition = Math.min(rangeEnd, data.getDataSize() - matchLength + 1);
+        if (startPosition >= endPosition) {
+            return true;
+        }
+
+        long rangeLength = endPosition - startPosition;
+        long segmentSize = Math.max(MIN_SEGMENT_SIZE, rangeLength / ((long) pool.getParallelism() * SEGMENTS_PER_THREAD));
+        int segmentsCount = (int) ((rangeLength + segmentSize - 1) / segmentSize);
+
+        ScanState state = new ScanState();
+        List<SegmentTask> tasks = new ArrayList<>();
+        for (int index = 0; index < segmentsCount; index++) {
+            long segmentStart;
+            long segmentEnd;
+            if (backward) {
+                segmentEnd = endPosition - index * segmentSize;
+                segmentStart = Math.max(startPosition, segmentEnd - segmentSize);
+            } else {
+                segmentStart = startPosition + index * segmentSize;
+                segmentEnd = Math.min(endPosition, segmentStart + segmentSize);
+            }
+            SegmentTask task = new SegmentTask(index, data, segmentScanner, segmentStart, segmentEnd, matchesLimit, backward, state);
+            tasks.add(task);
+            pool.execute(task);
+        }
+
+        try {
+            for (SegmentTask task : tasks) {
+                waitForTask(task, listener, state, backward ? endPosition : startPosition, backward);
+                for (int i = 0; i < task.matchesCount; i++) {
+                    if (!listener.matchFound(task.matches[i])) {
+                        return true;
+                    }
+                }
+
+                if (!task.completed) {
+                    // Segment was stopped by limit of matches, remaining range is scanned sequentially
+                    state.cancelled.set(true);
+                    long lastMatch = task.matchesCount > 0 ? task.matches[task.matchesCount - 1] : -1;
+                    if (backward) {
+                        long resumeEnd = lastMatch >= 0 ? lastMatch : task.segmentEnd;
+                        return resumeEnd <= startPosition || segmentScanner.scanSegment(data, startPosition, resumeEnd, true, listener);
+                    } else {
+                        long resumeStart = lastMatch >= 0 ? lastMatch + 1 : task.segmentStart;
+                        return resumeStart >= endPosition || segmentScanner.scanSegment(data, resumeStart, endPosition, false, listener);
+                    }
+                }
+            }
+        } catch (InterruptedException ex) {
+            return false;
+        } finally {
+            state.cancelled.set(true);
+        }
+
+        return true;
+    }
+
+    private void waitForTask(SegmentTask task, ChunkedDataScanner.ScanListener listener, ScanState state, long basePosition, boolean backward) throws InterruptedException {
+        while (true) {
+            if (listener.isCancelled()) {
+                throw new InterruptedException();
+            }
+
+            try {
+                task.get(PROGRESS_INTERVAL, TimeUnit.MILLISECONDS);
+                return;
+            } catch (TimeoutException ex) {
+                long processed = state.processed.get();
+                listener.positionReached(backward ? basePosition - processed : basePosition + processed);
+            } catch (ExecutionException ex) {
+                throw new IllegalStateException("Search failed", ex.getCause());
+            }
+        }
+    }
+
+    private static final class ScanState {
+
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private final AtomicLong matchesCount = new AtomicLong();
+        private final AtomicLong processed = new AtomicLong();
+    }
+
+    private static final class SegmentTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int index;
+        private final BinaryData data;
+        private final SegmentScanner segmentScanner;
+        private final long segmentStart;
+        private final long segmentEnd;
+        private final int matchesLimit;
+        private final boolean backward;
+        private final ScanState state;
+        private long[] matches = new long[16];
+        private int matchesCount = 0;
+        private boolean completed = false;
+
+        public SegmentTask(int index, BinaryData data, SegmentScanner segmentScanner, long segmentStart, long segmentEnd, int matchesLimit, boolean backward, ScanState state) {
+            this.index = index;
+            this.data = data;
+            this.segmentScanner = segmentScanner;
+            this.segmentStart = segmentStart;
+            this.segmentEnd = segmentEnd;
+            this.matchesLimit = matchesLimit;
+            this.backward = backward;
+            this.state = state;
+        }
+
+        @Override
+        protected void compute() {
+            ChunkedDataScanner.ScanListener segmentListener = new ChunkedDataScanner.ScanListener() {
+
+                private long lastPosition = backward ? segmentEnd : segmentStart;
+
+                @Override
+                public boolean matchFound(long position) {
+                    if (matchesCount == matches.length) {
+                        matches = Arrays.copyOf(matches, matches.length * 2);
+                    }
+                    matches[matchesCount++] = position;
+                    if (state.matchesCount.incrementAndGet() >= matchesLimit) {
+                        state.cancelled.set(true);
+                        return false;
+                    }
+
+                    return true;
+                }
+
+                @Override
+                public void positionReached(long position) {
+                    state.processed.addAndGet(Math.abs(position - lastPosition));
+                    lastPosition = position;
+                }
+
+                @Override
+                public boolean isCancelled() {
+                    return state.cancelled.get();
+                }
+            };
+
+            if (segmentListener.isCancelled()) {
+                return;
+            }
+
+            boolean finished = segmentScanner.scanSegment(data, segmentStart, segmentEnd, backward, segmentListener);
+            // Limit might be reached by this or other segment
+            completed = finished && !state.cancelled.get();
+        }
+    }
+
+    /**
+     * Holder of lazily created default pool.
+     * <p>
+     * Workers of common pool are not used as they would be blocked on reading
+     * of data.
+     */
+    private static final class DefaultPoolHolder {
+
+        private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), (ForkJoinPool pool) -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("ParallelDataScanner-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * Segment scanner using pattern matcher.
+     */
+    private final class MatcherSegmentScanner implements SegmentScanner {
+
+        private final BinaryPatternMatcher matcher;
+
+        public MatcherSegmentScanner(BinaryPatternMatcher matcher) {
+            this.matcher = matcher;
+        }
+
+        @Override
+        public boolean scanSegment(BinaryData data, long segmentStart, long segmentEnd, boolean backward, ChunkedDataScanner.ScanListener listener) {
+            ChunkedDataScanner scanner = new ChunkedDataScanner(chunkSize) {
+                @Override
+                protected void readChunk(BinaryData data, long position, byte[] buffer, int length) {
+                    synchronized (data) {
+                        super.readChunk(data, position, buffer, length);
+                    }
+                }
+            };
+            return backward ? scanner.scanBackward(data, matcher, segmentStart, segmentEnd, listener) : scanner.scanForward(data, matcher, segmentStart, segmentEnd, listener);
+        }
+    }
+
+    /**
+     * Scanner of single segment of data.
+     * <p>
+     * Segments are scanned concurrently, implementations have to serialize
+     * reading of data by synchronizing on data instance.
+     */
+    @NullMarked
+    public interface SegmentScanner {
+
+        /**
+         * Scans segment of data for matches.
+         *
+         * @param data data to scan
+         * @param segmentStart lowest match position
+         * @param segmentEnd highest match position (exclusive)
+         * @param backward true to report matches in backward order
+         * @param listener scan listener
+         * @return true if scan finished, false if it was cancelled
+         */
+        boolean scanSegment(BinaryData data, long segmentStart, long segmentEnd, boolean backward, ChunkedDataScanner.ScanListener listener);
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service.matcher;
+
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Listener for scanning events of matches with variable length.
+ */
+@NullMarked
+public interface RangeScanListener {
+
+    /**
+     * Reports found match.
+     *
+     * @param position match position
+     * @param length match length in bytes
+     * @return true to continue scanning
+     */
+    boolean matchFound(long position, long length);
+
+    /**
+     * Reports position scanning reached after processing block of data.
+     *
+     * @param position position
+     */
+    void positionReached(long position);
+
+    /**
+     * Returns true if scanning should be cancelled.
+     *
+     * @return true if cancelled
+     */
+    default boolean isCancelled() {
+        return Thread.interrupted();
+    }
+}
@@ -0,0 +1,326 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service.matcher;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.bined.CharsetStreamTranslator;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Scanner of binary data for regular expression matches.
+ * <p>
+ * Data are decoded incrementally using given charset into window of
+ * characters with known byte offset of each character, so that matches are
+ * reported as exact byte ranges. Matches are limited to maximum length of
+ * characters which keeps memory usage constant for data of any size.
+ */
+@NullMarked
+public class RegexDataScanner {
+
+    public static final int DEFAULT_WINDOW_LENGTH = 64 * 1024;
+    public static final int DEFAULT_MAX_MATCH_LENGTH = 4 * 1024;
+    private static final int INPUT_BUFFER_SIZE = 64 * 1024;
+    private static final int BACKWARD_BLOCK_SIZE = 256 * 1024;
+
+    private final Pattern pattern;
+    private final Charset charset;
+    private final int windowLength;
+    private final int maxMatchLength;
+    private final int maxBytesPerChar;
+    private final boolean singleByteCharset;
+
+    public RegexDataScanner(Pattern pattern, Charset charset) {
+        this(pattern, charset, DEFAULT_WINDOW_LENGTH, DEFAULT_MAX_MATCH_LENGTH);
+    }
+
+    public RegexDataScanner(Pattern pattern, Charset charset, int windowLength, int maxMatchLength) {
+        if (windowLength <= 0 || maxMatchLength <= 0) {
+            throw new IllegalArgumentException("Window and match length must be positive");
+        }
+
+        this.pattern = pattern;
+        this.charset = charset;
+        this.windowLength = windowLength;
+        this.maxMatchLength = maxMatchLength;
+        int bytesPerChar;
+        try {
+            bytesPerChar = (int) charset.newEncoder().maxBytesPerChar();
+        } catch (UnsupportedOperationException ex) {
+            bytesPerChar = CharsetStreamTranslator.DEFAULT_MAX_BYTES_PER_CHAR;
+        }
+        maxBytesPerChar = bytesPerChar;
+        CharsetDecoder decoder = charset.newDecoder();
+        singleByteCharset = bytesPerChar == 1 && decoder.maxCharsPerByte() == 1f && decoder.averageCharsPerByte() == 1f;
+    }
+
+    public int getMaxMatchLength() {
+        return maxMatchLength;
+    }
+
+    /**
+     * Scans data for matches in forward direction.
+     *
+     * @param data data to scan
+     * @param rangeStart lowest match position
+     * @param rangeEnd highest match position (exclusive)
+     * @param listener scan listener
+     * @return true if scan finished, false if it was cancelled
+     */
+    public boolean scanForward(BinaryData data, long rangeStart, long rangeEnd, RangeScanListener listener) {
+        long startPosition = Math.max(0, rangeStart);
+        long endPosition = Math.min(rangeEnd, data.getDataSize());
+        if (startPosition >= endPosition) {
+            return true;
+        }
+
+        return scanBlock(data, startPosition, decodeLimit(data, endPosition), endPosition, listener);
+    }
+
+    /**
+     * Scans data for matches in backward direction.
+     * <p>
+     * Data are processed in blocks from the end, each block is decoded from
+     * its start and its matches are reported in reverse order.
+     *
+     * @param data data to scan
+     * @param rangeStart lowest match position
+     * @param rangeEnd highest match position (exclusive)
+     * @param listener scan listener
+     * @return true if scan finished, false if it was cancelled
+     */
+    public boolean scanBackward(BinaryData data, long rangeStart, long rangeEnd, RangeScanListener listener) {
+        long startPosition = Math.max(0, rangeStart);
+        long blockEnd = Math.min(rangeEnd, data.getDataSize());
+        BlockMatches blockMatches = new BlockMatches();
+        while (blockEnd > startPosition) {
+            long blockStart = Math.max(startPosition, blockEnd - BACKWARD_BLOCK_SIZE);
+            blockMatches.clear();
+            if (!scanBlock(data, blockStart, decodeLimit(data, blockEnd), blockEnd, blockMatches.withCancellation(listener))) {
+                return false;
+            }
+
+            for (int i = blockMatches.count - 1; i >= 0; i--) {
+                if (!listener.matchFound(blockMatches.positions[i], blockMatches.lengths[i])) {
+                    return true;
+                }
+            }
+            listener.positionReached(blockStart);
+            blockEnd = blockStart;
+        }
+
+        return true;
+    }
+
+    private long decodeLimit(BinaryData data, long matchStartLimit) {
+        return Math.min(data.getDataSize(), matchStartLimit + (long) (maxMatchLength + 1) * maxBytesPerChar);
+    }
+
+    private boolean scanBlock(BinaryData data, long decodeStart, long decodeEnd, long matchStartLimit, RangeScanListener listener) {
+        DecodingWindow window = new DecodingWindow(data, decodeStart, decodeEnd);
+        Matcher matcher = pattern.matcher("");
+        int from = 0;
+        while (true) {
+            if (listener.isCancelled()) {
+                return false;
+            }
+
+            window.fill();
+            boolean lastWindow = window.isEndReached();
+            int searchLimit = lastWindow ? window.count : window.count - maxMatchLength;
+            matcher.reset(CharBuffer.wrap(window.chars, 0, window.count));
+            while (from <= window.count && matcher.find(from)) {
+                int matchStart = matcher.start();
+                if (matchStart >= searchLimit || window.offsets[matchStart] >= matchStartLimit) {
+                    break;
+                }
+
+                int matchEnd = matcher.end();
+                if (matchEnd - matchStart > maxMatchLength) {
+                    matcher.region(matchStart, matchStart + maxMatchLength);
+                    matchEnd = matcher.lookingAt() ? matcher.end() : matchStart;
+                }
+
+                if (matchEnd == matchStart) {
+                    from = matchStart + 1;
+                    continue;
+                }
+
+                long matchPosition = window.offsets[matchStart];
+                if (!listener.matchFound(matchPosition, window.offsets[matchEnd] - matchPosition)) {
+                    return true;
+                }
+                from = matchEnd;
+            }
+
+            if (lastWindow || window.offsets[searchLimit] >= matchStartLimit) {
+                return true;
+            }
+
+            listener.positionReached(window.offsets[searchLimit]);
+            window.discard(searchLimit);
+            from = Math.max(from, searchLimit) - searchLimit;
+        }
+    }
+
+    /**
+     * Window of decoded characters with byte offsets.
+     */
+    private final class DecodingWindow {
+
+        private final BinaryData data;
+        private final long decodeEnd;
+        private final CharsetDecoder decoder;
+        private final ByteBuffer input = ByteBuffer.allocate(INPUT_BUFFER_SIZE);
+        private final int capacity = windowLength + maxMatchLength;
+        /**
+         * Characters buffer with extra space for low surrogate.
+         */
+        private final char[] chars = new char[capacity + 1];
+        private final CharBuffer output = CharBuffer.wrap(chars);
+        /**
+         * Byte offset of each character, item after last character contains
+         * end offset of decoded data.
+         */
+        private final long[] offsets = new long[chars.length + 1];
+        private int count = 0;
+        private long inputPosition;
+        private boolean endReached = false;
+
+        public DecodingWindow(BinaryData data, long decodeStart, long decodeEnd) {
+            this.data = data;
+            this.decodeEnd = decodeEnd;
+            inputPosition = decodeStart;
+            offsets[0] = decodeStart;
+            input.limit(0);
+            decoder = charset.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+
+        public boolean isEndReached() {
+            return endReached;
+        }
+
+        public void fill() {
+            while (count < capacity && !endReached) {
+                if (input.remaining() < maxBytesPerChar && inputPosition < decodeEnd) {
+                    readInput();
+                }
+
+                boolean endOfInput = inputPosition >= decodeEnd;
+                long charOffset = inputPosition - input.remaining();
+                int produced;
+                if (singleByteCharset) {
+                    output.limit(capacity).position(count);
+                    decoder.decode(input, output, endOfInput);
+                    produced = output.position() - count;
+                    for (int i = 0; i < produced; i++) {
+                        offsets[count + i] = charOffset + i;
+                    }
+                } else {
+                    output.limit(count + 1).position(count);
+                    CoderResult result = decoder.decode(input, output, endOfInput);
+                    if (result.isOverflow() && output.position() == count) {
+                        // Surrogate pair
+                        output.limit(count + 2);
+                        decoder.decode(input, output, endOfInput);
+                    }
+                    produced = output.position() - count;
+                    for (int i = 0; i < produced; i++) {
+                        offsets[count + i] = charOffset;
+                    }
+                }
+                count += produced;
+
+                if (produced == 0 && !input.hasRemaining() && endOfInput) {
+                    output.limit(chars.length).position(count);
+                    decoder.flush(output);
+                    for (int i = count; i < output.position(); i++) {
+                        offsets[i] = inputPosition;
+                    }
+                    count = output.position();
+                    endReached = true;
+                } else if (produced == 0 && !endOfInput) {
+                    readInput();
+                }
+            }
+            offsets[count] = inputPosition - input.remaining();
+        }
+
+        public void discard(int length) {
+            System.arraycopy(chars, length, chars, 0, count - length);
+            System.arraycopy(offsets, length, offsets, 0, count - length + 1);
+            count -= length;
+        }
+
+        private void readInput() {
+            input.compact();
+            int length = (int) Math.min(input.remaining(), decodeEnd - inputPosition);
+            data.copyToArray(inputPosition, input.array(), input.position(), length);
+            input.position(input.position() + length);
+            inputPosition += length;
+            input.flip();
+        }
+    }
+
+    /**
+     * Matches of single block collected for reverse reporting.
+     */
+    private static final class BlockMatches {
+
+        private long[] positions = new long[16];
+        private long[] lengths = new long[16];
+        private int count = 0;
+
+        public void clear() {
+            count = 0;
+        }
+
+        public RangeScanListener withCancellation(RangeScanListener listener) {
+            return new RangeScanListener() {
+                @Override
+                public boolean matchFound(long position, long length) {
+                    if (count == positions.length) {
+                        positions = Arrays.copyOf(positions, count * 2);
+                        lengths = Arrays.copyOf(lengths, count * 2);
+                    }
+                    positions[count] = position;
+                    lengths[count] = length;
+                    count++;
+                    return true;
+                }
+
+                @Override
+                public void positionReached(long position) {
+                }
+
+                @Override
+                public boolean isCancelled() {
+                    return listener.isCancelled();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service.matcher;
+
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Scanner of binary data for text occurrences.
+ * <p>
+ * Data are read in bulk chunks overlapping by maximum match length - 1
+ * bytes.
+ */
+@NullMarked
+public class TextDataScanner {
+
+    private final TextPatternMatcher matcher;
+    private final int chunkSize;
+
+    public TextDataScanner(TextPatternMatcher matcher) {
+        this(matcher, ChunkedDataScanner.DEFAULT_CHUNK_SIZE);
+    }
+
+    public TextDataScanner(TextPatternMatcher matcher, int chunkSize) {
+        this.matcher = matcher;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Scans data for matches in forward direction.
+     *
+     * @param data data to scan
+     * @param rangeStart lowest match position
+     * @param rangeEnd highest match position (exclusive)
+     * @param listener scan listener
+     * @return true if scan finished, false if it was cancelled
+     */
+    public boolean scanForward(BinaryData data, long rangeStart, long rangeEnd, RangeScanListener listener) {
+        long dataSize = data.getDataSize();
+        long startPosition = Math.max(0, rangeStart);
+        long endPosition = Math.min(rangeEnd, dataSize - matcher.getMinLength() + 1);
+        if (startPosition >= endPosition || !matcher.isMatchable()) {
+            return true;
+        }
+
+        int maxLength = matcher.getMaxLength();
+        byte[] buffer = allocateBuffer(dataSize - startPosition);
+        TextPatternMatcher.MatchBuffer matches = new TextPatternMatcher.MatchBuffer();
+        long chunkStart = startPosition;
+        while (chunkStart < endPosition) {
+            if (listener.isCancelled()) {
+                return false;
+            }
+
+            long chunkEnd = Math.min(dataSize, chunkStart + buffer.length);
+            int length = (int) (chunkEnd - chunkStart);
+            int acceptLimit = (int) Math.min(endPosition - chunkStart, chunkEnd == dataSize ? length : length - maxLength + 1);
+            data.copyToArray(chunkStart, buffer, 0, length);
+            matcher.findAll(buffer, acceptLimit, length, matches);
+            for (int i = 0; i < matches.getCount(); i++) {
+                if (!listener.matchFound(chunkStart + matches.getPosition(i), matches.getLength(i))) {
+                    return true;
+                }
+            }
+
+            chunkStart += acceptLimit;
+            listener.positionReached(chunkStart);
+        }
+
+        return true;
+    }
+
+    /**
+     * Scans data for matches in backward direction.
+     *
+     * @param data data to scan
+     * @param rangeStart lowest match position
+     * @param rangeEnd highest match position (exclusive)
+     * @param listener scan listener
+     * @return true if scan finished, false if it was cancelled
+     */
+    public boolean scanBackward(BinaryData data, long rangeStart, long rangeEnd, RangeScanListener listener) {
+        long dataSize = data.getDataSize();
+        long startPosition = Math.max(0, rangeStart);
+        long endPosition = Math.min(rangeEnd, dataSize - matcher.getMinLength() + 1);
+        if (startPosition >= endPosition || !matcher.isMatchable()) {
+            return true;
+        }
+
+        int maxLength = matcher.getMaxLength();
+        byte[] buffer = allocateBuffer(dataSize - startPosition);
+        int acceptSize = Math.max(1, buffer.length - maxLength + 1);
+        TextPatternMatcher.MatchBuffer matches = new TextPatternMatcher.MatchBuffer();
+        long acceptEnd = endPosition;
+        while (acceptEnd > startPosition) {
+            if (listener.isCancelled()) {
+                return false;
+            }
+
+            long chunkStart = Math.max(startPosition, acceptEnd - acceptSize);
+            long chunkEnd = Math.min(dataSize, Math.min(chunkStart + buffer.length, acceptEnd + maxLength - 1));
+            int length = (int) (chunkEnd - chunkStart);
+            data.copyToArray(chunkStart, buffer, 0, length);
+            matcher.findAll(buffer, (int) (acceptEnd - chunkStart), length, matches);
+            for (int i = matches.getCount() - 1; i >= 0; i--) {
+                if (!listener.matchFound(chunkStart + matches.getPosition(i), matches.getLength(i))) {
+                    return true;
+                }
+            }
+
+            acceptEnd = chunkStart;
+            listener.positionReached(acceptEnd);
+        }
+
+        return true;
+    }
+
+    private byte[] allocateBuffer(long availableData) {
+        long bufferSize = Math.max(chunkSize, 2L * matcher.getMaxLength());
+        return new byte[(int) Math.min(bufferSize, availableData)];
+    }
+}
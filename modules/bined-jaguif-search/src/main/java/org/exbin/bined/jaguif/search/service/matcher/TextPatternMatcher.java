@@ -0,0 +1,416 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service.matcher;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.exbin.bined.CharsetStreamTranslator;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Matcher of text in binary data encoded using given charset.
+ * <p>
+ * Searched text is encoded once into all byte forms each of its characters
+ * can take (each case variant for case insensitive search). Candidates are
+ * found using Aho-Corasick automaton built from all combinations of forms of
+ * leading characters and the rest of the text is verified on byte level
+ * trying all forms of each character.
+ * Matches in variable width charsets are confirmed by decoding.
+ */
+@NullMarked
+public class TextPatternMatcher {
+
+    public static final int MAX_ANCHOR_VARIANTS = 64;
+    public static final int MAX_ANCHOR_LENGTH = 32;
+
+    private final String text;
+    private final boolean matchCase;
+    private final Charset charset;
+    private final byte[][][] charForms;
+    private final int anchorCharsCount;
+    @Nullable
+    private final AhoCorasickAutomaton anchors;
+    private final int minLength;
+    private final int maxLength;
+    private final boolean variableWidth;
+
+    public TextPatternMatcher(String text, Charset charset, boolean matchCase) {
+        if (text.isEmpty()) {
+            throw new IllegalArgumentException("Text cannot be empty");
+        }
+
+        this.text = text;
+        this.charset = charset;
+        this.matchCase = matchCase;
+        FormEncoder formEncoder = new FormEncoder(charset);
+        int[] codePoints = text.codePoints().toArray();
+        charForms = new byte[codePoints.length][][];
+        boolean matchable = true;
+        int minimum = 0;
+        int maximum = 0;
+        for (int i = 0; i < codePoints.length; i++) {
+            byte[][] forms = formEncoder.encodeForms(codePoints[i], matchCase);
+            charForms[i] = forms;
+            if (forms.length == 0) {
+                matchable = false;
+                break;
+            }
+
+            int formMinimum = Integer.MAX_VALUE;
+            int formMaximum = 0;
+            for (byte[] form : forms) {
+                formMinimum = Math.min(formMinimum, form.length);
+                formMaximum = Math.max(formMaximum, form.length);
+            }
+            minimum += formMinimum;
+            maximum += formMaximum;
+        }
+        minLength = minimum;
+        maxLength = maximum;
+
+        int anchorChars = 0;
+        if (matchable) {
+            int variants = 1;
+            int anchorLength = 0;
+            do {
+                variants *= charForms[anchorChars].length;
+                anchorLength += charForms[anchorChars][0].length;
+                anchorChars++;
+            } while (anchorChars < charForms.length
+                    && variants * charForms[anchorChars].length <= MAX_ANCHOR_VARIANTS
+                    && anchorLength <= MAX_ANCHOR_LENGTH);
+        }
+        anchorCharsCount = anchorChars;
+        anchors = matchable ? new AhoCorasickAutomaton(combineForms(anchorChars)) : null;
+
+        int maxBytesPerChar = formEncoder.getMaxBytesPerChar();
+        float averageBytesPerChar = formEncoder.getAverageBytesPerChar();
+        variableWidth = maxBytesPerChar > 1 && averageBytesPerChar != maxBytesPerChar;
+    }
+
+    /**
+     * Returns true if text can be matched in charset at all.
+     *
+     * @return true if matchable
+     */
+    public boolean isMatchable() {
+        return anchors != null;
+    }
+
+    /**
+     * Returns true if text has just single byte form.
+     *
+     * @return true if single form
+     */
+    public boolean isSingleForm() {
+        if (!isMatchable()) {
+            return false;
+        }
+
+        for (byte[][] forms : charForms) {
+            if (forms.length != 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns byte form of text.
+     *
+     * @return byte form, valid only if text has single form
+     */
+    public byte[] getSingleForm() {
+        return combineForms(charForms.length).get(0);
+    }
+
+    public int getMinLength() {
+        return minLength;
+    }
+
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * Finds all matches starting in given range of buffer.
+     *
+     * @param buffer data buffer
+     * @param acceptLimit match positions limit (exclusive)
+     * @param to end of valid data in buffer (exclusive)
+     * @param matches collected matches in ascending order
+     */
+    public void findAll(byte[] buffer, int acceptLimit, int to, MatchBuffer matches) {
+        matches.clear();
+        AhoCorasickAutomaton automaton = anchors;
+        if (automaton == null) {
+            return;
+        }
+
+        int scanEnd = Math.min(to, acceptLimit - 1 + automaton.getMaxKeywordLength());
+        automaton.findAll(buffer, 0, scanEnd, (int keywordIndex, int position) -> {
+            if (position < acceptLimit) {
+                int length = matchLength(buffer, position, to, automaton.getKeywordLength(keywordIndex));
+                if (length > 0) {
+                    matches.add(position, length);
+                }
+            }
+            return true;
+        });
+        matches.sort();
+    }
+
+    /**
+     * Returns length of match of characters following the anchor.
+     * <p>
+     * Forms of each character are tried from the longest one and other forms
+     * are tried when the rest of the text doesn't match.
+     */
+    private int matchLength(byte[] buffer, int start, int to, int anchorLength) {
+        int charsCount = charForms.length;
+        if (anchorCharsCount == charsCount) {
+            return !variableWidth || confirmByDecoding(buffer, start, anchorLength) ? anchorLength : -1;
+        }
+
+        int[] formIndices = new int[charsCount];
+        int[] positions = new int[charsCount];
+        int charIndex = anchorCharsCount;
+        positions[charIndex] = start + anchorLength;
+        while (charIndex >= anchorCharsCount) {
+            byte[][] forms = charForms[charIndex];
+            int position = positions[charIndex];
+            int formIndex = formIndices[charIndex];
+            while (formIndex < forms.length && (position + forms[formIndex].length > to || !regionMatches(buffer, position, forms[formIndex]))) {
+                formIndex++;
+            }
+            if (formIndex == forms.length) {
+                // Backtrack to next form of previous character
+                charIndex--;
+                if (charIndex >= anchorCharsCount) {
+                    formIndices[charIndex]++;
+                }
+                continue;
+            }
+
+            formIndices[charIndex] = formIndex;
+            int nextPosition = position + forms[formIndex].length;
+            if (charIndex + 1 == charsCount) {
+                int length = nextPosition - start;
+                if (!variableWidth || confirmByDecoding(buffer, start, length)) {
+                    return length;
+                }
+                formIndices[charIndex]++;
+                continue;
+            }
+
+            charIndex++;
+            positions[charIndex] = nextPosition;
+            formIndices[charIndex] = 0;
+        }
+
+        return -1;
+    }
+
+    private boolean confirmByDecoding(byte[] buffer, int start, int length) {
+        CharsetDecoder decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        String decoded;
+        try {
+            decoded = decoder.decode(ByteBuffer.wrap(buffer, start, length)).toString();
+        } catch (CharacterCodingException ex) {
+            return false;
+        }
+
+        if (matchCase) {
+            return text.equals(decoded);
+        }
+
+        int[] decodedCodePoints = decoded.codePoints().toArray();
+        int[] textCodePoints = text.codePoints().toArray();
+        if (decodedCodePoints.length != textCodePoints.length) {
+            return false;
+        }
+        for (int i = 0; i < textCodePoints.length; i++) {
+            int decodedChar = decodedCodePoints[i];
+            int textChar = textCodePoints[i];
+            if (decodedChar != textChar && Character.toLowerCase(decodedChar) != Character.toLowerCase(textChar)
+                    && Character.toUpperCase(decodedChar) != Character.toUpperCase(textChar)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean regionMatches(byte[] buffer, int position, byte[] form) {
+        for (int i = 0; i < form.length; i++) {
+            if (buffer[position + i] != form[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<byte[]> combineForms(int charsCount) {
+        List<byte[]> combinations = new ArrayList<>();
+        combinations.add(new byte[0]);
+        for (int i = 0; i < charsCount; i++) {
+            List<byte[]> extended = new ArrayList<>();
+            for (byte[] prefix : combinations) {
+                for (byte[] form : charForms[i]) {
+                    byte[] combination = Arrays.copyOf(prefix, prefix.length + form.length);
+                    System.arraycopy(form, 0, combination, prefix.length, form.length);
+                    extended.add(combination);
+                }
+            }
+            combinations = extended;
+        }
+        return combinations;
+    }
+
+    /**
+     * Encoder of character forms.
+     */
+    private static final class FormEncoder {
+
+        private final Charset charset;
+        @Nullable
+        private final CharsetEncoder encoder;
+        private final int prefixLength;
+
+        public FormEncoder(Charset charset) {
+            this.charset = charset;
+            CharsetEncoder charsetEncoder;
+            try {
+                charsetEncoder = charset.newEncoder();
+            } catch (UnsupportedOperationException ex) {
+                charsetEncoder = null;
+            }
+            encoder = charsetEncoder;
+            // Detect byte order mark or other prefix added to each encoded text
+            int singleLength = "a".getBytes(charset).length;
+            int doubleLength = "aa".getBytes(charset).length;
+            prefixLength = Math.max(0, singleLength - (doubleLength - singleLength));
+        }
+
+        public int getMaxBytesPerChar() {
+            return encoder == null ? CharsetStreamTranslator.DEFAULT_MAX_BYTES_PER_CHAR : (int) encoder.maxBytesPerChar();
+        }
+
+        public float getAverageBytesPerChar() {
+            return encoder == null ? 1 : encoder.averageBytesPerChar();
+        }
+
+        public byte[][] encodeForms(int codePoint, boolean matchCase) {
+            Set<Integer> variants = new LinkedHashSet<>();
+            variants.add(codePoint);
+            if (!matchCase) {
+                int lowerCase = Character.toLowerCase(codePoint);
+                int upperCase = Character.toUpperCase(codePoint);
+                variants.add(lowerCase);
+                variants.add(upperCase);
+                variants.add(Character.toTitleCase(codePoint));
+                variants.add(Character.toLowerCase(upperCase));
+                variants.add(Character.toUpperCase(lowerCase));
+            }
+
+            List<byte[]> forms = new ArrayList<>();
+            for (int variant : variants) {
+                String variantText = new String(Character.toChars(variant));
+                if (!canEncode(variantText)) {
+                    continue;
+                }
+
+                byte[] encoded = variantText.getBytes(charset);
+                byte[] form = Arrays.copyOfRange(encoded, Math.min(prefixLength, encoded.length), encoded.length);
+                if (form.length > 0 && forms.stream().noneMatch(existing -> Arrays.equals(existing, form))) {
+                    forms.add(form);
+                }
+            }
+            // Longer forms are verified first
+            forms.sort((first, second) -> second.length - first.length);
+            return forms.toArray(new byte[0][]);
+        }
+
+        private boolean canEncode(String text) {
+            if (encoder == null) {
+                return true;
+            }
+
+            try {
+                return encoder.canEncode(CharBuffer.wrap(text));
+            } catch (UnsupportedOperationException ex) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Buffer of matches found in single block of data.
+     */
+    @NullMarked
+    public static final class MatchBuffer {
+
+        private long[] matches = new long[16];
+        private int count = 0;
+
+        public void clear() {
+            count = 0;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public int getPosition(int index) {
+            return (int) (matches[index] >>> 32);
+        }
+
+        public int getLength(int index) {
+            return (int) matches[index];
+        }
+
+        private void add(int position, int length) {
+            if (count == matches.length) {
+                matches = Arrays.copyOf(matches, count * 2);
+            }
+            matches[count++] = ((long) position << 32) | length;
+        }
+
+        private void sort() {
+            Arrays.sort(matches, 0, count);
+            // Keep single match for each position
+            int unique = 0;
+            for (int i = 0; i < count; i++) {
+                if (unique == 0 || (matches[unique - 1] >>> 32) != (matches[i] >>> 32)) {
+                    matches[unique++] = matches[i];
+                }
+            }
+            count = unique;
+        }
+    }
+}
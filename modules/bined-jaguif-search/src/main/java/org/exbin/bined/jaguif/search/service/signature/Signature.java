@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service.signature;
+
+import org.exbin.bined.jaguif.search.service.matcher.MaskedBinaryPattern;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Named binary signature with optional constraint on its position.
+ */
+@NullMarked
+public class Signature {
+
+    public static final long UNLIMITED_OFFSET = Long.MAX_VALUE;
+
+    private final String name;
+    private final MaskedBinaryPattern pattern;
+    private final long minOffset;
+    private final long maxOffset;
+
+    public Signature(String name, MaskedBinaryPattern pattern) {
+        this(name, pattern, 0, UNLIMITED_OFFSET);
+    }
+
+    /**
+     * Creates signature.
+     *
+     * @param name signature name
+     * @param pattern signature pattern
+     * @param minOffset lowest allowed position of signature
+     * @param maxOffset highest allowed position of signature or
+     * {@link #UNLIMITED_OFFSET}
+     */
+    public Signature(String name, MaskedBinaryPattern pattern, long minOffset, long maxOffset) {
+        if (minOffset < 0 || maxOffset < minOffset) {
+            throw new IllegalArgumentException("Invalid offset range " + minOffset + ".." + maxOffset);
+        }
+
+        this.name = name;
+        this.pattern = pattern;
+        this.minOffset = minOffset;
+        this.maxOffset = maxOffset;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public MaskedBinaryPattern getPattern() {
+        return pattern;
+    }
+
+    public int getLength() {
+        return pattern.getLength();
+    }
+
+    public long getMinOffset() {
+        return minOffset;
+    }
+
+    public long getMaxOffset() {
+        return maxOffset;
+    }
+
+    /**
+     * Returns true if signature is allowed at given position.
+     *
+     * @param position signature position
+     * @return true if position is within offset constraints
+     */
+    public boolean isAllowedAt(long position) {
+        return position >= minOffset && position <= maxOffset;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service.signature;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import org.exbin.bined.highlight.swing.SearchMatch;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Store of signature hits backed by primitive arrays.
+ */
+@NullMarked
+public class SignatureHitStore {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final SignatureSet signatureSet;
+    private long[] positions = new long[INITIAL_CAPACITY];
+    private int[] signatureIndexes = new int[INITIAL_CAPACITY];
+    private int count = 0;
+
+    public SignatureHitStore(SignatureSet signatureSet) {
+        this.signatureSet = signatureSet;
+    }
+
+    public SignatureSet getSignatureSet() {
+        return signatureSet;
+    }
+
+    public void add(int signatureIndex, long position) {
+        if (count == positions.length) {
+            int capacity = count * 2;
+            positions = Arrays.copyOf(positions, capacity);
+            signatureIndexes = Arrays.copyOf(signatureIndexes, capacity);
+        }
+        positions[count] = position;
+        signatureIndexes[count] = signatureIndex;
+        count++;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public long getPosition(int index) {
+        checkIndex(index);
+        return positions[index];
+    }
+
+    public int getSignatureIndex(int index) {
+        checkIndex(index);
+        return signatureIndexes[index];
+    }
+
+    public Signature getSignature(int index) {
+        return signatureSet.getSignature(getSignatureIndex(index));
+    }
+
+    public long getLength(int index) {
+        return getSignature(index).getLength();
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * Sorts hits by position and signature index.
+     */
+    public void sort() {
+        if (count < 2) {
+            return;
+        }
+
+        long[] sourcePositions = positions;
+        int[] sourceIndexes = signatureIndexes;
+        long[] targetPositions = new long[positions.length];
+        int[] targetIndexes = new int[positions.length];
+        for (int width = 1; width < count; width *= 2) {
+            for (int start = 0; start < count; start += 2 * width) {
+                int middle = Math.min(start + width, count);
+                int end = Math.min(start + 2 * width, count);
+                int left = start;
+                int right = middle;
+                for (int target = start; target < end; target++) {
+                    if (right >= end || (left < middle && compare(sourcePositions, sourceIndexes, left, right) <= 0)) {
+                        targetPositions[target] = sourcePositions[left];
+                        targetIndexes[target] = sourceIndexes[left];
+                        left++;
+                    } else {
+                        targetPositions[target] = sourcePositions[right];
+                        targetIndexes[target] = sourceIndexes[right];
+                        right++;
+                    }
+                }
+            }
+            long[] swapPositions = sourcePositions;
+            sourcePositions = targetPositions;
+            targetPositions = swapPositions;
+            int[] swapIndexes = sourceIndexes;
+            sourceIndexes = targetIndexes;
+            targetIndexes = swapIndexes;
+        }
+        positions = sourcePositions;
+        signatureIndexes = sourceIndexes;
+    }
+
+    private static int compare(long[] positions, int[] signatureIndexes, int first, int second) {
+        int result = Long.compare(positions[first], positions[second]);
+        return result != 0 ? result : Integer.compare(signatureIndexes[first], signatureIndexes[second]);
+    }
+
+    /**
+     * Returns read-only view of hits as search matches.
+     * <p>
+     * Match instances are created on access. View is limited to hits stored
+     * at the time of the call.
+     *
+     * @return list of matches
+     */
+    public List<SearchMatch> asMatchList() {
+        return new MatchesView(count);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Hit index " + index + " out of range 0.." + count);
+        }
+    }
+
+    /**
+     * Read-only view of hits as matches.
+     */
+    private final class MatchesView extends AbstractList<SearchMatch> implements RandomAccess {
+
+        private final int matchesCount;
+
+        public MatchesView(int matchesCount) {
+            this.matchesCount = matchesCount;
+        }
+
+        @Override
+        public SearchMatch get(int index) {
+            if (index < 0 || index >= matchesCount) {
+                throw new IndexOutOfBoundsException("Hit index " + index + " out of range 0.." + matchesCount);
+            }
+
+            return new SearchMatch(positions[index], signatureSet.getSignature(signatureIndexes[index]).getLength());
+        }
+
+        @Override
+        public int size() {
+            return matchesCount;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service.signature;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.bined.jaguif.search.service.matcher.AhoCorasickAutomaton;
+import org.exbin.bined.jaguif.search.service.matcher.BinaryPatternMatcher;
+import org.exbin.bined.jaguif.search.service.matcher.BinaryPatternMatchers;
+import org.exbin.bined.jaguif.search.service.matcher.ChunkedDataScanner;
+import org.exbin.bined.jaguif.search.service.matcher.MaskedBinaryPattern;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Scanner of binary data for all signatures of signature set in single pass.
+ * <p>
+ * Longest run of bytes without wildcards of each signature is used as its
+ * anchor. Anchors of all signatures are located by single Aho-Corasick
+ * automaton and each anchor occurrence is verified against whole signature.
+ * Signatures without any fixed byte are matched by their own matcher on the
+ * same chunk of data. Data are read in chunks overlapping by the longest
+ * signature length - 1 bytes.
+ */
+@NullMarked
+public class SignatureScanner {
+
+    private final SignatureSet signatureSet;
+    private final int chunkSize;
+    private final int maxLength;
+    private final long scanStart;
+    private final long lastSignatureStart;
+
+    @Nullable
+    private final AhoCorasickAutomaton anchors;
+    private final int[] anchorSignatures;
+    private final int[] anchorOffsets;
+    private final int[] unanchoredSignatures;
+    private final BinaryPatternMatcher[] unanchoredMatchers;
+
+    public SignatureScanner(SignatureSet signatureSet) {
+        this(signatureSet, ChunkedDataScanner.DEFAULT_CHUNK_SIZE);
+    }
+
+    public SignatureScanner(SignatureSet signatureSet, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+
+        this.signatureSet = signatureSet;
+        this.chunkSize = chunkSize;
+        int signaturesCount = signatureSet.size();
+        List<byte[]> anchorKeywords = new ArrayList<>();
+        List<Integer> anchoredIndexes = new ArrayList<>();
+        List<Integer> anchorPositions = new ArrayList<>();
+        List<Integer> unanchoredIndexes = new ArrayList<>();
+        int longestLength = 0;
+        long minStart = signaturesCount == 0 ? 0 : Long.MAX_VALUE;
+        long maxStart = 0;
+        for (int i = 0; i < signaturesCount; i++) {
+            Signature signature = signatureSet.getSignature(i);
+            MaskedBinaryPattern pattern = signature.getPattern();
+            longestLength = Math.max(longestLength, pattern.getLength());
+            minStart = Math.min(minStart, signature.getMinOffset());
+            maxStart = Math.max(maxStart, signature.getMaxOffset());
+
+            int anchorOffset = 0;
+            int anchorLength = 0;
+            int runStart = 0;
+            for (int index = 0; index <= pattern.getLength(); index++) {
+                if (index < pattern.getLength() && pattern.getMask(index) == (byte) 0xff) {
+                    continue;
+                }
+                if (index - runStart > anchorLength) {
+                    anchorOffset = runStart;
+                    anchorLength = index - runStart;
+                }
+                runStart = index + 1;
+            }
+
+            if (anchorLength == 0) {
+                unanchoredIndexes.add(i);
+            } else {
+                byte[] anchor = new byte[anchorLength];
+                for (int index = 0; index < anchorLength; index++) {
+                    anchor[index] = pattern.getValue(anchorOffset + index);
+                }
+                anchorKeywords.add(anchor);
+                anchoredIndexes.add(i);
+                anchorPositions.add(anchorOffset);
+            }
+        }
+        maxLength = longestLength;
+        scanStart = minStart;
+        lastSignatureStart = maxStart;
+
+        anchors = anchorKeywords.isEmpty() ? null : new AhoCorasickAutomaton(anchorKeywords);
+        anchorSignatures = new int[anchoredIndexes.size()];
+        anchorOffsets = new int[anchoredIndexes.size()];
+        for (int i = 0; i < anchorSignatures.length; i++) {
+            anchorSignatures[i] = anchoredIndexes.get(i);
+            anchorOffsets[i] = anchorPositions.get(i);
+        }
+        unanchoredSignatures = new int[unanchoredIndexes.size()];
+        unanchoredMatchers = new BinaryPatternMatcher[unanchoredIndexes.size()];
+        for (int i = 0; i < unanchoredSignatures.length; i++) {
+            unanchoredSignatures[i] = unanchoredIndexes.get(i);
+            unanchoredMatchers[i] = BinaryPatternMatchers.createMatcher(signatureSet.getSignature(unanchoredSignatures[i]).getPattern());
+        }
+    }
+
+    public SignatureSet getSignatureSet() {
+        return signatureSet;
+    }
+
+    /**
+     * Scans data for all signatures.
+     * <p>
+     * Hits are reported in order of processed chunks, but hits within chunk
+     * are not ordered by position.
+     *
+     * @param data data to scan
+     * @param listener listener for found hits
+     * @return true if scan finished, false if it was cancelled
+     */
+    public boolean scan(BinaryData data, HitListener listener) {
+        long dataSize = data.getDataSize();
+        long startPosition = scanStart;
+        long endPosition = lastSignatureStart >= dataSize - maxLength ? dataSize : lastSignatureStart + maxLength;
+        if (maxLength == 0 || endPosition - startPosition <= 0) {
+            return true;
+        }
+
+        byte[] buffer = new byte[(int) Math.min((long) chunkSize + maxLength - 1, endPosition - startPosition)];
+        long chunkStart = startPosition;
+        while (true) {
+            if (listener.isCancelled()) {
+                return false;
+            }
+
+            long chunkEnd = Math.min(endPosition, chunkStart + buffer.length);
+            int length = (int) (chunkEnd - chunkStart);
+            data.copyToArray(chunkStart, buffer, 0, length);
+            int acceptLimit = chunkEnd == endPosition ? length : length - maxLength + 1;
+            if (!scanChunk(buffer, length, acceptLimit, chunkStart, listener)) {
+                return true;
+            }
+
+            if (chunkEnd == endPosition) {
+                break;
+            }
+            chunkStart += acceptLimit;
+            listener.positionReached(chunkStart);
+        }
+        listener.positionReached(endPosition);
+
+        return true;
+    }
+
+    /**
+     * Processes single chunk of data.
+     *
+     * @param buffer buffer with chunk data
+     * @param length length of data in buffer
+     * @param acceptLimit limit of signature starts handled by this chunk
+     * @param chunkStart position of chunk in data
+     * @param listener hit listener
+     * @return false if listener stopped processing
+     */
+    private boolean scanChunk(byte[] buffer, int length, int acceptLimit, long chunkStart, HitListener listener) {
+        if (anchors != null) {
+            boolean finished = anchors.findAll(buffer, 0, length, (int keywordIndex, int anchorPosition) -> {
+                int signatureIndex = anchorSignatures[keywordIndex];
+                int start = anchorPosition - anchorOffsets[keywordIndex];
+                if (start < 0 || start >= acceptLimit) {
+                    return true;
+                }
+
+                Signature signature = signatureSet.getSignature(signatureIndex);
+                int signatureLength = signature.getLength();
+                if (start + signatureLength > length || !signature.isAllowedAt(chunkStart + start)) {
+                    return true;
+                }
+
+                if (signature.getPattern().matches(buffer, start, 0, signatureLength)) {
+                    return listener.hitFound(signatureIndex, chunkStart + start);
+                }
+                return true;
+            });
+            if (!finished) {
+                return false;
+            }
+        }
+
+        for (int i = 0; i < unanchoredSignatures.length; i++) {
+            int signatureIndex = unanchoredSignatures[i];
+            Signature signature = signatureSet.getSignature(signatureIndex);
+            BinaryPatternMatcher matcher = unanchoredMatchers[i];
+            int index = matcher.indexOf(buffer, 0, length);
+            while (index >= 0 && index < acceptLimit) {
+                if (signature.isAllowedAt(chunkStart + index) && !listener.hitFound(signatureIndex, chunkStart + index)) {
+                    return false;
+                }
+                index = matcher.indexOf(buffer, index + 1, length);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Listener for signature hits.
+     */
+    @NullMarked
+    public interface HitListener {
+
+        /**
+         * Reports found signature.
+         *
+         * @param signatureIndex index of signature in signature set
+         * @param position position of signature
+         * @return true to continue scanning
+         */
+        boolean hitFound(int signatureIndex, long position);
+
+        /**
+         * Reports position scanning reached after processing chunk of data.
+         *
+         * @param position position
+         */
+        void positionReached(long position);
+
+        /**
+         * Returns true if scanning should be cancelled.
+         * <p>
+         * Checked once per chunk, default implementation checks interruption
+         * of current thread.
+         *
+         * @return true if cancelled
+         */
+        default boolean isCancelled() {
+            return Thread.interrupted();
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service.signature;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.exbin.bined.jaguif.search.service.matcher.MaskedBinaryPattern;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Set of signatures scanned together.
+ * <p>
+ * Textual form has one signature per line in form
+ * {@code name = pattern [; mask = hex] [; offset = from[..[to]]]}, where
+ * pattern uses syntax of {@link MaskedBinaryPattern}, mask is applied to
+ * pattern bytes and offset limits position of signature. Offsets are decimal
+ * or hexadecimal with 0x prefix. Empty lines and lines starting with # are
+ * ignored.
+ */
+@NullMarked
+public class SignatureSet {
+
+    public static final char COMMENT_PREFIX = '#';
+    public static final String MASK_ATTRIBUTE = "mask";
+    public static final String OFFSET_ATTRIBUTE = "offset";
+
+    private final List<Signature> signatures;
+
+    public SignatureSet(List<Signature> signatures) {
+        this.signatures = Collections.unmodifiableList(new ArrayList<>(signatures));
+    }
+
+    public List<Signature> getSignatures() {
+        return signatures;
+    }
+
+    public int size() {
+        return signatures.size();
+    }
+
+    public boolean isEmpty() {
+        return signatures.isEmpty();
+    }
+
+    public Signature getSignature(int index) {
+        return signatures.get(index);
+    }
+
+    /**
+     * Loads signature set from file in UTF-8 encoding.
+     *
+     * @param file source file
+     * @return signature set
+     * @throws IOException if reading fails
+     * @throws IllegalArgumentException if file contains invalid signature
+     */
+    public static SignatureSet load(File file) throws IOException {
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            return load(reader);
+        }
+    }
+
+    /**
+     * Loads signature set from textual form.
+     *
+     * @param reader source reader
+     * @return signature set
+     * @throws IOException if reading fails
+     * @throws IllegalArgumentException if text contains invalid signature
+     */
+    public static SignatureSet load(Reader reader) throws IOException {
+        List<Signature> signatures = new ArrayList<>();
+        BufferedReader lineReader = new BufferedReader(reader);
+        int lineNumber = 0;
+        String line;
+        while ((line = lineReader.readLine()) != null) {
+            lineNumber++;
+            String trimmedLine = line.trim();
+            if (trimmedLine.isEmpty() || trimmedLine.charAt(0) == COMMENT_PREFIX) {
+                continue;
+            }
+
+            try {
+                signatures.add(parseSignature(trimmedLine));
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": " + ex.getMessage(), ex);
+            }
+        }
+
+        return new SignatureSet(signatures);
+    }
+
+    /**
+     * Parses single signature.
+     *
+     * @param text textual form of signature
+     * @return signature
+     * @throws IllegalArgumentException if text is not valid signature
+     */
+    public static Signature parseSignature(String text) {
+        String[] parts = text.split(";");
+        int separator = parts[0].indexOf('=');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Missing '=' after signature name");
+        }
+        String name = parts[0].substring(0, separator).trim();
+        if (name.isEmpty()) {
+            throw new IllegalArgumentException("Missing signature name");
+        }
+
+        MaskedBinaryPattern pattern = MaskedBinaryPattern.parse(parts[0].substring(separator + 1));
+        long minOffset = 0;
+        long maxOffset = Signature.UNLIMITED_OFFSET;
+        for (int i = 1; i < parts.length; i++) {
+            String attribute = parts[i];
+            int valueSeparator = attribute.indexOf('=');
+            if (valueSeparator < 0) {
+                throw new IllegalArgumentException("Missing '=' in attribute " + attribute.trim());
+            }
+            String attributeName = attribute.substring(0, valueSeparator).trim();
+            String value = attribute.substring(valueSeparator + 1).trim();
+            switch (attributeName) {
+                case MASK_ATTRIBUTE: {
+                    pattern = applyMask(pattern, MaskedBinaryPattern.parse(value));
+                    break;
+                }
+                case OFFSET_ATTRIBUTE: {
+                    int rangeSeparator = value.indexOf("..");
+                    if (rangeSeparator < 0) {
+                        minOffset = parseOffset(value);
+                        maxOffset = minOffset;
+                    } else {
+                        minOffset = parseOffset(value.substring(0, rangeSeparator).trim());
+                        String maxValue = value.substring(rangeSeparator + 2).trim();
+                        maxOffset = maxValue.isEmpty() ? Signature.UNLIMITED_OFFSET : parseOffset(maxValue);
+                    }
+                    break;
+                }
+                default:
+                    throw new IllegalArgumentException("Unknown attribute " + attributeName);
+            }
+        }
+
+        return new Signature(name, pattern, minOffset, maxOffset);
+    }
+
+    private static MaskedBinaryPattern applyMask(MaskedBinaryPattern pattern, MaskedBinaryPattern mask) {
+        int length = pattern.getLength();
+        if (mask.getLength() != length || !mask.isExact()) {
+            throw new IllegalArgumentException("Mask must be " + length + " hexadecimal bytes");
+        }
+
+        byte[] values = new byte[length];
+        byte[] masks = new byte[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = pattern.getValue(i);
+            masks[i] = (byte) (pattern.getMask(i) & mask.getValue(i));
+        }
+        return new MaskedBinaryPattern(values, masks);
+    }
+
+    private static long parseOffset(String value) {
+        try {
+            if (value.startsWith("0x") || value.startsWith("0X")) {
+                return Long.parseLong(value.substring(2), 16);
+            }
+            return Long.parseLong(value);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid offset " + value, ex);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for search scheduler.
+ */
+public class SearchSchedulerTest {
+
+    private static final long TIMEOUT = 10;
+
+    @Test
+    public void testCoalescing() throws InterruptedException {
+        SearchScheduler scheduler = new SearchScheduler();
+        try {
+            List<Integer> performed = Collections.synchronizedList(new ArrayList<>());
+            CountDownLatch finished = new CountDownLatch(1);
+            for (int i = 0; i < 3; i++) {
+                int job = i;
+                scheduler.schedule((SearchScheduler.SearchTask task) -> {
+                    performed.add(job);
+                    finished.countDown();
+                }, 200);
+            }
+            Assert.assertTrue(finished.await(TIMEOUT, TimeUnit.SECONDS));
+            waitForIdle(scheduler);
+            Assert.assertEquals(Collections.singletonList(2), performed);
+            Assert.assertEquals(2, scheduler.getCoalescedCount());
+            Assert.assertEquals(1, scheduler.getCompletedCount());
+        } finally {
+            scheduler.dispose();
+        }
+    }
+
+    @Test
+    public void testCancelRunningTask() throws InterruptedException {
+        SearchScheduler scheduler = new SearchScheduler();
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            SearchScheduler.SearchTask runningTask = scheduler.schedule((SearchScheduler.SearchTask task) -> {
+                started.countDown();
+                while (!task.isCancelled()) {
+                    Thread.yield();
+                }
+            }, 0);
+            Assert.assertTrue(started.await(TIMEOUT, TimeUnit.SECONDS));
+            CountDownLatch performed = new CountDownLatch(1);
+            scheduler.schedule((SearchScheduler.SearchTask task) -> performed.countDown(), 0);
+            Assert.assertTrue(runningTask.isCancelled());
+            Assert.assertFalse(runningTask.isCurrent());
+            Assert.assertTrue(performed.await(TIMEOUT, TimeUnit.SECONDS));
+            waitForIdle(scheduler);
+            Assert.assertEquals(1, scheduler.getCancelledCount());
+        } finally {
+            scheduler.dispose();
+        }
+    }
+
+    @Test
+    public void testDispose() throws InterruptedException {
+        SearchScheduler scheduler = new SearchScheduler();
+        CountDownLatch started = new CountDownLatch(1);
+        SearchScheduler.SearchTask runningTask = scheduler.schedule((SearchScheduler.SearchTask task) -> {
+            started.countDown();
+            while (!task.isCancelled()) {
+                Thread.yield();
+            }
+        }, 0);
+        Assert.assertTrue(started.await(TIMEOUT, TimeUnit.SECONDS));
+        scheduler.dispose();
+        Assert.assertTrue(runningTask.isCancelled());
+
+        SearchScheduler.SearchTask task = scheduler.schedule((SearchScheduler.SearchTask scheduledTask) -> Assert.fail("Task performed after dispose"), 0);
+        Assert.assertTrue(task.isCancelled());
+        waitForIdle(scheduler);
+        Assert.assertFalse(scheduler.isBusy());
+    }
+
+    private static void waitForIdle(SearchScheduler scheduler) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(TIMEOUT);
+        while (scheduler.isBusy()) {
+            Assert.assertTrue("Scheduler is still busy", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.auxiliary.binary_data.EditableBinaryData;
+import org.exbin.auxiliary.binary_data.array.ByteArrayData;
+import org.exbin.auxiliary.binary_data.array.ByteArrayEditableData;
+import org.exbin.bined.jaguif.document.data.UndoDataStore;
+import org.exbin.bined.operation.BinaryDataUndoableOperation;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for replace all operation compared to replacing matches one by one.
+ */
+public class ReplaceAllOperationTest {
+
+    private static final int DATA_SIZE = 5000;
+    private static final int[] REPLACEMENT_LENGTHS = {0, 1, 3, 10};
+
+    @Test
+    public void testReplaceAll() {
+        for (int replacementLength : REPLACEMENT_LENGTHS) {
+            Random random = new Random(replacementLength);
+            byte[] original = new byte[DATA_SIZE];
+            random.nextBytes(original);
+            SearchMatchStore matches = createMatches(random);
+            byte[] replacement = new byte[replacementLength];
+            random.nextBytes(replacement);
+
+            EditableBinaryData data = new ByteArrayEditableData(original.clone());
+            new ReplaceAllOperation(matches, new ByteArrayData(replacement)).execute(data);
+            Assert.assertArrayEquals("Replacement length " + replacementLength, replaceNaive(original, matches, replacement), toArray(data));
+        }
+    }
+
+    @Test
+    public void testUndo() {
+        for (int replacementLength : REPLACEMENT_LENGTHS) {
+            Random random = new Random(replacementLength);
+            byte[] original = new byte[DATA_SIZE];
+            random.nextBytes(original);
+            SearchMatchStore matches = createMatches(random);
+            byte[] replacement = new byte[replacementLength];
+            random.nextBytes(replacement);
+
+            EditableBinaryData data = new ByteArrayEditableData(original.clone());
+            BinaryDataUndoableOperation undoOperation = new ReplaceAllOperation(matches, new ByteArrayData(replacement)).executeWithUndo(data);
+            Assert.assertArrayEquals(replaceNaive(original, matches, replacement), toArray(data));
+            undoOperation.execute(data);
+            undoOperation.dispose();
+            Assert.assertArrayEquals("Replacement length " + replacementLength, original, toArray(data));
+        }
+    }
+
+    @Test
+    public void testUndoDataStore() {
+        Random random = new Random(0);
+        byte[] original = new byte[DATA_SIZE];
+        random.nextBytes(original);
+        SearchMatchStore matches = createMatches(random);
+        long matchesLength = 0;
+        for (int i = 0; i < matches.size(); i++) {
+            matchesLength += matches.getLength(i);
+        }
+        byte[] replacement = {1, 2, 3};
+
+        for (long memoryBudget : new long[]{0, matchesLength}) {
+            UndoDataStore undoDataStore = new UndoDataStore();
+            undoDataStore.setMemoryBudget(memoryBudget);
+            ReplaceAllOperation operation = new ReplaceAllOperation(matches, new ByteArrayData(replacement));
+            operation.setUndoDataStore(undoDataStore);
+
+            EditableBinaryData data = new ByteArrayEditableData(original.clone());
+            BinaryDataUndoableOperation undoOperation = operation.executeWithUndo(data);
+            Assert.assertEquals(memoryBudget, undoDataStore.getMemoryUsed());
+            undoOperation.execute(data);
+            Assert.assertArrayEquals("Memory budget " + memoryBudget, original, toArray(data));
+            undoOperation.dispose();
+            Assert.assertEquals(0, undoDataStore.getMemoryUsed());
+        }
+    }
+
+    /**
+     * Creates sorted non-overlapping matches including empty and adjacent
+     * matches and matches at start and end of data.
+     */
+    private static SearchMatchStore createMatches(Random random) {
+        SearchMatchStore matches = new SearchMatchStore();
+        matches.add(0, 4);
+        long position = 4;
+        while (position < DATA_SIZE - 100) {
+            long length = random.nextInt(8);
+            matches.add(position, length);
+            position += length + (random.nextBoolean() ? 0 : random.nextInt(50));
+        }
+        matches.add(DATA_SIZE - 5, 5);
+        return matches;
+    }
+
+    private static byte[] replaceNaive(byte[] original, SearchMatchStore matches, byte[] replacement) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        int position = 0;
+        for (int i = 0; i < matches.size(); i++) {
+            int matchPosition = (int) matches.getPosition(i);
+            output.write(original, position, matchPosition - position);
+            output.write(replacement, 0, replacement.length);
+            position = matchPosition + (int) matches.getLength(i);
+        }
+        output.write(original, position, original.length - position);
+        return output.toByteArray();
+    }
+
+    private static byte[] toArray(BinaryData data) {
+        byte[] result = new byte[(int) data.getDataSize()];
+        data.copyToArray(0, result, 0, result.length);
+        return result;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service;
+
+import java.util.List;
+import org.exbin.bined.highlight.swing.SearchMatch;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for search match store.
+ */
+public class SearchMatchStoreTest {
+
+    private static final int MATCHES_COUNT = 1000;
+
+    @Test
+    public void testAdd() {
+        SearchMatchStore store = createStore(MATCHES_COUNT, false);
+        Assert.assertEquals(MATCHES_COUNT, store.size());
+        Assert.assertFalse(store.isEmpty());
+        for (int i = 0; i < MATCHES_COUNT; i++) {
+            Assert.assertEquals(i * 10L, store.getPosition(i));
+            Assert.assertEquals(i % 7 + 1L, store.getLength(i));
+            Assert.assertEquals(0, store.getDistance(i));
+        }
+
+        store.clear();
+        Assert.assertTrue(store.isEmpty());
+        Assert.assertTrue(store.asList(false).isEmpty());
+    }
+
+    @Test
+    public void testDistances() {
+        SearchMatchStore store = createStore(MATCHES_COUNT, true);
+        for (int i = 0; i < MATCHES_COUNT; i++) {
+            Assert.assertEquals(i < 100 ? 0 : i % 3, store.getDistance(i));
+            Assert.assertEquals(i * 10L, store.getPosition(i));
+        }
+    }
+
+    @Test
+    public void testAsList() {
+        SearchMatchStore store = createStore(MATCHES_COUNT, false);
+        List<SearchMatch> matches = store.asList(false);
+        List<SearchMatch> reversedMatches = store.asList(true);
+        Assert.assertEquals(MATCHES_COUNT, matches.size());
+        Assert.assertEquals(MATCHES_COUNT, reversedMatches.size());
+        for (int i = 0; i < MATCHES_COUNT; i++) {
+            checkMatch(store, i, matches.get(i));
+            checkMatch(store, MATCHES_COUNT - 1 - i, reversedMatches.get(i));
+        }
+
+        // View is limited to matches stored at the time of the call
+        store.add(MATCHES_COUNT * 10L, 1);
+        Assert.assertEquals(MATCHES_COUNT, matches.size());
+
+        List<SearchMatch> limitedMatches = store.asList(10, true);
+        Assert.assertEquals(10, limitedMatches.size());
+        for (int i = 0; i < 10; i++) {
+            checkMatch(store, 9 - i, limitedMatches.get(i));
+        }
+    }
+
+    @Test
+    public void testInvalidIndex() {
+        SearchMatchStore store = createStore(10, false);
+        expectOutOfBounds(() -> store.getPosition(10));
+        expectOutOfBounds(() -> store.getLength(-1));
+        expectOutOfBounds(() -> store.getDistance(10));
+        expectOutOfBounds(() -> store.asList(11, false));
+        expectOutOfBounds(() -> store.asList(-1, false));
+        expectOutOfBounds(() -> store.asList(5, false).get(5));
+
+        // Cleared matches are not accessible
+        store.clear();
+        expectOutOfBounds(() -> store.getPosition(0));
+    }
+
+    private static SearchMatchStore createStore(int matchesCount, boolean withDistances) {
+        SearchMatchStore store = new SearchMatchStore();
+        for (int i = 0; i < matchesCount; i++) {
+            if (withDistances) {
+                store.add(i * 10L, i % 7 + 1, i < 100 ? 0 : i % 3);
+            } else {
+                store.add(i * 10L, i % 7 + 1);
+            }
+        }
+        return store;
+    }
+
+    private static void checkMatch(SearchMatchStore store, int index, SearchMatch match) {
+        Assert.assertEquals(store.getPosition(index), match.getPosition());
+        Assert.assertEquals(store.getLength(index), match.getLength());
+    }
+
+    private static void expectOutOfBounds(Runnable runnable) {
+        try {
+            runnable.run();
+            Assert.fail("Index should be out of bounds");
+        } catch (IndexOutOfBoundsException ex) {
+            // Expected
+        }
+    }
+}
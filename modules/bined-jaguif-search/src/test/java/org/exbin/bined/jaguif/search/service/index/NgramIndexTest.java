@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service.index;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for n-gram index.
+ */
+public class NgramIndexTest {
+
+    private static final int BLOCK_SIZE = 256;
+    private static final int DATA_SIZE = 64 * BLOCK_SIZE + 100;
+
+    @Test
+    public void testCandidateBlocksContainMatches() throws IOException {
+        Random random = new Random(0);
+        byte[] data = new byte[DATA_SIZE];
+        random.nextBytes(data);
+        byte[][] patterns = new byte[3][];
+        for (int i = 0; i < patterns.length; i++) {
+            patterns[i] = new byte[NgramIndex.GRAM_LENGTH + i * 7];
+            random.nextBytes(patterns[i]);
+        }
+        // Plant patterns at start, end, across block boundaries and at last byte of block
+        plant(data, patterns[0], 0);
+        plant(data, patterns[1], BLOCK_SIZE - 3);
+        plant(data, patterns[2], 5 * BLOCK_SIZE - 1);
+        plant(data, patterns[2], 20 * BLOCK_SIZE + 17);
+        plant(data, patterns[0], DATA_SIZE - patterns[0].length);
+
+        File dataFile = File.createTempFile("ngram", ".bin");
+        File indexFile = File.createTempFile("ngram", ".bsi");
+        try {
+            Files.write(dataFile.toPath(), data);
+            NgramIndex index = new NgramIndexBuilder(BLOCK_SIZE).build(dataFile, indexFile);
+            Assert.assertEquals((DATA_SIZE + BLOCK_SIZE - 1) / BLOCK_SIZE, index.getBlockCount());
+            for (byte[] pattern : patterns) {
+                BitSet candidates = index.findCandidateBlocks(pattern);
+                for (int position : findAll(data, pattern)) {
+                    Assert.assertTrue("Block of match at " + position, candidates.get(position / BLOCK_SIZE));
+                }
+            }
+
+            byte[] absent = new byte[16];
+            random.nextBytes(absent);
+            Assert.assertTrue(findAll(data, absent).isEmpty());
+            Assert.assertTrue("Filter is saturated", index.findCandidateBlocks(absent).cardinality() < index.getBlockCount() / 2);
+
+            NgramIndex reopened = NgramIndex.open(indexFile, dataFile);
+            Assert.assertNotNull(reopened);
+            Assert.assertEquals(index.findCandidateBlocks(patterns[2]), reopened.findCandidateBlocks(patterns[2]));
+        } finally {
+            dataFile.delete();
+            indexFile.delete();
+        }
+    }
+
+    @Test
+    public void testOutdatedIndex() throws IOException {
+        File dataFile = File.createTempFile("ngram", ".bin");
+        File indexFile = File.createTempFile("ngram", ".bsi");
+        try {
+            Files.write(dataFile.toPath(), new byte[1000]);
+            NgramIndex index = new NgramIndexBuilder(BLOCK_SIZE).build(dataFile, indexFile);
+            Assert.assertTrue(index.isValidFor(dataFile));
+
+            Files.write(dataFile.toPath(), new byte[1001]);
+            Assert.assertFalse(index.isValidFor(dataFile));
+            Assert.assertNull(NgramIndex.open(indexFile, dataFile));
+
+            Files.write(indexFile.toPath(), new byte[10]);
+            Assert.assertNull(NgramIndex.open(indexFile, dataFile));
+        } finally {
+            dataFile.delete();
+            indexFile.delete();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testShortPattern() throws IOException {
+        File dataFile = File.createTempFile("ngram", ".bin");
+        File indexFile = File.createTempFile("ngram", ".bsi");
+        try {
+            Files.write(dataFile.toPath(), new byte[100]);
+            new NgramIndexBuilder(BLOCK_SIZE).build(dataFile, indexFile).findCandidateBlocks(new byte[NgramIndex.GRAM_LENGTH - 1]);
+        } finally {
+            dataFile.delete();
+            indexFile.delete();
+        }
+    }
+
+    private static List<Integer> findAll(byte[] data, byte[] pattern) {
+        List<Integer> matches = new ArrayList<>();
+        for (int position = 0; position <= data.length - pattern.length; position++) {
+            int i = 0;
+            while (i < pattern.length && data[position + i] == pattern[i]) {
+                i++;
+            }
+            if (i == pattern.length) {
+                matches.add(position);
+            }
+        }
+        return matches;
+    }
+
+    private static void plant(byte[] data, byte[] pattern, int position) {
+        System.arraycopy(pattern, 0, data, position, pattern.length);
+    }
+}
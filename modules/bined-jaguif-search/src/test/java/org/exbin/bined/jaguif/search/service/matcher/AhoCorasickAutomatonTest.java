@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service.matcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for Aho-Corasick automaton compared to naive search of each keyword.
+ */
+public class AhoCorasickAutomatonTest {
+
+    @Test
+    public void testFindAll() {
+        Random random = new Random(0);
+        byte[] data = new byte[5000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) random.nextInt(3);
+        }
+        // Keywords sharing prefixes and suffixes and keyword contained in another
+        List<byte[]> keywords = Arrays.asList(new byte[]{0}, new byte[]{0, 1}, new byte[]{1, 0, 1}, new byte[]{2, 2, 2, 2}, new byte[]{0, 1, 2, 0, 1, 2}, new byte[]{1, 2});
+        AhoCorasickAutomaton automaton = new AhoCorasickAutomaton(keywords);
+        Assert.assertEquals(keywords.size(), automaton.getKeywordsCount());
+        Assert.assertEquals(6, automaton.getMaxKeywordLength());
+
+        List<String> expected = new ArrayList<>();
+        for (int keywordIndex = 0; keywordIndex < keywords.size(); keywordIndex++) {
+            for (long position : BinaryPatternMatcherTest.findAll(data, keywords.get(keywordIndex), 0, data.length)) {
+                expected.add(position + ":" + keywordIndex);
+            }
+        }
+        List<String> found = new ArrayList<>();
+        Assert.assertTrue(automaton.findAll(data, 0, data.length, (int keywordIndex, int position) -> {
+            found.add(position + ":" + keywordIndex);
+            return true;
+        }));
+        Collections.sort(expected);
+        Collections.sort(found);
+        Assert.assertEquals(expected, found);
+    }
+
+    @Test
+    public void testStopProcessing() {
+        AhoCorasickAutomaton automaton = new AhoCorasickAutomaton(Collections.singletonList(new byte[]{1}));
+        List<Integer> found = new ArrayList<>();
+        Assert.assertFalse(automaton.findAll(new byte[]{0, 1, 1, 1}, 0, 4, (int keywordIndex, int position) -> {
+            found.add(position);
+            return found.size() < 2;
+        }));
+        Assert.assertEquals(Arrays.asList(1, 2), found);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyKeyword() {
+        new AhoCorasickAutomaton(Collections.singletonList(new byte[0]));
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service.matcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.exbin.auxiliary.binary_data.array.ByteArrayData;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for approximate pattern matchers and scanner compared to naive
+ * distance computation.
+ */
+public class ApproximateDataScannerTest {
+
+    private static final int[][] PATTERN_PARAMETERS = {{1, 0}, {2, 1}, {8, 2}, {64, 5}, {65, 5}, {130, 10}};
+    private static final int[] CHUNK_SIZES = {1, 7, ChunkedDataScanner.DEFAULT_CHUNK_SIZE};
+    private static final int DATA_SIZE = 1500;
+
+    @Test
+    public void testHammingMatcher() {
+        for (int[] parameters : PATTERN_PARAMETERS) {
+            Random random = new Random(parameters[0]);
+            byte[] pattern = createPattern(random, parameters[0]);
+            byte[] data = createData(random, pattern, parameters[1]);
+            HammingPatternMatcher matcher = new HammingPatternMatcher(pattern, parameters[1]);
+            for (int end = 0; end < data.length; end++) {
+                int expected = end < pattern.length - 1 ? -1 : hammingDistance(data, end - pattern.length + 1, pattern);
+                Assert.assertEquals("Pattern " + parameters[0] + " at " + end, expected > parameters[1] ? -1 : expected, matcher.next(data[end]));
+            }
+        }
+    }
+
+    @Test
+    public void testLevenshteinMatcher() {
+        for (int[] parameters : PATTERN_PARAMETERS) {
+            Random random = new Random(parameters[0]);
+            byte[] pattern = createPattern(random, parameters[0]);
+            byte[] data = createData(random, pattern, parameters[1]);
+            LevenshteinPatternMatcher matcher = new LevenshteinPatternMatcher(pattern, parameters[1]);
+            // Column of edit distance matrix with free match start
+            int[] column = new int[pattern.length + 1];
+            for (int i = 0; i <= pattern.length; i++) {
+                column[i] = i;
+            }
+            for (int end = 0; end < data.length; end++) {
+                int diagonal = column[0];
+                for (int i = 1; i <= pattern.length; i++) {
+                    int above = column[i];
+                    column[i] = Math.min(diagonal + (pattern[i - 1] == data[end] ? 0 : 1), Math.min(above, column[i - 1]) + 1);
+                    diagonal = above;
+                }
+                int expected = column[pattern.length];
+                Assert.assertEquals("Pattern " + parameters[0] + " at " + end, expected > parameters[1] ? -1 : expected, matcher.next(data[end]));
+            }
+        }
+    }
+
+    @Test
+    public void testHammingScan() {
+        for (int[] parameters : PATTERN_PARAMETERS) {
+            Random random = new Random(parameters[0]);
+            byte[] pattern = createPattern(random, parameters[0]);
+            byte[] data = createData(random, pattern, parameters[1]);
+            List<String> expected = new ArrayList<>();
+            for (int position = 0; position <= data.length - pattern.length; position++) {
+                int distance = hammingDistance(data, position, pattern);
+                if (distance <= parameters[1]) {
+                    expected.add(position + "+" + pattern.length + "~" + distance);
+                }
+            }
+            Assert.assertFalse(expected.isEmpty());
+
+            for (int chunkSize : CHUNK_SIZES) {
+                ApproximateDataScanner scanner = new ApproximateDataScanner(new HammingPatternMatcher(pattern, parameters[1]), chunkSize);
+                MatchCollector collector = new MatchCollector();
+                Assert.assertTrue(scanner.scanForward(new ByteArrayData(data), 0, data.length, collector));
+                Assert.assertEquals("Pattern " + parameters[0] + " chunk " + chunkSize, expected, collector.matches);
+
+                collector = new MatchCollector();
+                Assert.assertTrue(scanner.scanBackward(new ByteArrayData(data), 0, data.length, collector));
+                Collections.reverse(collector.matches);
+                Assert.assertEquals("Pattern " + parameters[0] + " chunk " + chunkSize, expected, collector.matches);
+            }
+        }
+    }
+
+    @Test
+    public void testHammingScanRange() {
+        byte[] pattern = {1, 2, 3, 4};
+        byte[] data = {1, 2, 3, 4, 1, 2, 3, 4, 1, 2, 0, 4};
+        ApproximateDataScanner scanner = new ApproximateDataScanner(new HammingPatternMatcher(pattern, 1), 3);
+        MatchCollector collector = new MatchCollector();
+        Assert.assertTrue(scanner.scanForward(new ByteArrayData(data), 1, 8, collector));
+        Assert.assertEquals(Collections.singletonList("4+4~0"), collector.matches);
+        collector = new MatchCollector();
+        Assert.assertTrue(scanner.scanBackward(new ByteArrayData(data), 4, 9, collector));
+        Assert.assertEquals(Arrays.asList("8+4~1", "4+4~0"), collector.matches);
+    }
+
+    @Test
+    public void testLevenshteinScan() {
+        for (int[] parameters : PATTERN_PARAMETERS) {
+            Random random = new Random(parameters[0]);
+            byte[] pattern = createPattern(random, parameters[0]);
+            byte[] data = createData(random, pattern, parameters[1]);
+            int maxDistance = parameters[1];
+            List<String> forwardMatches = null;
+            List<String> backwardMatches = null;
+            for (int chunkSize : CHUNK_SIZES) {
+                ApproximateDataScanner scanner = new ApproximateDataScanner(new LevenshteinPatternMatcher(pattern, maxDistance), chunkSize);
+                MatchCollector collector = new MatchCollector();
+                Assert.assertTrue(scanner.scanForward(new ByteArrayData(data), 0, data.length, collector));
+                checkMatches(data, pattern, maxDistance, collector, false);
+                if (forwardMatches == null) {
+                    forwardMatches = collector.matches;
+                } else {
+                    Assert.assertEquals("Chunk size " + chunkSize, forwardMatches, collector.matches);
+                }
+
+                collector = new MatchCollector();
+                Assert.assertTrue(scanner.scanBackward(new ByteArrayData(data), 0, data.length, collector));
+                checkMatches(data, pattern, maxDistance, collector, true);
+                if (backwardMatches == null) {
+                    backwardMatches = collector.matches;
+                } else {
+                    Assert.assertEquals("Chunk size " + chunkSize, backwardMatches, collector.matches);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testStopScan() {
+        byte[] data = new byte[100];
+        ApproximateDataScanner scanner = new ApproximateDataScanner(new LevenshteinPatternMatcher(new byte[]{0, 0, 0, 0}, 1), 10);
+        MatchCollector collector = new MatchCollector(2);
+        Assert.assertTrue(scanner.scanForward(new ByteArrayData(data), 0, data.length, collector));
+        Assert.assertEquals(2, collector.matches.size());
+    }
+
+    /**
+     * Checks that reported matches are within distance, do not overlap, are
+     * ordered and cover every exact occurrence of pattern.
+     */
+    private static void checkMatches(byte[] data, byte[] pattern, int maxDistance, MatchCollector collector, boolean backward) {
+        long previousStart = backward ? Long.MAX_VALUE : -1;
+        long previousEnd = -1;
+        for (int i = 0; i < collector.positions.size(); i++) {
+            int position = (int) (long) collector.positions.get(i);
+            int length = (int) (long) collector.lengths.get(i);
+            int distance = collector.distances.get(i);
+            Assert.assertTrue(distance <= maxDistance);
+            Assert.assertTrue(length >= pattern.length - maxDistance && length <= pattern.length + maxDistance);
+            Assert.assertEquals("Match at " + position, distance, editDistance(data, position, length, pattern));
+            if (backward) {
+                Assert.assertTrue(position + length <= previousStart);
+            } else {
+                Assert.assertTrue(position > previousEnd);
+            }
+            previousStart = position;
+            previousEnd = position + length - 1;
+        }
+
+        for (long exact : BinaryPatternMatcherTest.findAll(data, pattern, 0, data.length)) {
+            boolean covered = false;
+            for (int i = 0; i < collector.positions.size() && !covered; i++) {
+                long position = collector.positions.get(i);
+                covered = position < exact + pattern.length && exact < position + collector.lengths.get(i);
+            }
+            Assert.assertTrue("Exact match at " + exact, covered);
+        }
+    }
+
+    private static byte[] createPattern(Random random, int length) {
+        byte[] pattern = new byte[length];
+        for (int i = 0; i < length; i++) {
+            pattern[i] = (byte) (0x80 + random.nextInt(16));
+        }
+        return pattern;
+    }
+
+    /**
+     * Creates data with exact and modified occurrences of pattern including
+     * start and end of data.
+     */
+    private static byte[] createData(Random random, byte[] pattern, int maxDistance) {
+        byte[] data = new byte[DATA_SIZE];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (0x80 + random.nextInt(16));
+        }
+        int step = DATA_SIZE / 5;
+        for (int occurrence = 0; occurrence < 5; occurrence++) {
+            int position = occurrence == 4 ? DATA_SIZE - pattern.length : occurrence * step;
+            System.arraycopy(pattern, 0, data, position, pattern.length);
+            for (int change = 0; change < occurrence % 2 * maxDistance; change++) {
+                data[position + random.nextInt(pattern.length)] = 0;
+            }
+        }
+        return data;
+    }
+
+    private static int hammingDistance(byte[] data, int position, byte[] pattern) {
+        int distance = 0;
+        for (int i = 0; i < pattern.length; i++) {
+            if (data[position + i] != pattern[i]) {
+                distance++;
+            }
+        }
+        return distance;
+    }
+
+    private static int editDistance(byte[] data, int position, int length, byte[] pattern) {
+        int[] row = new int[length + 1];
+        for (int j = 0; j <= length; j++) {
+            row[j] = j;
+        }
+        for (int i = 1; i <= pattern.length; i++) {
+            int diagonal = row[0];
+            row[0] = i;
+            for (int j = 1; j <= length; j++) {
+                int above = row[j];
+                row[j] = Math.min(diagonal + (pattern[i - 1] == data[position + j - 1] ? 0 : 1), Math.min(above, row[j - 1]) + 1);
+                diagonal = above;
+            }
+        }
+        return row[length];
+    }
+
+    private static class MatchCollector implements ApproximateDataScanner.MatchListener {
+
+        private final int limit;
+        private final List<String> matches = new ArrayList<>();
+        private final List<Long> positions = new ArrayList<>();
+        private final List<Long> lengths = new ArrayList<>();
+        private final List<Integer> distances = new ArrayList<>();
+
+        public MatchCollector() {
+            this(Integer.MAX_VALUE);
+        }
+
+        public MatchCollector(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public boolean matchFound(long position, long length, int distance) {
+            matches.add(position + "+" + length + "~" + distance);
+            positions.add(position);
+            lengths.add(length);
+            distances.add(distance);
+            return matches.size() < limit;
+        }
+
+        @Override
+        public void positionReached(long position) {
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service.matcher;
+
+import java.util.Random;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.auxiliary.binary_data.array.ByteArrayData;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+
+/**
+ * Throughput benchmark of chunked pattern search compared to per byte search.
+ * <p>
+ * Ignored by default, correctness is covered by {@link BinaryPatternMatcherTest}
+ * and {@link ChunkedDataScannerTest}.
+ */
+public class BinaryPatternMatcherBenchmarkTest {
+
+    private static final int DATA_SIZE = 64 * 1024 * 1024;
+    private static final int[] PATTERN_LENGTHS = {1, 2, 4, 8, 16, 64};
+
+    @Test
+    @Ignore
+    public void testThroughput() {
+        Random random = new Random(0);
+        byte[] content = new byte[DATA_SIZE];
+        random.nextBytes(content);
+        // Only planted occurrence at the end of data can match
+        for (int i = 0; i < DATA_SIZE; i++) {
+            content[i] &= 0x7f;
+        }
+        BinaryData data = new ByteArrayData(content);
+
+        for (int patternLength : PATTERN_LENGTHS) {
+            byte[] pattern = new byte[patternLength];
+            random.nextBytes(pattern);
+            for (int i = 0; i < patternLength; i++) {
+                pattern[i] |= (byte) 0x80;
+            }
+            System.arraycopy(pattern, 0, content, DATA_SIZE - patternLength, patternLength);
+
+            long startTime = System.nanoTime();
+            long legacyMatch = searchPerByte(data, pattern);
+            long legacyTime = System.nanoTime() - startTime;
+
+            BinaryPatternMatcher matcher = BinaryPatternMatchers.createMatcher(pattern);
+            ChunkedDataScanner scanner = new ChunkedDataScanner();
+            long[] chunkedMatch = new long[] {-1};
+            startTime = System.nanoTime();
+            scanner.scanForward(data, matcher, 0, DATA_SIZE, new ChunkedDataScanner.ScanListener() {
+                @Override
+                public boolean matchFound(long position) {
+                    chunkedMatch[0] = position;
+                    return false;
+                }
+
+                @Override
+                public void positionReached(long position) {
+                }
+            });
+            long chunkedTime = System.nanoTime() - startTime;
+
+            Assert.assertEquals(legacyMatch, chunkedMatch[0]);
+            System.out.println(String.format("Pattern length %d: per byte %.1f MB/s, %s %.1f MB/s",
+                    patternLength, throughput(legacyMatch, legacyTime), matcher.getClass().getSimpleName(), throughput(chunkedMatch[0], chunkedTime)));
+        }
+    }
+
+    private static long searchPerByte(BinaryData data, byte[] pattern) {
+        long dataSize = data.getDataSize();
+        for (long position = 0; position <= dataSize - pattern.length; position++) {
+            int matchLength = 0;
+            while (matchLength < pattern.length) {
+                if (Thread.interrupted()) {
+                    return -1;
+                }
+
+                if (data.getByte(position + matchLength) != pattern[matchLength]) {
+                    break;
+                }
+                matchLength++;
+            }
+
+            if (matchLength == pattern.length) {
+                return position;
+            }
+        }
+
+        return -1;
+    }
+
+    private static double throughput(long bytes, long nanos) {
+        return (bytes / (1024.0 * 1024.0)) / (nanos / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service.matcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for binary pattern matchers compared to naive search.
+ */
+public class BinaryPatternMatcherTest {
+
+    private static final int DATA_SIZE = 2000;
+    private static final int[] PATTERN_LENGTHS = {1, 2, 3, 4, 5, 8, 17, 64};
+
+    @Test
+    public void testIndexOf() {
+        Random random = new Random(0);
+        for (int patternLength : PATTERN_LENGTHS) {
+            byte[] data = createData(random, patternLength);
+            byte[] pattern = plantPattern(random, data, patternLength);
+            List<Long> expected = findAll(data, pattern, 0, data.length);
+            Assert.assertEquals(0L, (long) expected.get(0));
+            Assert.assertEquals(DATA_SIZE - patternLength, (long) expected.get(expected.size() - 1));
+
+            for (BinaryPatternMatcher matcher : createMatchers(pattern)) {
+                List<Long> found = new ArrayList<>();
+                int index = matcher.indexOf(data, 0, data.length);
+                while (index >= 0) {
+                    found.add((long) index);
+                    index = matcher.indexOf(data, index + 1, data.length);
+                }
+                Assert.assertEquals(matcher.getClass().getSimpleName() + " pattern length " + patternLength, expected, found);
+            }
+        }
+    }
+
+    @Test
+    public void testLastIndexOf() {
+        Random random = new Random(1);
+        for (int patternLength : PATTERN_LENGTHS) {
+            byte[] data = createData(random, patternLength);
+            byte[] pattern = plantPattern(random, data, patternLength);
+            List<Long> expected = findAll(data, pattern, 0, data.length);
+
+            for (BinaryPatternMatcher matcher : createMatchers(pattern)) {
+                List<Long> found = new ArrayList<>();
+                int index = matcher.lastIndexOf(data, 0, data.length);
+                while (index >= 0) {
+                    found.add(0, (long) index);
+                    index = index == 0 ? -1 : matcher.lastIndexOf(data, 0, index - 1 + patternLength);
+                }
+                Assert.assertEquals(matcher.getClass().getSimpleName() + " pattern length " + patternLength, expected, found);
+            }
+        }
+    }
+
+    @Test
+    public void testSubrange() {
+        Random random = new Random(2);
+        for (int patternLength : PATTERN_LENGTHS) {
+            byte[] data = createData(random, patternLength);
+            byte[] pattern = plantPattern(random, data, patternLength);
+            int from = 7;
+            int to = DATA_SIZE - 11;
+            List<Long> expected = findAll(data, pattern, from, to);
+
+            for (BinaryPatternMatcher matcher : createMatchers(pattern)) {
+                long first = expected.isEmpty() ? -1 : expected.get(0);
+                long last = expected.isEmpty() ? -1 : expected.get(expected.size() - 1);
+                Assert.assertEquals(matcher.getClass().getSimpleName(), first, matcher.indexOf(data, from, to));
+                Assert.assertEquals(matcher.getClass().getSimpleName(), last, matcher.lastIndexOf(data, from, to));
+            }
+        }
+    }
+
+    @Test
+    public void testNotFound() {
+        byte[] data = new byte[DATA_SIZE];
+        for (int patternLength : PATTERN_LENGTHS) {
+            byte[] pattern = new byte[patternLength];
+            pattern[patternLength - 1] = 1;
+            for (BinaryPatternMatcher matcher : createMatchers(pattern)) {
+                Assert.assertEquals(-1, matcher.indexOf(data, 0, data.length));
+                Assert.assertEquals(-1, matcher.lastIndexOf(data, 0, data.length));
+                Assert.assertEquals(-1, matcher.indexOf(data, 0, patternLength - 1));
+            }
+        }
+    }
+
+    /**
+     * Creates data of small alphabet, so that short patterns match often.
+     */
+    static byte[] createData(Random random, int patternLength) {
+        byte[] data = new byte[DATA_SIZE];
+        int alphabet = patternLength <= 4 ? 4 : 2;
+        for (int i = 0; i < DATA_SIZE; i++) {
+            data[i] = (byte) (0x80 + random.nextInt(alphabet));
+        }
+        return data;
+    }
+
+    /**
+     * Creates pattern and places it at the start, in the middle and at the end
+     * of data.
+     */
+    static byte[] plantPattern(Random random, byte[] data, int patternLength) {
+        byte[] pattern = new byte[patternLength];
+        for (int i = 0; i < patternLength; i++) {
+            pattern[i] = data[random.nextInt(data.length)];
+        }
+        System.arraycopy(pattern, 0, data, 0, patternLength);
+        System.arraycopy(pattern, 0, data, data.length / 2, patternLength);
+        System.arraycopy(pattern, 0, data, data.length - patternLength, patternLength);
+        return pattern;
+    }
+
+    static List<Long> findAll(byte[] data, byte[] pattern, int from, int to) {
+        List<Long> matches = new ArrayList<>();
+        for (int position = from; position <= to - pattern.length; position++) {
+            int matchLength = 0;
+            while (matchLength < pattern.length && data[position + matchLength] == pattern[matchLength]) {
+                matchLength++;
+            }
+            if (matchLength == pattern.length) {
+                matches.add((long) position);
+            }
+        }
+        return matches;
+    }
+
+    private static BinaryPatternMatcher[] createMatchers(byte[] pattern) {
+        return new BinaryPatternMatcher[]{new FirstByteScanMatcher(pattern), new HorspoolMatcher(pattern), BinaryPatternMatchers.createMatcher(pattern)};
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service.matcher;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.auxiliary.binary_data.array.ByteArrayData;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for chunked scanning of binary data compared to naive search.
+ */
+public class ChunkedDataScannerTest {
+
+    private static final int[] CHUNK_SIZES = {1, 7, 16, 100, ChunkedDataScanner.DEFAULT_CHUNK_SIZE};
+    private static final int[] PATTERN_LENGTHS = {1, 2, 3, 5, 8, 17, 64};
+
+    @Test
+    public void testScanForward() {
+        Random random = new Random(0);
+        for (int patternLength : PATTERN_LENGTHS) {
+            byte[] content = BinaryPatternMatcherTest.createData(random, patternLength);
+            byte[] pattern = BinaryPatternMatcherTest.plantPattern(random, content, patternLength);
+            BinaryData data = new ByteArrayData(content);
+            List<Long> expected = BinaryPatternMatcherTest.findAll(content, pattern, 0, content.length);
+            for (int chunkSize : CHUNK_SIZES) {
+                MatchCollector collector = new MatchCollector(Integer.MAX_VALUE);
+                Assert.assertTrue(new ChunkedDataScanner(chunkSize).scanForward(data, BinaryPatternMatchers.createMatcher(pattern), 0, content.length, collector));
+                Assert.assertEquals("Chunk size " + chunkSize + ", pattern length " + patternLength, expected, collector.matches);
+            }
+        }
+    }
+
+    @Test
+    public void testScanBackward() {
+        Random random = new Random(1);
+        for (int patternLength : PATTERN_LENGTHS) {
+            byte[] content = BinaryPatternMatcherTest.createData(random, patternLength);
+            byte[] pattern = BinaryPatternMatcherTest.plantPattern(random, content, patternLength);
+            BinaryData data = new ByteArrayData(content);
+            List<Long> expected = BinaryPatternMatcherTest.findAll(content, pattern, 0, content.length);
+            Collections.reverse(expected);
+            for (int chunkSize : CHUNK_SIZES) {
+                MatchCollector collector = new MatchCollector(Integer.MAX_VALUE);
+                Assert.assertTrue(new ChunkedDataScanner(chunkSize).scanBackward(data, BinaryPatternMatchers.createMatcher(pattern), 0, content.length, collector));
+                Assert.assertEquals("Chunk size " + chunkSize + ", pattern length " + patternLength, expected, collector.matches);
+            }
+        }
+    }
+
+    @Test
+    public void testScanRange() {
+        Random random = new Random(2);
+        for (int patternLength : PATTERN_LENGTHS) {
+            byte[] content = BinaryPatternMatcherTest.createData(random, patternLength);
+            byte[] pattern = BinaryPatternMatcherTest.plantPattern(random, content, patternLength);
+            BinaryData data = new ByteArrayData(content);
+            int rangeStart = 5;
+            int rangeEnd = content.length / 2 + 1;
+            // Range limits match positions, so match can extend past range end
+            List<Long> expected = BinaryPatternMatcherTest.findAll(content, pattern, rangeStart, rangeEnd + patternLength - 1);
+            Assert.assertEquals(content.length / 2, (long) expected.get(expected.size() - 1));
+            for (int chunkSize : CHUNK_SIZES) {
+                MatchCollector forward = new MatchCollector(Integer.MAX_VALUE);
+                new ChunkedDataScanner(chunkSize).scanForward(data, BinaryPatternMatchers.createMatcher(pattern), rangeStart, rangeEnd, forward);
+                Assert.assertEquals(expected, forward.matches);
+
+                MatchCollector backward = new MatchCollector(Integer.MAX_VALUE);
+                new ChunkedDataScanner(chunkSize).scanBackward(data, BinaryPatternMatchers.createMatcher(pattern), rangeStart, rangeEnd, backward);
+                Collections.reverse(backward.matches);
+                Assert.assertEquals(expected, backward.matches);
+            }
+        }
+    }
+
+    @Test
+    public void testMatchCrossingChunkBoundary() {
+        byte[] content = new byte[1000];
+        byte[] pattern = {1, 2, 3, 4, 5, 6, 7, 8};
+        // Pattern placed over every boundary of chunks of 16 bytes
+        List<Long> expected = new ArrayList<>();
+        for (int position = 12; position < content.length - pattern.length; position += 48) {
+            System.arraycopy(pattern, 0, content, position, pattern.length);
+            expected.add((long) position);
+        }
+        BinaryData data = new ByteArrayData(content);
+
+        MatchCollector forward = new MatchCollector(Integer.MAX_VALUE);
+        new ChunkedDataScanner(16).scanForward(data, BinaryPatternMatchers.createMatcher(pattern), 0, content.length, forward);
+        Assert.assertEquals(expected, forward.matches);
+
+        MatchCollector backward = new MatchCollector(Integer.MAX_VALUE);
+        new ChunkedDataScanner(16).scanBackward(data, BinaryPatternMatchers.createMatcher(pattern), 0, content.length, backward);
+        Collections.reverse(backward.matches);
+        Assert.assertEquals(expected, backward.matches);
+    }
+
+    @Test
+    public void testStopScanning() {
+        Random random = new Random(3);
+        byte[] content = BinaryPatternMatcherTest.createData(random, 2);
+        byte[] pattern = BinaryPatternMatcherTest.plantPattern(random, content, 2);
+        BinaryData data = new ByteArrayData(content);
+        List<Long> expected = BinaryPatternMatcherTest.findAll(content, pattern, 0, content.length);
+
+        MatchCollector collector = new MatchCollector(3);
+        new ChunkedDataScanner(16).scanForward(data, BinaryPatternMatchers.createMatcher(pattern), 0, content.length, collector);
+        Assert.assertEquals(expected.subList(0, 3), collector.matches);
+    }
+
+    @Test
+    public void testPatternLongerThanData() {
+        BinaryData data = new ByteArrayData(new byte[]{1, 2, 3});
+        MatchCollector collector = new MatchCollector(Integer.MAX_VALUE);
+        Assert.assertTrue(new ChunkedDataScanner(16).scanForward(data, BinaryPatternMatchers.createMatcher(new byte[]{1, 2, 3, 4}), 0, 3, collector));
+        Assert.assertTrue(new ChunkedDataScanner(16).scanBackward(data, BinaryPatternMatchers.createMatcher(new byte[]{1, 2, 3, 4}), 0, 3, collector));
+        Assert.assertTrue(collector.matches.isEmpty());
+    }
+
+    /**
+     * Scan listener collecting matches up to given limit.
+     */
+    static class MatchCollector implements ChunkedDataScanner.ScanListener {
+
+        final List<Long> matches = new ArrayList<>();
+        private final int limit;
+
+        MatchCollector(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public boolean matchFound(long position) {
+            matches.add(position);
+            return matches.size() < limit;
+        }
+
+        @Override
+        public void positionReached(long position) {
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+    }
+}
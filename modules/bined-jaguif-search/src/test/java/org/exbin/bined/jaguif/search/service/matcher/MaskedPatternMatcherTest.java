@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service.matcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for binary pattern with wildcards and its matcher compared to naive
+ * search.
+ */
+public class MaskedPatternMatcherTest {
+
+    private static final int[] PATTERN_LENGTHS = {1, 2, 5, 63, 64, 65, 100};
+    private static final int DATA_SIZE = 2000;
+
+    @Test
+    public void testParse() {
+        MaskedBinaryPattern pattern = MaskedBinaryPattern.parse("4D 5a ?? A? ?F [01??1???]");
+        Assert.assertEquals(6, pattern.getLength());
+        Assert.assertEquals((byte) 0x4d, pattern.getValue(0));
+        Assert.assertEquals((byte) 0xff, pattern.getMask(1));
+        Assert.assertEquals((byte) 0x00, pattern.getMask(2));
+        Assert.assertEquals((byte) 0xf0, pattern.getMask(3));
+        Assert.assertEquals((byte) 0x0f, pattern.getMask(4));
+        Assert.assertEquals((byte) 0xc8, pattern.getMask(5));
+        Assert.assertEquals((byte) 0x48, pattern.getValue(5));
+        Assert.assertEquals(2, pattern.getFixedBytesCount());
+        Assert.assertFalse(pattern.isExact());
+        Assert.assertEquals("4D 5A ?? A? ?F [01??1???]", pattern.toString());
+        Assert.assertTrue(MaskedBinaryPattern.parse("00ff").isExact());
+    }
+
+    @Test
+    public void testParseInvalid() {
+        String[] invalidTexts = {"", " ", "4", "4 D", "4G", "[0101]", "[0101010x]", "4[00000000]"};
+        for (String text : invalidTexts) {
+            try {
+                MaskedBinaryPattern.parse(text);
+                Assert.fail("Pattern \"" + text + "\" should be invalid");
+            } catch (IllegalArgumentException ex) {
+                // Expected
+            }
+        }
+    }
+
+    @Test
+    public void testIndexOf() {
+        for (int patternLength : PATTERN_LENGTHS) {
+            Random random = new Random(patternLength);
+            MaskedBinaryPattern pattern = createPattern(random, patternLength);
+            byte[] data = createData(random, pattern);
+            BinaryPatternMatcher matcher = new MaskedPatternMatcher(pattern);
+            List<Long> expected = findAll(data, pattern);
+            Assert.assertFalse(expected.isEmpty());
+
+            List<Long> found = new ArrayList<>();
+            int position = matcher.indexOf(data, 0, data.length);
+            while (position >= 0) {
+                found.add((long) position);
+                position = matcher.indexOf(data, position + 1, data.length);
+            }
+            Assert.assertEquals("Pattern length " + patternLength, expected, found);
+        }
+    }
+
+    @Test
+    public void testLastIndexOf() {
+        for (int patternLength : PATTERN_LENGTHS) {
+            Random random = new Random(patternLength);
+            MaskedBinaryPattern pattern = createPattern(random, patternLength);
+            byte[] data = createData(random, pattern);
+            BinaryPatternMatcher matcher = new MaskedPatternMatcher(pattern);
+            List<Long> expected = findAll(data, pattern);
+
+            List<Long> found = new ArrayList<>();
+            int position = matcher.lastIndexOf(data, 0, data.length);
+            while (position >= 0) {
+                found.add(0, (long) position);
+                position = matcher.lastIndexOf(data, 0, position + patternLength - 1);
+            }
+            Assert.assertEquals("Pattern length " + patternLength, expected, found);
+        }
+    }
+
+    @Test
+    public void testSubrange() {
+        MaskedBinaryPattern pattern = MaskedBinaryPattern.parse("0? [1???????]");
+        BinaryPatternMatcher matcher = new MaskedPatternMatcher(pattern);
+        byte[] data = {0x01, (byte) 0x80, 0x0f, (byte) 0xff, 0x10, (byte) 0x80};
+        Assert.assertEquals(0, matcher.indexOf(data, 0, data.length));
+        Assert.assertEquals(2, matcher.indexOf(data, 1, data.length));
+        Assert.assertEquals(-1, matcher.indexOf(data, 3, data.length));
+        Assert.assertEquals(2, matcher.lastIndexOf(data, 0, data.length));
+        Assert.assertEquals(0, matcher.lastIndexOf(data, 0, 3));
+        Assert.assertEquals(-1, matcher.lastIndexOf(data, 0, 1));
+    }
+
+    @Test
+    public void testExactPatternMatcher() {
+        MaskedBinaryPattern pattern = MaskedBinaryPattern.parse("01 02 03");
+        BinaryPatternMatcher matcher = BinaryPatternMatchers.createMatcher(pattern);
+        Assert.assertFalse(matcher instanceof MaskedPatternMatcher);
+        Assert.assertEquals(1, matcher.indexOf(new byte[]{0, 1, 2, 3}, 0, 4));
+    }
+
+    private static MaskedBinaryPattern createPattern(Random random, int patternLength) {
+        byte[] values = new byte[patternLength];
+        byte[] masks = new byte[patternLength];
+        random.nextBytes(values);
+        for (int i = 0; i < patternLength; i++) {
+            switch (random.nextInt(4)) {
+                case 0:
+                    masks[i] = 0;
+                    break;
+                case 1:
+                    masks[i] = (byte) (random.nextBoolean() ? 0xf0 : 0x0f);
+                    break;
+                case 2:
+                    masks[i] = (byte) random.nextInt(256);
+                    break;
+                default:
+                    masks[i] = (byte) 0xff;
+            }
+        }
+        return new MaskedBinaryPattern(values, masks);
+    }
+
+    /**
+     * Creates data with instances of pattern planted at start, in the middle
+     * and at the end.
+     */
+    private static byte[] createData(Random random, MaskedBinaryPattern pattern) {
+        byte[] data = new byte[DATA_SIZE];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) random.nextInt(4);
+        }
+        int patternLength = pattern.getLength();
+        int[] positions = {0, DATA_SIZE / 2, DATA_SIZE / 2 + 1, DATA_SIZE - patternLength};
+        for (int position : positions) {
+            for (int i = 0; i < patternLength; i++) {
+                int wildcardBits = random.nextInt(256) & ~pattern.getMask(i);
+                data[position + i] = (byte) (pattern.getValue(i) | wildcardBits);
+            }
+        }
+        return data;
+    }
+
+    private static List<Long> findAll(byte[] data, MaskedBinaryPattern pattern) {
+        List<Long> matches = new ArrayList<>();
+        for (int position = 0; position <= data.length - pattern.getLength(); position++) {
+            int i = 0;
+            while (i < pattern.getLength() && (byte) (data[position + i] & pattern.getMask(i)) == pattern.getValue(i)) {
+                i++;
+            }
+            if (i == pattern.getLength()) {
+                matches.add((long) position);
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service.matcher;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.auxiliary.binary_data.array.ByteArrayData;
+import org.exbin.bined.jaguif.search.service.matcher.NumericValuePattern.ValueType;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for numeric value pattern and scanner compared to naive decoding of
+ * values.
+ */
+public class NumericValueScannerTest {
+
+    private static final int DATA_SIZE = 3000;
+    private static final int[] CHUNK_SIZES = {1, 10, ChunkedDataScanner.DEFAULT_CHUNK_SIZE};
+    private static final ByteOrder[] BYTE_ORDERS = {ByteOrder.LITTLE_ENDIAN, ByteOrder.BIG_ENDIAN};
+
+    @Test
+    public void testParse() {
+        NumericValuePattern pattern = NumericValuePattern.parse("i32be 1000..0x800 stride 16 offset 3");
+        Assert.assertEquals(ValueType.INT32, pattern.getValueType());
+        Assert.assertEquals(ByteOrder.BIG_ENDIAN, pattern.getByteOrder());
+        Assert.assertEquals(16, pattern.getStride());
+        Assert.assertEquals(3, pattern.getOffset());
+        Assert.assertTrue(pattern.isAligned(19));
+        Assert.assertFalse(pattern.isAligned(18));
+        Assert.assertTrue(matches(pattern, new byte[]{0, 0, 0x08, 0}));
+        Assert.assertFalse(matches(pattern, new byte[]{0, 0, 0x08, 1}));
+
+        pattern = NumericValuePattern.parse("u16 -5..10");
+        Assert.assertEquals(ByteOrder.LITTLE_ENDIAN, pattern.getByteOrder());
+        Assert.assertEquals(2, pattern.getStride());
+        Assert.assertTrue(matches(pattern, new byte[]{0, 0}));
+        Assert.assertFalse(matches(pattern, new byte[]{(byte) 0xff, (byte) 0xff}));
+
+        pattern = NumericValuePattern.parse("u64 0xFFFFFFFFFFFFFFFF");
+        Assert.assertTrue(matches(pattern, new byte[]{-1, -1, -1, -1, -1, -1, -1, -1}));
+
+        pattern = NumericValuePattern.parse("f32 3.14159~1e-5");
+        Assert.assertTrue(matches(pattern, floatBytes(3.14159f)));
+        Assert.assertFalse(matches(pattern, floatBytes(3.1417f)));
+        pattern = NumericValuePattern.parse("f32 0.1");
+        Assert.assertTrue(matches(pattern, floatBytes(0.1f)));
+    }
+
+    @Test
+    public void testParseInvalid() {
+        String[] invalidTexts = {"", "x32 1", "i16", "i8 200", "i16 5..1", "i8 1 stride 0", "i8 1 stride 2 5", "i8 1 offset -1", "f32 NaN", "f64 1~-1", "i32 1.5"};
+        for (String text : invalidTexts) {
+            try {
+                NumericValuePattern.parse(text);
+                Assert.fail("Pattern \"" + text + "\" should be invalid");
+            } catch (IllegalArgumentException ex) {
+                // Expected
+            }
+        }
+    }
+
+    @Test
+    public void testIntegerScan() {
+        Random random = new Random(0);
+        byte[] data = new byte[DATA_SIZE];
+        random.nextBytes(data);
+        for (ValueType valueType : ValueType.values()) {
+            if (valueType.isFloatingPoint()) {
+                continue;
+            }
+            // Middle half of type range
+            int bits = valueType.getLength() * 8;
+            BigInteger typeMin = valueType.isSigned() ? BigInteger.ONE.shiftLeft(bits - 1).negate() : BigInteger.ZERO;
+            BigInteger quarter = BigInteger.ONE.shiftLeft(bits - 2);
+            BigInteger min = typeMin.add(quarter);
+            BigInteger max = min.add(quarter.shiftLeft(1));
+            for (ByteOrder byteOrder : BYTE_ORDERS) {
+                for (int stride : new int[]{1, 3, valueType.getLength(), 16}) {
+                    String text = valueType.getCode() + (byteOrder == ByteOrder.BIG_ENDIAN ? "be " : "le ") + min + ".." + max + " stride " + stride + " offset 5";
+                    NumericValuePattern pattern = NumericValuePattern.parse(text);
+                    List<Long> expected = new ArrayList<>();
+                    for (int position = 0; position <= data.length - valueType.getLength(); position++) {
+                        if (Math.floorMod(position - 5, stride) == 0) {
+                            BigInteger value = decodeInteger(data, position, valueType, byteOrder);
+                            if (value.compareTo(min) >= 0 && value.compareTo(max) <= 0) {
+                                expected.add((long) position);
+                            }
+                        }
+                    }
+                    Assert.assertFalse(text, expected.isEmpty());
+                    checkScan(text, data, pattern, expected);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFloatScan() {
+        Random random = new Random(1);
+        for (ByteOrder byteOrder : BYTE_ORDERS) {
+            ByteBuffer buffer = ByteBuffer.allocate(DATA_SIZE).order(byteOrder);
+            List<Long> expectedFloats = new ArrayList<>();
+            List<Long> expectedDoubles = new ArrayList<>();
+            for (int position = 0; position + 8 <= DATA_SIZE; position += 8) {
+                double value = random.nextInt(5) * 0.5 - 1;
+                if (random.nextBoolean()) {
+                    buffer.putDouble(position, value);
+                    if (Math.abs(value - 0.5) <= 0.25) {
+                        expectedDoubles.add((long) position);
+                    }
+                } else {
+                    buffer.putFloat(position + 4, (float) value);
+                    if (Math.abs(value - 0.5) <= 0.25) {
+                        expectedFloats.add((long) position + 4);
+                    }
+                }
+            }
+            String suffix = byteOrder == ByteOrder.BIG_ENDIAN ? "be" : "le";
+            checkScan("f32", buffer.array(), NumericValuePattern.parse("f32" + suffix + " 0.5~0.25 stride 8 offset 4"), expectedFloats);
+            checkScan("f64", buffer.array(), NumericValuePattern.parse("f64" + suffix + " 0.25..0.75 stride 8"), expectedDoubles);
+        }
+    }
+
+    @Test
+    public void testParallelScan() {
+        byte[] content = new byte[(int) (5 * ParallelDataScanner.MIN_SEGMENT_SIZE + 123)];
+        for (int position = 1; position < content.length; position += 3) {
+            content[position] = (byte) (position % 1000 == 1 ? 7 : 0);
+        }
+        NumericValuePattern pattern = NumericValuePattern.parse("u8 7 stride 3 offset 1");
+        List<Long> expected = new ArrayList<>();
+        for (int position = 1; position < content.length; position += 3) {
+            if (content[position] == 7) {
+                expected.add((long) position);
+            }
+        }
+        BinaryData data = new ByteArrayData(content);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelDataScanner scanner = new ParallelDataScanner(pool, 64 * 1024);
+            NumericValueScanner valueScanner = new NumericValueScanner(pattern);
+            for (int matchesLimit : new int[]{5, Integer.MAX_VALUE}) {
+                ChunkedDataScannerTest.MatchCollector collector = new ChunkedDataScannerTest.MatchCollector(matchesLimit);
+                Assert.assertTrue(scanner.scanForward(data, 1, valueScanner, 0, content.length, matchesLimit, collector));
+                Assert.assertEquals(expected.subList(0, Math.min(matchesLimit, expected.size())), collector.matches);
+
+                List<Long> reversed = new ArrayList<>(expected);
+                Collections.reverse(reversed);
+                collector = new ChunkedDataScannerTest.MatchCollector(matchesLimit);
+                Assert.assertTrue(scanner.scanBackward(data, 1, valueScanner, 0, content.length, matchesLimit, collector));
+                Assert.assertEquals(reversed.subList(0, Math.min(matchesLimit, reversed.size())), collector.matches);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void checkScan(String message, byte[] content, NumericValuePattern pattern, List<Long> expected) {
+        BinaryData data = new ByteArrayData(content);
+        List<Long> reversed = new ArrayList<>(expected);
+        Collections.reverse(reversed);
+        for (int chunkSize : CHUNK_SIZES) {
+            NumericValueScanner scanner = new NumericValueScanner(pattern, chunkSize);
+            ChunkedDataScannerTest.MatchCollector collector = new ChunkedDataScannerTest.MatchCollector(Integer.MAX_VALUE);
+            Assert.assertTrue(scanner.scanForward(data, 0, content.length, collector));
+            Assert.assertEquals(message + " chunk " + chunkSize, expected, collector.matches);
+
+            collector = new ChunkedDataScannerTest.MatchCollector(Integer.MAX_VALUE);
+            Assert.assertTrue(scanner.scanBackward(data, 0, content.length, collector));
+            Assert.assertEquals(message + " chunk " + chunkSize, reversed, collector.matches);
+
+            // Range not aligned to stride
+            List<Long> subrange = new ArrayList<>();
+            for (long position : expected) {
+                if (position >= 101 && position < 1001) {
+                    subrange.add(position);
+                }
+            }
+            collector = new ChunkedDataScannerTest.MatchCollector(Integer.MAX_VALUE);
+            Assert.assertTrue(scanner.scanForward(data, 101, 1001, collector));
+            Assert.assertEquals(message + " chunk " + chunkSize, subrange, collector.matches);
+            Collections.reverse(subrange);
+            collector = new ChunkedDataScannerTest.MatchCollector(Integer.MAX_VALUE);
+            Assert.assertTrue(scanner.scanBackward(data, 101, 1001, collector));
+            Assert.assertEquals(message + " chunk " + chunkSize, subrange, collector.matches);
+        }
+    }
+
+    private static BigInteger decodeInteger(byte[] data, int position, ValueType valueType, ByteOrder byteOrder) {
+        int length = valueType.getLength();
+        byte[] bigEndian = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bigEndian[i] = data[position + (byteOrder == ByteOrder.BIG_ENDIAN ? i : length - 1 - i)];
+        }
+        return valueType.isSigned() ? new BigInteger(bigEndian) : new BigInteger(1, bigEndian);
+    }
+
+    private static boolean matches(NumericValuePattern pattern, byte[] value) {
+        return pattern.matches(ByteBuffer.wrap(value).order(pattern.getByteOrder()), 0);
+    }
+
+    private static byte[] floatBytes(float value) {
+        return ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putFloat(value).array();
+    }
+}
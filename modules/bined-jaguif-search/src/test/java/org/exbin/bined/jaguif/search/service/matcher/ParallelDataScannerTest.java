@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service.matcher;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.auxiliary.binary_data.array.ByteArrayData;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for parallel scanning of binary data compared to sequential scanning.
+ */
+public class ParallelDataScannerTest {
+
+    private static final int DATA_SIZE = (int) (5 * ParallelDataScanner.MIN_SEGMENT_SIZE + 123);
+    private static final int[] MATCHES_LIMITS = {1, 5, 1000, 100000, Integer.MAX_VALUE};
+
+    @Test
+    public void testScanForward() {
+        byte[] content = createData();
+        byte[] pattern = {1, 2, 3};
+        BinaryData data = new ByteArrayData(content);
+        BinaryPatternMatcher matcher = BinaryPatternMatchers.createMatcher(pattern);
+        List<Long> expected = BinaryPatternMatcherTest.findAll(content, pattern, 0, content.length);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelDataScanner scanner = new ParallelDataScanner(pool, 64 * 1024);
+            Assert.assertTrue(scanner.isParallelizable(DATA_SIZE));
+            for (int matchesLimit : MATCHES_LIMITS) {
+                ChunkedDataScannerTest.MatchCollector collector = new ChunkedDataScannerTest.MatchCollector(matchesLimit);
+                Assert.assertTrue(scanner.scanForward(data, matcher, 0, DATA_SIZE, matchesLimit, collector));
+                Assert.assertEquals("Matches limit " + matchesLimit, expected.subList(0, Math.min(matchesLimit, expected.size())), collector.matches);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testScanBackward() {
+        byte[] content = createData();
+        byte[] pattern = {1, 2, 3};
+        BinaryData data = new ByteArrayData(content);
+        BinaryPatternMatcher matcher = BinaryPatternMatchers.createMatcher(pattern);
+        List<Long> expected = BinaryPatternMatcherTest.findAll(content, pattern, 0, content.length);
+        Collections.reverse(expected);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelDataScanner scanner = new ParallelDataScanner(pool, 64 * 1024);
+            for (int matchesLimit : MATCHES_LIMITS) {
+                ChunkedDataScannerTest.MatchCollector collector = new ChunkedDataScannerTest.MatchCollector(matchesLimit);
+                Assert.assertTrue(scanner.scanBackward(data, matcher, 0, DATA_SIZE, matchesLimit, collector));
+                Assert.assertEquals("Matches limit " + matchesLimit, expected.subList(0, Math.min(matchesLimit, expected.size())), collector.matches);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testMatchCrossingSegmentBoundary() {
+        byte[] content = new byte[DATA_SIZE];
+        byte[] pattern = {1, 2, 3, 4, 5, 6, 7, 8};
+        int segmentSize = (int) ParallelDataScanner.MIN_SEGMENT_SIZE;
+        for (int boundary = segmentSize; boundary < DATA_SIZE; boundary += segmentSize) {
+            System.arraycopy(pattern, 0, content, boundary - 4, pattern.length);
+        }
+        BinaryData data = new ByteArrayData(content);
+        List<Long> expected = BinaryPatternMatcherTest.findAll(content, pattern, 0, content.length);
+        Assert.assertEquals(5, expected.size());
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            ParallelDataScanner scanner = new ParallelDataScanner(pool, 64 * 1024);
+            ChunkedDataScannerTest.MatchCollector forward = new ChunkedDataScannerTest.MatchCollector(Integer.MAX_VALUE);
+            scanner.scanForward(data, BinaryPatternMatchers.createMatcher(pattern), 0, DATA_SIZE, Integer.MAX_VALUE, forward);
+            Assert.assertEquals(expected, forward.matches);
+
+            ChunkedDataScannerTest.MatchCollector backward = new ChunkedDataScannerTest.MatchCollector(Integer.MAX_VALUE);
+            scanner.scanBackward(data, BinaryPatternMatchers.createMatcher(pattern), 0, DATA_SIZE, Integer.MAX_VALUE, backward);
+            Collections.reverse(backward.matches);
+            Assert.assertEquals(expected, backward.matches);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Creates data with sparse matches in first segment and dense matches in
+     * following segments, so later segments reach matches limit first.
+     */
+    private static byte[] createData() {
+        byte[] content = new byte[DATA_SIZE];
+        byte[] pattern = {1, 2, 3};
+        for (int position = 1000; position < ParallelDataScanner.MIN_SEGMENT_SIZE; position += 1000003) {
+            System.arraycopy(pattern, 0, content, position, pattern.length);
+        }
+        for (int position = (int) ParallelDataScanner.MIN_SEGMENT_SIZE + 5; position < DATA_SIZE - pattern.length; position += 37) {
+            System.arraycopy(pattern, 0, content, position, pattern.length);
+        }
+        return content;
+    }
+}
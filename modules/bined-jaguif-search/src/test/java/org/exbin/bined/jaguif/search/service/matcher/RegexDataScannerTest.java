@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service.matcher;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.exbin.auxiliary.binary_data.array.ByteArrayData;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for regular expression scanning compared to matching of decoded
+ * string.
+ */
+public class RegexDataScannerTest {
+
+    private static final String[] WORDS = {"kůň", "kun", "žluťoučký", "abc", "12", "345", "€", "😀", "x"};
+    private static final String[] PATTERNS = {"k[ůu]ň", "[a-z]{2,4}", "\\d{2,3}", "ž", "😀x?", "€|abc"};
+    private static final Charset[] CHARSETS = {StandardCharsets.UTF_8, StandardCharsets.UTF_16LE, StandardCharsets.UTF_16BE};
+
+    @Test
+    public void testScanForward() {
+        String text = createText(new Random(0));
+        for (Charset charset : CHARSETS) {
+            byte[] content = text.getBytes(charset);
+            for (String regex : PATTERNS) {
+                Pattern pattern = Pattern.compile(regex);
+                List<String> expected = findAll(text, pattern, charset);
+                // Small window makes matches cross window boundaries
+                RegexDataScanner scanner = new RegexDataScanner(pattern, charset, 16, 8);
+                MatchCollector collector = new MatchCollector();
+                Assert.assertTrue(scanner.scanForward(new ByteArrayData(content), 0, content.length, collector));
+                Assert.assertEquals(charset + " " + regex, expected, collector.matches);
+            }
+        }
+    }
+
+    @Test
+    public void testScanBackward() {
+        String text = createText(new Random(1));
+        for (Charset charset : CHARSETS) {
+            byte[] content = text.getBytes(charset);
+            for (String regex : PATTERNS) {
+                Pattern pattern = Pattern.compile(regex);
+                List<String> expected = findAll(text, pattern, charset);
+                Collections.reverse(expected);
+                RegexDataScanner scanner = new RegexDataScanner(pattern, charset, 16, 8);
+                MatchCollector collector = new MatchCollector();
+                Assert.assertTrue(scanner.scanBackward(new ByteArrayData(content), 0, content.length, collector));
+                Assert.assertEquals(charset + " " + regex, expected, collector.matches);
+            }
+        }
+    }
+
+    @Test
+    public void testSingleByteCharset() {
+        String text = "abc 12 def 345 abcd";
+        byte[] content = text.getBytes(StandardCharsets.ISO_8859_1);
+        Pattern pattern = Pattern.compile("\\d+");
+        MatchCollector collector = new MatchCollector();
+        new RegexDataScanner(pattern, StandardCharsets.ISO_8859_1, 4, 4).scanForward(new ByteArrayData(content), 0, content.length, collector);
+        Assert.assertEquals(findAll(text, pattern, StandardCharsets.ISO_8859_1), collector.matches);
+    }
+
+    @Test
+    public void testMatchLengthLimit() {
+        byte[] content = "aaaaaaaaaaaaaaaaaaaa".getBytes(StandardCharsets.US_ASCII);
+        MatchCollector collector = new MatchCollector();
+        new RegexDataScanner(Pattern.compile("a+"), StandardCharsets.US_ASCII, 16, 8).scanForward(new ByteArrayData(content), 0, content.length, collector);
+        List<String> expected = new ArrayList<>();
+        expected.add("0+8");
+        expected.add("8+8");
+        expected.add("16+4");
+        Assert.assertEquals(expected, collector.matches);
+    }
+
+    @Test
+    public void testScanRange() {
+        String text = createText(new Random(2));
+        byte[] content = text.getBytes(StandardCharsets.UTF_8);
+        Pattern pattern = Pattern.compile("k[ůu]ň");
+        List<String> all = findAll(text, pattern, StandardCharsets.UTF_8);
+        long rangeStart = content.length / 4;
+        long rangeEnd = content.length / 2;
+        List<String> expected = new ArrayList<>();
+        for (String match : all) {
+            long position = Long.parseLong(match.substring(0, match.indexOf('+')));
+            if (position >= rangeStart && position < rangeEnd) {
+                expected.add(match);
+            }
+        }
+
+        MatchCollector collector = new MatchCollector();
+        new RegexDataScanner(pattern, StandardCharsets.UTF_8, 16, 8).scanForward(new ByteArrayData(content), rangeStart, rangeEnd, collector);
+        Assert.assertEquals(expected, collector.matches);
+    }
+
+    private static String createText(Random random) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            builder.append(WORDS[random.nextInt(WORDS.length)]);
+            if (random.nextBoolean()) {
+                builder.append(' ');
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Finds matches in decoded text and converts them to byte ranges.
+     */
+    private static List<String> findAll(String text, Pattern pattern, Charset charset) {
+        List<String> matches = new ArrayList<>();
+        Matcher matcher = pattern.matcher(text);
+        while (matcher.find()) {
+            int position = text.substring(0, matcher.start()).getBytes(charset).length;
+            int length = matcher.group().getBytes(charset).length;
+            matches.add(position + "+" + length);
+        }
+        return matches;
+    }
+
+    private static class MatchCollector implements RangeScanListener {
+
+        private final List<String> matches = new ArrayList<>();
+
+        @Override
+        public boolean matchFound(long position, long length) {
+            matches.add(position + "+" + length);
+            return true;
+        }
+
+        @Override
+        public void positionReached(long position) {
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service.matcher;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.exbin.auxiliary.binary_data.array.ByteArrayData;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for charset aware text scanning compared to search in decoded text.
+ */
+public class TextDataScannerTest {
+
+    private static final String[] WORDS = {"kůň", "Kůň", "KŮŇ", "kun", "žluťoučký", "ŽLUŤOUČKÝ", "aaa", "x", "€"};
+    private static final String[] TEXTS = {"kůň", "KůŇ", "žluť", "aa", "k", "€"};
+    private static final Charset[] CHARSETS = {StandardCharsets.UTF_8, StandardCharsets.UTF_16LE, StandardCharsets.UTF_16BE, Charset.forName("windows-1250")};
+    private static final int[] CHUNK_SIZES = {1, 16, ChunkedDataScanner.DEFAULT_CHUNK_SIZE};
+
+    @Test
+    public void testScanForward() {
+        String content = createText(new Random(0));
+        for (Charset charset : CHARSETS) {
+            byte[] data = content.getBytes(charset);
+            for (String text : TEXTS) {
+                for (boolean matchCase : new boolean[]{true, false}) {
+                    List<String> expected = findAll(content, text, matchCase, charset);
+                    TextPatternMatcher matcher = new TextPatternMatcher(text, charset, matchCase);
+                    for (int chunkSize : CHUNK_SIZES) {
+                        MatchCollector collector = new MatchCollector();
+                        Assert.assertTrue(new TextDataScanner(matcher, chunkSize).scanForward(new ByteArrayData(data), 0, data.length, collector));
+                        Assert.assertEquals(charset + " " + text + " " + matchCase + " " + chunkSize, expected, collector.matches);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testScanBackward() {
+        String content = createText(new Random(1));
+        for (Charset charset : CHARSETS) {
+            byte[] data = content.getBytes(charset);
+            for (String text : TEXTS) {
+                for (boolean matchCase : new boolean[]{true, false}) {
+                    List<String> expected = findAll(content, text, matchCase, charset);
+                    Collections.reverse(expected);
+                    TextPatternMatcher matcher = new TextPatternMatcher(text, charset, matchCase);
+                    for (int chunkSize : CHUNK_SIZES) {
+                        MatchCollector collector = new MatchCollector();
+                        Assert.assertTrue(new TextDataScanner(matcher, chunkSize).scanBackward(new ByteArrayData(data), 0, data.length, collector));
+                        Assert.assertEquals(charset + " " + text + " " + matchCase + " " + chunkSize, expected, collector.matches);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testUnmatchableText() {
+        TextPatternMatcher matcher = new TextPatternMatcher("ž", StandardCharsets.ISO_8859_1, true);
+        Assert.assertFalse(matcher.isMatchable());
+        MatchCollector collector = new MatchCollector();
+        byte[] data = "z?".getBytes(StandardCharsets.ISO_8859_1);
+        Assert.assertTrue(new TextDataScanner(matcher).scanForward(new ByteArrayData(data), 0, data.length, collector));
+        Assert.assertTrue(collector.matches.isEmpty());
+    }
+
+    @Test
+    public void testSingleForm() {
+        TextPatternMatcher matcher = new TextPatternMatcher("abc", StandardCharsets.UTF_8, true);
+        Assert.assertTrue(matcher.isSingleForm());
+        Assert.assertArrayEquals("abc".getBytes(StandardCharsets.UTF_8), matcher.getSingleForm());
+        Assert.assertFalse(new TextPatternMatcher("abc", StandardCharsets.UTF_8, false).isSingleForm());
+    }
+
+    @Test
+    public void testBacktrackingForms() {
+        // Leading digits form anchor, so the rest is verified form by form
+        String prefix = "012345678901234567890123456789012";
+        Charset charset = new PrefixFormsCharset();
+        TextPatternMatcher matcher = new TextPatternMatcher(prefix + "xy", charset, false);
+        byte[] data = (prefix + "xy").getBytes(charset);
+        MatchCollector collector = new MatchCollector();
+        Assert.assertTrue(new TextDataScanner(matcher).scanForward(new ByteArrayData(data), 0, data.length, collector));
+        Assert.assertEquals(Collections.singletonList("0+" + data.length), collector.matches);
+    }
+
+    private static String createText(Random random) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            builder.append(WORDS[random.nextInt(WORDS.length)]);
+            if (random.nextBoolean()) {
+                builder.append(' ');
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Finds all, possibly overlapping, occurrences in decoded text and converts
+     * them to byte ranges.
+     */
+    private static List<String> findAll(String content, String text, boolean matchCase, Charset charset) {
+        List<String> matches = new ArrayList<>();
+        for (int index = 0; index <= content.length() - text.length(); index++) {
+            if (content.regionMatches(!matchCase, index, text, 0, text.length())) {
+                int position = content.substring(0, index).getBytes(charset).length;
+                int length = content.substring(index, index + text.length()).getBytes(charset).length;
+                matches.add(position + "+" + length);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Charset where "X" is encoded as "xy", so longer form of x has to be
+     * rejected when followed by y.
+     */
+    private static class PrefixFormsCharset extends Charset {
+
+        private static final byte X_BYTE = 1;
+        private static final byte Y_BYTE = 2;
+
+        public PrefixFormsCharset() {
+            super("x-prefix-forms", null);
+        }
+
+        @Override
+        public boolean contains(Charset charset) {
+            return charset instanceof PrefixFormsCharset;
+        }
+
+        @Override
+        public CharsetDecoder newDecoder() {
+            return new CharsetDecoder(this, 1, 1) {
+                @Override
+                protected CoderResult decodeLoop(ByteBuffer in, CharBuffer out) {
+                    while (in.hasRemaining()) {
+                        if (!out.hasRemaining()) {
+                            return CoderResult.OVERFLOW;
+                        }
+                        byte value = in.get();
+                        out.put(value == X_BYTE ? 'x' : value == Y_BYTE ? 'y' : (char) value);
+                    }
+                    return CoderResult.UNDERFLOW;
+                }
+            };
+        }
+
+        @Override
+        public CharsetEncoder newEncoder() {
+            return new CharsetEncoder(this, 2, 2) {
+                @Override
+                protected CoderResult encodeLoop(CharBuffer in, ByteBuffer out) {
+                    while (in.hasRemaining()) {
+                        char value = in.get(in.position());
+                        byte[] encoded;
+                        if (value == 'x') {
+                            encoded = new byte[]{X_BYTE};
+                        } else if (value == 'X') {
+                            encoded = new byte[]{X_BYTE, Y_BYTE};
+                        } else if (value == 'y' || value == 'Y') {
+                            encoded = new byte[]{Y_BYTE};
+                        } else if (value >= '0' && value < 0x80) {
+                            encoded = new byte[]{(byte) value};
+                        } else {
+                            return CoderResult.unmappableForLength(1);
+                        }
+                        if (out.remaining() < encoded.length) {
+                            return CoderResult.OVERFLOW;
+                        }
+                        in.get();
+                        out.put(encoded);
+                    }
+                    return CoderResult.UNDERFLOW;
+                }
+            };
+        }
+    }
+
+    private static class MatchCollector implements RangeScanListener {
+
+        private final List<String> matches = new ArrayList<>();
+
+        @Override
+        public boolean matchFound(long position, long length) {
+            matches.add(position + "+" + length);
+            return true;
+        }
+
+        @Override
+        public void positionReached(long position) {
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+    }
+}
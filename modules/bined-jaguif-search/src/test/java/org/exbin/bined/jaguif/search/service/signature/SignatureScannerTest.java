@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.search.service.signature;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.exbin.auxiliary.binary_data.array.ByteArrayData;
+import org.exbin.bined.jaguif.search.service.matcher.ChunkedDataScanner;
+import org.exbin.bined.jaguif.search.service.matcher.MaskedBinaryPattern;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for signature set parsing and single pass signature scanning compared
+ * to naive search of each signature.
+ */
+public class SignatureScannerTest {
+
+    private static final String SIGNATURES
+            = "# Test signatures\n"
+            + "\n"
+            + "exact = 01 02 03\n"
+            + "nibbles = 0? ?1 02 ?? 03\n"
+            + "bits = [0?0?0?0?] [??????1?]\n"
+            + "unanchored = 0? ?2\n"
+            + "masked = 01 02 01 ; mask = FF 00 FF\n"
+            + "ranged = 02 02 ; offset = 100..0x1F4\n"
+            + "fixed = 00 ; offset = 0x10\n"
+            + "open = 03 03 03 ; offset = 1000..\n"
+            + "long = 00 01 02 03 00 01 02 03 00 01 02 03 00 01 02 03 ?? 00 01 02 03 00 01 02 03\n";
+    private static final int[] CHUNK_SIZES = {1, 7, 64, ChunkedDataScanner.DEFAULT_CHUNK_SIZE};
+    private static final int DATA_SIZE = 3000;
+
+    @Test
+    public void testLoad() throws IOException {
+        SignatureSet signatureSet = SignatureSet.load(new StringReader(SIGNATURES));
+        Assert.assertEquals(9, signatureSet.size());
+        Assert.assertEquals("exact", signatureSet.getSignature(0).getName());
+        Assert.assertEquals("01 ?? 01", signatureSet.getSignature(4).getPattern().toString());
+        Signature ranged = signatureSet.getSignature(5);
+        Assert.assertEquals(100, ranged.getMinOffset());
+        Assert.assertEquals(500, ranged.getMaxOffset());
+        Signature fixed = signatureSet.getSignature(6);
+        Assert.assertTrue(fixed.isAllowedAt(16));
+        Assert.assertFalse(fixed.isAllowedAt(17));
+        Assert.assertEquals(Signature.UNLIMITED_OFFSET, signatureSet.getSignature(7).getMaxOffset());
+    }
+
+    @Test
+    public void testLoadInvalid() throws IOException {
+        String[] invalidTexts = {"01 02", "= 01", "name = 0G", "name = 01 ; mask = FF FF", "name = 01 ; offset = x", "name = 01 ; color = 1"};
+        for (String text : invalidTexts) {
+            try {
+                SignatureSet.load(new StringReader("# comment\n" + text));
+                Assert.fail("Signature \"" + text + "\" should be invalid");
+            } catch (IllegalArgumentException ex) {
+                Assert.assertTrue(ex.getMessage(), ex.getMessage().startsWith("Line 2: "));
+            }
+        }
+    }
+
+    @Test
+    public void testScan() throws IOException {
+        SignatureSet signatureSet = SignatureSet.load(new StringReader(SIGNATURES));
+        Random random = new Random(0);
+        byte[] data = new byte[DATA_SIZE];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) random.nextInt(4);
+        }
+        // Long signature at start, in the middle and at the end
+        byte[] longInstance = {0, 1, 2, 3, 0, 1, 2, 3, 0, 1, 2, 3, 0, 1, 2, 3, 7, 0, 1, 2, 3, 0, 1, 2, 3};
+        System.arraycopy(longInstance, 0, data, 0, longInstance.length);
+        System.arraycopy(longInstance, 0, data, 1500, longInstance.length);
+        System.arraycopy(longInstance, 0, data, DATA_SIZE - longInstance.length, longInstance.length);
+
+        List<String> expected = findAll(data, signatureSet);
+        for (int chunkSize : CHUNK_SIZES) {
+            SignatureHitStore hits = new SignatureHitStore(signatureSet);
+            boolean finished = new SignatureScanner(signatureSet, chunkSize).scan(new ByteArrayData(data), new SignatureScanner.HitListener() {
+                @Override
+                public boolean hitFound(int signatureIndex, long position) {
+                    hits.add(signatureIndex, position);
+                    return true;
+                }
+
+                @Override
+                public void positionReached(long position) {
+                }
+            });
+            Assert.assertTrue(finished);
+            hits.sort();
+            List<String> found = new ArrayList<>();
+            for (int i = 0; i < hits.size(); i++) {
+                found.add(hits.getPosition(i) + ":" + hits.getSignatureIndex(i));
+            }
+            Assert.assertEquals("Chunk size " + chunkSize, expected, found);
+        }
+    }
+
+    @Test
+    public void testStopScan() throws IOException {
+        SignatureSet signatureSet = SignatureSet.load(new StringReader("zero = 00"));
+        List<Long> found = new ArrayList<>();
+        new SignatureScanner(signatureSet, 2).scan(new ByteArrayData(new byte[10]), new SignatureScanner.HitListener() {
+            @Override
+            public boolean hitFound(int signatureIndex, long position) {
+                found.add(position);
+                return found.size() < 3;
+            }
+
+            @Override
+            public void positionReached(long position) {
+            }
+        });
+        Assert.assertEquals(3, found.size());
+    }
+
+    /**
+     * Finds all hits sorted by position and signature index.
+     */
+    private static List<String> findAll(byte[] data, SignatureSet signatureSet) {
+        List<String> hits = new ArrayList<>();
+        for (int position = 0; position < data.length; position++) {
+            for (int signatureIndex = 0; signatureIndex < signatureSet.size(); signatureIndex++) {
+                Signature signature = signatureSet.getSignature(signatureIndex);
+                MaskedBinaryPattern pattern = signature.getPattern();
+                if (position + pattern.getLength() <= data.length && signature.isAllowedAt(position)
+                        && pattern.matches(data, position, 0, pattern.getLength())) {
+                    hits.add(position + ":" + signatureIndex);
+                }
+            }
+        }
+        return hits;
+    }
+}
@@ -23,17 +23,40 @@ import org.jspecify.annotations.NullMarked;
 import org.exbin.bined.CodeAreaSection;
 import org.exbin.bined.swing.CodeAreaColorAssessor;
 import org.exbin.bined.swing.CodeAreaPaintState;
+import org.exbin.bined.jaguif.component.PositionRangeIndex;
 import org.exbin.bined.jaguif.bookmarks.model.BookmarkRecord;
 
 /**
  * Bookmarks position color modifier.
+ * <p>
+ * Bookmark ranges are indexed and index is rebuilt on first paint after
+ * bookmarks change.
  */
 @NullMarked
 public class BookmarksPositionColorModifier implements CodeAreaColorAssessor {
 
+    private static final PositionRangeIndex.RangeAccessor<BookmarkRecord, Color> RECORD_ACCESSOR = new PositionRangeIndex.RangeAccessor<BookmarkRecord, Color>() {
+        @Override
+        public long getStartPosition(BookmarkRecord record) {
+            return record.getStartPosition();
+        }
+
+        @Override
+        public long getLength(BookmarkRecord record) {
+            return record.getLength();
+        }
+
+        @Override
+        public Color getValue(BookmarkRecord record) {
+            return record.getColor();
+        }
+    };
+
     protected CodeAreaColorAssessor parentAssessor;
     protected final List<BookmarkRecord> records;
-    protected final ColorCache colorCache = new ColorCache();
+    protected final PositionRangeIndex<Color> rangeIndex = new PositionRangeIndex<>();
+    protected boolean indexValid = false;
+    private final RowCache rowCache = new RowCache();
 
     public BookmarksPositionColorModifier(List<BookmarkRecord> records) {
         this(records, null);
@@ -47,29 +70,31 @@ public class BookmarksPositionColorModifier implements CodeAreaColorAssessor {
     @Nullable
     @Override
     public Color getPositionBackgroundColor(long rowDataPosition, int byteOnRow, int charOnRow, CodeAreaSection section, boolean inSelection) {
+        if (!indexValid) {
+            rangeIndex.rebuild(records, RECORD_ACCESSOR);
+            indexValid = true;
+            rowCache.clear();
+        }
+
+        if (rowCache.rowDataPosition != rowDataPosition) {
+            rowCache.rowDataPosition = rowDataPosition;
+            rowCache.firstSegment = rangeIndex.findFirstSegment(rowDataPosition);
+            rowCache.segment = rowCache.firstSegment;
+        }
+
         long dataPosition = rowDataPosition + byteOnRow;
-        if (colorCache.start < 0 || colorCache.start > dataPosition || (colorCache.end >= 0 && colorCache.end < dataPosition)) {
-            colorCache.fullRange();
-            for (BookmarkRecord record : records) {
-                if (record.isEmpty()) {
-                    continue;
-                }
-
-                long startPosition = record.getStartPosition();
-                long endPosition = startPosition + record.getLength() - 1;
-                if (startPosition <= dataPosition && endPosition >= dataPosition) {
-                    colorCache.start = startPosition;
-                    colorCache.end = endPosition;
-                    colorCache.color = record.getColor();
-                } else if (startPosition > dataPosition && startPosition > colorCache.start && (startPosition <= colorCache.end || colorCache.end == -1)) {
-                    colorCache.end = startPosition - 1;
-                } else if (endPosition < dataPosition && endPosition >= colorCache.start && (endPosition <= colorCache.end || colorCache.end == -1)) {
-                    colorCache.start = endPosition + 1;
-                }
-            }
+        int segmentsCount = rangeIndex.getSegmentsCount();
+        int segment = rowCache.segment;
+        if (segment > rowCache.firstSegment && (segment == segmentsCount || rangeIndex.getSegmentStart(segment) > dataPosition)) {
+            // Positions of row are painted again for another section
+            segment = rowCache.firstSegment;
         }
+        while (segment < segmentsCount && rangeIndex.getSegmentEnd(segment) < dataPosition) {
+            segment++;
+        }
+        rowCache.segment = segment;
 
-        return colorCache.color;
+        return segment < segmentsCount && rangeIndex.getSegmentStart(segment) <= dataPosition ? rangeIndex.getSegmentValue(segment) : null;
     }
 
     @Nullable
@@ -89,30 +114,26 @@ public class BookmarksPositionColorModifier implements CodeAreaColorAssessor {
     }
 
     public void notifyBookmarksChanged() {
-        colorCache.clear();
+        indexValid = false;
     }
 
-    private static class ColorCache {
+    /**
+     * Segment lookup state for currently painted row.
+     */
+    private static class RowCache {
 
-        long start;
-        long end;
-        @Nullable
-        Color color;
+        long rowDataPosition;
+        int firstSegment;
+        int segment;
 
-        public ColorCache() {
+        public RowCache() {
             clear();
         }
 
         private void clear() {
-            start = -1;
-            end = -1;
-            color = null;
-        }
-
-        private void fullRange() {
-            start = 0;
-            end = -1;
-            color = null;
+            rowDataPosition = -1;
+            firstSegment = 0;
+            segment = 0;
         }
     }
 }
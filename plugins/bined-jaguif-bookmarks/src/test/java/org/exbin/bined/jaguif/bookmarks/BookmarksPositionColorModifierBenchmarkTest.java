@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.bookmarks;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.exbin.bined.basic.BasicCodeAreaSection;
+import org.exbin.bined.jaguif.bookmarks.model.BookmarkRecord;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+
+/**
+ * Paint time benchmark of bookmarks color modifier compared to linear scan of
+ * bookmarks.
+ * <p>
+ * Ignored by default, lookup is covered by
+ * {@link BookmarksPositionColorModifierTest}.
+ */
+public class BookmarksPositionColorModifierBenchmarkTest {
+
+    private static final long DATA_SIZE = 256 * 1024 * 1024;
+    private static final int[] BOOKMARKS_COUNTS = {10, 1000, 10000};
+    private static final int BYTES_PER_ROW = 16;
+    private static final int ROWS_PER_PAGE = 50;
+    private static final int PAGES_COUNT = 50;
+
+    @Test
+    @Ignore
+    public void testPaintTime() {
+        Random random = new Random(0);
+        for (int bookmarksCount : BOOKMARKS_COUNTS) {
+            List<BookmarkRecord> records = new ArrayList<>();
+            for (int i = 0; i < bookmarksCount; i++) {
+                long startPosition = (long) (random.nextDouble() * DATA_SIZE);
+                records.add(new BookmarkRecord(startPosition, 1 + random.nextInt(256), new Color(random.nextInt(0xffffff))));
+            }
+            long[] pageStarts = new long[PAGES_COUNT];
+            for (int i = 0; i < PAGES_COUNT; i++) {
+                // Pages are placed around bookmarks to hit highlighted areas
+                BookmarkRecord record = records.get(random.nextInt(bookmarksCount));
+                pageStarts[i] = Math.max(0, record.getStartPosition() / BYTES_PER_ROW - ROWS_PER_PAGE / 2) * BYTES_PER_ROW;
+            }
+
+            BookmarksPositionColorModifier modifier = new BookmarksPositionColorModifier(records);
+            long startTime = System.nanoTime();
+            long indexedHits = paintPages(modifier, pageStarts);
+            long indexedTime = System.nanoTime() - startTime;
+
+            startTime = System.nanoTime();
+            long linearHits = paintPagesLinear(records, pageStarts);
+            long linearTime = System.nanoTime() - startTime;
+
+            Assert.assertEquals(linearHits, indexedHits);
+            System.out.println(String.format("Bookmarks %d: linear %.2f ms/page, indexed %.4f ms/page",
+                    bookmarksCount, linearTime / 1_000_000.0 / PAGES_COUNT, indexedTime / 1_000_000.0 / PAGES_COUNT));
+        }
+    }
+
+    private static long paintPages(BookmarksPositionColorModifier modifier, long[] pageStarts) {
+        long hits = 0;
+        for (long pageStart : pageStarts) {
+            for (int row = 0; row < ROWS_PER_PAGE; row++) {
+                long rowDataPosition = pageStart + row * BYTES_PER_ROW;
+                // Code area paints code matrix and then text preview of each row
+                for (int byteOnRow = 0; byteOnRow < BYTES_PER_ROW; byteOnRow++) {
+                    Color color = modifier.getPositionBackgroundColor(rowDataPosition, byteOnRow, byteOnRow * 3, BasicCodeAreaSection.CODE_MATRIX, false);
+                    hits += color == null ? 0 : color.getRGB();
+                }
+                for (int byteOnRow = 0; byteOnRow < BYTES_PER_ROW; byteOnRow++) {
+                    Color color = modifier.getPositionBackgroundColor(rowDataPosition, byteOnRow, byteOnRow, BasicCodeAreaSection.TEXT_PREVIEW, false);
+                    hits += color == null ? 0 : color.getRGB();
+                }
+            }
+        }
+        return hits;
+    }
+
+    private static long paintPagesLinear(List<BookmarkRecord> records, long[] pageStarts) {
+        long hits = 0;
+        for (long pageStart : pageStarts) {
+            for (int row = 0; row < ROWS_PER_PAGE; row++) {
+                long rowDataPosition = pageStart + row * BYTES_PER_ROW;
+                for (int pass = 0; pass < 2; pass++) {
+                    for (int byteOnRow = 0; byteOnRow < BYTES_PER_ROW; byteOnRow++) {
+                        Color color = findColorLinear(records, rowDataPosition + byteOnRow);
+                        hits += color == null ? 0 : color.getRGB();
+                    }
+                }
+            }
+        }
+        return hits;
+    }
+
+    private static Color findColorLinear(List<BookmarkRecord> records, long dataPosition) {
+        Color color = null;
+        for (BookmarkRecord record : records) {
+            long startPosition = record.getStartPosition();
+            if (!record.isEmpty() && startPosition <= dataPosition && startPosition + record.getLength() > dataPosition) {
+                color = record.getColor();
+            }
+        }
+        return color;
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.bookmarks;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.exbin.bined.basic.BasicCodeAreaSection;
+import org.exbin.bined.jaguif.bookmarks.model.BookmarkRecord;
+import org.exbin.bined.jaguif.component.PositionRangeIndex;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for bookmarks color modifier and its range index compared to linear
+ * scan of bookmarks.
+ */
+public class BookmarksPositionColorModifierTest {
+
+    private static final int DATA_SIZE = 4096;
+    private static final int[] BOOKMARKS_COUNTS = {0, 1, 10, 200};
+    private static final int BYTES_PER_ROW = 16;
+
+    @Test
+    public void testIndexLookup() {
+        Random random = new Random(0);
+        for (int bookmarksCount : BOOKMARKS_COUNTS) {
+            List<BookmarkRecord> records = createRecords(random, bookmarksCount);
+            PositionRangeIndex<Color> index = new PositionRangeIndex<>();
+            index.rebuild(records, new PositionRangeIndex.RangeAccessor<BookmarkRecord, Color>() {
+                @Override
+                public long getStartPosition(BookmarkRecord record) {
+                    return record.getStartPosition();
+                }
+
+                @Override
+                public long getLength(BookmarkRecord record) {
+                    return record.getLength();
+                }
+
+                @Override
+                public Color getValue(BookmarkRecord record) {
+                    return record.getColor();
+                }
+            });
+
+            for (int segment = 0; segment < index.getSegmentsCount(); segment++) {
+                Assert.assertTrue(index.getSegmentStart(segment) <= index.getSegmentEnd(segment));
+                if (segment > 0) {
+                    Assert.assertTrue(index.getSegmentEnd(segment - 1) < index.getSegmentStart(segment));
+                }
+            }
+            for (long position = -1; position <= DATA_SIZE; position++) {
+                Assert.assertEquals("Bookmarks " + bookmarksCount + " at " + position, findColorLinear(records, position), index.getValue(position));
+            }
+        }
+    }
+
+    @Test
+    public void testPaintRows() {
+        Random random = new Random(1);
+        for (int bookmarksCount : BOOKMARKS_COUNTS) {
+            List<BookmarkRecord> records = createRecords(random, bookmarksCount);
+            BookmarksPositionColorModifier modifier = new BookmarksPositionColorModifier(records);
+            List<Long> rows = new ArrayList<>();
+            for (long row = 0; row < DATA_SIZE; row += BYTES_PER_ROW) {
+                rows.add(row);
+            }
+            checkRows(modifier, records, rows);
+            // Rows are painted out of order when scrolling backward
+            Collections.shuffle(rows, random);
+            checkRows(modifier, records, rows);
+        }
+    }
+
+    @Test
+    public void testBookmarksChanged() {
+        List<BookmarkRecord> records = new ArrayList<>();
+        records.add(new BookmarkRecord(10, 20, Color.RED));
+        BookmarksPositionColorModifier modifier = new BookmarksPositionColorModifier(records);
+        Assert.assertEquals(Color.RED, modifier.getPositionBackgroundColor(0, 15, 15, BasicCodeAreaSection.CODE_MATRIX, false));
+
+        records.add(new BookmarkRecord(12, 2, Color.BLUE));
+        records.add(new BookmarkRecord(40, 0, Color.GREEN));
+        modifier.notifyBookmarksChanged();
+        Assert.assertEquals(Color.RED, modifier.getPositionBackgroundColor(0, 11, 11, BasicCodeAreaSection.CODE_MATRIX, false));
+        Assert.assertEquals(Color.BLUE, modifier.getPositionBackgroundColor(0, 13, 13, BasicCodeAreaSection.CODE_MATRIX, false));
+        Assert.assertNull(modifier.getPositionBackgroundColor(32, 8, 8, BasicCodeAreaSection.CODE_MATRIX, false));
+    }
+
+    private static void checkRows(BookmarksPositionColorModifier modifier, List<BookmarkRecord> records, List<Long> rows) {
+        for (long rowDataPosition : rows) {
+            // Code area paints code matrix and then text preview of each row
+            for (int byteOnRow = 0; byteOnRow < BYTES_PER_ROW; byteOnRow++) {
+                Color expected = findColorLinear(records, rowDataPosition + byteOnRow);
+                Assert.assertEquals(expected, modifier.getPositionBackgroundColor(rowDataPosition, byteOnRow, byteOnRow * 3, BasicCodeAreaSection.CODE_MATRIX, false));
+            }
+            for (int byteOnRow = 0; byteOnRow < BYTES_PER_ROW; byteOnRow++) {
+                Color expected = findColorLinear(records, rowDataPosition + byteOnRow);
+                Assert.assertEquals(expected, modifier.getPositionBackgroundColor(rowDataPosition, byteOnRow, byteOnRow, BasicCodeAreaSection.TEXT_PREVIEW, false));
+            }
+        }
+    }
+
+    private static List<BookmarkRecord> createRecords(Random random, int bookmarksCount) {
+        List<BookmarkRecord> records = new ArrayList<>();
+        for (int i = 0; i < bookmarksCount; i++) {
+            long startPosition = random.nextInt(DATA_SIZE);
+            // Overlapping, adjacent and empty bookmarks with shared colors
+            int length = random.nextInt(10) == 0 ? 0 : 1 + random.nextInt(64);
+            records.add(new BookmarkRecord(startPosition, length, new Color(random.nextInt(4) * 0x40)));
+        }
+        return records;
+    }
+
+    private static Color findColorLinear(List<BookmarkRecord> records, long dataPosition) {
+        Color color = null;
+        for (BookmarkRecord record : records) {
+            long startPosition = record.getStartPosition();
+            if (!record.isEmpty() && startPosition <= dataPosition && startPosition + record.getLength() > dataPosition) {
+                color = record.getColor();
+            }
+        }
+        return color;
+    }
+}
@@ -138,7 +138,7 @@ public class CompareFilesAction extends AbstractAction implements ActionContextC
                 try (FileInputStream stream = new FileInputStream(file)) {
                     PagedData pagedData = new ByteArrayPagedData();
                     pagedData.loadFromStream(stream);
-                    return new CompareFilesPanel.FileRecord(file.getAbsolutePath(), pagedData);
+                    return new CompareFilesPanel.FileRecord(file.getAbsolutePath(), pagedData, file);
                 } catch (IOException ex) {
                     Logger.getLogger(CompareFilesAction.class.getName()).log(Level.SEVERE, null, ex);
 
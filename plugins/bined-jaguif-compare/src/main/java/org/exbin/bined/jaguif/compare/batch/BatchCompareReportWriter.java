@@ -0,0 +1,214 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.compare.batch;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import org.exbin.bined.jaguif.compare.diff.DiffRegionIndex;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Writer of batch comparison summary in JSON format.
+ */
+@NullMarked
+public class BatchCompareReportWriter {
+
+    private final Writer writer;
+
+    public BatchCompareReportWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Writes summary of comparison of pairs of files.
+     *
+     * @param results results of pairs comparison
+     * @param timeMillis total time of comparison in milliseconds
+     * @throws IOException if writing failed
+     */
+    public void writePairs(List<PairCompareResult> results, long timeMillis) throws IOException {
+        int[] statusCounts = new int[PairCompareResult.Status.values().length];
+        for (PairCompareResult result : results) {
+            statusCounts[result.getStatus().ordinal()]++;
+        }
+
+        writer.write("{\n");
+        writeField(1, "mode", "pairs");
+        writeField(1, "timeMillis", timeMillis);
+        writeField(1, "pairsCount", results.size());
+        writeField(1, "identicalCount", statusCounts[PairCompareResult.Status.IDENTICAL.ordinal()]);
+        writeField(1, "differentCount", statusCounts[PairCompareResult.Status.DIFFERENT.ordinal()]);
+        writeField(1, "missingCount", statusCounts[PairCompareResult.Status.LEFT_MISSING.ordinal()] + statusCounts[PairCompareResult.Status.RIGHT_MISSING.ordinal()]);
+        writeField(1, "errorCount", statusCounts[PairCompareResult.Status.ERROR.ordinal()]);
+        writeName(1, "pairs");
+        writer.write("[");
+        for (int i = 0; i < results.size(); i++) {
+            writer.write(i == 0 ? "\n" : ",\n");
+            writeIndent(2);
+            writePairResult(2, results.get(i));
+        }
+        writer.write(results.isEmpty() ? "]\n" : "\n  ]\n");
+        writer.write("}\n");
+        writer.flush();
+    }
+
+    /**
+     * Writes summary of three-way comparison.
+     *
+     * @param result result of three-way comparison
+     * @param timeMillis total time of comparison in milliseconds
+     * @throws IOException if writing failed
+     */
+    public void writeThreeWay(ThreeWayCompareResult result, long timeMillis) throws IOException {
+        writer.write("{\n");
+        writeField(1, "mode", "threeWay");
+        writeField(1, "timeMillis", timeMillis);
+        writeField(1, "base", result.getFirstResult().getPair().getLeftFile());
+        writeField(1, "conflictsCount", result.getConflictsCount());
+        writeField(1, "conflictsIncomplete", result.isConflictsIncomplete());
+        writeName(1, "conflicts");
+        writer.write("[");
+        for (int i = 0; i < result.getConflictsCount(); i++) {
+            writer.write(i == 0 ? "\n    " : ",\n    ");
+            long start = result.getConflictStart(i);
+            writer.write("{\"position\": " + start + ", \"length\": " + (result.getConflictEnd(i) - start) + "}");
+        }
+        writer.write(result.getConflictsCount() == 0 ? "],\n" : "\n  ],\n");
+        writeName(1, "first");
+        writePairResult(1, result.getFirstResult());
+        writer.write(",\n");
+        writeName(1, "second");
+        writePairResult(1, result.getSecondResult());
+        writer.write("\n}\n");
+        writer.flush();
+    }
+
+    private void writePairResult(int level, PairCompareResult result) throws IOException {
+        ComparePair pair = result.getPair();
+        writer.write("{\n");
+        writeField(level + 1, "name", pair.getName());
+        writeField(level + 1, "left", pair.getLeftFile());
+        writeField(level + 1, "right", pair.getRightFile());
+        writeField(level + 1, "status", result.getStatus().name());
+        Optional<String> errorMessage = result.getErrorMessage();
+        if (errorMessage.isPresent()) {
+            writeField(level + 1, "error", errorMessage.get());
+        }
+        writeField(level + 1, "leftSize", result.getLeftDataSize());
+        writeField(level + 1, "rightSize", result.getRightDataSize());
+        writeField(level + 1, "identicalLength", result.getIdenticalLength());
+        writeName(level + 1, "identicalPercent");
+        writer.write(String.format(Locale.ROOT, "%.4f,\n", result.getIdenticalPercent()));
+        writeField(level + 1, "skippedLength", result.getSkippedLength());
+        writeField(level + 1, "timeMillis", result.getTimeMillis());
+        DiffRegionIndex regions = result.getRegions();
+        writeField(level + 1, "regionsCount", regions.size());
+        writeField(level + 1, "regionsTruncated", result.isRegionsTruncated());
+        writeName(level + 1, "regions");
+        writer.write("[");
+        for (int i = 0; i < regions.size(); i++) {
+            writer.write(i == 0 ? "\n" : ",\n");
+            writeIndent(level + 2);
+            writer.write("{\"type\": \"" + regions.getType(i).name()
+                    + "\", \"leftPosition\": " + regions.getPosition(i, true)
+                    + ", \"leftLength\": " + regions.getLength(i, true)
+                    + ", \"rightPosition\": " + regions.getPosition(i, false)
+                    + ", \"rightLength\": " + regions.getLength(i, false) + "}");
+        }
+        if (!regions.isEmpty()) {
+            writer.write("\n");
+            writeIndent(level + 1);
+        }
+        writer.write("]\n");
+        writeIndent(level);
+        writer.write("}");
+    }
+
+    private void writeField(int level, String name, String value) throws IOException {
+        writeName(level, name);
+        writeString(value);
+        writer.write(",\n");
+    }
+
+    private void writeField(int level, String name, Optional<Path> file) throws IOException {
+        writeName(level, name);
+        if (file.isPresent()) {
+            writeString(file.get().toString());
+        } else {
+            writer.write("null");
+        }
+        writer.write(",\n");
+    }
+
+    private void writeField(int level, String name, long value) throws IOException {
+        writeName(level, name);
+        writer.write(Long.toString(value));
+        writer.write(",\n");
+    }
+
+    private void writeField(int level, String name, boolean value) throws IOException {
+        writeName(level, name);
+        writer.write(Boolean.toString(value));
+        writer.write(",\n");
+    }
+
+    private void writeName(int level, String name) throws IOException {
+        writeIndent(level);
+        writeString(name);
+        writer.write(": ");
+    }
+
+    private void writeIndent(int level) throws IOException {
+        for (int i = 0; i < level; i++) {
+            writer.write("  ");
+        }
+    }
+
+    private void writeString(String value) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char character = value.charAt(i);
+            switch (character) {
+                case '"':
+                    writer.write("\\\"");
+                    break;
+                case '\\':
+                    writer.write("\\\\");
+                    break;
+                case '\n':
+                    writer.write("\\n");
+                    break;
+                case '\r':
+                    writer.write("\\r");
+                    break;
+                case '\t':
+                    writer.write("\\t");
+                    break;
+                default:
+                    if (character < 0x20) {
+                        writer.write(String.format("\\u%04x", (int) character));
+                    } else {
+                        writer.write(character);
+                    }
+            }
+        }
+        writer.write('"');
+    }
+}
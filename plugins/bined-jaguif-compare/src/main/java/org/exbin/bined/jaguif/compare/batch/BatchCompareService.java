@@ -0,0 +1,335 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.compare.batch;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.exbin.bined.jaguif.compare.diff.BinaryDiffEngine;
+import org.exbin.bined.jaguif.compare.diff.BlockComparison;
+import org.exbin.bined.jaguif.compare.diff.BlockHashComparator;
+import org.exbin.bined.jaguif.compare.diff.DiffRegion;
+import org.exbin.bined.jaguif.compare.diff.DiffRegionIndex;
+import org.exbin.bined.jaguif.compare.diff.FileBlockSource;
+import org.exbin.bined.jaguif.document.data.MappedFileData;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Headless comparison of multiple pairs of files.
+ * <p>
+ * Pairs are compared concurrently. Each pair is pre-compared by block hashes
+ * first and only if some blocks differ, files are mapped to memory and
+ * compared by diff engine.
+ */
+@NullMarked
+public class BatchCompareService {
+
+    public static final int DEFAULT_MAX_REGIONS_COUNT = 10000;
+
+    private final BinaryDiffEngine diffEngine = new BinaryDiffEngine();
+    private final BlockHashComparator blockHashComparator;
+    private final ThreadPoolExecutor executor;
+    private int maxRegionsCount = DEFAULT_MAX_REGIONS_COUNT;
+
+    public BatchCompareService() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates service.
+     *
+     * @param threadsCount count of concurrently compared pairs
+     */
+    public BatchCompareService(int threadsCount) {
+        if (threadsCount <= 0) {
+            throw new IllegalArgumentException("Threads count must be positive");
+        }
+
+        blockHashComparator = new BlockHashComparator(BlockHashComparator.DEFAULT_BLOCK_SIZE, threadsCount);
+        executor = new ThreadPoolExecutor(threadsCount, threadsCount, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), (runnable) -> {
+            Thread thread = new Thread(runnable, "BatchCompareWorker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    public int getMaxRegionsCount() {
+        return maxRegionsCount;
+    }
+
+    /**
+     * Sets maximum count of changed regions kept for single pair.
+     *
+     * @param maxRegionsCount maximum count of regions
+     */
+    public void setMaxRegionsCount(int maxRegionsCount) {
+        if (maxRegionsCount < 0) {
+            throw new IllegalArgumentException("Maximum regions count cannot be negative");
+        }
+
+        this.maxRegionsCount = maxRegionsCount;
+    }
+
+    /**
+     * Creates pairs of files with the same relative path in given directories.
+     * <p>
+     * Files present in only one of directories are paired with missing file.
+     *
+     * @param leftDirectory left directory
+     * @param rightDirectory right directory
+     * @return pairs sorted by relative path
+     * @throws IOException if directory cannot be read
+     */
+    public static List<ComparePair> createDirectoryPairs(Path leftDirectory, Path rightDirectory) throws IOException {
+        Map<String, Path> leftFiles = listFiles(leftDirectory);
+        Map<String, Path> rightFiles = listFiles(rightDirectory);
+        TreeSet<String> names = new TreeSet<>(leftFiles.keySet());
+        names.addAll(rightFiles.keySet());
+        List<ComparePair> pairs = new ArrayList<>(names.size());
+        for (String name : names) {
+            pairs.add(new ComparePair(name, leftFiles.get(name), rightFiles.get(name)));
+        }
+        return pairs;
+    }
+
+    private static Map<String, Path> listFiles(Path directory) throws IOException {
+        Map<String, Path> files = new TreeMap<>();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.filter(Files::isRegularFile).forEach((path) -> {
+                files.put(directory.relativize(path).toString().replace(File.separatorChar, '/'), path);
+            });
+        }
+        return files;
+    }
+
+    /**
+     * Compares given pairs concurrently.
+     *
+     * @param pairs pairs of files
+     * @return results in order of pairs
+     * @throws InterruptedException if current thread was interrupted
+     */
+    public List<PairCompareResult> compare(List<ComparePair> pairs) throws InterruptedException {
+        List<Future<PairCompareResult>> futures = new ArrayList<>(pairs.size());
+        for (ComparePair pair : pairs) {
+            futures.add(executor.submit(() -> comparePair(pair)));
+        }
+
+        List<PairCompareResult> results = new ArrayList<>(pairs.size());
+        try {
+            for (Future<PairCompareResult> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException ex) {
+            cancelAll(futures);
+            throw ex;
+        } catch (ExecutionException ex) {
+            cancelAll(futures);
+            throw new IllegalStateException("Comparison of files failed", ex.getCause());
+        }
+        return results;
+    }
+
+    /**
+     * Compares base file with two derived files.
+     * <p>
+     * Ranges of base file changed in both derived files are reported as
+     * conflicts.
+     *
+     * @param baseFile base file
+     * @param firstFile first derived file
+     * @param secondFile second derived file
+     * @return result of comparison
+     * @throws InterruptedException if current thread was interrupted
+     */
+    public ThreeWayCompareResult compareThreeWay(Path baseFile, Path firstFile, Path secondFile) throws InterruptedException {
+        List<PairCompareResult> results = compare(Arrays.asList(
+                new ComparePair(firstFile.toString(), baseFile, firstFile),
+                new ComparePair(secondFile.toString(), baseFile, secondFile)
+        ));
+        PairCompareResult firstResult = results.get(0);
+        PairCompareResult secondResult = results.get(1);
+        return new ThreeWayCompareResult(firstResult, secondResult, findConflicts(firstResult.getRegions(), secondResult.getRegions()));
+    }
+
+    /**
+     * Compares single pair of files in current thread.
+     *
+     * @param pair pair of files
+     * @return result of comparison
+     * @throws InterruptedException if current thread was interrupted
+     */
+    public PairCompareResult comparePair(ComparePair pair) throws InterruptedException {
+        long startTime = System.nanoTime();
+        Optional<Path> leftFile = pair.getLeftFile();
+        Optional<Path> rightFile = pair.getRightFile();
+        try {
+            if (!leftFile.isPresent() || !rightFile.isPresent()) {
+                long leftDataSize = leftFile.isPresent() ? Files.size(leftFile.get()) : 0;
+                long rightDataSize = rightFile.isPresent() ? Files.size(rightFile.get()) : 0;
+                PairCompareResult.Status status = leftFile.isPresent() ? PairCompareResult.Status.RIGHT_MISSING : PairCompareResult.Status.LEFT_MISSING;
+                return new PairCompareResult(pair, status, leftDataSize, rightDataSize, 0, new DiffRegionIndex(), false, 0, getElapsedMillis(startTime), null);
+            }
+
+            BlockComparison blockComparison;
+            try (FileBlockSource leftSource = new FileBlockSource(leftFile.get()); FileBlockSource rightSource = new FileBlockSource(rightFile.get())) {
+                blockComparison = blockHashComparator.compare(leftSource, rightSource);
+            }
+            if (blockComparison == null) {
+                throw new InterruptedException();
+            }
+
+            long leftDataSize = blockComparison.getLeftDataSize();
+            long rightDataSize = blockComparison.getRightDataSize();
+            if (blockComparison.getRunsCount() == 0) {
+                return new PairCompareResult(pair, PairCompareResult.Status.IDENTICAL, leftDataSize, rightDataSize, leftDataSize, new DiffRegionIndex(), false, leftDataSize, getElapsedMillis(startTime), null);
+            }
+
+            RegionsCollector collector = new RegionsCollector();
+            MappedFileData leftData = new MappedFileData(leftFile.get().toFile());
+            MappedFileData rightData = new MappedFileData(rightFile.get().toFile());
+            try {
+                if (leftData.getDataSize() != leftDataSize || rightData.getDataSize() != rightDataSize) {
+                    throw new IOException("File was modified during comparison");
+                }
+
+                if (!diffEngine.diff(leftData, rightData, collector, blockComparison)) {
+                    throw new InterruptedException();
+                }
+            } finally {
+                leftData.dispose();
+                rightData.dispose();
+            }
+
+            PairCompareResult.Status status = collector.changed ? PairCompareResult.Status.DIFFERENT : PairCompareResult.Status.IDENTICAL;
+            return new PairCompareResult(pair, status, leftDataSize, rightDataSize, collector.identicalLength, collector.regions, collector.truncated, blockComparison.getEqualLength(), getElapsedMillis(startTime), null);
+        } catch (IOException | RuntimeException ex) {
+            String message = ex.getMessage();
+            return new PairCompareResult(pair, PairCompareResult.Status.ERROR, 0, 0, 0, new DiffRegionIndex(), false, 0, getElapsedMillis(startTime), message == null ? ex.getClass().getSimpleName() : message);
+        }
+    }
+
+    /**
+     * Finds ranges of base data changed in both comparisons.
+     * <p>
+     * Changed regions overlapping or touching each other are reported as
+     * single merged range.
+     *
+     * @param firstRegions changed regions with base data on the left side
+     * @param secondRegions changed regions with base data on the left side
+     * @return pairs of start and end positions of conflicting ranges
+     */
+    public static long[] findConflicts(DiffRegionIndex firstRegions, DiffRegionIndex secondRegions) {
+        long[] conflicts = new long[16];
+        int conflictsLength = 0;
+        int firstIndex = 0;
+        int secondIndex = 0;
+        while (firstIndex < firstRegions.size() && secondIndex < secondRegions.size()) {
+            long firstStart = firstRegions.getPosition(firstIndex, true);
+            long firstEnd = firstStart + firstRegions.getLength(firstIndex, true);
+            long secondStart = secondRegions.getPosition(secondIndex, true);
+            long secondEnd = secondStart + secondRegions.getLength(secondIndex, true);
+            // Insertion conflicts with change touching its position
+            boolean overlapping = firstStart == firstEnd || secondStart == secondEnd
+                    ? firstStart <= secondEnd && secondStart <= firstEnd
+                    : firstStart < secondEnd && secondStart < firstEnd;
+            if (overlapping) {
+                long conflictStart = Math.min(firstStart, secondStart);
+                long conflictEnd = Math.max(firstEnd, secondEnd);
+                if (conflictsLength > 0 && conflicts[conflictsLength - 1] >= conflictStart) {
+                    conflicts[conflictsLength - 1] = Math.max(conflicts[conflictsLength - 1], conflictEnd);
+                } else {
+                    if (conflictsLength == conflicts.length) {
+                        conflicts = Arrays.copyOf(conflicts, conflictsLength * 2);
+                    }
+                    conflicts[conflictsLength++] = conflictStart;
+                    conflicts[conflictsLength++] = conflictEnd;
+                }
+            }
+
+            if (firstEnd <= secondEnd) {
+                firstIndex++;
+            } else {
+                secondIndex++;
+            }
+        }
+        return Arrays.copyOf(conflicts, conflictsLength);
+    }
+
+    /**
+     * Releases comparison threads.
+     */
+    public void dispose() {
+        executor.shutdownNow();
+        blockHashComparator.dispose();
+    }
+
+    private static long getElapsedMillis(long startTime) {
+        return (System.nanoTime() - startTime) / 1_000_000;
+    }
+
+    private static void cancelAll(List<? extends Future<?>> futures) {
+        for (Future<?> future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * Collector of changed regions reported by diff engine.
+     */
+    private final class RegionsCollector implements BinaryDiffEngine.DiffListener {
+
+        private final DiffRegionIndex regions = new DiffRegionIndex();
+        private long identicalLength = 0;
+        private boolean changed = false;
+        private boolean truncated = false;
+
+        @Override
+        public boolean regionFound(DiffRegion region) {
+            if (region.getType() == DiffRegion.Type.MATCH) {
+                identicalLength += region.getLeftLength();
+                return true;
+            }
+
+            changed = true;
+            if (regions.size() < maxRegionsCount) {
+                regions.add(region);
+            } else {
+                truncated = true;
+            }
+            return true;
+        }
+
+        @Override
+        public void positionReached(long leftPosition) {
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.compare.batch;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Pair of files for batch comparison.
+ * <p>
+ * Either of files can be missing when pair was created from directories.
+ */
+@NullMarked
+public class ComparePair {
+
+    private final String name;
+    @Nullable
+    private final Path leftFile;
+    @Nullable
+    private final Path rightFile;
+
+    public ComparePair(String name, @Nullable Path leftFile, @Nullable Path rightFile) {
+        this.name = name;
+        this.leftFile = leftFile;
+        this.rightFile = rightFile;
+    }
+
+    /**
+     * Returns name of pair, which is relative path for pairs of directories.
+     *
+     * @return name
+     */
+    public String getName() {
+        return name;
+    }
+
+    public Optional<Path> getLeftFile() {
+        return Optional.ofNullable(leftFile);
+    }
+
+    public Optional<Path> getRightFile() {
+        return Optional.ofNullable(rightFile);
+    }
+}
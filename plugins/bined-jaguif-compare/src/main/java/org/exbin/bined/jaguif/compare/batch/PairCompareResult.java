@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.compare.batch;
+
+import java.util.Optional;
+import org.exbin.bined.jaguif.compare.diff.DiffRegionIndex;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Result of comparison of single pair of files.
+ */
+@NullMarked
+public class PairCompareResult {
+
+    private final ComparePair pair;
+    private final Status status;
+    private final long leftDataSize;
+    private final long rightDataSize;
+    private final long identicalLength;
+    private final DiffRegionIndex regions;
+    private final boolean regionsTruncated;
+    private final long skippedLength;
+    private final long timeMillis;
+    @Nullable
+    private final String errorMessage;
+
+    public PairCompareResult(ComparePair pair, Status status, long leftDataSize, long rightDataSize, long identicalLength, DiffRegionIndex regions, boolean regionsTruncated, long skippedLength, long timeMillis, @Nullable String errorMessage) {
+        this.pair = pair;
+        this.status = status;
+        this.leftDataSize = leftDataSize;
+        this.rightDataSize = rightDataSize;
+        this.identicalLength = identicalLength;
+        this.regions = regions;
+        this.regionsTruncated = regionsTruncated;
+        this.skippedLength = skippedLength;
+        this.timeMillis = timeMillis;
+        this.errorMessage = errorMessage;
+    }
+
+    public ComparePair getPair() {
+        return pair;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public long getLeftDataSize() {
+        return leftDataSize;
+    }
+
+    public long getRightDataSize() {
+        return rightDataSize;
+    }
+
+    /**
+     * Returns length of matching data in left file.
+     *
+     * @return length of identical data
+     */
+    public long getIdenticalLength() {
+        return identicalLength;
+    }
+
+    /**
+     * Returns percentage of identical data of both files.
+     *
+     * @return percentage in range 0 to 100
+     */
+    public double getIdenticalPercent() {
+        long totalSize = leftDataSize + rightDataSize;
+        if (totalSize == 0) {
+            return status == Status.IDENTICAL ? 100 : 0;
+        }
+
+        return identicalLength * 200.0 / totalSize;
+    }
+
+    /**
+     * Returns changed regions in order of positions.
+     *
+     * @return regions
+     */
+    public DiffRegionIndex getRegions() {
+        return regions;
+    }
+
+    /**
+     * Returns true if count of changed regions exceeded limit and only first
+     * regions were kept.
+     *
+     * @return true if regions were truncated
+     */
+    public boolean isRegionsTruncated() {
+        return regionsTruncated;
+    }
+
+    /**
+     * Returns length of data skipped by block pre-comparison.
+     *
+     * @return skipped length
+     */
+    public long getSkippedLength() {
+        return skippedLength;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public Optional<String> getErrorMessage() {
+        return Optional.ofNullable(errorMessage);
+    }
+
+    /**
+     * Status of pair comparison.
+     */
+    public enum Status {
+        IDENTICAL,
+        DIFFERENT,
+        LEFT_MISSING,
+        RIGHT_MISSING,
+        ERROR
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.compare.batch;
+
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Result of three-way comparison of base file with two derived files.
+ */
+@NullMarked
+public class ThreeWayCompareResult {
+
+    private final PairCompareResult firstResult;
+    private final PairCompareResult secondResult;
+    private final long[] conflicts;
+
+    /**
+     * Creates result.
+     *
+     * @param firstResult comparison of base with first derived file
+     * @param secondResult comparison of base with second derived file
+     * @param conflicts pairs of start and end positions of conflicting base
+     * ranges
+     */
+    public ThreeWayCompareResult(PairCompareResult firstResult, PairCompareResult secondResult, long[] conflicts) {
+        this.firstResult = firstResult;
+        this.secondResult = secondResult;
+        this.conflicts = conflicts;
+    }
+
+    public PairCompareResult getFirstResult() {
+        return firstResult;
+    }
+
+    public PairCompareResult getSecondResult() {
+        return secondResult;
+    }
+
+    /**
+     * Returns count of ranges of base file changed in both derived files.
+     *
+     * @return count of conflicts
+     */
+    public int getConflictsCount() {
+        return conflicts.length / 2;
+    }
+
+    public long getConflictStart(int conflictIndex) {
+        checkIndex(conflictIndex);
+        return conflicts[conflictIndex * 2];
+    }
+
+    /**
+     * Returns end of conflicting range of base file.
+     *
+     * @param conflictIndex conflict index
+     * @return exclusive end position
+     */
+    public long getConflictEnd(int conflictIndex) {
+        checkIndex(conflictIndex);
+        return conflicts[conflictIndex * 2 + 1];
+    }
+
+    /**
+     * Returns true if conflicts were detected only partially, because changed
+     * regions of some of comparisons were truncated.
+     *
+     * @return true if conflicts are incomplete
+     */
+    public boolean isConflictsIncomplete() {
+        return firstResult.isRegionsTruncated() || secondResult.isRegionsTruncated();
+    }
+
+    private void checkIndex(int conflictIndex) {
+        if (conflictIndex < 0 || conflictIndex >= conflicts.length / 2) {
+            throw new IndexOutOfBoundsException("Invalid conflict index " + conflictIndex);
+        }
+    }
+}
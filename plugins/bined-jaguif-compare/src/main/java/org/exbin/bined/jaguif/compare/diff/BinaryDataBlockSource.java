@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.compare.diff;
+
+import java.nio.ByteBuffer;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Block source reading binary data.
+ * <p>
+ * Binary data are not guaranteed to support concurrent access, so reads are
+ * serialized and only hashing runs in parallel.
+ */
+@NullMarked
+public class BinaryDataBlockSource implements BlockSource {
+
+    private final BinaryData data;
+
+    public BinaryDataBlockSource(BinaryData data) {
+        this.data = data;
+    }
+
+    @Override
+    public long getDataSize() {
+        return data.getDataSize();
+    }
+
+    @Override
+    public void read(long position, ByteBuffer buffer) {
+        int length = buffer.remaining();
+        if (!buffer.hasArray()) {
+            byte[] block = new byte[length];
+            synchronized (this) {
+                data.copyToArray(position, block, 0, length);
+            }
+            buffer.put(block);
+            return;
+        }
+
+        synchronized (this) {
+            data.copyToArray(position, buffer.array(), buffer.arrayOffset() + buffer.position(), length);
+        }
+        buffer.position(buffer.position() + length);
+    }
+}
@@ -0,0 +1,775 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.compare.diff;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Diff engine for binary data.
+ * <p>
+ * Both data are split into content-defined chunks using rolling gear hash.
+ * Chunks with content unique on both sides which appear in the same order
+ * are used as anchors. Gaps between anchors are aligned again with smaller
+ * chunks and only gaps small enough are compared byte by byte using Myers
+ * diff with linear space. Gaps over the limits are reported as changed as a
+ * whole.
+ * <p>
+ * Memory use is linear to the number of chunks and regions are reported to
+ * listener in order as they are found.
+ */
+@NullMarked
+public class BinaryDiffEngine {
+
+    public static final int DEFAULT_MAX_GAP_LENGTH = 64 * 1024;
+    public static final int DEFAULT_MAX_EDIT_COST = 2048;
+
+    /**
+     * Average chunk sizes for successive levels of alignment.
+     */
+    private static final int[] CHUNK_SIZES = {4096, 256, 32};
+    /**
+     * Limit of chunks count for gap aligned using smaller chunks.
+     */
+    private static final int MAX_LEVEL_CHUNKS = 16384;
+    /**
+     * Minimum length of equal data on the same offset reported as match in
+     * gaps which cannot be aligned.
+     */
+    private static final int MIN_POSITIONAL_MATCH = 32;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long[] GEAR = createGearTable();
+
+    private final int maxGapLength;
+    private final int maxEditCost;
+
+    public BinaryDiffEngine() {
+        this(DEFAULT_MAX_GAP_LENGTH, DEFAULT_MAX_EDIT_COST);
+    }
+
+    /**
+     * Creates diff engine.
+     *
+     * @param maxGapLength maximum length of gap compared byte by byte
+     * @param maxEditCost maximum count of edits searched for by byte level
+     * diff before gap is reported as changed as a whole
+     */
+    public BinaryDiffEngine(int maxGapLength, int maxEditCost) {
+        if (maxGapLength <= 0 || maxEditCost <= 0) {
+            throw new IllegalArgumentException("Limits must be positive");
+        }
+
+        this.maxGapLength = maxGapLength;
+        this.maxEditCost = maxEditCost;
+    }
+
+    /**
+     * Compares data.
+     *
+     * @param leftData left data
+     * @param rightData right data
+     * @param listener listener for found regions
+     * @return true if comparison finished, false if it was cancelled
+     */
+    public boolean diff(BinaryData leftData, BinaryData rightData, DiffListener listener) {
+        return diff(leftData, rightData, listener, null);
+    }
+
+    /**
+     * Compares data using result of block pre-comparison.
+     * <p>
+     * Only runs of differing blocks are compared, equal blocks are reported
+     * as matching.
+     *
+     * @param leftData left data
+     * @param rightData right data
+     * @param listener listener for found regions
+     * @param blockComparison block pre-comparison of the same data or null
+     * @return true if comparison finished, false if it was cancelled
+     */
+    public boolean diff(BinaryData leftData, BinaryData rightData, DiffListener listener, @Nullable BlockComparison blockComparison) {
+        DiffRun run = new DiffRun(leftData, rightData, listener);
+        return run.perform(blockComparison);
+    }
+
+    private static long[] createGearTable() {
+        Random random = new Random(0x6765617268617368L);
+        long[] table = new long[256];
+        for (int i = 0; i < table.length; i++) {
+            table[i] = random.nextLong();
+        }
+        return table;
+    }
+
+    /**
+     * Single comparison of data.
+     */
+    private final class DiffRun {
+
+        private final BinaryData leftData;
+        private final BinaryData rightData;
+        private final DiffListener listener;
+        private final byte[] leftBuffer = new byte[BUFFER_SIZE];
+        private final byte[] rightBuffer = new byte[BUFFER_SIZE];
+
+        private DiffRegion.@Nullable Type pendingType;
+        private long pendingLeftPosition;
+        private long pendingLeftLength;
+        private long pendingRightPosition;
+        private long pendingRightLength;
+        private boolean stopped = false;
+        private boolean cancelled = false;
+
+        public DiffRun(BinaryData leftData, BinaryData rightData, DiffListener listener) {
+            this.leftData = leftData;
+            this.rightData = rightData;
+            this.listener = listener;
+        }
+
+        public boolean perform(@Nullable BlockComparison blockComparison) {
+            long leftSize = leftData.getDataSize();
+            long rightSize = rightData.getDataSize();
+            if (blockComparison == null) {
+                alignRange(0, leftSize, 0, rightSize, 0);
+            } else {
+                if (blockComparison.getLeftDataSize() != leftSize || blockComparison.getRightDataSize() != rightSize) {
+                    throw new IllegalArgumentException("Block comparison does not match compared data");
+                }
+
+                // Data are aligned up to the end of last run of differing blocks
+                long position = 0;
+                for (int runIndex = 0; runIndex < blockComparison.getRunsCount() && !stopped; runIndex++) {
+                    long runStart = blockComparison.getRunStart(runIndex);
+                    addMatch(position, position, runStart - position);
+                    long leftEnd = blockComparison.getRunEnd(runIndex, true);
+                    long rightEnd = blockComparison.getRunEnd(runIndex, false);
+                    alignRange(runStart, leftEnd, runStart, rightEnd, 0);
+                    position = leftEnd;
+                }
+                if (position < leftSize) {
+                    addMatch(position, position, leftSize - position);
+                }
+            }
+            flush();
+            if (!stopped) {
+                listener.positionReached(leftSize);
+            }
+            return !cancelled;
+        }
+
+        private void alignRange(long leftStart, long leftEnd, long rightStart, long rightEnd, int level) {
+            if (checkStopped()) {
+                return;
+            }
+
+            long prefixLength = commonPrefix(leftStart, leftEnd, rightStart, rightEnd);
+            addMatch(leftStart, rightStart, prefixLength);
+            leftStart += prefixLength;
+            rightStart += prefixLength;
+            long suffixLength = commonSuffix(leftStart, leftEnd, rightStart, rightEnd);
+            leftEnd -= suffixLength;
+            rightEnd -= suffixLength;
+
+            long leftLength = leftEnd - leftStart;
+            long rightLength = rightEnd - rightStart;
+            if (leftLength == 0 || rightLength == 0) {
+                addChange(leftStart, leftLength, rightStart, rightLength);
+            } else if (leftLength <= maxGapLength && rightLength <= maxGapLength) {
+                diffBytes(leftStart, (int) leftLength, rightStart, (int) rightLength);
+            } else if (level < CHUNK_SIZES.length && (level == 0 || Math.max(leftLength, rightLength) <= (long) CHUNK_SIZES[level] * MAX_LEVEL_CHUNKS)) {
+                alignByAnchors(leftStart, leftEnd, rightStart, rightEnd, level);
+            } else {
+                addPositionalChange(leftStart, leftLength, rightStart, rightLength);
+            }
+
+            addMatch(leftEnd, rightEnd, suffixLength);
+        }
+
+        private void alignByAnchors(long leftStart, long leftEnd, long rightStart, long rightEnd, int level) {
+            int chunkSize = CHUNK_SIZES[level];
+            ChunkList leftChunks = splitChunks(leftData, leftBuffer, leftStart, leftEnd, chunkSize);
+            ChunkList rightChunks = splitChunks(rightData, rightBuffer, rightStart, rightEnd, chunkSize);
+            if (stopped) {
+                return;
+            }
+
+            int[] anchors = findAnchors(leftChunks, rightChunks);
+            long leftPosition = leftStart;
+            long rightPosition = rightStart;
+            for (int i = 0; i < anchors.length; i += 2) {
+                long anchorLeft = leftChunks.getStart(anchors[i]);
+                long anchorRight = rightChunks.getStart(anchors[i + 1]);
+                long length = leftChunks.getLength(anchors[i]);
+                if (anchorLeft < leftPosition || anchorRight < rightPosition || rightChunks.getLength(anchors[i + 1]) != length) {
+                    continue;
+                }
+                // Chunk hashes can collide
+                if (commonPrefix(anchorLeft, anchorLeft + length, anchorRight, anchorRight + length) != length) {
+                    continue;
+                }
+
+                alignRange(leftPosition, anchorLeft, rightPosition, anchorRight, level + 1);
+                addMatch(anchorLeft, anchorRight, length);
+                leftPosition = anchorLeft + length;
+                rightPosition = anchorRight + length;
+                if (stopped) {
+                    return;
+                }
+            }
+            alignRange(leftPosition, leftEnd, rightPosition, rightEnd, level + 1);
+        }
+
+        /**
+         * Reports gap which cannot be aligned as changed, except for longer
+         * runs of equal data on the same offset, such as zero filled areas.
+         */
+        private void addPositionalChange(long leftStart, long leftLength, long rightStart, long rightLength) {
+            long commonLength = Math.min(leftLength, rightLength);
+            long runStart = 0;
+            long offset = 0;
+            while (offset < commonLength) {
+                if (checkStopped()) {
+                    return;
+                }
+
+                int blockLength = (int) Math.min(BUFFER_SIZE, commonLength - offset);
+                leftData.copyToArray(leftStart + offset, leftBuffer, 0, blockLength);
+                rightData.copyToArray(rightStart + offset, rightBuffer, 0, blockLength);
+                for (int i = 0; i < blockLength; i++) {
+                    if (leftBuffer[i] != rightBuffer[i]) {
+                        long position = offset + i;
+                        if (position - runStart >= MIN_POSITIONAL_MATCH) {
+                            addMatch(leftStart + runStart, rightStart + runStart, position - runStart);
+                        } else {
+                            addChange(leftStart + runStart, position - runStart, rightStart + runStart, position - runStart);
+                        }
+                        addChange(leftStart + position, 1, rightStart + position, 1);
+                        runStart = position + 1;
+                    }
+                }
+                offset += blockLength;
+            }
+
+            if (commonLength - runStart >= MIN_POSITIONAL_MATCH) {
+                addMatch(leftStart + runStart, rightStart + runStart, commonLength - runStart);
+            } else {
+                addChange(leftStart + runStart, commonLength - runStart, rightStart + runStart, commonLength - runStart);
+            }
+            addChange(leftStart + commonLength, leftLength - commonLength, rightStart + commonLength, rightLength - commonLength);
+        }
+
+        /**
+         * Splits range of data into content-defined chunks.
+         * <p>
+         * Chunk boundary is placed where top bits of gear hash of preceding
+         * bytes are zero, so boundaries resynchronize after inserted or
+         * removed data.
+         */
+        private ChunkList splitChunks(BinaryData data, byte[] buffer, long start, long end, int averageSize) {
+            int minSize = averageSize / 4;
+            int maxSize = averageSize * 4;
+            int maskShift = Long.SIZE - Integer.numberOfTrailingZeros(averageSize);
+            ChunkList chunks = new ChunkList(end, (int) Math.min(Integer.MAX_VALUE - 8, (end - start) / averageSize + 16));
+            long chunkStart = start;
+            int chunkLength = 0;
+            long gearHash = 0;
+            long contentHash = FNV_OFFSET;
+            long position = start;
+            while (position < end) {
+                if (checkStopped()) {
+                    return chunks;
+                }
+
+                int length = (int) Math.min(buffer.length, end - position);
+                data.copyToArray(position, buffer, 0, length);
+                for (int i = 0; i < length; i++) {
+                    int value = buffer[i] & 0xff;
+                    gearHash = (gearHash << 1) + GEAR[value];
+                    contentHash = (contentHash ^ value) * FNV_PRIME;
+                    chunkLength++;
+                    if ((chunkLength >= minSize && (gearHash >>> maskShift) == 0) || chunkLength >= maxSize) {
+                        chunks.add(chunkStart, contentHash);
+                        chunkStart += chunkLength;
+                        chunkLength = 0;
+                        contentHash = FNV_OFFSET;
+                    }
+                }
+                position += length;
+            }
+            if (chunkLength > 0) {
+                chunks.add(chunkStart, contentHash);
+            }
+
+            return chunks;
+        }
+
+        /**
+         * Finds anchors as longest increasing sequence of chunks unique on
+         * both sides.
+         *
+         * @return pairs of left and right chunk indexes
+         */
+        private int[] findAnchors(ChunkList leftChunks, ChunkList rightChunks) {
+            HashIndex leftIndex = new HashIndex(leftChunks.size());
+            for (int i = 0; i < leftChunks.size(); i++) {
+                leftIndex.put(leftChunks.getHash(i), i);
+            }
+            HashIndex rightIndex = new HashIndex(rightChunks.size());
+            for (int i = 0; i < rightChunks.size(); i++) {
+                rightIndex.put(rightChunks.getHash(i), i);
+            }
+
+            int[] candidateLeft = new int[Math.min(leftChunks.size(), rightChunks.size())];
+            int[] candidateRight = new int[candidateLeft.length];
+            int candidatesCount = 0;
+            for (int i = 0; i < leftChunks.size(); i++) {
+                long hash = leftChunks.getHash(i);
+                if (leftIndex.get(hash) != i) {
+                    continue;
+                }
+                int rightIndexValue = rightIndex.get(hash);
+                if (rightIndexValue >= 0) {
+                    candidateLeft[candidatesCount] = i;
+                    candidateRight[candidatesCount] = rightIndexValue;
+                    candidatesCount++;
+                }
+            }
+
+            // Patience sorting for longest increasing sequence of right indexes
+            int[] tails = new int[candidatesCount];
+            int[] predecessors = new int[candidatesCount];
+            int length = 0;
+            for (int i = 0; i < candidatesCount; i++) {
+                int low = 0;
+                int high = length;
+                while (low < high) {
+                    int middle = (low + high) >>> 1;
+                    if (candidateRight[tails[middle]] < candidateRight[i]) {
+                        low = middle + 1;
+                    } else {
+                        high = middle;
+                    }
+                }
+                predecessors[i] = low > 0 ? tails[low - 1] : -1;
+                tails[low] = i;
+                if (low == length) {
+                    length++;
+                }
+            }
+
+            int[] anchors = new int[length * 2];
+            int candidate = length > 0 ? tails[length - 1] : -1;
+            for (int i = length - 1; i >= 0; i--) {
+                anchors[i * 2] = candidateLeft[candidate];
+                anchors[i * 2 + 1] = candidateRight[candidate];
+                candidate = predecessors[candidate];
+            }
+            return anchors;
+        }
+
+        private void diffBytes(long leftStart, int leftLength, long rightStart, int rightLength) {
+            byte[] left = new byte[leftLength];
+            byte[] right = new byte[rightLength];
+            leftData.copyToArray(leftStart, left, 0, leftLength);
+            rightData.copyToArray(rightStart, right, 0, rightLength);
+            diffArrays(left, 0, leftLength, right, 0, rightLength, leftStart, rightStart);
+        }
+
+        private void diffArrays(byte[] left, int leftStart, int leftEnd, byte[] right, int rightStart, int rightEnd, long leftOffset, long rightOffset) {
+            int prefixLength = 0;
+            while (leftStart + prefixLength < leftEnd && rightStart + prefixLength < rightEnd && left[leftStart + prefixLength] == right[rightStart + prefixLength]) {
+                prefixLength++;
+            }
+            addMatch(leftOffset + leftStart, rightOffset + rightStart, prefixLength);
+            leftStart += prefixLength;
+            rightStart += prefixLength;
+            int suffixLength = 0;
+            while (leftStart < leftEnd - suffixLength && rightStart < rightEnd - suffixLength && left[leftEnd - suffixLength - 1] == right[rightEnd - suffixLength - 1]) {
+                suffixLength++;
+            }
+            leftEnd -= suffixLength;
+            rightEnd -= suffixLength;
+
+            int[] split = leftStart == leftEnd || rightStart == rightEnd || checkStopped() ? null : bisect(left, leftStart, leftEnd, right, rightStart, rightEnd);
+            if (split == null) {
+                addChange(leftOffset + leftStart, leftEnd - leftStart, rightOffset + rightStart, rightEnd - rightStart);
+            } else {
+                diffArrays(left, leftStart, split[0], right, rightStart, split[1], leftOffset, rightOffset);
+                diffArrays(left, split[0], leftEnd, right, split[1], rightEnd, leftOffset, rightOffset);
+            }
+            addMatch(leftOffset + leftEnd, rightOffset + rightEnd, suffixLength);
+        }
+
+        /**
+         * Finds middle snake of Myers diff.
+         *
+         * @return split positions in left and right array or null if there is
+         * no common data or edit cost limit was reached
+         */
+        @Nullable
+        private int[] bisect(byte[] left, int leftStart, int leftEnd, byte[] right, int rightStart, int rightEnd) {
+            int leftLength = leftEnd - leftStart;
+            int rightLength = rightEnd - rightStart;
+            int maxD = Math.min((leftLength + rightLength + 1) / 2, maxEditCost);
+            int vOffset = maxD;
+            int vLength = 2 * maxD + 2;
+            int[] forward = new int[vLength];
+            int[] backward = new int[vLength];
+            Arrays.fill(forward, -1);
+            Arrays.fill(backward, -1);
+            forward[vOffset + 1] = 0;
+            backward[vOffset + 1] = 0;
+            int delta = leftLength - rightLength;
+            boolean front = (delta % 2 != 0);
+            int forwardStart = 0;
+            int forwardEnd = 0;
+            int backwardStart = 0;
+            int backwardEnd = 0;
+            for (int d = 0; d < maxD; d++) {
+                for (int k = -d + forwardStart; k <= d - forwardEnd; k += 2) {
+                    int kOffset = vOffset + k;
+                    int x = (k == -d || (k != d && forward[kOffset - 1] < forward[kOffset + 1])) ? forward[kOffset + 1] : forward[kOffset - 1] + 1;
+                    int y = x - k;
+                    while (x < leftLength && y < rightLength && left[leftStart + x] == right[rightStart + y]) {
+                        x++;
+                        y++;
+                    }
+                    forward[kOffset] = x;
+                    if (x > leftLength) {
+                        forwardEnd += 2;
+                    } else if (y > rightLength) {
+                        forwardStart += 2;
+                    } else if (front) {
+                        int backwardOffset = vOffset + delta - k;
+                        if (backwardOffset >= 0 && backwardOffset < vLength && backward[backwardOffset] != -1) {
+                            if (x >= leftLength - backward[backwardOffset]) {
+                                return new int[]{leftStart + x, rightStart + y};
+                            }
+                        }
+                    }
+                }
+
+                for (int k = -d + backwardStart; k <= d - backwardEnd; k += 2) {
+                    int kOffset = vOffset + k;
+                    int x = (k == -d || (k != d && backward[kOffset - 1] < backward[kOffset + 1])) ? backward[kOffset + 1] : backward[kOffset - 1] + 1;
+                    int y = x - k;
+                    while (x < leftLength && y < rightLength && left[leftEnd - x - 1] == right[rightEnd - y - 1]) {
+                        x++;
+                        y++;
+                    }
+                    backward[kOffset] = x;
+                    if (x > leftLength) {
+                        backwardEnd += 2;
+                    } else if (y > rightLength) {
+                        backwardStart += 2;
+                    } else if (!front) {
+                        int forwardOffset = vOffset + delta - k;
+                        if (forwardOffset >= 0 && forwardOffset < vLength && forward[forwardOffset] != -1) {
+                            int forwardX = forward[forwardOffset];
+                            int forwardY = vOffset + forwardX - forwardOffset;
+                            if (forwardX >= leftLength - x) {
+                                return new int[]{leftStart + forwardX, rightStart + forwardY};
+                            }
+                        }
+                    }
+                }
+            }
+
+            return null;
+        }
+
+        private long commonPrefix(long leftStart, long leftEnd, long rightStart, long rightEnd) {
+            long maxLength = Math.min(leftEnd - leftStart, rightEnd - rightStart);
+            long length = 0;
+            while (length < maxLength) {
+                if (checkStopped()) {
+                    return length;
+                }
+
+                int blockLength = (int) Math.min(BUFFER_SIZE, maxLength - length);
+                leftData.copyToArray(leftStart + length, leftBuffer, 0, blockLength);
+                rightData.copyToArray(rightStart + length, rightBuffer, 0, blockLength);
+                int mismatch = mismatch(leftBuffer, rightBuffer, blockLength);
+                if (mismatch < blockLength) {
+                    return length + mismatch;
+                }
+                length += blockLength;
+            }
+            return length;
+        }
+
+        private long commonSuffix(long leftStart, long leftEnd, long rightStart, long rightEnd) {
+            long maxLength = Math.min(leftEnd - leftStart, rightEnd - rightStart);
+            long length = 0;
+            while (length < maxLength) {
+                if (checkStopped()) {
+                    return length;
+                }
+
+                int blockLength = (int) Math.min(BUFFER_SIZE, maxLength - length);
+                leftData.copyToArray(leftEnd - length - blockLength, leftBuffer, 0, blockLength);
+                rightData.copyToArray(rightEnd - length - blockLength, rightBuffer, 0, blockLength);
+                for (int i = blockLength - 1; i >= 0; i--) {
+                    if (leftBuffer[i] != rightBuffer[i]) {
+                        return length + blockLength - 1 - i;
+                    }
+                }
+                length += blockLength;
+            }
+            return length;
+        }
+
+        private void addMatch(long leftPosition, long rightPosition, long length) {
+            if (length == 0) {
+                return;
+            }
+
+            if (pendingType == DiffRegion.Type.MATCH) {
+                pendingLeftLength += length;
+                pendingRightLength += length;
+                return;
+            }
+
+            flush();
+            pendingType = DiffRegion.Type.MATCH;
+            pendingLeftPosition = leftPosition;
+            pendingLeftLength = length;
+            pendingRightPosition = rightPosition;
+            pendingRightLength = length;
+        }
+
+        /**
+         * Adds changed data, consecutive changes are reported as single
+         * modification followed by remaining insertion or deletion.
+         */
+        private void addChange(long leftPosition, long leftLength, long rightPosition, long rightLength) {
+            if (leftLength == 0 && rightLength == 0) {
+                return;
+            }
+
+            if (pendingType == DiffRegion.Type.MODIFY) {
+                pendingLeftLength += leftLength;
+                pendingRightLength += rightLength;
+                return;
+            }
+
+            flush();
+            pendingType = DiffRegion.Type.MODIFY;
+            pendingLeftPosition = leftPosition;
+            pendingLeftLength = leftLength;
+            pendingRightPosition = rightPosition;
+            pendingRightLength = rightLength;
+        }
+
+        private void flush() {
+            DiffRegion.Type type = pendingType;
+            if (type == null) {
+                return;
+            }
+
+            pendingType = null;
+            if (stopped) {
+                return;
+            }
+
+            if (type == DiffRegion.Type.MATCH) {
+                report(new DiffRegion(type, pendingLeftPosition, pendingLeftLength, pendingRightPosition, pendingRightLength));
+                return;
+            }
+
+            long modifiedLength = Math.min(pendingLeftLength, pendingRightLength);
+            if (modifiedLength > 0) {
+                report(new DiffRegion(DiffRegion.Type.MODIFY, pendingLeftPosition, modifiedLength, pendingRightPosition, modifiedLength));
+            }
+            if (pendingLeftLength > modifiedLength) {
+                report(new DiffRegion(DiffRegion.Type.DELETE, pendingLeftPosition + modifiedLength, pendingLeftLength - modifiedLength, pendingRightPosition + modifiedLength, 0));
+            } else if (pendingRightLength > modifiedLength) {
+                report(new DiffRegion(DiffRegion.Type.INSERT, pendingLeftPosition + modifiedLength, 0, pendingRightPosition + modifiedLength, pendingRightLength - modifiedLength));
+            }
+        }
+
+        private void report(DiffRegion region) {
+            if (stopped) {
+                return;
+            }
+
+            if (!listener.regionFound(region)) {
+                stopped = true;
+                return;
+            }
+            listener.positionReached(region.getLeftPosition() + region.getLeftLength());
+        }
+
+        private boolean checkStopped() {
+            if (!stopped && listener.isCancelled()) {
+                stopped = true;
+                cancelled = true;
+            }
+            return stopped;
+        }
+    }
+
+    private static int mismatch(byte[] first, byte[] second, int length) {
+        for (int i = 0; i < length; i++) {
+            if (first[i] != second[i]) {
+                return i;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * List of chunks stored in primitive arrays.
+     */
+    private static final class ChunkList {
+
+        private final long end;
+        private long[] starts;
+        private long[] hashes;
+        private int count = 0;
+
+        public ChunkList(long end, int initialCapacity) {
+            this.end = end;
+            starts = new long[Math.max(initialCapacity, 16)];
+            hashes = new long[starts.length];
+        }
+
+        public void add(long start, long hash) {
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                hashes = Arrays.copyOf(hashes, count * 2);
+            }
+            starts[count] = start;
+            hashes[count] = hash;
+            count++;
+        }
+
+        public int size() {
+            return count;
+        }
+
+        public long getStart(int index) {
+            return starts[index];
+        }
+
+        public long getLength(int index) {
+            return (index + 1 < count ? starts[index + 1] : end) - starts[index];
+        }
+
+        public long getHash(int index) {
+            return hashes[index];
+        }
+    }
+
+    /**
+     * Open addressing index of chunk hashes.
+     * <p>
+     * Hash stored more than once is marked as duplicate.
+     */
+    private static final class HashIndex {
+
+        private static final int EMPTY = -1;
+        private static final int DUPLICATE = -2;
+
+        private final long[] keys;
+        private final int[] values;
+        private final int mask;
+
+        public HashIndex(int expectedSize) {
+            int capacity = Integer.highestOneBit(Math.max(expectedSize, 8) * 2 - 1) << 1;
+            keys = new long[capacity];
+            values = new int[capacity];
+            Arrays.fill(values, EMPTY);
+            mask = capacity - 1;
+        }
+
+        public void put(long key, int value) {
+            int slot = slot(key);
+            while (values[slot] != EMPTY) {
+                if (keys[slot] == key) {
+                    values[slot] = DUPLICATE;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+        /**
+         * Returns stored value.
+         *
+         * @param key key
+         * @return value, -1 if key is missing or -2 if key is duplicate
+         */
+        public int get(long key) {
+            int slot = slot(key);
+            while (values[slot] != EMPTY) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return EMPTY;
+        }
+
+        private int slot(long key) {
+            long mixed = key * 0x9e3779b97f4a7c15L;
+            return (int) (mixed >>> 32) & mask;
+        }
+    }
+
+    /**
+     * Listener for diff regions.
+     */
+    @NullMarked
+    public interface DiffListener {
+
+        /**
+         * Reports found region.
+         * <p>
+         * Regions are reported in order of their positions and cover whole
+         * left and right data.
+         *
+         * @param region region
+         * @return true to continue comparison
+         */
+        boolean regionFound(DiffRegion region);
+
+        /**
+         * Reports position in left data comparison reached.
+         *
+         * @param leftPosition position in left data
+         */
+        void positionReached(long leftPosition);
+
+        /**
+         * Returns true if comparison should be cancelled.
+         * <p>
+         * Default implementation checks interruption of current thread.
+         *
+         * @return true if cancelled
+         */
+        default boolean isCancelled() {
+            return Thread.interrupted();
+        }
+    }
+}
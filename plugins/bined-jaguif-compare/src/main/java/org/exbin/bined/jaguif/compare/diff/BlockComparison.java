@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.compare.diff;
+
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Result of block pre-comparison.
+ * <p>
+ * Provides runs of blocks which differ between left and right data on the
+ * same offsets. Last run extends to end of both data if data sizes differ.
+ */
+@NullMarked
+public class BlockComparison {
+
+    private final int blockSize;
+    private final long leftDataSize;
+    private final long rightDataSize;
+    private final long[] runs;
+    private final int comparedBlocksCount;
+    private final int equalBlocksCount;
+    private final long equalLength;
+
+    public BlockComparison(int blockSize, long leftDataSize, long rightDataSize, long[] runs, int comparedBlocksCount, int equalBlocksCount, long equalLength) {
+        this.blockSize = blockSize;
+        this.leftDataSize = leftDataSize;
+        this.rightDataSize = rightDataSize;
+        this.runs = runs;
+        this.comparedBlocksCount = comparedBlocksCount;
+        this.equalBlocksCount = equalBlocksCount;
+        this.equalLength = equalLength;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    public long getLeftDataSize() {
+        return leftDataSize;
+    }
+
+    public long getRightDataSize() {
+        return rightDataSize;
+    }
+
+    /**
+     * Returns count of runs of differing blocks.
+     *
+     * @return count of runs
+     */
+    public int getRunsCount() {
+        return runs.length / 2;
+    }
+
+    public long getRunStart(int runIndex) {
+        return runs[runIndex * 2];
+    }
+
+    /**
+     * Returns end of run.
+     *
+     * @param runIndex run index
+     * @param leftSide true for left data
+     * @return exclusive end position limited by size of data on given side
+     */
+    public long getRunEnd(int runIndex, boolean leftSide) {
+        return Math.min(runs[runIndex * 2 + 1], leftSide ? leftDataSize : rightDataSize);
+    }
+
+    public int getComparedBlocksCount() {
+        return comparedBlocksCount;
+    }
+
+    public int getEqualBlocksCount() {
+        return equalBlocksCount;
+    }
+
+    /**
+     * Returns length of data skipped as equal on both sides.
+     *
+     * @return length in bytes
+     */
+    public long getEqualLength() {
+        return equalLength;
+    }
+}
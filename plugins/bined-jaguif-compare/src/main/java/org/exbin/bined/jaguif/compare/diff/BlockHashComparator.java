@@ -0,0 +1,292 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.compare.diff;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Pre-comparison of data using hashes of fixed-size blocks.
+ * <p>
+ * Blocks of both data are hashed in parallel using 64-bit xxHash and blocks
+ * on the same offset with equal hash are considered equal, so byte level
+ * diff can skip them. This is useful for large data with few changes which
+ * do not shift the rest of data.
+ */
+@NullMarked
+public class BlockHashComparator {
+
+    public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+    /**
+     * Count of consecutive blocks hashed by single task to keep reading
+     * sequential.
+     */
+    private static final int BLOCKS_PER_TASK = 8;
+
+    private static final long PRIME1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME3 = 0x165667B19E3779F9L;
+    private static final long PRIME4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME5 = 0x27D4EB2F165667C5L;
+
+    private final int blockSize;
+    private final ThreadPoolExecutor executor;
+
+    public BlockHashComparator() {
+        this(DEFAULT_BLOCK_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates comparator.
+     *
+     * @param blockSize size of block in bytes
+     * @param threadsCount count of hashing threads
+     */
+    public BlockHashComparator(int blockSize, int threadsCount) {
+        if (blockSize <= 0 || threadsCount <= 0) {
+            throw new IllegalArgumentException("Block size and threads count must be positive");
+        }
+
+        this.blockSize = blockSize;
+        executor = new ThreadPoolExecutor(threadsCount, threadsCount, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), (runnable) -> {
+            Thread thread = new Thread(runnable, "BlockHashWorker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Compares blocks of data.
+     *
+     * @param leftSource left data
+     * @param rightSource right data
+     * @return comparison or null if current thread was interrupted
+     * @throws IOException if reading of data failed
+     */
+    @Nullable
+    public BlockComparison compare(BlockSource leftSource, BlockSource rightSource) throws IOException {
+        long leftDataSize = leftSource.getDataSize();
+        long rightDataSize = rightSource.getDataSize();
+        long commonSize = Math.min(leftDataSize, rightDataSize);
+        long blocksCountValue = (commonSize + blockSize - 1) / blockSize;
+        if (blocksCountValue > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Block size " + blockSize + " is too small for data size " + commonSize);
+        }
+
+        int blocksCount = (int) blocksCountValue;
+        long[] leftHashes = new long[blocksCount];
+        long[] rightHashes = new long[blocksCount];
+        HashingRun run = new HashingRun();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int block = 0; block < blocksCount; block += BLOCKS_PER_TASK) {
+            int startBlock = block;
+            int endBlock = Math.min(blocksCount, block + BLOCKS_PER_TASK);
+            futures.add(executor.submit(() -> {
+                run.hashBlocks(leftSource, leftHashes, startBlock, endBlock);
+                return null;
+            }));
+            futures.add(executor.submit(() -> {
+                run.hashBlocks(rightSource, rightHashes, startBlock, endBlock);
+                return null;
+            }));
+        }
+
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException ex) {
+            run.cancelled = true;
+            cancelAll(futures);
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException ex) {
+            run.cancelled = true;
+            cancelAll(futures);
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Block hashing failed", cause);
+        }
+
+        long[] runs = new long[16];
+        int runsLength = 0;
+        int equalBlocksCount = 0;
+        long equalLength = 0;
+        for (int block = 0; block < blocksCount; block++) {
+            long blockStart = (long) block * blockSize;
+            long leftLength = Math.min(blockSize, leftDataSize - blockStart);
+            long rightLength = Math.min(blockSize, rightDataSize - blockStart);
+            if (leftLength == rightLength && leftHashes[block] == rightHashes[block]) {
+                equalBlocksCount++;
+                equalLength += leftLength;
+                continue;
+            }
+
+            if (runsLength > 0 && runs[runsLength - 1] == blockStart) {
+                runs[runsLength - 1] = blockStart + blockSize;
+            } else {
+                if (runsLength == runs.length) {
+                    runs = Arrays.copyOf(runs, runsLength * 2);
+                }
+                runs[runsLength++] = blockStart;
+                runs[runsLength++] = blockStart + blockSize;
+            }
+        }
+        if (leftDataSize != rightDataSize) {
+            long tailStart = (long) blocksCount * blockSize;
+            if (runsLength > 0 && runs[runsLength - 1] >= tailStart) {
+                runs[runsLength - 1] = Long.MAX_VALUE;
+            } else {
+                if (runsLength == runs.length) {
+                    runs = Arrays.copyOf(runs, runsLength + 2);
+                }
+                runs[runsLength++] = tailStart;
+                runs[runsLength++] = Long.MAX_VALUE;
+            }
+        }
+
+        return new BlockComparison(blockSize, leftDataSize, rightDataSize, Arrays.copyOf(runs, runsLength), blocksCount, equalBlocksCount, equalLength);
+    }
+
+    /**
+     * Releases hashing threads.
+     */
+    public void dispose() {
+        executor.shutdownNow();
+    }
+
+    private static void cancelAll(List<Future<?>> futures) {
+        for (Future<?> future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * Computes 64-bit xxHash of buffer content.
+     *
+     * @param buffer buffer with little endian byte order
+     * @param length length of data from start of buffer
+     * @param seed hash seed
+     * @return hash value
+     */
+    static long hash(ByteBuffer buffer, int length, long seed) {
+        int position = 0;
+        long hash;
+        if (length >= 32) {
+            long v1 = seed + PRIME1 + PRIME2;
+            long v2 = seed + PRIME2;
+            long v3 = seed;
+            long v4 = seed - PRIME1;
+            int limit = length - 32;
+            do {
+                v1 = round(v1, buffer.getLong(position));
+                v2 = round(v2, buffer.getLong(position + 8));
+                v3 = round(v3, buffer.getLong(position + 16));
+                v4 = round(v4, buffer.getLong(position + 24));
+                position += 32;
+            } while (position <= limit);
+
+            hash = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            hash = mergeRound(hash, v1);
+            hash = mergeRound(hash, v2);
+            hash = mergeRound(hash, v3);
+            hash = mergeRound(hash, v4);
+        } else {
+            hash = seed + PRIME5;
+        }
+
+        hash += length;
+        while (position + 8 <= length) {
+            hash ^= round(0, buffer.getLong(position));
+            hash = Long.rotateLeft(hash, 27) * PRIME1 + PRIME4;
+            position += 8;
+        }
+        if (position + 4 <= length) {
+            hash ^= (buffer.getInt(position) & 0xFFFFFFFFL) * PRIME1;
+            hash = Long.rotateLeft(hash, 23) * PRIME2 + PRIME3;
+            position += 4;
+        }
+        while (position < length) {
+            hash ^= (buffer.get(position) & 0xFF) * PRIME5;
+            hash = Long.rotateLeft(hash, 11) * PRIME1;
+            position++;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= PRIME2;
+        hash ^= hash >>> 29;
+        hash *= PRIME3;
+        hash ^= hash >>> 32;
+        return hash;
+    }
+
+    private static long round(long accumulator, long input) {
+        accumulator += input * PRIME2;
+        accumulator = Long.rotateLeft(accumulator, 31);
+        return accumulator * PRIME1;
+    }
+
+    private static long mergeRound(long accumulator, long value) {
+        accumulator ^= round(0, value);
+        return accumulator * PRIME1 + PRIME4;
+    }
+
+    /**
+     * Shared state of single comparison.
+     */
+    private final class HashingRun {
+
+        private volatile boolean cancelled = false;
+
+        private void hashBlocks(BlockSource source, long[] hashes, int startBlock, int endBlock) throws IOException {
+            long dataSize = source.getDataSize();
+            ByteBuffer buffer = ByteBuffer.allocate(blockSize).order(ByteOrder.LITTLE_ENDIAN);
+            for (int block = startBlock; block < endBlock; block++) {
+                if (cancelled || Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+
+                long blockStart = (long) block * blockSize;
+                int length = (int) Math.min(blockSize, dataSize - blockStart);
+                buffer.clear();
+                buffer.limit(length);
+                source.read(blockStart, buffer);
+                hashes[block] = hash(buffer, length, 0);
+            }
+        }
+    }
+}
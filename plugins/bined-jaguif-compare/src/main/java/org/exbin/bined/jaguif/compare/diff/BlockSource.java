@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.compare.diff;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Source of data for block pre-comparison.
+ * <p>
+ * Reading must be safe for calls from multiple threads.
+ */
+@NullMarked
+public interface BlockSource {
+
+    /**
+     * Returns size of data.
+     *
+     * @return size in bytes
+     */
+    long getDataSize();
+
+    /**
+     * Reads data from given position until buffer has no remaining space.
+     *
+     * @param position position in data
+     * @param buffer target buffer
+     * @throws IOException if reading failed
+     */
+    void read(long position, ByteBuffer buffer) throws IOException;
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.compare.diff;
+
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Region of compared data.
+ * <p>
+ * Region covers range of left data and aligned range of right data.
+ */
+@NullMarked
+public class DiffRegion {
+
+    private final Type type;
+    private final long leftPosition;
+    private final long leftLength;
+    private final long rightPosition;
+    private final long rightLength;
+
+    public DiffRegion(Type type, long leftPosition, long leftLength, long rightPosition, long rightLength) {
+        this.type = type;
+        this.leftPosition = leftPosition;
+        this.leftLength = leftLength;
+        this.rightPosition = rightPosition;
+        this.rightLength = rightLength;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getLeftPosition() {
+        return leftPosition;
+    }
+
+    public long getLeftLength() {
+        return leftLength;
+    }
+
+    public long getRightPosition() {
+        return rightPosition;
+    }
+
+    public long getRightLength() {
+        return rightLength;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + leftPosition + "+" + leftLength + " " + rightPosition + "+" + rightLength;
+    }
+
+    /**
+     * Type of region.
+     */
+    public enum Type {
+        /**
+         * Data are same on both sides.
+         */
+        MATCH,
+        /**
+         * Data were replaced, lengths of both sides are equal.
+         */
+        MODIFY,
+        /**
+         * Data are present in right data only.
+         */
+        INSERT,
+        /**
+         * Data are present in left data only.
+         */
+        DELETE
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.compare.diff;
+
+import java.util.Arrays;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Index of changed diff regions backed by primitive arrays.
+ * <p>
+ * Regions are stored in order of positions, which is order in which diff
+ * engine reports them, so regions covering position on either side or
+ * nearest region are found by binary search.
+ */
+@NullMarked
+public class DiffRegionIndex {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final DiffRegion.Type[] TYPES = DiffRegion.Type.values();
+
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private long[] leftPositions = new long[INITIAL_CAPACITY];
+    private long[] leftEnds = new long[INITIAL_CAPACITY];
+    private long[] rightPositions = new long[INITIAL_CAPACITY];
+    private long[] rightEnds = new long[INITIAL_CAPACITY];
+    private int count = 0;
+    private long leftChangedLength = 0;
+    private long rightChangedLength = 0;
+
+    public DiffRegionIndex() {
+    }
+
+    /**
+     * Adds region following previously added regions.
+     * <p>
+     * Matching regions are ignored.
+     *
+     * @param region region
+     */
+    public void add(DiffRegion region) {
+        if (region.getType() == DiffRegion.Type.MATCH) {
+            return;
+        }
+
+        if (count > 0 && (region.getLeftPosition() < leftEnds[count - 1] || region.getRightPosition() < rightEnds[count - 1])) {
+            throw new IllegalArgumentException("Region " + region + " precedes previous region");
+        }
+
+        if (count == types.length) {
+            int capacity = count * 2;
+            types = Arrays.copyOf(types, capacity);
+            leftPositions = Arrays.copyOf(leftPositions, capacity);
+            leftEnds = Arrays.copyOf(leftEnds, capacity);
+            rightPositions = Arrays.copyOf(rightPositions, capacity);
+            rightEnds = Arrays.copyOf(rightEnds, capacity);
+        }
+        types[count] = (byte) region.getType().ordinal();
+        leftPositions[count] = region.getLeftPosition();
+        leftEnds[count] = region.getLeftPosition() + region.getLeftLength();
+        rightPositions[count] = region.getRightPosition();
+        rightEnds[count] = region.getRightPosition() + region.getRightLength();
+        leftChangedLength += region.getLeftLength();
+        rightChangedLength += region.getRightLength();
+        count++;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public DiffRegion.Type getType(int index) {
+        checkIndex(index);
+        return TYPES[types[index]];
+    }
+
+    public long getPosition(int index, boolean leftSide) {
+        checkIndex(index);
+        return leftSide ? leftPositions[index] : rightPositions[index];
+    }
+
+    public long getLength(int index, boolean leftSide) {
+        checkIndex(index);
+        return leftSide ? leftEnds[index] - leftPositions[index] : rightEnds[index] - rightPositions[index];
+    }
+
+    public DiffRegion getRegion(int index) {
+        checkIndex(index);
+        return new DiffRegion(TYPES[types[index]], leftPositions[index], leftEnds[index] - leftPositions[index], rightPositions[index], rightEnds[index] - rightPositions[index]);
+    }
+
+    /**
+     * Returns total length of changed data on given side.
+     *
+     * @param leftSide true for left data
+     * @return length of data in changed regions
+     */
+    public long getChangedLength(boolean leftSide) {
+        return leftSide ? leftChangedLength : rightChangedLength;
+    }
+
+    /**
+     * Returns index of first region ending after given position.
+     * <p>
+     * Regions with zero length on given side are treated as ending at their
+     * position.
+     *
+     * @param position position
+     * @param leftSide true for left data
+     * @return region index or size if there is no such region
+     */
+    public int findFirstRegion(long position, boolean leftSide) {
+        long[] ends = leftSide ? leftEnds : rightEnds;
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (ends[middle] <= position) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns index of region covering given position.
+     *
+     * @param position position
+     * @param leftSide true for left data
+     * @return region index or -1 if position is not changed
+     */
+    public int findRegion(long position, boolean leftSide) {
+        int index = findFirstRegion(position, leftSide);
+        return index < count && (leftSide ? leftPositions : rightPositions)[index] <= position ? index : -1;
+    }
+
+    /**
+     * Returns index of first region starting after given position.
+     *
+     * @param position position
+     * @param leftSide true for left data
+     * @return region index or -1 if there is no such region
+     */
+    public int findNextRegion(long position, boolean leftSide) {
+        long[] positions = leftSide ? leftPositions : rightPositions;
+        int index = upperBound(positions, position);
+        return index < count ? index : -1;
+    }
+
+    /**
+     * Returns index of last region starting before given position.
+     *
+     * @param position position
+     * @param leftSide true for left data
+     * @return region index or -1 if there is no such region
+     */
+    public int findPreviousRegion(long position, boolean leftSide) {
+        long[] positions = leftSide ? leftPositions : rightPositions;
+        return upperBound(positions, position - 1) - 1;
+    }
+
+    public void clear() {
+        count = 0;
+        leftChangedLength = 0;
+        rightChangedLength = 0;
+    }
+
+    private int upperBound(long[] positions, long position) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (positions[middle] <= position) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Region index " + index + " out of range 0.." + count);
+        }
+    }
+}
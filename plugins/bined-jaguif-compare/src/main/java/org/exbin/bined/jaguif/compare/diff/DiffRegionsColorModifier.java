@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.compare.diff;
+
+import java.awt.Color;
+import java.util.Optional;
+import org.exbin.bined.CodeAreaSection;
+import org.exbin.bined.swing.CodeAreaColorAssessor;
+import org.exbin.bined.swing.CodeAreaPaintState;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Color modifier highlighting diff regions for one side of comparison.
+ */
+@NullMarked
+public class DiffRegionsColorModifier implements CodeAreaColorAssessor {
+
+    public static final Color MODIFIED_COLOR = new Color(255, 235, 160);
+    public static final Color DELETED_COLOR = new Color(255, 200, 200);
+    public static final Color INSERTED_COLOR = new Color(200, 240, 200);
+
+    private final boolean leftSide;
+    private DiffRegionIndex regionIndex = new DiffRegionIndex();
+    private int lastRegion = 0;
+
+    /**
+     * Creates color modifier.
+     *
+     * @param leftSide true for left data, false for right data
+     */
+    public DiffRegionsColorModifier(boolean leftSide) {
+        this.leftSide = leftSide;
+    }
+
+    /**
+     * Sets regions to highlight.
+     *
+     * @param regionIndex index of diff regions
+     */
+    public void setRegionIndex(DiffRegionIndex regionIndex) {
+        this.regionIndex = regionIndex;
+        lastRegion = 0;
+    }
+
+    public void clear() {
+        regionIndex = new DiffRegionIndex();
+        lastRegion = 0;
+    }
+
+    /**
+     * Returns color used for region type.
+     *
+     * @param type region type
+     * @return color or null for matching region
+     */
+    @Nullable
+    public static Color getTypeColor(DiffRegion.Type type) {
+        switch (type) {
+            case MODIFY:
+                return MODIFIED_COLOR;
+            case DELETE:
+                return DELETED_COLOR;
+            case INSERT:
+                return INSERTED_COLOR;
+            default:
+                return null;
+        }
+    }
+
+    @Nullable
+    @Override
+    public Color getPositionBackgroundColor(long rowDataPosition, int byteOnRow, int charOnRow, CodeAreaSection section, boolean inSelection) {
+        int regionsCount = regionIndex.size();
+        if (regionsCount == 0) {
+            return null;
+        }
+
+        long dataPosition = rowDataPosition + byteOnRow;
+        int region = lastRegion;
+        // Positions are mostly painted in order, so last region is tried first
+        if (region >= regionsCount || regionIndex.getPosition(region, leftSide) > dataPosition || getRegionEnd(region) <= dataPosition) {
+            region = regionIndex.findFirstRegion(dataPosition, leftSide);
+            if (region == regionsCount) {
+                return null;
+            }
+            lastRegion = region;
+        }
+
+        return regionIndex.getPosition(region, leftSide) <= dataPosition ? getTypeColor(regionIndex.getType(region)) : null;
+    }
+
+    private long getRegionEnd(int region) {
+        return regionIndex.getPosition(region, leftSide) + regionIndex.getLength(region, leftSide);
+    }
+
+    @Nullable
+    @Override
+    public Color getPositionTextColor(long rowDataPosition, int byteOnRow, int charOnRow, CodeAreaSection section, boolean inSelection) {
+        return null;
+    }
+
+    @Override
+    public Optional<CodeAreaColorAssessor> getParentColorAssessor() {
+        return Optional.empty();
+    }
+
+    @Override
+    public void startPaint(CodeAreaPaintState codeAreaPaintState) {
+    }
+}
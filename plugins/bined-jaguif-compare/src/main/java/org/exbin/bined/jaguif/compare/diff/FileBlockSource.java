@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.compare.diff;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Block source reading file using positional reads of file channel.
+ */
+@NullMarked
+public class FileBlockSource implements BlockSource, AutoCloseable {
+
+    private final FileChannel channel;
+    private final long dataSize;
+
+    public FileBlockSource(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        dataSize = channel.size();
+    }
+
+    @Override
+    public long getDataSize() {
+        return dataSize;
+    }
+
+    @Override
+    public void read(long position, ByteBuffer buffer) throws IOException {
+        long readPosition = position;
+        while (buffer.hasRemaining()) {
+            int count = channel.read(buffer, readPosition);
+            if (count < 0) {
+                throw new EOFException("Unexpected end of file at " + readPosition);
+            }
+            readPosition += count;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
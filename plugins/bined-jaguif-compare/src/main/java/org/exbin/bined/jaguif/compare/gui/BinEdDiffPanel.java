@@ -18,11 +18,21 @@ package org.exbin.bined.jaguif.compare.gui;
 import java.awt.BorderLayout;
 import java.awt.Component;
 import java.awt.Font;
+import java.io.File;
+import java.io.IOException;
 import java.nio.charset.Charset;
 import java.util.Optional;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 import javax.swing.JPanel;
 import javax.swing.JPopupMenu;
+import javax.swing.SwingUtilities;
 import org.exbin.auxiliary.binary_data.BinaryData;
 import org.exbin.bined.CodeAreaCaretPosition;
 import org.exbin.bined.CodeAreaUtils;
@@ -31,9 +41,11 @@ import org.exbin.bined.CodeType;
 import org.exbin.bined.EditMode;
 import org.exbin.bined.EditOperation;
 import org.exbin.bined.PositionCodeType;
+import org.exbin.bined.SelectionRange;
 import org.exbin.bined.capability.CaretCapable;
 import org.exbin.bined.capability.CharsetCapable;
 import org.exbin.bined.capability.EditModeCapable;
+import org.exbin.bined.capability.ScrollingCapable;
 import org.exbin.bined.capability.SelectionCapable;
 import org.exbin.bined.highlight.swing.NonprintablesCodeAreaAssessor;
 import org.exbin.bined.operation.swing.CodeAreaOperationCommandHandler;
@@ -48,6 +60,15 @@ import org.exbin.bined.swing.section.SectCodeArea;
 import org.exbin.bined.swing.section.diff.SectCodeAreaDiffPanel;
 import org.exbin.bined.swing.section.theme.SectionCodeAreaThemeProfile;
 import org.exbin.jaguif.App;
+import org.exbin.bined.jaguif.compare.diff.BinaryDataBlockSource;
+import org.exbin.bined.jaguif.compare.diff.BinaryDiffEngine;
+import org.exbin.bined.jaguif.compare.diff.BlockComparison;
+import org.exbin.bined.jaguif.compare.diff.BlockHashComparator;
+import org.exbin.bined.jaguif.compare.diff.BlockSource;
+import org.exbin.bined.jaguif.compare.diff.DiffRegion;
+import org.exbin.bined.jaguif.compare.diff.DiffRegionIndex;
+import org.exbin.bined.jaguif.compare.diff.DiffRegionsColorModifier;
+import org.exbin.bined.jaguif.compare.diff.FileBlockSource;
 import org.exbin.bined.jaguif.component.BinEdCodeAreaAssessor;
 import org.exbin.bined.jaguif.component.BinEdComponentExtension;
 import org.exbin.bined.jaguif.component.BinEdDataComponent.UpdateType;
@@ -85,6 +106,11 @@ import org.exbin.jaguif.text.font.settings.TextFontOptions;
 @NullMarked
 public class BinEdDiffPanel extends JPanel {
 
+    /**
+     * Minimum count of blocks in smaller data to use block pre-comparison.
+     */
+    private static final int MIN_PREPASS_BLOCKS = 4;
+
     protected final OptionsStorage optionsStorage;
     protected final SectCodeAreaDiffPanel diffPanel = new SectCodeAreaDiffPanel();
 
@@ -102,6 +128,25 @@ public class BinEdDiffPanel extends JPanel {
     protected final StatusBar rightStatusBar;
     protected GoToPositionAction goToPositionAction = new GoToPositionAction();
 
+    protected final DiffRegionsColorModifier leftDiffModifier = new DiffRegionsColorModifier(true);
+    protected final DiffRegionsColorModifier rightDiffModifier = new DiffRegionsColorModifier(false);
+    protected final DiffOverviewPanel overviewPanel = new DiffOverviewPanel();
+    private DiffRegionIndex regionIndex = new DiffRegionIndex();
+    private int currentRegion = -1;
+    private final ThreadPoolExecutor diffExecutor;
+    private final BlockHashComparator blockHashComparator = new BlockHashComparator();
+    @Nullable
+    private Future<?> diffFuture;
+    private int diffGeneration = 0;
+    @Nullable
+    private BinaryData leftData;
+    @Nullable
+    private BinaryData rightData;
+    @Nullable
+    private File leftFile;
+    @Nullable
+    private File rightFile;
+
     public BinEdDiffPanel() {
         setLayout(new java.awt.BorderLayout());
 
@@ -115,10 +160,18 @@ public class BinEdDiffPanel extends JPanel {
         BinEdCodeAreaAssessor codeAreaAssessor = new BinEdCodeAreaAssessor(((ColorAssessorPainterCapable) leftPainter).getColorAssessor(), ((CharAssessorPainterCapable) leftPainter).getCharAssessor());
         ((ColorAssessorPainterCapable) leftPainter).setColorAssessor(codeAreaAssessor);
         ((CharAssessorPainterCapable) leftPainter).setCharAssessor(codeAreaAssessor);
+        codeAreaAssessor.addColorModifier(leftDiffModifier);
         CodeAreaPainter rightPainter = rightCodeArea.getPainter();
         codeAreaAssessor = new BinEdCodeAreaAssessor(((ColorAssessorPainterCapable) rightPainter).getColorAssessor(), ((CharAssessorPainterCapable) rightPainter).getCharAssessor());
         ((ColorAssessorPainterCapable) rightPainter).setColorAssessor(codeAreaAssessor);
         ((CharAssessorPainterCapable) rightPainter).setCharAssessor(codeAreaAssessor);
+        codeAreaAssessor.addColorModifier(rightDiffModifier);
+        diffExecutor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), (runnable) -> {
+            Thread thread = new Thread(runnable, "DiffWorker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        diffExecutor.allowCoreThreadTimeOut(true);
 
         defaultLayoutProfile = leftCodeArea.getLayoutProfile();
         defaultThemeProfile = leftCodeArea.getThemeProfile();
@@ -170,11 +223,26 @@ public class BinEdDiffPanel extends JPanel {
                 CodeAreaUtils.requireNonNull(rightNonprintablesCodeAreaAssessor).setShowNonprintables(showNonprintables);
             }
 
+            @Override
+            public void goToPreviousDiff() {
+                goToDiff(false);
+            }
+
+            @Override
+            public void goToNextDiff() {
+                goToDiff(true);
+            }
+
             @Override
             public void repaint() {
                 diffPanel.repaint();
             }
         });
+        overviewPanel.setController((long leftPosition, long rightPosition) -> {
+            moveCaret(leftCodeArea, leftPosition, 0);
+            moveCaret(rightCodeArea, rightPosition, 0);
+            currentRegion = -1;
+        });
 
         init();
     }
@@ -194,6 +262,7 @@ public class BinEdDiffPanel extends JPanel {
         diffPanel.getLeftPanel().add(leftStatusBar.getComponent(), BorderLayout.SOUTH);
         diffPanel.getRightPanel().add(rightStatusBar.getComponent(), BorderLayout.SOUTH);
         this.add(diffPanel, BorderLayout.CENTER);
+        this.add(overviewPanel, BorderLayout.EAST);
         diffPanel.revalidate();
         diffPanel.repaint();
         revalidate();
@@ -324,13 +393,197 @@ public class BinEdDiffPanel extends JPanel {
     }
 
     public void setLeftContentData(BinaryData contentData) {
+        setLeftContentData(contentData, null);
+    }
+
+    /**
+     * Sets left data.
+     *
+     * @param contentData data
+     * @param file file data were loaded from, used for faster reading during
+     * comparison, or null
+     */
+    public void setLeftContentData(BinaryData contentData, @Nullable File file) {
         diffPanel.setLeftContentData(contentData);
+        leftData = contentData;
+        leftFile = file;
         // TODO updateBinaryStatus(leftStatusBar, diffPanel.getLeftCodeArea());
+        scheduleDiff();
     }
 
     public void setRightContentData(BinaryData contentData) {
+        setRightContentData(contentData, null);
+    }
+
+    /**
+     * Sets right data.
+     *
+     * @param contentData data
+     * @param file file data were loaded from, used for faster reading during
+     * comparison, or null
+     */
+    public void setRightContentData(BinaryData contentData, @Nullable File file) {
         diffPanel.setRightContentData(contentData);
+        rightData = contentData;
+        rightFile = file;
         // TODO updateBinaryStatus(rightStatusBar, diffPanel.getRightCodeArea());
+        scheduleDiff();
+    }
+
+    /**
+     * Computes diff regions in background, replacing previous computation.
+     */
+    private void scheduleDiff() {
+        if (diffFuture != null) {
+            diffFuture.cancel(true);
+            diffFuture = null;
+        }
+        diffGeneration++;
+        setRegionIndex(new DiffRegionIndex());
+        BinaryData left = leftData;
+        BinaryData right = rightData;
+        if (left == null || right == null) {
+            return;
+        }
+
+        toolbarPanel.setComparing();
+        int generation = diffGeneration;
+        File leftSourceFile = leftFile;
+        File rightSourceFile = rightFile;
+        diffFuture = diffExecutor.submit(() -> {
+            DiffRegionIndex index = new DiffRegionIndex();
+            boolean finished;
+            try {
+                BlockComparison blockComparison = null;
+                if (Math.min(left.getDataSize(), right.getDataSize()) >= (long) blockHashComparator.getBlockSize() * MIN_PREPASS_BLOCKS) {
+                    blockComparison = compareBlocks(left, leftSourceFile, right, rightSourceFile);
+                    if (Thread.currentThread().isInterrupted()) {
+                        return;
+                    }
+                }
+                BlockComparison usedBlockComparison = blockComparison;
+                SwingUtilities.invokeLater(() -> {
+                    if (generation == diffGeneration) {
+                        toolbarPanel.setBlockComparison(usedBlockComparison);
+                    }
+                });
+
+                finished = new BinaryDiffEngine().diff(left, right, new BinaryDiffEngine.DiffListener() {
+                    @Override
+                    public boolean regionFound(DiffRegion region) {
+                        index.add(region);
+                        return true;
+                    }
+
+                    @Override
+                    public void positionReached(long leftPosition) {
+                    }
+                }, blockComparison);
+            } catch (RuntimeException ex) {
+                Logger.getLogger(BinEdDiffPanel.class.getName()).log(Level.SEVERE, "Comparison failed", ex);
+                return;
+            }
+
+            if (finished) {
+                SwingUtilities.invokeLater(() -> {
+                    if (generation == diffGeneration) {
+                        setRegionIndex(index);
+                        toolbarPanel.setDiffPosition(-1, index.size());
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Compares blocks of data, reading files directly if available.
+     *
+     * @return block comparison or null if it failed or was cancelled
+     */
+    @Nullable
+    private BlockComparison compareBlocks(BinaryData left, @Nullable File leftSourceFile, BinaryData right, @Nullable File rightSourceFile) {
+        BlockSource leftSource = null;
+        BlockSource rightSource = null;
+        try {
+            leftSource = createBlockSource(left, leftSourceFile);
+            rightSource = createBlockSource(right, rightSourceFile);
+            return blockHashComparator.compare(leftSource, rightSource);
+        } catch (IOException ex) {
+            Logger.getLogger(BinEdDiffPanel.class.getName()).log(Level.WARNING, "Block comparison failed", ex);
+            return null;
+        } finally {
+            closeBlockSource(leftSource);
+            closeBlockSource(rightSource);
+        }
+    }
+
+    private static BlockSource createBlockSource(BinaryData data, @Nullable File file) throws IOException {
+        // File could be changed after it was loaded
+        if (file != null && file.length() == data.getDataSize()) {
+            return new FileBlockSource(file.toPath());
+        }
+
+        return new BinaryDataBlockSource(data);
+    }
+
+    private static void closeBlockSource(@Nullable BlockSource blockSource) {
+        if (blockSource instanceof FileBlockSource) {
+            try {
+                ((FileBlockSource) blockSource).close();
+            } catch (IOException ex) {
+                Logger.getLogger(BinEdDiffPanel.class.getName()).log(Level.WARNING, null, ex);
+            }
+        }
+    }
+
+    private void setRegionIndex(DiffRegionIndex regionIndex) {
+        this.regionIndex = regionIndex;
+        currentRegion = -1;
+        leftDiffModifier.setRegionIndex(regionIndex);
+        rightDiffModifier.setRegionIndex(regionIndex);
+        BinaryData left = leftData;
+        BinaryData right = rightData;
+        overviewPanel.setRegions(regionIndex, left == null ? 0 : left.getDataSize(), right == null ? 0 : right.getDataSize());
+        diffPanel.repaint();
+    }
+
+    /**
+     * Moves to next or previous difference relative to current difference
+     * or to caret position in left data if caret was moved.
+     *
+     * @param forward true for next difference
+     */
+    private void goToDiff(boolean forward) {
+        if (regionIndex.isEmpty()) {
+            return;
+        }
+
+        SectCodeArea leftCodeArea = diffPanel.getLeftCodeArea();
+        long caretPosition = ((CaretCapable) leftCodeArea).getActiveCaretPosition().getDataPosition();
+        int targetRegion;
+        if (currentRegion >= 0 && regionIndex.getPosition(currentRegion, true) == caretPosition) {
+            targetRegion = forward ? currentRegion + 1 : currentRegion - 1;
+        } else {
+            targetRegion = forward ? regionIndex.findNextRegion(caretPosition, true) : regionIndex.findPreviousRegion(caretPosition, true);
+        }
+        if (targetRegion < 0 || targetRegion >= regionIndex.size()) {
+            return;
+        }
+
+        currentRegion = targetRegion;
+        moveCaret(leftCodeArea, regionIndex.getPosition(targetRegion, true), regionIndex.getLength(targetRegion, true));
+        moveCaret(diffPanel.getRightCodeArea(), regionIndex.getPosition(targetRegion, false), regionIndex.getLength(targetRegion, false));
+        toolbarPanel.setDiffPosition(targetRegion, regionIndex.size());
+    }
+
+    private static void moveCaret(SectCodeArea codeArea, long position, long length) {
+        ((CaretCapable) codeArea).setActiveCaretPosition(position);
+        if (length > 0) {
+            ((SelectionCapable) codeArea).setSelection(new SelectionRange(position, position + length));
+        } else {
+            codeArea.clearSelection();
+        }
+        ((ScrollingCapable) codeArea).revealCursor();
     }
 
     public interface BinEdApplyOptions {
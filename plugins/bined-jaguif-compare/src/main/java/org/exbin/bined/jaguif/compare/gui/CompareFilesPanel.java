@@ -17,7 +17,9 @@ package org.exbin.bined.jaguif.compare.gui;
 
 import java.awt.BorderLayout;
 import java.awt.event.ItemEvent;
+import java.io.File;
 import java.util.List;
+import java.util.Optional;
 import java.util.ResourceBundle;
 import org.jspecify.annotations.Nullable;
 import org.jspecify.annotations.NullMarked;
@@ -129,6 +131,14 @@ public class CompareFilesPanel extends javax.swing.JPanel {
         diffPanel.setRightContentData(contentData);
     }
 
+    private void setLeftFile(FileRecord fileRecord) {
+        diffPanel.setLeftContentData(fileRecord.getData(), fileRecord.getFile().orElse(null));
+    }
+
+    private void setRightFile(FileRecord fileRecord) {
+        diffPanel.setRightContentData(fileRecord.getData(), fileRecord.getFile().orElse(null));
+    }
+
     /**
      * This method is called from within the constructor to initialize the form.
      * WARNING: Do NOT modify this code. The content of this method is always
@@ -235,11 +245,11 @@ public class CompareFilesPanel extends javax.swing.JPanel {
     }//GEN-LAST:event_leftOpenButtonActionPerformed
 
     private void switchToLeftCustomFile() {
-        setLeftFile(leftCustomFile.getData());
+        setLeftFile(leftCustomFile);
     }
 
     private void switchToRightCustomFile() {
-        setRightFile(rightCustomFile.getData());
+        setRightFile(rightCustomFile);
     }
 
     // Variables declaration - do not modify//GEN-BEGIN:variables
@@ -265,10 +275,24 @@ public class CompareFilesPanel extends javax.swing.JPanel {
 
         private final String name;
         private final BinaryData data;
+        @Nullable
+        private final File file;
 
         public FileRecord(String name, BinaryData data) {
+            this(name, data, null);
+        }
+
+        /**
+         * Creates file record.
+         *
+         * @param name name of file
+         * @param data loaded data
+         * @param file file data were loaded from or null
+         */
+        public FileRecord(String name, BinaryData data, @Nullable File file) {
             this.name = name;
             this.data = data;
+            this.file = file;
         }
 
         public String getName() {
@@ -278,5 +302,9 @@ public class CompareFilesPanel extends javax.swing.JPanel {
         public BinaryData getData() {
             return data;
         }
+
+        public Optional<File> getFile() {
+            return Optional.ofNullable(file);
+        }
     }
 }
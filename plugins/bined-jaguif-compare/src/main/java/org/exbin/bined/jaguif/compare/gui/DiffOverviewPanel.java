@@ -0,0 +1,269 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.jaguif.compare.gui;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+import org.exbin.bined.jaguif.compare.diff.DiffRegion;
+import org.exbin.bined.jaguif.compare.diff.DiffRegionIndex;
+import org.exbin.bined.jaguif.compare.diff.DiffRegionsColorModifier;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Overview strip of changed regions across whole compared data.
+ * <p>
+ * Strip is split into left and right column for left and right data. Each
+ * pixel row summarizes proportional part of data using color of prevailing
+ * change. Strip is rendered lazily in tiles on background thread and tiles
+ * are cached until regions or size of strip change.
+ */
+@NullMarked
+public class DiffOverviewPanel extends JComponent {
+
+    public static final int STRIP_WIDTH = 16;
+    private static final int TILE_HEIGHT = 128;
+    private static final int MAX_CACHED_TILES = 64;
+    private static final DiffRegion.Type[] TYPES = DiffRegion.Type.values();
+
+    private final ExecutorService renderExecutor;
+    private final Map<Integer, BufferedImage> tiles = new LinkedHashMap<Integer, BufferedImage>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, BufferedImage> eldest) {
+            return size() > MAX_CACHED_TILES;
+        }
+    };
+    private final Set<Integer> pendingTiles = new HashSet<>();
+    private DiffRegionIndex regionIndex = new DiffRegionIndex();
+    private long leftDataSize = 0;
+    private long rightDataSize = 0;
+    private volatile int generation = 0;
+    private int tilesWidth = -1;
+    private int tilesHeight = -1;
+    @Nullable
+    private Controller controller;
+
+    public DiffOverviewPanel() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), (runnable) -> {
+            Thread thread = new Thread(runnable, "DiffOverviewWorker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        renderExecutor = executor;
+        setPreferredSize(new Dimension(STRIP_WIDTH, 0));
+        setOpaque(true);
+
+        MouseAdapter mouseAdapter = new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                positionSelected(e.getY());
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                positionSelected(e.getY());
+            }
+        };
+        addMouseListener(mouseAdapter);
+        addMouseMotionListener(mouseAdapter);
+    }
+
+    public void setController(Controller controller) {
+        this.controller = controller;
+    }
+
+    /**
+     * Sets regions to display.
+     *
+     * @param regionIndex index of diff regions
+     * @param leftDataSize size of left data
+     * @param rightDataSize size of right data
+     */
+    public void setRegions(DiffRegionIndex regionIndex, long leftDataSize, long rightDataSize) {
+        this.regionIndex = regionIndex;
+        this.leftDataSize = leftDataSize;
+        this.rightDataSize = rightDataSize;
+        invalidateTiles();
+        repaint();
+    }
+
+    public void clear() {
+        setRegions(new DiffRegionIndex(), 0, 0);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        int width = getWidth();
+        int height = getHeight();
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, width, height);
+        }
+        g.setColor(getBackground());
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+
+        if (width != tilesWidth || height != tilesHeight) {
+            invalidateTiles();
+            tilesWidth = width;
+            tilesHeight = height;
+        }
+
+        int firstTile = Math.max(0, clip.y / TILE_HEIGHT);
+        int lastTile = Math.min((height - 1) / TILE_HEIGHT, (clip.y + clip.height - 1) / TILE_HEIGHT);
+        for (int tileIndex = firstTile; tileIndex <= lastTile; tileIndex++) {
+            BufferedImage tile = tiles.get(tileIndex);
+            if (tile != null) {
+                g.drawImage(tile, 0, tileIndex * TILE_HEIGHT, null);
+            } else {
+                requestTile(tileIndex, width, height);
+            }
+        }
+    }
+
+    private void invalidateTiles() {
+        generation++;
+        tiles.clear();
+        pendingTiles.clear();
+    }
+
+    private void requestTile(int tileIndex, int width, int height) {
+        if (regionIndex.isEmpty() || !pendingTiles.add(tileIndex)) {
+            return;
+        }
+
+        int tileGeneration = generation;
+        DiffRegionIndex index = regionIndex;
+        long leftSize = leftDataSize;
+        long rightSize = rightDataSize;
+        renderExecutor.execute(() -> {
+            if (tileGeneration != generation) {
+                return;
+            }
+
+            BufferedImage tile = renderTile(index, leftSize, rightSize, tileIndex, width, height);
+            SwingUtilities.invokeLater(() -> {
+                if (tileGeneration == generation) {
+                    pendingTiles.remove(tileIndex);
+                    tiles.put(tileIndex, tile);
+                    repaint(0, tileIndex * TILE_HEIGHT, width, TILE_HEIGHT);
+                }
+            });
+        });
+    }
+
+    private static BufferedImage renderTile(DiffRegionIndex index, long leftSize, long rightSize, int tileIndex, int width, int height) {
+        int tileHeight = Math.min(TILE_HEIGHT, height - tileIndex * TILE_HEIGHT);
+        BufferedImage tile = new BufferedImage(width, tileHeight, BufferedImage.TYPE_INT_ARGB);
+        int columnWidth = width / 2;
+        int[] leftRow = new int[columnWidth];
+        int[] rightRow = new int[width - columnWidth];
+        long[] typeLengths = new long[TYPES.length];
+        for (int y = 0; y < tileHeight; y++) {
+            int pixelRow = tileIndex * TILE_HEIGHT + y;
+            Arrays.fill(leftRow, summarizeRow(index, true, leftSize, pixelRow, height, typeLengths));
+            Arrays.fill(rightRow, summarizeRow(index, false, rightSize, pixelRow, height, typeLengths));
+            tile.setRGB(0, y, leftRow.length, 1, leftRow, 0, leftRow.length);
+            tile.setRGB(columnWidth, y, rightRow.length, 1, rightRow, 0, rightRow.length);
+        }
+        return tile;
+    }
+
+    /**
+     * Returns color of prevailing change in data range of pixel row.
+     */
+    private static int summarizeRow(DiffRegionIndex index, boolean leftSide, long dataSize, int pixelRow, int height, long[] typeLengths) {
+        if (dataSize == 0) {
+            return 0;
+        }
+
+        long rangeStart = (long) ((double) dataSize * pixelRow / height);
+        long rangeEnd = Math.max(rangeStart + 1, (long) ((double) dataSize * (pixelRow + 1) / height));
+        Arrays.fill(typeLengths, 0);
+        boolean changed = false;
+        int regionsCount = index.size();
+        // Region without data on this side is shown as single byte marker
+        for (int region = index.findFirstRegion(rangeStart - 1, leftSide); region < regionsCount; region++) {
+            long length = index.getLength(region, leftSide);
+            long start = length == 0 ? Math.min(index.getPosition(region, leftSide), dataSize - 1) : index.getPosition(region, leftSide);
+            if (start >= rangeEnd) {
+                break;
+            }
+
+            long covered = Math.min(rangeEnd, start + Math.max(length, 1)) - Math.max(rangeStart, start);
+            if (covered > 0) {
+                typeLengths[index.getType(region).ordinal()] += covered;
+                changed = true;
+            }
+        }
+        if (!changed) {
+            return 0;
+        }
+
+        int prevailingType = 0;
+        for (int type = 1; type < typeLengths.length; type++) {
+            if (typeLengths[type] > typeLengths[prevailingType]) {
+                prevailingType = type;
+            }
+        }
+        Color color = DiffRegionsColorModifier.getTypeColor(TYPES[prevailingType]);
+        return color == null ? 0 : color.darker().getRGB();
+    }
+
+    private void positionSelected(int y) {
+        int height = getHeight();
+        if (controller == null || height <= 0) {
+            return;
+        }
+
+        double ratio = Math.max(0, Math.min(y, height - 1)) / (double) height;
+        controller.positionSelected((long) (leftDataSize * ratio), (long) (rightDataSize * ratio));
+    }
+
+    /**
+     * Controller for overview strip.
+     */
+    @NullMarked
+    public interface Controller {
+
+        /**
+         * Reports position selected by mouse.
+         *
+         * @param leftPosition corresponding position in left data
+         * @param rightPosition corresponding position in right data
+         */
+        void positionSelected(long leftPosition, long rightPosition);
+    }
+}
@@ -18,6 +18,7 @@ package org.exbin.bined.jaguif.compare.gui;
 import java.awt.Dimension;
 import java.awt.event.ActionEvent;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 import javax.swing.AbstractAction;
 import javax.swing.Action;
 import javax.swing.ButtonGroup;
@@ -28,6 +29,7 @@ import javax.swing.JToolBar;
 import org.exbin.auxiliary.dropdownbutton.DropDownButton;
 import org.exbin.auxiliary.dropdownbutton.DropDownButtonVariant;
 import org.exbin.bined.CodeType;
+import org.exbin.bined.jaguif.compare.diff.BlockComparison;
 import org.exbin.jaguif.App;
 import org.exbin.bined.jaguif.viewer.settings.CodeAreaOptions;
 import org.exbin.jaguif.language.api.LanguageModuleApi;
@@ -41,6 +43,7 @@ public class DiffToolbarPanel extends javax.swing.JPanel {
 
     private final java.util.ResourceBundle resourceBundle;
     private final java.util.ResourceBundle viewerResourceBundle;
+    private final java.util.ResourceBundle panelResourceBundle;
 
     private Controller controller;
 
@@ -56,6 +59,7 @@ public class DiffToolbarPanel extends javax.swing.JPanel {
         LanguageModuleApi languageModule = App.getModule(LanguageModuleApi.class);
         resourceBundle = languageModule.getBundle(org.exbin.bined.jaguif.component.BinedComponentModule.class);
         viewerResourceBundle = languageModule.getBundle(org.exbin.bined.jaguif.viewer.BinedViewerModule.class);
+        panelResourceBundle = languageModule.getBundle(DiffToolbarPanel.class);
         codeTypeButtonGroup = new ButtonGroup();
         Action binaryCodeTypeAction = new AbstractAction() {
             @Override
@@ -181,6 +185,51 @@ public class DiffToolbarPanel extends javax.swing.JPanel {
         updateNonprintables();
     }
 
+    /**
+     * Shows that comparison is in progress.
+     */
+    public void setComparing() {
+        previousDiffButton.setEnabled(false);
+        nextDiffButton.setEnabled(false);
+        diffStatusLabel.setText(panelResourceBundle.getString("diffStatus.comparing"));
+    }
+
+    /**
+     * Shows position in list of differences.
+     *
+     * @param diffIndex index of current difference or -1 if none
+     * @param diffsCount count of differences
+     */
+    public void setDiffPosition(int diffIndex, int diffsCount) {
+        // Navigation also starts from caret position, so buttons stay enabled
+        previousDiffButton.setEnabled(diffsCount > 0);
+        nextDiffButton.setEnabled(diffsCount > 0);
+        if (diffsCount == 0) {
+            diffStatusLabel.setText(panelResourceBundle.getString("diffStatus.identical"));
+        } else if (diffIndex < 0) {
+            diffStatusLabel.setText(java.text.MessageFormat.format(panelResourceBundle.getString("diffStatus.count"), diffsCount));
+        } else {
+            diffStatusLabel.setText(java.text.MessageFormat.format(panelResourceBundle.getString("diffStatus.position"), diffIndex + 1, diffsCount));
+        }
+    }
+
+    /**
+     * Shows how much data was skipped by block pre-comparison.
+     *
+     * @param blockComparison block comparison or null if not used
+     */
+    public void setBlockComparison(@Nullable BlockComparison blockComparison) {
+        if (blockComparison == null) {
+            blockStatusLabel.setText("");
+            return;
+        }
+
+        int comparedBlocksCount = blockComparison.getComparedBlocksCount();
+        long totalLength = Math.max(blockComparison.getLeftDataSize(), blockComparison.getRightDataSize());
+        int skippedPercent = totalLength == 0 ? 100 : (int) (blockComparison.getEqualLength() * 100 / totalLength);
+        blockStatusLabel.setText(java.text.MessageFormat.format(panelResourceBundle.getString("blockStatus.skipped"), blockComparison.getEqualBlocksCount(), comparedBlocksCount, skippedPercent));
+    }
+
     public void updateNonprintables() {
         showNonprintablesToggleButton.setSelected(controller.isShowNonprintables());
     }
@@ -209,6 +258,10 @@ public class DiffToolbarPanel extends javax.swing.JPanel {
         toolBar = new javax.swing.JToolBar();
         showNonprintablesToggleButton = new javax.swing.JToggleButton();
         separator1 = new javax.swing.JToolBar.Separator();
+        previousDiffButton = new javax.swing.JButton();
+        nextDiffButton = new javax.swing.JButton();
+        diffStatusLabel = new javax.swing.JLabel();
+        blockStatusLabel = new javax.swing.JLabel();
 
         setLayout(new java.awt.BorderLayout());
 
@@ -227,6 +280,38 @@ public class DiffToolbarPanel extends javax.swing.JPanel {
         toolBar.add(showNonprintablesToggleButton);
         toolBar.add(separator1);
 
+        previousDiffButton.setIcon(new javax.swing.ImageIcon(getClass().getResource(panelResourceBundle.getString("previousDiffButton.icon"))));
+        previousDiffButton.setToolTipText(panelResourceBundle.getString("previousDiffButton.toolTipText")); // NOI18N
+        previousDiffButton.setEnabled(false);
+        previousDiffButton.setFocusable(false);
+        previousDiffButton.setHorizontalTextPosition(javax.swing.SwingConstants.CENTER);
+        previousDiffButton.setVerticalTextPosition(javax.swing.SwingConstants.BOTTOM);
+        previousDiffButton.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                previousDiffButtonActionPerformed(evt);
+            }
+        });
+        toolBar.add(previousDiffButton);
+
+        nextDiffButton.setIcon(new javax.swing.ImageIcon(getClass().getResource(panelResourceBundle.getString("nextDiffButton.icon"))));
+        nextDiffButton.setToolTipText(panelResourceBundle.getString("nextDiffButton.toolTipText")); // NOI18N
+        nextDiffButton.setEnabled(false);
+        nextDiffButton.setFocusable(false);
+        nextDiffButton.setHorizontalTextPosition(javax.swing.SwingConstants.CENTER);
+        nextDiffButton.setVerticalTextPosition(javax.swing.SwingConstants.BOTTOM);
+        nextDiffButton.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                nextDiffButtonActionPerformed(evt);
+            }
+        });
+        toolBar.add(nextDiffButton);
+
+        diffStatusLabel.setBorder(javax.swing.BorderFactory.createEmptyBorder(0, 4, 0, 4));
+        toolBar.add(diffStatusLabel);
+
+        blockStatusLabel.setBorder(javax.swing.BorderFactory.createEmptyBorder(0, 4, 0, 4));
+        toolBar.add(blockStatusLabel);
+
         add(toolBar, java.awt.BorderLayout.CENTER);
     }// </editor-fold>//GEN-END:initComponents
 
@@ -234,7 +319,19 @@ public class DiffToolbarPanel extends javax.swing.JPanel {
         controller.setShowNonprintables(showNonprintablesToggleButton.isSelected());
     }//GEN-LAST:event_showNonprintablesToggleButtonActionPerformed
 
+    private void previousDiffButtonActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_previousDiffButtonActionPerformed
+        controller.goToPreviousDiff();
+    }//GEN-LAST:event_previousDiffButtonActionPerformed
+
+    private void nextDiffButtonActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_nextDiffButtonActionPerformed
+        controller.goToNextDiff();
+    }//GEN-LAST:event_nextDiffButtonActionPerformed
+
     // Variables declaration - do not modify//GEN-BEGIN:variables
+    private javax.swing.JLabel blockStatusLabel;
+    private javax.swing.JLabel diffStatusLabel;
+    private javax.swing.JButton nextDiffButton;
+    private javax.swing.JButton previousDiffButton;
     private javax.swing.JToolBar.Separator separator1;
     private javax.swing.JToggleButton showNonprintablesToggleButton;
     private javax.swing.JToolBar toolBar;
@@ -251,6 +348,10 @@ public class DiffToolbarPanel extends javax.swing.JPanel {
 
         void setShowNonprintables(boolean showNonprintables);
 
+        void goToPreviousDiff();
+
+        void goToNextDiff();
+
         void repaint();
     }
 }
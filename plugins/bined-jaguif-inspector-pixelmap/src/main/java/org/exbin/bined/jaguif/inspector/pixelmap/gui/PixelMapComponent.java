@@ -15,14 +15,23 @@
  */
 package org.exbin.bined.jaguif.inspector.pixelmap.gui;
 
-import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Rectangle;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import org.jspecify.annotations.NullMarked;
 import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
 import org.exbin.auxiliary.binary_data.BinaryData;
 import org.exbin.bined.capability.CaretCapable;
 import org.exbin.bined.capability.ScrollingCapable;
@@ -30,29 +39,63 @@ import org.exbin.bined.swing.CodeAreaCore;
 
 /**
  * Pixel map component.
+ * <p>
+ * Component shows rows of pixels starting at top row, where each pixel
+ * represents single byte or summary of multiple bytes. Rows are rendered in
+ * tiles on background thread using bulk reads of data and tiles are cached
+ * until data or view settings change.
  */
 @NullMarked
 public class PixelMapComponent extends JComponent {
 
+    private static final int TILE_ROWS = 256;
+    /**
+     * Maximum length of data summarized by single tile.
+     */
+    private static final long MAX_TILE_DATA_LENGTH = 4 * 1024 * 1024;
+    private static final int MAX_CACHED_TILES = 128;
+    private static final int READ_BUFFER_SIZE = 65536;
+    private static final int[] BYTE_COLORS = createByteColors();
+
     protected int pixelSize = 5;
     protected int pixelPerRow = 16;
+    protected int bytesPerPixel = 1;
+    protected SummaryMode summaryMode = SummaryMode.MEAN;
     protected CodeAreaCore codeArea;
 
+    private final ExecutorService renderExecutor;
+    private final Map<Long, BufferedImage> tiles = new LinkedHashMap<Long, BufferedImage>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, BufferedImage> eldest) {
+            return size() > MAX_CACHED_TILES;
+        }
+    };
+    private final Set<Long> pendingTiles = new HashSet<>();
+    private long dataSize = 0;
+    private long topRow = 0;
+    private int tileRows = TILE_ROWS;
+    private volatile int generation = 0;
+    private volatile long firstRequiredTile = 0;
+    private volatile long lastRequiredTile = -1;
+
     public PixelMapComponent() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), (runnable) -> {
+            Thread thread = new Thread(runnable, "PixelMapWorker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        renderExecutor = executor;
+        setOpaque(true);
+        setPreferredSize(new Dimension(pixelPerRow * pixelSize, 0));
+
         addMouseListener(new MouseAdapter() {
             @Override
             public void mouseClicked(MouseEvent e) {
-                if (e.getButton() == MouseEvent.BUTTON1) {
-                    long dataSize = codeArea.getDataSize();
-                    long position = (e.getY() / pixelSize) * pixelPerRow;
-                    int rowOffset = e.getX() / pixelSize;
-                    if (rowOffset >= pixelPerRow) {
-                        rowOffset = pixelPerRow - 1;
-                    }
-                    position += rowOffset;
-                    if (position >= dataSize) {
-                        position = dataSize - 1;
-                    }
+                if (e.getButton() == MouseEvent.BUTTON1 && dataSize > 0) {
+                    long row = topRow + e.getY() / pixelSize;
+                    int rowOffset = Math.min(e.getX() / pixelSize, pixelPerRow - 1);
+                    long position = Math.min((row * pixelPerRow + rowOffset) * bytesPerPixel, dataSize - 1);
                     ((CaretCapable) codeArea).getCodeAreaCaret().setCaretPosition(position);
                     ((ScrollingCapable) codeArea).revealCursor();
                     codeArea.requestFocus();
@@ -64,30 +107,44 @@ public class PixelMapComponent extends JComponent {
 
     @Override
     protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
         Rectangle clipBounds = g.getClipBounds();
-        BinaryData contentData = codeArea.getContentData();
-        int rowIndex = (clipBounds.y - pixelSize + 1) / pixelSize;
-        int rowY = rowIndex * pixelSize;
-        int lastRowY = Integer.MAX_VALUE;
-        if (lastRowY - clipBounds.height > rowY) {
-            lastRowY = clipBounds.y + clipBounds.height;
-        }
-        long position = rowIndex * pixelPerRow;
-        long dataSize = codeArea.getDataSize();
-        while (rowY <= lastRowY) {
-            for (int x = 0; x < pixelPerRow; x++) {
-                int color = 0;
-                if (position < dataSize) {
-                    int byteValue = contentData.getByte(position) & 0xff;
-                    color = ((byteValue & 0xe0) << 16) + ((byteValue & 0x1c) << 11) + ((byteValue & 0x3) << 6);
-                }
-                g.setColor(new Color(color));
-                g.drawRect(x * pixelSize, rowY, pixelSize, pixelSize);
-                g.fillRect(x * pixelSize, rowY, pixelSize, pixelSize);
-                position++;
+        if (clipBounds == null) {
+            clipBounds = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        g.setColor(getBackground());
+        g.fillRect(clipBounds.x, clipBounds.y, clipBounds.width, clipBounds.height);
+        long rowsCount = getRowsCount();
+        if (rowsCount == 0) {
+            return;
+        }
+
+        long firstRow = topRow + Math.max(0, clipBounds.y) / pixelSize;
+        long lastRow = Math.min(rowsCount - 1, topRow + (clipBounds.y + clipBounds.height - 1) / pixelSize);
+        if (lastRow < firstRow) {
+            return;
+        }
+
+        long firstTile = firstRow / tileRows;
+        long lastTile = lastRow / tileRows;
+        long tilesCount = (rowsCount + tileRows - 1) / tileRows;
+        // Neighbouring tiles are prepared in advance for scrolling
+        firstRequiredTile = Math.max(0, firstTile - 1);
+        lastRequiredTile = Math.min(tilesCount - 1, lastTile + 1);
+        int tileWidth = pixelPerRow * pixelSize;
+        for (long tileIndex = firstTile; tileIndex <= lastTile; tileIndex++) {
+            BufferedImage tile = tiles.get(tileIndex);
+            if (tile != null) {
+                int tileY = (int) ((tileIndex * tileRows - topRow) * pixelSize);
+                g.drawImage(tile, 0, tileY, tileWidth, tile.getHeight() * pixelSize, null);
+            } else {
+                requestTile(tileIndex);
             }
-            rowY += pixelSize;
+        }
+        if (firstRequiredTile < firstTile) {
+            requestTile(firstRequiredTile);
+        }
+        if (lastRequiredTile > lastTile) {
+            requestTile(lastRequiredTile);
         }
     }
 
@@ -97,12 +154,266 @@ public class PixelMapComponent extends JComponent {
     }
 
     public void dataChanged() {
-        long dataSize = codeArea.getDataSize();
-        long height = (dataSize + pixelPerRow - 1) / pixelPerRow * pixelSize;
-        Dimension size = new Dimension(pixelPerRow * pixelSize, height > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) height);
-        setMinimumSize(size);
-        setPreferredSize(size);
-        revalidate();
+        dataSize = codeArea.getDataSize();
+        invalidateTiles();
+        setTopRow(topRow);
+        repaint();
+    }
+
+    /**
+     * Returns count of rows of pixels for whole data.
+     *
+     * @return rows count
+     */
+    public long getRowsCount() {
+        long pixelsCount = (dataSize + bytesPerPixel - 1) / bytesPerPixel;
+        return (pixelsCount + pixelPerRow - 1) / pixelPerRow;
+    }
+
+    /**
+     * Returns count of rows fully visible in component.
+     *
+     * @return visible rows count
+     */
+    public int getVisibleRowsCount() {
+        return Math.max(1, getHeight() / pixelSize);
+    }
+
+    public long getTopRow() {
+        return topRow;
+    }
+
+    /**
+     * Sets first shown row of pixels.
+     *
+     * @param topRow row index, limited to keep the last row visible
+     */
+    public void setTopRow(long topRow) {
+        long maximumTopRow = Math.max(0, getRowsCount() - getVisibleRowsCount());
+        long newTopRow = Math.max(0, Math.min(topRow, maximumTopRow));
+        if (newTopRow != this.topRow) {
+            this.topRow = newTopRow;
+            repaint();
+        }
+    }
+
+    public int getBytesPerPixel() {
+        return bytesPerPixel;
+    }
+
+    /**
+     * Sets count of bytes summarized by single pixel.
+     * <p>
+     * Shown row containing current top position is kept.
+     *
+     * @param bytesPerPixel count of bytes
+     */
+    public void setBytesPerPixel(int bytesPerPixel) {
+        if (bytesPerPixel <= 0) {
+            throw new IllegalArgumentException("Bytes per pixel must be positive");
+        }
+
+        long topPosition = topRow * pixelPerRow * this.bytesPerPixel;
+        this.bytesPerPixel = bytesPerPixel;
+        tileRows = (int) Math.max(1, Math.min(TILE_ROWS, MAX_TILE_DATA_LENGTH / ((long) pixelPerRow * bytesPerPixel)));
+        invalidateTiles();
+        setTopRow(topPosition / ((long) pixelPerRow * bytesPerPixel));
         repaint();
     }
+
+    public SummaryMode getSummaryMode() {
+        return summaryMode;
+    }
+
+    public void setSummaryMode(SummaryMode summaryMode) {
+        this.summaryMode = summaryMode;
+        if (bytesPerPixel > 1) {
+            invalidateTiles();
+            repaint();
+        }
+    }
+
+    /**
+     * Stops rendering thread.
+     */
+    public void dispose() {
+        invalidateTiles();
+        renderExecutor.shutdownNow();
+    }
+
+    private void invalidateTiles() {
+        generation++;
+        tiles.clear();
+        pendingTiles.clear();
+    }
+
+    private void requestTile(long tileIndex) {
+        if (tiles.containsKey(tileIndex) || !pendingTiles.add(tileIndex)) {
+            return;
+        }
+
+        int tileGeneration = generation;
+        BinaryData data = codeArea.getContentData();
+        long size = dataSize;
+        int rowPixels = pixelPerRow;
+        int pixelBytes = bytesPerPixel;
+        int rows = tileRows;
+        SummaryMode mode = summaryMode;
+        renderExecutor.execute(() -> {
+            BufferedImage tile = null;
+            // Skip tiles scrolled out of view before rendering started
+            boolean skipped = tileGeneration != generation || tileIndex < firstRequiredTile || tileIndex > lastRequiredTile;
+            if (!skipped) {
+                try {
+                    tile = renderTile(data, size, tileIndex, rows, rowPixels, pixelBytes, mode);
+                } catch (RuntimeException ex) {
+                    // Data changed during rendering, tiles are invalidated by change notification
+                }
+            }
+            BufferedImage renderedTile = tile;
+            SwingUtilities.invokeLater(() -> {
+                if (tileGeneration != generation) {
+                    return;
+                }
+
+                pendingTiles.remove(tileIndex);
+                if (renderedTile != null) {
+                    tiles.put(tileIndex, renderedTile);
+                    repaint();
+                } else if (skipped) {
+                    // Tile might be scrolled back into view meanwhile
+                    repaint();
+                }
+            });
+        });
+    }
+
+    private static BufferedImage renderTile(BinaryData data, long dataSize, long tileIndex, int tileRows, int pixelPerRow, int bytesPerPixel, SummaryMode mode) {
+        long totalRows = ((dataSize + bytesPerPixel - 1) / bytesPerPixel + pixelPerRow - 1) / pixelPerRow;
+        int rowsCount = (int) Math.min(tileRows, totalRows - tileIndex * tileRows);
+        int[] pixels = new int[rowsCount * pixelPerRow];
+        long dataStart = tileIndex * tileRows * pixelPerRow * bytesPerPixel;
+        long dataEnd = Math.min(dataSize, dataStart + (long) pixels.length * bytesPerPixel);
+        PixelSummary summary = new PixelSummary(mode);
+        byte[] buffer = new byte[(int) Math.min(READ_BUFFER_SIZE, dataEnd - dataStart)];
+        int pixelIndex = 0;
+        int pixelBytes = 0;
+        long position = dataStart;
+        while (position < dataEnd) {
+            int length = (int) Math.min(buffer.length, dataEnd - position);
+            data.copyToArray(position, buffer, 0, length);
+            if (bytesPerPixel == 1) {
+                for (int i = 0; i < length; i++) {
+                    pixels[pixelIndex++] = BYTE_COLORS[buffer[i] & 0xff];
+                }
+            } else {
+                for (int i = 0; i < length; i++) {
+                    summary.add(buffer[i] & 0xff);
+                    pixelBytes++;
+                    if (pixelBytes == bytesPerPixel) {
+                        pixels[pixelIndex++] = summary.finish();
+                        pixelBytes = 0;
+                    }
+                }
+            }
+            position += length;
+        }
+        if (pixelBytes > 0) {
+            pixels[pixelIndex] = summary.finish();
+        }
+
+        BufferedImage tile = new BufferedImage(pixelPerRow, rowsCount, BufferedImage.TYPE_INT_RGB);
+        tile.getRaster().setDataElements(0, 0, pixelPerRow, rowsCount, pixels);
+        return tile;
+    }
+
+    private static int[] createByteColors() {
+        int[] colors = new int[256];
+        for (int byteValue = 0; byteValue < colors.length; byteValue++) {
+            colors[byteValue] = ((byteValue & 0xe0) << 16) + ((byteValue & 0x1c) << 11) + ((byteValue & 0x3) << 6);
+        }
+        return colors;
+    }
+
+    /**
+     * Summary of bytes represented by single pixel.
+     */
+    private static final class PixelSummary {
+
+        private final SummaryMode mode;
+        private final int[] counts = new int[256];
+        private long sum = 0;
+        private int max = 0;
+        private int count = 0;
+
+        public PixelSummary(SummaryMode mode) {
+            this.mode = mode;
+        }
+
+        public void add(int byteValue) {
+            switch (mode) {
+                case MEAN:
+                    sum += byteValue;
+                    break;
+                case MAX:
+                    max = Math.max(max, byteValue);
+                    break;
+                case ENTROPY:
+                    counts[byteValue]++;
+                    break;
+            }
+            count++;
+        }
+
+        /**
+         * Returns color of summarized bytes and resets summary.
+         *
+         * @return RGB color
+         */
+        public int finish() {
+            int color;
+            switch (mode) {
+                case MEAN:
+                    color = BYTE_COLORS[(int) (sum / count)];
+                    break;
+                case MAX:
+                    color = BYTE_COLORS[max];
+                    break;
+                case ENTROPY:
+                    color = getEntropyColor();
+                    break;
+                default:
+                    throw new IllegalStateException("Unexpected summary mode " + mode);
+            }
+            sum = 0;
+            max = 0;
+            count = 0;
+            return color;
+        }
+
+        private int getEntropyColor() {
+            double entropy = 0;
+            for (int byteValue = 0; byteValue < counts.length; byteValue++) {
+                int byteCount = counts[byteValue];
+                if (byteCount > 0) {
+                    double probability = (double) byteCount / count;
+                    entropy -= probability * Math.log(probability);
+                    counts[byteValue] = 0;
+                }
+            }
+            // Entropy is relative to maximum reachable for count of bytes
+            double maximumEntropy = Math.log(Math.min(count, counts.length));
+            int level = maximumEntropy > 0 ? (int) Math.round(entropy / maximumEntropy * 255) : 0;
+            return (level << 16) | ((level >> 1) << 8) | ((255 - level) >> 1);
+        }
+    }
+
+    /**
+     * Mode of summary of bytes represented by single pixel.
+     */
+    public enum SummaryMode {
+        MEAN,
+        ENTROPY,
+        MAX
+    }
 }
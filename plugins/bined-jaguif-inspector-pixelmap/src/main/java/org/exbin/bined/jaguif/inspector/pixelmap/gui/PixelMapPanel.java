@@ -16,9 +16,15 @@
 package org.exbin.bined.jaguif.inspector.pixelmap.gui;
 
 import java.awt.BorderLayout;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.MouseWheelEvent;
+import java.util.Locale;
 import org.jspecify.annotations.NullMarked;
-import javax.swing.JScrollPane;
+import javax.swing.JScrollBar;
 import org.exbin.bined.swing.CodeAreaCore;
+import org.exbin.jaguif.App;
+import org.exbin.jaguif.language.api.LanguageModuleApi;
 
 /**
  * Pixel map side panel.
@@ -26,8 +32,20 @@ import org.exbin.bined.swing.CodeAreaCore;
 @NullMarked
 public class PixelMapPanel extends javax.swing.JPanel {
 
-    protected JScrollPane scrollPane;
+    private static final int[] BYTES_PER_PIXEL_VALUES = {1, 4, 16, 64, 256, 1024, 4096, 16384, 65536};
+    /**
+     * Maximum value of scroll bar, larger maps are scrolled by multiple rows
+     * per scroll bar unit.
+     */
+    private static final int MAX_SCROLL_VALUE = 1 << 30;
+    private static final int WHEEL_SCROLL_ROWS = 3;
+
+    private final java.util.ResourceBundle resourceBundle = App.getModule(LanguageModuleApi.class).getBundle(PixelMapPanel.class);
+
+    protected JScrollBar scrollBar;
     protected PixelMapComponent component;
+    private long rowsPerScrollUnit = 1;
+    private boolean updatingScrollBar = false;
 
     public PixelMapPanel() {
         initComponents();
@@ -36,16 +54,65 @@ public class PixelMapPanel extends javax.swing.JPanel {
 
     private void init() {
         component = new PixelMapComponent();
-        scrollPane = new JScrollPane(component);
-        add(scrollPane, BorderLayout.CENTER);
+        scrollBar = new JScrollBar(JScrollBar.VERTICAL);
+        add(component, BorderLayout.CENTER);
+        add(scrollBar, BorderLayout.EAST);
+
+        for (int bytesPerPixel : BYTES_PER_PIXEL_VALUES) {
+            bytesPerPixelComboBox.addItem(String.valueOf(bytesPerPixel));
+        }
+        for (PixelMapComponent.SummaryMode summaryMode : PixelMapComponent.SummaryMode.values()) {
+            summaryModeComboBox.addItem(resourceBundle.getString("summaryMode." + summaryMode.name().toLowerCase(Locale.ROOT)));
+        }
+        summaryModeComboBox.setEnabled(false);
+
+        scrollBar.addAdjustmentListener((event) -> {
+            if (updatingScrollBar) {
+                return;
+            }
+
+            int value = scrollBar.getValue();
+            if (value >= scrollBar.getMaximum() - scrollBar.getVisibleAmount()) {
+                component.setTopRow(Long.MAX_VALUE);
+            } else {
+                component.setTopRow(value * rowsPerScrollUnit);
+            }
+        });
+        component.addMouseWheelListener((MouseWheelEvent event) -> {
+            component.setTopRow(component.getTopRow() + (long) event.getWheelRotation() * WHEEL_SCROLL_ROWS);
+            updateScrollBar();
+        });
+        component.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                component.setTopRow(component.getTopRow());
+                updateScrollBar();
+            }
+        });
     }
 
     public void setCodeArea(CodeAreaCore codeArea) {
         component.setCodeArea(codeArea);
+        updateScrollBar();
     }
 
     public void dataChanged() {
         component.dataChanged();
+        updateScrollBar();
+    }
+
+    private void updateScrollBar() {
+        long rowsCount = component.getRowsCount();
+        int visibleRows = component.getVisibleRowsCount();
+        long maximumTopRow = Math.max(0, rowsCount - visibleRows);
+        rowsPerScrollUnit = maximumTopRow / MAX_SCROLL_VALUE + 1;
+        int extent = (int) Math.max(1, visibleRows / rowsPerScrollUnit);
+        int maximum = (int) (maximumTopRow / rowsPerScrollUnit) + extent;
+        int value = (int) Math.min(component.getTopRow() / rowsPerScrollUnit, maximum - extent);
+        updatingScrollBar = true;
+        scrollBar.setValues(value, extent, 0, maximum);
+        scrollBar.setBlockIncrement(extent);
+        updatingScrollBar = false;
     }
 
     /**
@@ -57,9 +124,63 @@ public class PixelMapPanel extends javax.swing.JPanel {
     // <editor-fold defaultstate="collapsed" desc="Generated Code">//GEN-BEGIN:initComponents
     private void initComponents() {
 
+        controlsPanel = new javax.swing.JPanel();
+        bytesPerPixelLabel = new javax.swing.JLabel();
+        bytesPerPixelComboBox = new javax.swing.JComboBox<>();
+        summaryModeLabel = new javax.swing.JLabel();
+        summaryModeComboBox = new javax.swing.JComboBox<>();
+
         setLayout(new java.awt.BorderLayout());
+
+        controlsPanel.setLayout(new java.awt.GridLayout(2, 2, 4, 2));
+
+        bytesPerPixelLabel.setText(resourceBundle.getString("bytesPerPixelLabel.text")); // NOI18N
+        controlsPanel.add(bytesPerPixelLabel);
+
+        bytesPerPixelComboBox.addItemListener(new java.awt.event.ItemListener() {
+            public void itemStateChanged(java.awt.event.ItemEvent evt) {
+                bytesPerPixelComboBoxItemStateChanged(evt);
+            }
+        });
+        controlsPanel.add(bytesPerPixelComboBox);
+
+        summaryModeLabel.setText(resourceBundle.getString("summaryModeLabel.text")); // NOI18N
+        controlsPanel.add(summaryModeLabel);
+
+        summaryModeComboBox.addItemListener(new java.awt.event.ItemListener() {
+            public void itemStateChanged(java.awt.event.ItemEvent evt) {
+                summaryModeComboBoxItemStateChanged(evt);
+            }
+        });
+        controlsPanel.add(summaryModeComboBox);
+
+        add(controlsPanel, java.awt.BorderLayout.NORTH);
     }// </editor-fold>//GEN-END:initComponents
 
+    private void bytesPerPixelComboBoxItemStateChanged(java.awt.event.ItemEvent evt) {//GEN-FIRST:event_bytesPerPixelComboBoxItemStateChanged
+        if (evt.getStateChange() != java.awt.event.ItemEvent.SELECTED) {
+            return;
+        }
+
+        int bytesPerPixel = BYTES_PER_PIXEL_VALUES[bytesPerPixelComboBox.getSelectedIndex()];
+        component.setBytesPerPixel(bytesPerPixel);
+        summaryModeComboBox.setEnabled(bytesPerPixel > 1);
+        updateScrollBar();
+    }//GEN-LAST:event_bytesPerPixelComboBoxItemStateChanged
+
+    private void summaryModeComboBoxItemStateChanged(java.awt.event.ItemEvent evt) {//GEN-FIRST:event_summaryModeComboBoxItemStateChanged
+        if (evt.getStateChange() != java.awt.event.ItemEvent.SELECTED) {
+            return;
+        }
+
+        component.setSummaryMode(PixelMapComponent.SummaryMode.values()[summaryModeComboBox.getSelectedIndex()]);
+    }//GEN-LAST:event_summaryModeComboBoxItemStateChanged
+
     // Variables declaration - do not modify//GEN-BEGIN:variables
+    private javax.swing.JComboBox<String> bytesPerPixelComboBox;
+    private javax.swing.JLabel bytesPerPixelLabel;
+    private javax.swing.JPanel controlsPanel;
+    private javax.swing.JComboBox<String> summaryModeComboBox;
+    private javax.swing.JLabel summaryModeLabel;
     // End of variables declaration//GEN-END:variables
 }
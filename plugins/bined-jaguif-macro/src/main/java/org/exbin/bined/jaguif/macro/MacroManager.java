@@ -34,6 +34,7 @@ import javax.swing.ListSelectionModel;
 import javax.swing.SwingUtilities;
 import javax.swing.event.MenuEvent;
 import javax.swing.event.MenuListener;
+import org.exbin.bined.operation.command.BinaryDataUndoRedo;
 import org.exbin.bined.swing.CodeAreaCommandHandler;
 import org.exbin.bined.swing.CodeAreaCore;
 import org.exbin.jaguif.App;
@@ -45,6 +46,7 @@ import org.exbin.jaguif.context.api.ContextComponent;
 import org.exbin.jaguif.context.api.ContextUpdateManagement;
 import org.exbin.jaguif.action.api.DialogParentComponent;
 import org.exbin.jaguif.menu.api.MenuDefinitionManagement;
+import org.exbin.bined.jaguif.component.BinaryCompoundUndoRedo;
 import org.exbin.bined.jaguif.component.BinaryDataComponent;
 import org.exbin.bined.jaguif.document.BinaryFileDocument;
 import org.exbin.bined.jaguif.component.BinedComponentModule;
@@ -351,9 +353,27 @@ public class MacroManager {
         lastActiveMacro = macroIndex;
         MacroRecord record = macroRecords.get(macroIndex);
         CodeAreaMacroCommandHandler commandHandler = (CodeAreaMacroCommandHandler) codeArea.getCommandHandler();
+        BinaryCompoundUndoRedo compoundUndoRedo = null;
+        if (binaryDataComponent != null && binaryDataComponent.getCodeArea() == codeArea) {
+            BinaryDataUndoRedo undoRedo = binaryDataComponent.getUndoRedo().orElse(null);
+            if (undoRedo instanceof BinaryCompoundUndoRedo) {
+                // Replayed macro is undone as single step
+                compoundUndoRedo = (BinaryCompoundUndoRedo) undoRedo;
+                compoundUndoRedo.beginCompoundCommand();
+            }
+        }
+
+        try {
+            executeMacroSteps(commandHandler, record.getSteps());
+        } finally {
+            if (compoundUndoRedo != null) {
+                compoundUndoRedo.endCompoundCommand();
+            }
+        }
+    }
 
+    private void executeMacroSteps(CodeAreaMacroCommandHandler commandHandler, List<String> steps) {
         int line = 0;
-        List<String> steps = record.getSteps();
         for (String step : steps) {
             line++;
             try {
@@ -34,10 +34,10 @@ import org.exbin.bined.capability.CaretCapable;
 import org.exbin.bined.swing.CodeAreaCommandHandler;
 import org.exbin.bined.swing.CodeAreaCore;
 import org.exbin.bined.operation.swing.CodeAreaOperationCommandHandler;
-import org.exbin.bined.operation.swing.CodeAreaUndoRedo;
 import org.exbin.bined.operation.command.BinaryDataUndoRedo;
 import org.exbin.bined.swing.CodeAreaSwingUtils;
 import org.exbin.bined.swing.basic.DefaultCodeAreaCommandHandler;
+import org.exbin.bined.jaguif.component.BinaryCompoundUndoRedo;
 import org.exbin.bined.jaguif.component.action.CopyAsCodeAction;
 import org.exbin.bined.jaguif.component.action.PasteFromCodeAction;
 import org.exbin.bined.jaguif.macro.MacroRecord;
@@ -57,7 +57,7 @@ public class CodeAreaMacroCommandHandler extends CodeAreaOperationCommandHandler
     }
 
     public static CodeAreaCommandHandler.CodeAreaCommandHandlerFactory createDefaultCodeAreaCommandHandlerFactory() {
-        return (CodeAreaCore codeAreaCore) -> new CodeAreaMacroCommandHandler(codeAreaCore, new CodeAreaUndoRedo(codeAreaCore));
+        return (CodeAreaCore codeAreaCore) -> new CodeAreaMacroCommandHandler(codeAreaCore, new BinaryCompoundUndoRedo(codeAreaCore));
     }
 
     public Optional<MacroRecord> getRecordingMacro() {